@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource.impl;
+
+import ddf.catalog.resource.ByteRangeResource;
+import ddf.catalog.resource.Resource;
+import java.io.InputStream;
+import javax.activation.MimeType;
+
+/** This class is a generic implementation of the {@link ByteRangeResource} interface */
+public class ByteRangeResourceImpl extends ResourceImpl implements ByteRangeResource {
+
+  private final long rangeStart;
+
+  private final long totalSize;
+
+  /**
+   * Instantiates a new {@link ByteRangeResource}.
+   *
+   * @param inputStream the {@link InputStream} over the bytes of the range
+   * @param mimeType the {@link MimeType} of the product
+   * @param name the name of the product
+   * @param rangeStart the position in the product of the first byte of the range
+   * @param size the number of bytes in the range, or -1 if unknown
+   * @param totalSize the size in bytes of the whole product, or {@link #UNKNOWN_SIZE} if unknown
+   */
+  public ByteRangeResourceImpl(
+      InputStream inputStream,
+      MimeType mimeType,
+      String name,
+      long rangeStart,
+      long size,
+      long totalSize) {
+    super(inputStream, mimeType, name);
+    if (rangeStart < 0) {
+      throw new IllegalArgumentException("Range start must not be negative");
+    }
+    this.rangeStart = rangeStart;
+    this.totalSize = totalSize < 0 ? UNKNOWN_SIZE : totalSize;
+    setSize(size);
+  }
+
+  /**
+   * Instantiates a new {@link ByteRangeResource}.
+   *
+   * @param inputStream the {@link InputStream} over the bytes of the range
+   * @param mimeTypeString the Mime Type value of the product
+   * @param name the name of the product
+   * @param rangeStart the position in the product of the first byte of the range
+   * @param size the number of bytes in the range, or -1 if unknown
+   * @param totalSize the size in bytes of the whole product, or {@link #UNKNOWN_SIZE} if unknown
+   */
+  public ByteRangeResourceImpl(
+      InputStream inputStream,
+      String mimeTypeString,
+      String name,
+      long rangeStart,
+      long size,
+      long totalSize) {
+    super(inputStream, mimeTypeString, name);
+    if (rangeStart < 0) {
+      throw new IllegalArgumentException("Range start must not be negative");
+    }
+    this.rangeStart = rangeStart;
+    this.totalSize = totalSize < 0 ? UNKNOWN_SIZE : totalSize;
+    setSize(size);
+  }
+
+  /**
+   * Creates a {@link Resource} reading its bytes from a new {@link InputStream}. If the original
+   * resource is a {@link ByteRangeResource}, the new resource keeps its byte range and size.
+   *
+   * @param original the resource being wrapped
+   * @param inputStream the {@link InputStream} the new resource reads its bytes from
+   * @param mimeType the {@link MimeType} of the new resource
+   * @return the new {@link Resource}
+   */
+  public static ResourceImpl wrap(Resource original, InputStream inputStream, MimeType mimeType) {
+    if (original instanceof ByteRangeResource) {
+      ByteRangeResource range = (ByteRangeResource) original;
+      return new ByteRangeResourceImpl(
+          inputStream,
+          mimeType,
+          range.getName(),
+          range.getRangeStart(),
+          range.getSize(),
+          range.getTotalSize());
+    }
+    return new ResourceImpl(inputStream, mimeType, original.getName());
+  }
+
+  @Override
+  public long getRangeStart() {
+    return rangeStart;
+  }
+
+  @Override
+  public long getTotalSize() {
+    return totalSize;
+  }
+}
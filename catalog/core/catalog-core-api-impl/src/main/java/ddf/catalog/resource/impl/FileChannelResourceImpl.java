@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource.impl;
+
+import com.google.common.io.ByteStreams;
+import ddf.catalog.resource.ByteRangeResource;
+import ddf.catalog.resource.FileChannelResource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link FileChannelResource} backed by a range of a file. A new {@link InputStream} over the
+ * range is opened each time one is requested. The file holds the whole product, so the resource is
+ * also the {@link ByteRangeResource} of the product starting at its offset.
+ */
+public class FileChannelResourceImpl implements FileChannelResource, ByteRangeResource {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileChannelResourceImpl.class);
+
+  private final Path path;
+
+  private final long offset;
+
+  private final long size;
+
+  private final MimeType mimeType;
+
+  private final String name;
+
+  /**
+   * Instantiates a new {@link FileChannelResource} over a range of a file.
+   *
+   * @param path the file holding the bytes of the resource
+   * @param offset the position in the file of the first byte of the resource
+   * @param size the number of bytes in the resource
+   * @param mimeType the {@link MimeType} of the resource
+   * @param name the name of the resource
+   */
+  public FileChannelResourceImpl(
+      Path path, long offset, long size, MimeType mimeType, String name) {
+    if (offset < 0 || size < 0) {
+      throw new IllegalArgumentException("Offset and size must not be negative");
+    }
+    this.path = path;
+    this.offset = offset;
+    this.size = size;
+    this.mimeType = mimeType;
+    this.name = name;
+  }
+
+  /**
+   * Instantiates a new {@link FileChannelResource} over a range of a file.
+   *
+   * @param path the file holding the bytes of the resource
+   * @param offset the position in the file of the first byte of the resource
+   * @param size the number of bytes in the resource
+   * @param mimeTypeString the mime type of the resource, left unset if it cannot be parsed
+   * @param name the name of the resource
+   */
+  public FileChannelResourceImpl(
+      Path path, long offset, long size, String mimeTypeString, String name) {
+    this(path, offset, size, toMimeType(mimeTypeString, name), name);
+  }
+
+  @Override
+  public Path getPath() {
+    return path;
+  }
+
+  @Override
+  public long getOffset() {
+    return offset;
+  }
+
+  @Override
+  public long getRangeStart() {
+    return offset;
+  }
+
+  @Override
+  public long getTotalSize() {
+    try {
+      return Files.size(path);
+    } catch (IOException e) {
+      LOGGER.debug("Could not read the size of file [{}]", path, e);
+      return UNKNOWN_SIZE;
+    }
+  }
+
+  /**
+   * {@inheritDoc} Creates a new InputStream upon request.
+   *
+   * @return InputStream over the bytes of the resource, {@code null} if the file could not be read
+   */
+  @Override
+  public InputStream getInputStream() {
+    try {
+      return openStream();
+    } catch (IOException e) {
+      LOGGER.info("Could not read file [{}]", path, e);
+      return null;
+    }
+  }
+
+  @Override
+  public byte[] getByteArray() throws IOException {
+    try (InputStream inputStream = openStream()) {
+      return IOUtils.toByteArray(inputStream);
+    }
+  }
+
+  @Override
+  public MimeType getMimeType() {
+    return mimeType;
+  }
+
+  @Override
+  public String getMimeTypeValue() {
+    return mimeType != null ? mimeType.getBaseType() : null;
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder.reflectionToString(this);
+  }
+
+  private static MimeType toMimeType(String mimeTypeString, String name) {
+    try {
+      return mimeTypeString == null ? null : new MimeType(mimeTypeString);
+    } catch (MimeTypeParseException e) {
+      LOGGER.debug(
+          "Could not parse the MimeType [{}] of the resource named [{}]", mimeTypeString, name);
+      return null;
+    }
+  }
+
+  private InputStream openStream() throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      channel.position(offset);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return ByteStreams.limit(Channels.newInputStream(channel), size);
+  }
+}
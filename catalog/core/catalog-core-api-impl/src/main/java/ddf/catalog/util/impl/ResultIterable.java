@@ -14,6 +14,9 @@
 package ddf.catalog.util.impl;
 
 import static com.google.common.collect.Iterators.limit;
+import static ddf.catalog.Constants.QUERY_CURSOR_KEY;
+import static ddf.catalog.Constants.QUERY_CURSOR_START;
+import static ddf.catalog.Constants.QUERY_NEXT_CURSOR_KEY;
 import static org.apache.commons.lang.Validate.isTrue;
 import static org.apache.commons.lang.Validate.notNull;
 
@@ -28,11 +31,14 @@
 import ddf.catalog.operation.impl.QueryRequestImpl;
 import ddf.catalog.source.SourceUnavailableException;
 import ddf.catalog.source.UnsupportedQueryException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
@@ -50,6 +56,13 @@
  *
  * <p>Since the class may use the page size provided in the {@link Query} to fetch the results, its
  * value should be carefully set to avoid any memory or performance issues.
+ *
+ * <p>When the query starts at the first result, the class will request a cursor from the source
+ * using the {@link ddf.catalog.Constants#QUERY_CURSOR_KEY} request property. If the response
+ * contains a {@link ddf.catalog.Constants#QUERY_NEXT_CURSOR_KEY} property, the following pages will
+ * be retrieved using that cursor instead of the start index, which keeps the cost of each page
+ * constant when iterating over large result sets. Otherwise, the class falls back to paging using
+ * the start index.
  */
 public class ResultIterable implements Iterable<Result> {
   public static final int DEFAULT_PAGE_SIZE = 64;
@@ -161,6 +174,7 @@ private static class ResultIterator implements Iterator<Result> {
     private QueryRequestImpl queryRequestCopy;
     private Iterator<Result> results = Collections.emptyIterator();
     private boolean finished = false;
+    private String cursor;
 
     ResultIterator(QueryFunction queryFunction, QueryRequest queryRequest) {
       this.queryFunction = queryFunction;
@@ -207,7 +221,14 @@ public Result next() {
 
     @SuppressWarnings("squid:CommentedOutCodeLine")
     private void fetchNextResults() {
-      queryCopy.setStartIndex(currentIndex);
+      if (cursor != null) {
+        // The cursor keeps track of the position in the result set, so every page starts at 1.
+        queryCopy.setStartIndex(1);
+        queryRequestCopy.getProperties().put(QUERY_CURSOR_KEY, cursor);
+      } else {
+        queryCopy.setStartIndex(currentIndex);
+        queryRequestCopy.getProperties().remove(QUERY_CURSOR_KEY);
+      }
 
       try {
         SourceResponse response = queryFunction.query(queryRequestCopy);
@@ -254,11 +275,36 @@ private void fetchNextResults() {
         if (response.getHits() >= 0 && currentIndex > response.getHits()) {
           finished = true;
         }
+
+        updateCursor(response);
       } catch (UnsupportedQueryException | SourceUnavailableException | FederationException e) {
         throw new CatalogQueryException(e);
       }
     }
 
+    /**
+     * Keeps using the cursor only if the source returned the cursor to use for the next page. A
+     * source that returns the same cursor that was sent has no more results to return.
+     */
+    private void updateCursor(SourceResponse response) {
+      String nextCursor =
+          Optional.ofNullable(response.getProperties())
+              .map(m -> m.get(QUERY_NEXT_CURSOR_KEY))
+              .filter(String.class::isInstance)
+              .map(String.class::cast)
+              .orElse(null);
+
+      if (nextCursor == null) {
+        cursor = null;
+        return;
+      }
+
+      if (nextCursor.equals(cursor)) {
+        finished = true;
+      }
+      cursor = nextCursor;
+    }
+
     private boolean isDistinctResult(@Nullable Result result) {
       return result != null
           && (result.getMetacard() == null
@@ -281,12 +327,20 @@ private void copyQueryRequestAndQuery(QueryRequest queryRequest) {
               // always get the hit count
               query.getTimeoutMillis());
 
+      Map<String, Serializable> properties = new HashMap<>();
+      if (queryRequest.getProperties() != null) {
+        properties.putAll(queryRequest.getProperties());
+      }
+
       this.queryRequestCopy =
           new QueryRequestImpl(
-              queryCopy,
-              queryRequest.isEnterprise(),
-              queryRequest.getSourceIds(),
-              queryRequest.getProperties());
+              queryCopy, queryRequest.isEnterprise(), queryRequest.getSourceIds(), properties);
+
+      // Cursors cannot be combined with a start index, so only ask for one when starting from the
+      // first result.
+      if (queryCopy.getStartIndex() == 1) {
+        this.cursor = QUERY_CURSOR_START;
+      }
     }
   }
 }
@@ -30,6 +30,9 @@ import org.junit.runner.RunWith
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import static ddf.catalog.Constants.QUERY_CURSOR_KEY
+import static ddf.catalog.Constants.QUERY_CURSOR_START
+import static ddf.catalog.Constants.QUERY_NEXT_CURSOR_KEY
 import static ddf.catalog.util.impl.ResultIterable.resultIterable
 import static java.util.stream.Collectors.toList
 
@@ -403,6 +406,93 @@ class ResultIterableSpec extends Specification {
         queryResults.size() == dedupedCount
     }
 
+    def "Pages using the cursor returned by the source"() {
+        setup:
+        def actualResults = (1..25).collect { new ResultImpl() }
+        def requestedCursors = []
+        def requestedStartIndexes = []
+
+        3 * catalogFramework.query(_ as QueryRequest) >>
+                { QueryRequest queryRequest ->
+                    requestedCursors << queryRequest.getPropertyValue(QUERY_CURSOR_KEY)
+                    requestedStartIndexes << queryRequest.getQuery().getStartIndex()
+                    buildCursorQueryResponse(actualResults, 0..19, "cursor1")
+                } >>
+                { QueryRequest queryRequest ->
+                    requestedCursors << queryRequest.getPropertyValue(QUERY_CURSOR_KEY)
+                    requestedStartIndexes << queryRequest.getQuery().getStartIndex()
+                    buildCursorQueryResponse(actualResults, 20..24, "cursor2")
+                } >>
+                { QueryRequest queryRequest ->
+                    requestedCursors << queryRequest.getPropertyValue(QUERY_CURSOR_KEY)
+                    requestedStartIndexes << queryRequest.getQuery().getStartIndex()
+                    new QueryResponseImpl(queryRequest, [], true, -1L,
+                            ["actualResultSize": 0, (QUERY_NEXT_CURSOR_KEY): "cursor2"])
+                }
+
+        Query queryMock = createQueryMock(1, 20)
+        QueryRequest queryRequestMock = createQueryRequestMock(queryMock)
+
+        when:
+        def results = resultIterable(catalogFramework, queryRequestMock).stream().collect(toList())
+
+        then:
+        results == actualResults
+        requestedCursors == [QUERY_CURSOR_START, "cursor1", "cursor2"]
+        requestedStartIndexes == [1, 1, 1]
+    }
+
+    def "Falls back to the start index when the source does not return a cursor"() {
+        setup:
+        def actualResults = (1..25).collect { new ResultImpl() }
+        def requestedCursors = []
+        def requestedStartIndexes = []
+
+        2 * catalogFramework.query(_ as QueryRequest) >>
+                { QueryRequest queryRequest ->
+                    requestedCursors << queryRequest.getPropertyValue(QUERY_CURSOR_KEY)
+                    requestedStartIndexes << queryRequest.getQuery().getStartIndex()
+                    buildQueryResponse(actualResults, 0..19)
+                } >>
+                { QueryRequest queryRequest ->
+                    requestedCursors << queryRequest.getPropertyValue(QUERY_CURSOR_KEY)
+                    requestedStartIndexes << queryRequest.getQuery().getStartIndex()
+                    buildQueryResponse(actualResults, 20..24)
+                }
+
+        Query queryMock = createQueryMock(1, 20)
+        QueryRequest queryRequestMock = createQueryRequestMock(queryMock)
+
+        when:
+        def results = resultIterable(catalogFramework, queryRequestMock).stream().collect(toList())
+
+        then:
+        results == actualResults
+        requestedCursors == [QUERY_CURSOR_START, null]
+        requestedStartIndexes == [1, 21]
+    }
+
+    def "Does not request a cursor when start index is not 1"() {
+        setup:
+        def actualResults = (1..10).collect { new ResultImpl() }
+        QueryRequest capturedRequest = null
+
+        1 * catalogFramework.query(_ as QueryRequest) >>
+                { QueryRequest queryRequest ->
+                    capturedRequest = queryRequest
+                    buildQueryResponse(actualResults, 4..9)
+                }
+
+        Query queryMock = createQueryMock(5, 20)
+        QueryRequest queryRequestMock = createQueryRequestMock(queryMock)
+
+        when:
+        resultIterable(catalogFramework, queryRequestMock).stream().collect(toList())
+
+        then:
+        !capturedRequest.containsPropertyName(QUERY_CURSOR_KEY)
+    }
+
     def "next() when number of results from catalog varies"() {
         setup:
         def actualResults = (1..6).collect { new ResultImpl() }
@@ -606,6 +696,16 @@ class ResultIterableSpec extends Specification {
         return response
     }
 
+    private QueryResponse buildCursorQueryResponse(List<Result> resultList,
+                                                   Range resultRange,
+                                                   String nextCursor) {
+        return new QueryResponseImpl(new QueryRequestImpl(null),
+                resultList[resultRange],
+                true,
+                -1L,
+                ["actualResultSize": resultRange.size(), (QUERY_NEXT_CURSOR_KEY): nextCursor])
+    }
+
     private QueryResponse buildQueryResponse(List<Result> resultList, int resultIndex) {
         return buildQueryResponse(resultList, resultIndex..resultIndex)
     }
@@ -159,5 +159,30 @@ public final class Constants {
 
   public static final String ADDITIONAL_SORT_BYS = "additional-sort-bys";
 
+  /**
+   * Request property holding an opaque cursor used to page through the results of a query. Sources
+   * that support cursors will ignore the query's start index when this property is present and
+   * return the cursor for the following page in the {@link #QUERY_NEXT_CURSOR_KEY} response
+   * property. Use {@link #QUERY_CURSOR_START} to request the first page.
+   */
+  public static final String QUERY_CURSOR_KEY = "query-cursor";
+
+  /**
+   * Response property holding the cursor to send in {@link #QUERY_CURSOR_KEY} to retrieve the next
+   * page of results. When the returned cursor is equal to the one sent, all the results have been
+   * retrieved.
+   */
+  public static final String QUERY_NEXT_CURSOR_KEY = "query-next-cursor";
+
+  /** Value of {@link #QUERY_CURSOR_KEY} used to request the first page of results. */
+  public static final String QUERY_CURSOR_START = "*";
+
+  /**
+   * Request property holding the names of the attributes needed from each result of a query, as a
+   * {@link java.util.Collection} of {@link String}s. Sources that support it may return only these
+   * attributes with the results and load any other attribute when it is first read.
+   */
+  public static final String REQUESTED_ATTRIBUTES_KEY = "requested-attributes";
+
   private Constants() {}
 }
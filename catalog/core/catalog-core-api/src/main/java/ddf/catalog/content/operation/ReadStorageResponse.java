@@ -25,6 +25,19 @@
  */
 public interface ReadStorageResponse extends StorageResponse<ReadStorageRequest> {
 
+  /**
+   * Response property set to {@code true} when the returned {@link ContentItem} only holds the byte
+   * range requested with the {@link ddf.catalog.operation.ResourceRequest#BYTES_TO_SKIP} and {@link
+   * ddf.catalog.operation.ResourceRequest#BYTES_TO_READ} request properties.
+   */
+  String BYTE_RANGE_APPLIED = "ByteRangeApplied";
+
+  /**
+   * Response property holding the size in bytes, as a {@link Long}, of the whole content when only
+   * a byte range of it was returned (see {@link #BYTE_RANGE_APPLIED}).
+   */
+  String TOTAL_SIZE = "TotalSize";
+
   /**
    * Returns a {@link ContentItem} representing a file associated with a Metacard, or <code>null
    * </code> if absent.
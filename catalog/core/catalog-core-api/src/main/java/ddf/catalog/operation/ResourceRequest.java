@@ -28,6 +28,15 @@ public interface ResourceRequest extends Request {
 
   public static final String IS_ENTERPRISE = "IS_ENTERPRISE";
 
+  /** Property holding the number of bytes to skip from the start of the resource. */
+  public static final String BYTES_TO_SKIP = "BytesToSkip";
+
+  /**
+   * Property holding the maximum number of bytes to return, starting at {@link #BYTES_TO_SKIP}.
+   * When absent the resource is read to its end.
+   */
+  public static final String BYTES_TO_READ = "BytesToRead";
+
   public String getAttributeName();
 
   public Serializable getAttributeValue();
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource;
+
+/**
+ * A {@link Resource} holding a byte range of a product, as requested with the {@link
+ * ddf.catalog.operation.ResourceRequest#BYTES_TO_SKIP} and {@link
+ * ddf.catalog.operation.ResourceRequest#BYTES_TO_READ} request properties.
+ *
+ * <p>Endpoints use the position of the range and the size of the whole product to describe the
+ * partial content they return, for example in an HTTP {@code Content-Range} header. The bytes of
+ * the resource are the {@link #getSize()} bytes of the product starting at {@link
+ * #getRangeStart()}.
+ */
+public interface ByteRangeResource extends Resource {
+
+  /** Value returned by {@link #getTotalSize()} when the size of the whole product is unknown. */
+  long UNKNOWN_SIZE = -1;
+
+  /** @return the position in the whole product of the first byte of this resource */
+  long getRangeStart();
+
+  /** @return the size in bytes of the whole product, or {@link #UNKNOWN_SIZE} if it is not known */
+  long getTotalSize();
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource;
+
+import java.nio.file.Path;
+
+/**
+ * A {@link Resource} whose bytes are stored, as is, in a file on the local file system, such as a
+ * product in the product cache.
+ *
+ * <p>Endpoints can use the file directly, for example with {@link
+ * java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+ * rather than copying the product through {@link #getInputStream()}. The bytes of the resource are
+ * the {@link #getSize()} bytes of the file starting at {@link #getOffset()}.
+ */
+public interface FileChannelResource extends Resource {
+
+  /** @return the path of the file holding the bytes of this resource */
+  Path getPath();
+
+  /** @return the position in the file of the first byte of this resource */
+  long getOffset();
+}
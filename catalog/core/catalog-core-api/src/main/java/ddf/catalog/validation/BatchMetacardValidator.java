@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.validation;
+
+import ddf.catalog.data.Metacard;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@link MetacardValidator} that can validate the metacards of a batch together, for example to
+ * check the whole batch against the catalog with a single query.
+ *
+ * <p><b> This code is experimental. While this interface is functional and tested, it may change or
+ * be removed in a future version of the library. </b>
+ */
+public interface BatchMetacardValidator extends MetacardValidator {
+
+  /**
+   * Validates the {@link Metacard}s of a batch. The result for each {@link Metacard} must be the
+   * same as {@link #validate(Metacard)} would report for it, except that problems between the
+   * {@link Metacard}s of the batch may also be reported.
+   *
+   * @param metacards the {@link Metacard}s to validate, cannot be null
+   * @return a list with an entry for each {@link Metacard}, in the same order, containing the
+   *     {@link ValidationException} the {@link Metacard} failed with, or an empty {@link Optional}
+   *     if it passed
+   * @throws IllegalArgumentException if {@code metacards} is null
+   */
+  List<Optional<ValidationException>> validate(List<Metacard> metacards);
+}
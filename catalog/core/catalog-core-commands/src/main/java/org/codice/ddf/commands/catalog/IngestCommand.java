@@ -49,7 +49,9 @@
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -147,6 +149,8 @@ public class IngestCommand extends CatalogCommands {
 
   private final AtomicInteger ignoreCount = new AtomicInteger();
 
+  private final AtomicInteger resumeCount = new AtomicInteger();
+
   private final AtomicInteger fileCount = new AtomicInteger(Integer.MAX_VALUE);
 
   private DigitalSignature verifier;
@@ -239,6 +243,33 @@ public class IngestCommand extends CatalogCommands {
           "Provided absolute path for the digital signature to verify the integrity of the exported data. Required when the `--include-content` option is specified.")
   String signatureFile;
 
+  @Option(
+      name = "--transformThreads",
+      required = false,
+      aliases = {},
+      multiValued = false,
+      description =
+          "Number of threads to use when transforming file(s) into metacard(s). Transformation is tuned separately from submission to the Catalog, which uses --multithreaded threads.")
+  int transformThreads = 4;
+
+  @Option(
+      name = "--journal",
+      required = false,
+      aliases = {},
+      multiValued = false,
+      description =
+          "File that records the file(s) successfully ingested, so that an interrupted ingest can be continued with the `--resume` option. The journal is removed when the ingest completes without failures.")
+  String journalPath;
+
+  @Option(
+      name = "--resume",
+      required = false,
+      aliases = {},
+      multiValued = false,
+      description =
+          "Skip the file(s) recorded in the `--journal` file by an earlier, interrupted ingest.")
+  boolean resume = false;
+
   @Reference StorageProvider storageProvider;
 
   @Reference SecurityLogger securityLogger;
@@ -249,6 +280,12 @@ public class IngestCommand extends CatalogCommands {
 
   private Optional<InputTransformer> transformer = Optional.empty();
 
+  private IngestJournal journal;
+
+  /** The file each queued metacard was read from, recorded in the journal once it is ingested. */
+  private final Map<Metacard, File> metacardFiles =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
   public IngestCommand() {}
 
   public IngestCommand(DigitalSignature verifier) {
@@ -266,10 +303,21 @@ protected Object executeWithSubject() throws Exception {
     }
 
     final File inputFile = getInputFile();
-    if (inputFile == null) {
+    if (inputFile == null || !openJournal()) {
       return null;
     }
 
+    try {
+      ingest(inputFile);
+    } finally {
+      if (journal != null) {
+        journal.close();
+      }
+    }
+    return null;
+  }
+
+  private void ingest(File inputFile) throws IOException {
     int totalFiles = totalFileCount(inputFile);
     fileCount.set(totalFiles);
 
@@ -280,6 +328,18 @@ protected Object executeWithSubject() throws Exception {
         Executors.newSingleThreadExecutor(
             StandardThreadFactoryBuilder.newThreadFactory(THREAD_NAME));
 
+    // the bounded queue makes the directory walk transform files itself when the transform
+    // threads are all busy, which keeps it from running ahead of them
+    ExecutorService transformExecutor =
+        new ThreadPoolExecutor(
+            transformThreads,
+            transformThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(transformThreads),
+            StandardThreadFactoryBuilder.newThreadFactory(THREAD_NAME),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
     final long start = System.currentTimeMillis();
 
     printProgressAndFlush(start, fileCount.get(), 0);
@@ -290,7 +350,7 @@ protected Object executeWithSubject() throws Exception {
     // be held for the await.
     phaser.register();
     phaser.register();
-    queueExecutor.submit(() -> buildQueue(inputFile, metacardQueue, start));
+    queueExecutor.submit(() -> buildQueue(inputFile, transformExecutor, metacardQueue, start));
 
     final ScheduledExecutorService batchScheduler =
         Executors.newSingleThreadScheduledExecutor(
@@ -316,19 +376,23 @@ protected Object executeWithSubject() throws Exception {
 
     try {
       queueExecutor.shutdown();
+      transformExecutor.shutdown();
       executorService.shutdown();
       batchScheduler.shutdown();
     } catch (SecurityException e) {
       LOGGER.info("Executor service shutdown was not permitted", e);
     }
 
-    printProgressAndFlush(start, fileCount.get(), (long) ingestCount.get() + ignoreCount.get());
+    printProgressAndFlush(start, fileCount.get(), getProcessedCount());
     long end = System.currentTimeMillis();
     console.println();
     String elapsedTime = timeFormatter.print(new Period(start, end).withMillis(0));
 
     console.println();
     console.printf(" %d file(s) ingested in %s %n", ingestCount.get(), elapsedTime);
+    if (resumeCount.get() > 0) {
+      console.printf(" %d file(s) already ingested were skipped %n", resumeCount.get());
+    }
 
     LOGGER.debug(
         "{} file(s) ingested in {} [{} records/sec]",
@@ -341,10 +405,10 @@ protected Object executeWithSubject() throws Exception {
         elapsedTime,
         calculateRecordsPerSecond(ingestCount.get(), start, end));
 
+    int failedCount = fileCount.get() - ingestCount.get() - ignoreCount.get() - resumeCount.get();
     if (fileCount.get() != ingestCount.get()) {
-      if ((fileCount.get() - ingestCount.get() - ignoreCount.get()) >= 1) {
-        String failedAmount =
-            Integer.toString(fileCount.get() - ingestCount.get() - ignoreCount.get());
+      if (failedCount >= 1) {
+        String failedAmount = Integer.toString(failedCount);
         console.println();
         printErrorMessage(
             failedAmount + " file(s) failed to be ingested. See the ingest log for more details.");
@@ -361,7 +425,31 @@ protected Object executeWithSubject() throws Exception {
     }
     console.println();
     securityLogger.audit("Ingested {} file(s) from {}", ingestCount.get(), filePath);
-    return null;
+
+    if (journal != null && failedCount < 1) {
+      journal.delete();
+    }
+  }
+
+  private boolean openJournal() throws IOException {
+    if (StringUtils.isBlank(journalPath)) {
+      return true;
+    }
+
+    Path path = Paths.get(journalPath);
+    if (Files.exists(path) && !resume) {
+      printErrorMessage(
+          String.format(
+              "Journal [%s] already exists. Use the `--resume` option to continue the ingest it records, or remove it.",
+              journalPath));
+      return false;
+    }
+    journal = IngestJournal.open(path);
+    return true;
+  }
+
+  private long getProcessedCount() {
+    return (long) ingestCount.get() + ignoreCount.get() + resumeCount.get();
   }
 
   private File getInputFile() {
@@ -400,6 +488,24 @@ private File getInputFile() {
       return null;
     }
 
+    if (transformThreads <= 0) {
+      printErrorMessage(
+          String.format(
+              "A transform thread count of [%d] was supplied. It must be greater than 0.",
+              transformThreads));
+      return null;
+    }
+
+    if (resume && StringUtils.isBlank(journalPath)) {
+      printErrorMessage("You must provide a journal file when the `--resume` option is specified.");
+      return null;
+    }
+
+    if (includeContent && StringUtils.isNotBlank(journalPath)) {
+      printErrorMessage("The `--journal` option cannot be used with `--include-content`.");
+      return null;
+    }
+
     if (StringUtils.isNotEmpty(failedDir)) {
       failedIngestDirectory = new File(failedDir);
       if (!verifyFailedIngestDirectory()) {
@@ -437,11 +543,17 @@ private int totalFileCount(File inputFile) throws IOException {
             StreamSupport.stream(stream.spliterator(), false)
                 .map(Path::toFile)
                 .filter(file -> !file.isHidden())
+                .filter(file -> !isJournal(file))
                 .count();
       }
     }
 
-    return inputFile.isHidden() ? 0 : 1;
+    return inputFile.isHidden() || isJournal(inputFile) ? 0 : 1;
+  }
+
+  /** @return true if the file is the journal of this ingest, which is never ingested itself */
+  private boolean isJournal(File file) {
+    return journal != null && journal.isJournal(file);
   }
 
   /** Helper method to build ingest log strings */
@@ -568,17 +680,46 @@ private boolean processBatch(CatalogFacade catalog, ArrayList<Metacard> metacard
             e);
       }
     } finally {
-      IntStream range = IntStream.range(0, metacards.size());
-      range.forEach(i -> phaser.arriveAndDeregister());
-      range.close();
+      // the journal is closed as soon as every metacard has arrived, so the batch is recorded
+      // before arriving
+      try {
+        if (createResponse != null) {
+          ingestCount.getAndAdd(metacards.size());
+        }
+        recordInJournal(metacards, createResponse != null);
+      } finally {
+        IntStream range = IntStream.range(0, metacards.size());
+        range.forEach(i -> phaser.arriveAndDeregister());
+        range.close();
+      }
     }
 
-    if (createResponse != null) {
-      ingestCount.getAndAdd(metacards.size());
-    }
     return createResponse != null;
   }
 
+  private void recordInJournal(List<Metacard> metacards, boolean ingested) {
+    if (journal == null) {
+      return;
+    }
+
+    List<File> files =
+        metacards.stream()
+            .map(metacardFiles::remove)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    if (ingested) {
+      try {
+        journal.record(files);
+      } catch (IOException e) {
+        LOGGER.debug("Unable to record {} ingested file(s) in the journal.", files.size(), e);
+        INGEST_LOGGER.warn(
+            "Unable to record {} ingested file(s) in the journal [{}]. They will be ingested again if the ingest is resumed.",
+            files.size(),
+            journalPath);
+      }
+    }
+  }
+
   private void moveToFailedIngestDirectory(File source) {
     File destination =
         Paths.get(failedIngestDirectory.getAbsolutePath(), source.getName()).toFile();
@@ -593,7 +734,11 @@ private void moveToFailedIngestDirectory(File source) {
     }
   }
 
-  private void buildQueue(File inputFile, ArrayBlockingQueue<Metacard> metacardQueue, long start) {
+  private void buildQueue(
+      File inputFile,
+      ExecutorService transformExecutor,
+      ArrayBlockingQueue<Metacard> metacardQueue,
+      long start) {
     try {
       if (includeContent) {
         try (InputStream data = new FileInputStream(inputFile);
@@ -617,7 +762,8 @@ private void buildQueue(File inputFile, ArrayBlockingQueue<Metacard> metacardQue
           ingestStream
               .map(Path::toFile)
               .filter(file -> !file.isDirectory())
-              .forEach(file -> addFileToQueue(metacardQueue, start, file));
+              .filter(file -> !isJournal(file))
+              .forEach(file -> transformFile(transformExecutor, metacardQueue, start, file));
         } catch (IOException e) {
           throw new UncheckedIOException(e);
         }
@@ -627,6 +773,27 @@ private void buildQueue(File inputFile, ArrayBlockingQueue<Metacard> metacardQue
     }
   }
 
+  /**
+   * Transforms the file on the transform threads. The phaser holds a party for the file until its
+   * metacard is on the queue, so that the queue is not considered complete while files are still
+   * being transformed.
+   */
+  private void transformFile(
+      ExecutorService transformExecutor,
+      ArrayBlockingQueue<Metacard> metacardQueue,
+      long start,
+      File file) {
+    phaser.register();
+    transformExecutor.execute(
+        () -> {
+          try {
+            addFileToQueue(metacardQueue, start, file);
+          } finally {
+            phaser.arriveAndDeregister();
+          }
+        });
+  }
+
   private void addFileToQueue(ArrayBlockingQueue<Metacard> metacardQueue, long start, File file) {
     if (file.isHidden()) {
       fileCount.incrementAndGet();
@@ -638,7 +805,13 @@ private void addFileToQueue(ArrayBlockingQueue<Metacard> metacardQueue, long sta
     if (ignoreList != null
         && (ignoreList.contains(extension) || ignoreList.contains(file.getName()))) {
       ignoreCount.incrementAndGet();
-      printProgressAndFlush(start, fileCount.get(), (long) ingestCount.get() + ignoreCount.get());
+      printProgressAndFlush(start, fileCount.get(), getProcessedCount());
+      return;
+    }
+
+    if (journal != null && journal.isIngested(file)) {
+      resumeCount.incrementAndGet();
+      printProgressAndFlush(start, fileCount.get(), getProcessedCount());
       return;
     }
 
@@ -653,6 +826,9 @@ private void addFileToQueue(ArrayBlockingQueue<Metacard> metacardQueue, long sta
     }
 
     if (result != null) {
+      if (journal != null) {
+        metacardFiles.put(result, file);
+      }
       putMetacardOnQueue(metacardQueue, result);
     }
   }
@@ -663,6 +839,7 @@ private void putMetacardOnQueue(ArrayBlockingQueue<Metacard> metacardQueue, Meta
       metacardQueue.put(metacard);
     } catch (InterruptedException e) {
       phaser.arriveAndDeregister();
+      metacardFiles.remove(metacard);
 
       INGEST_LOGGER.error(
           "Thread interrupted while waiting to 'put' metacard: {}",
@@ -792,8 +969,7 @@ private void submitToCatalog(
                     }
                   });
 
-              printProgressAndFlush(
-                  start, fileCount.get(), (long) ingestCount.get() + ignoreCount.get());
+              printProgressAndFlush(start, fileCount.get(), getProcessedCount());
             }
           }
         },
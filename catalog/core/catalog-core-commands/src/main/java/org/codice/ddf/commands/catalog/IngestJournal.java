@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.commands.catalog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Durable record of the files an ingest has submitted to the catalog. The files of each successful
+ * batch are appended and synced to disk, so that an interrupted ingest can skip them when it is
+ * resumed.
+ */
+class IngestJournal implements Closeable {
+
+  private final Path path;
+
+  private final Set<String> ingestedFiles;
+
+  private final FileOutputStream outputStream;
+
+  private final Writer writer;
+
+  private IngestJournal(Path path, Set<String> ingestedFiles) throws IOException {
+    this.path = path;
+    this.ingestedFiles = ingestedFiles;
+    this.outputStream = new FileOutputStream(path.toFile(), true);
+    this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Opens the journal at the given path, creating it if it does not exist.
+   *
+   * @param path location of the journal
+   * @return the journal, holding the files recorded by earlier ingests
+   * @throws IOException if the journal cannot be read or created
+   */
+  static IngestJournal open(Path path) throws IOException {
+    Path absolutePath = path.toAbsolutePath().normalize();
+    Path parent = absolutePath.getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    return new IngestJournal(absolutePath, readIngestedFiles(absolutePath));
+  }
+
+  private static Set<String> readIngestedFiles(Path path) throws IOException {
+    Set<String> ingestedFiles = new HashSet<>();
+    if (!Files.exists(path)) {
+      return ingestedFiles;
+    }
+
+    truncatePartialEntry(path);
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          ingestedFiles.add(line);
+        }
+      }
+    }
+    return ingestedFiles;
+  }
+
+  /**
+   * A crash while recording a batch can leave its last entry partially written, which could match
+   * the path of another file, so it is dropped.
+   */
+  private static void truncatePartialEntry(Path path) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer lastByte = ByteBuffer.allocate(1);
+      long end = channel.size();
+      while (end > 0) {
+        lastByte.clear();
+        channel.read(lastByte, end - 1);
+        if (lastByte.get(0) == '\n') {
+          break;
+        }
+        end--;
+      }
+      channel.truncate(end);
+    }
+  }
+
+  /** @return true if an earlier ingest recorded the file as ingested */
+  boolean isIngested(File file) {
+    return ingestedFiles.contains(file.getAbsolutePath());
+  }
+
+  /** @return true if the file is this journal */
+  boolean isJournal(File file) {
+    return path.equals(file.toPath().toAbsolutePath().normalize());
+  }
+
+  /**
+   * Records files as ingested and syncs the journal to disk.
+   *
+   * @param files the files of a batch that was successfully ingested
+   * @throws IOException if the journal cannot be written
+   */
+  synchronized void record(Collection<File> files) throws IOException {
+    for (File file : files) {
+      writer.write(file.getAbsolutePath());
+      writer.write('\n');
+    }
+    writer.flush();
+    outputStream.getFD().sync();
+  }
+
+  /**
+   * Closes and removes the journal, once the ingest it records has completed.
+   *
+   * @throws IOException if the journal cannot be removed
+   */
+  void delete() throws IOException {
+    close();
+    Files.deleteIfExists(path);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    writer.close();
+  }
+}
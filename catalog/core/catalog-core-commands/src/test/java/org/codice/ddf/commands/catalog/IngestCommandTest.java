@@ -13,7 +13,9 @@
  */
 package org.codice.ddf.commands.catalog;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assume.assumeFalse;
@@ -23,10 +25,18 @@
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.operation.CreateRequest;
+import ddf.catalog.operation.CreateResponse;
 import ddf.catalog.transform.InputTransformer;
 import ddf.security.audit.SecurityLogger;
+import java.io.File;
 import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import org.apache.commons.lang3.SystemUtils;
 import org.codice.ddf.commands.util.DigitalSignature;
 import org.junit.Before;
@@ -42,6 +52,8 @@ public class IngestCommandTest extends CommandCatalogFrameworkCommon {
 
   @Rule public TemporaryFolder testFolder = new TemporaryFolder();
 
+  @Rule public TemporaryFolder journalFolder = new TemporaryFolder();
+
   IngestCommand ingestCommand;
 
   private DigitalSignature verifier;
@@ -188,4 +200,83 @@ public void testIncludeContentNonZipFile() throws Exception {
     String expectedMessage = "must be a zip file";
     assertThat(consoleOutput.getOutput(), containsString(expectedMessage));
   }
+
+  @Test
+  public void testResumeSkipsJournaledFiles() throws Exception {
+    // given
+    File ingestedFile = testFolder.newFile("somefile1.txt");
+    testFolder.newFile("somefile2.txt");
+    File journalFile = new File(journalFolder.getRoot(), "ingest.journal");
+    Files.write(
+        journalFile.toPath(),
+        Collections.singletonList(ingestedFile.getAbsolutePath()),
+        StandardCharsets.UTF_8);
+    ingestCommand.journalPath = journalFile.getAbsolutePath();
+    ingestCommand.resume = true;
+
+    // when
+    ingestCommand.executeWithSubject();
+
+    // then
+    assertThat(
+        consoleOutput.getOutput(), containsString("1 file(s) already ingested were skipped"));
+    assertThat(consoleOutput.getOutput(), containsString("1 file(s) failed"));
+    assertThat(journalFile.exists(), is(true));
+  }
+
+  @Test
+  public void testLastBatchIsRecordedInJournal() throws Exception {
+    // given
+    File ingestedFile = testFolder.newFile("metacard.ser");
+    try (ObjectOutputStream out =
+        new ObjectOutputStream(Files.newOutputStream(ingestedFile.toPath()))) {
+      MetacardImpl metacard = new MetacardImpl();
+      metacard.setId("id1");
+      out.writeObject(metacard);
+    }
+    testFolder.newFile("somefile1.txt");
+    when(ingestCommand.catalogFramework.create(any(CreateRequest.class)))
+        .thenReturn(mock(CreateResponse.class));
+    File journalFile = new File(journalFolder.getRoot(), "ingest.journal");
+    ingestCommand.journalPath = journalFile.getAbsolutePath();
+
+    // when
+    ingestCommand.executeWithSubject();
+
+    // then
+    assertThat(consoleOutput.getOutput(), containsString("1 file(s) ingested"));
+    assertThat(consoleOutput.getOutput(), containsString("1 file(s) failed"));
+    assertThat(
+        Files.readAllLines(journalFile.toPath(), StandardCharsets.UTF_8),
+        contains(ingestedFile.getAbsolutePath()));
+  }
+
+  @Test
+  public void testJournalInInputDirectoryIsNotCounted() throws Exception {
+    // given
+    File journalFile = new File(testFolder.getRoot(), "ingest.journal");
+    ingestCommand.journalPath = journalFile.getAbsolutePath();
+
+    // when
+    ingestCommand.executeWithSubject();
+
+    // then
+    assertThat(consoleOutput.getOutput(), containsString("0 file(s) ingested"));
+    assertThat(consoleOutput.getOutput(), not(containsString("failed")));
+    assertThat(journalFile.exists(), is(false));
+  }
+
+  @Test
+  public void testExistingJournalRequiresResume() throws Exception {
+    // given
+    testFolder.newFile("somefile1.txt");
+    ingestCommand.journalPath = journalFolder.newFile("ingest.journal").getAbsolutePath();
+
+    // when
+    ingestCommand.executeWithSubject();
+
+    // then
+    assertThat(consoleOutput.getOutput(), containsString("already exists"));
+    assertThat(consoleOutput.getOutput(), not(containsString("file(s) ingested")));
+  }
 }
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.commands.catalog;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IngestJournalTest {
+
+  @Rule public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Test
+  public void testRecordedFilesAreIngestedWhenReopened() throws Exception {
+    Path path = testFolder.getRoot().toPath().resolve("journal").resolve("ingest.journal");
+    File ingested = testFolder.newFile("ingested.xml");
+    File notIngested = testFolder.newFile("notIngested.xml");
+
+    try (IngestJournal journal = IngestJournal.open(path)) {
+      assertThat(journal.isIngested(ingested), is(false));
+      journal.record(Arrays.asList(ingested));
+    }
+
+    try (IngestJournal journal = IngestJournal.open(path)) {
+      assertThat(journal.isIngested(ingested), is(true));
+      assertThat(journal.isIngested(notIngested), is(false));
+      assertThat(journal.isJournal(path.toFile()), is(true));
+    }
+  }
+
+  @Test
+  public void testPartiallyWrittenEntryIsDropped() throws Exception {
+    File ingested = testFolder.newFile("file1");
+    File partial = testFolder.newFile("file10");
+    Path path = testFolder.getRoot().toPath().resolve("ingest.journal");
+    String entries = ingested.getAbsolutePath() + "\n" + partial.getAbsolutePath();
+    Files.write(path, entries.getBytes(StandardCharsets.UTF_8));
+
+    try (IngestJournal journal = IngestJournal.open(path)) {
+      assertThat(journal.isIngested(ingested), is(true));
+      assertThat(journal.isIngested(partial), is(false));
+      journal.record(Arrays.asList(partial));
+    }
+
+    try (IngestJournal journal = IngestJournal.open(path)) {
+      assertThat(journal.isIngested(partial), is(true));
+    }
+  }
+}
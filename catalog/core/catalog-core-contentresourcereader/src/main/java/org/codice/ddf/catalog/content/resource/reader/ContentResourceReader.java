@@ -13,6 +13,7 @@
  */
 package org.codice.ddf.catalog.content.resource.reader;
 
+import com.google.common.io.ByteStreams;
 import ddf.catalog.content.StorageException;
 import ddf.catalog.content.StorageProvider;
 import ddf.catalog.content.data.ContentItem;
@@ -20,11 +21,15 @@
 import ddf.catalog.content.operation.ReadStorageResponse;
 import ddf.catalog.content.operation.impl.ReadStorageRequestImpl;
 import ddf.catalog.data.Metacard;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.operation.impl.ResourceResponseImpl;
+import ddf.catalog.resource.ByteRangeResource;
+import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceNotSupportedException;
 import ddf.catalog.resource.ResourceReader;
+import ddf.catalog.resource.impl.ByteRangeResourceImpl;
 import ddf.catalog.resource.impl.ResourceImpl;
 import java.io.BufferedInputStream;
 import java.io.IOException;
@@ -177,10 +182,24 @@ public ResourceResponse retrieveResource(URI resourceUri, Map<String, Serializab
           String fileName = contentItem.getFilename();
           LOGGER.debug("resource name: {}", fileName);
           InputStream is = contentItem.getInputStream();
-          response =
-              new ResourceResponseImpl(
-                  new ResourceImpl(
-                      new BufferedInputStream(is), contentItem.getMimeType(), fileName));
+          Resource resource;
+          if (Boolean.TRUE.equals(
+              readResponse.getPropertyValue(ReadStorageResponse.BYTE_RANGE_APPLIED))) {
+            resource =
+                new ByteRangeResourceImpl(
+                    new BufferedInputStream(is),
+                    contentItem.getMimeType(),
+                    fileName,
+                    getLongArgument(arguments, ResourceRequest.BYTES_TO_SKIP, 0),
+                    contentItem.getSize(),
+                    getTotalSize(readResponse));
+          } else if (isByteRangeRequested(arguments)) {
+            resource = getRequestedRange(is, contentItem, fileName, arguments);
+          } else {
+            resource =
+                new ResourceImpl(new BufferedInputStream(is), contentItem.getMimeType(), fileName);
+          }
+          response = new ResourceResponseImpl(resource);
         } catch (StorageException e) {
           throw new ResourceNotFoundException(e);
         }
@@ -191,4 +210,46 @@ public ResourceResponse retrieveResource(URI resourceUri, Map<String, Serializab
 
     return response;
   }
+
+  private boolean isByteRangeRequested(Map<String, Serializable> arguments) {
+    return arguments != null
+        && (arguments.get(ResourceRequest.BYTES_TO_SKIP) != null
+            || arguments.get(ResourceRequest.BYTES_TO_READ) != null);
+  }
+
+  /* Skips to the byte range requested when the storage provider returned the whole content */
+  private Resource getRequestedRange(
+      InputStream is, ContentItem contentItem, String fileName, Map<String, Serializable> arguments)
+      throws IOException {
+    long totalSize = contentItem.getSize();
+    long start = getLongArgument(arguments, ResourceRequest.BYTES_TO_SKIP, 0);
+    long size = ByteRangeResource.UNKNOWN_SIZE;
+    if (totalSize >= 0) {
+      // a range starting past the end of the content is left empty rather than failing the read
+      start = Math.min(start, totalSize);
+      size = totalSize - start;
+    }
+    ByteStreams.skipFully(is, start);
+
+    long bytesToRead = getLongArgument(arguments, ResourceRequest.BYTES_TO_READ, -1);
+    if (bytesToRead >= 0) {
+      is = ByteStreams.limit(is, bytesToRead);
+      if (size >= 0) {
+        size = Math.min(size, bytesToRead);
+      }
+    }
+    return new ByteRangeResourceImpl(
+        new BufferedInputStream(is), contentItem.getMimeType(), fileName, start, size, totalSize);
+  }
+
+  private long getTotalSize(ReadStorageResponse readResponse) {
+    Serializable totalSize = readResponse.getPropertyValue(ReadStorageResponse.TOTAL_SIZE);
+    return totalSize instanceof Long ? (Long) totalSize : ByteRangeResource.UNKNOWN_SIZE;
+  }
+
+  private long getLongArgument(
+      Map<String, Serializable> arguments, String name, long defaultValue) {
+    Serializable value = arguments == null ? null : arguments.get(name);
+    return value == null ? defaultValue : Long.parseLong(value.toString());
+  }
 }
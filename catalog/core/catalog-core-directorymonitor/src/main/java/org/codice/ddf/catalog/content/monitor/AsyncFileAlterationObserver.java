@@ -17,11 +17,22 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -44,6 +55,14 @@
  * <p>if there are files being processed or a thread already inside {@code checkAndNotify()}, check
  * and notify will immediately return false
  *
+ * <p>Once {@link #watch(long)} is called, the observer instead registers every monitored directory
+ * with a {@link WatchService} and only checks the files it was notified about. The whole tree is
+ * still checked when notifications were lost, and at a low frequency to pick up changes made where
+ * the file system does not send notifications, such as from other hosts of a network file system.
+ *
+ * <p>When the {@link ObjectPersistentStore} is an {@link AsyncFileEntryJournal}, each committed
+ * change is recorded as it happens, instead of storing the whole tree once processing finishes.
+ *
  * <p>Known Limitations:
  *
  * <ul>
@@ -66,17 +85,34 @@ public class AsyncFileAlterationObserver {
   private final Set<AsyncFileEntry> processing = ConcurrentHashMap.newKeySet();
   private final Object listenerLock = new Object();
   private final ObjectPersistentStore serializer;
+  @Nullable private final AsyncFileEntryJournal journal;
   private final Object processingLock = new Object();
 
   private Timer timer;
 
   private boolean isProcessing = false;
 
+  @Nullable private WatchService watchService;
+
+  private long reconciliationIntervalMillis;
+
+  private long lastReconciliation;
+
+  private volatile boolean reconcile = true;
+
+  private final Map<WatchKey, AsyncFileEntry> watchedDirectories = new ConcurrentHashMap<>();
+
+  private final Map<AsyncFileEntry, WatchKey> watchKeys = new ConcurrentHashMap<>();
+
+  /** Files to check again on the next poll because their task failed, by parent directory. */
+  private final Map<AsyncFileEntry, Set<File>> retryFiles = new ConcurrentHashMap<>();
+
   public AsyncFileAlterationObserver(File fileToObserve, ObjectPersistentStore serializer) {
     if (fileToObserve == null || serializer == null) {
       throw new IllegalArgumentException(NULL_ARG_MSG);
     }
     this.serializer = serializer;
+    journal = getJournal(serializer);
     rootFile = new AsyncFileEntry(fileToObserve);
   }
 
@@ -87,6 +123,11 @@ private AsyncFileAlterationObserver(AsyncFileEntry entry, ObjectPersistentStore
     rootFile = entry;
     rootFile.initialize();
     this.serializer = serializer;
+    journal = getJournal(serializer);
+  }
+
+  private static @Nullable AsyncFileEntryJournal getJournal(ObjectPersistentStore serializer) {
+    return serializer instanceof AsyncFileEntryJournal ? (AsyncFileEntryJournal) serializer : null;
   }
 
   /**
@@ -130,9 +171,46 @@ public void initializePeriodicLogging() {
     }
   }
 
+  /**
+   * Switches the observer to checking only the directories the file system reports changes in.
+   * Falls back to checking the whole tree on every poll if the file system cannot report changes.
+   *
+   * @param reconciliationIntervalMillis how often the whole tree is still checked
+   */
+  public void watch(long reconciliationIntervalMillis) {
+    if (watchService != null) {
+      return;
+    }
+
+    try {
+      watchService = rootFile.getFile().toPath().getFileSystem().newWatchService();
+    } catch (IOException | UnsupportedOperationException e) {
+      LOGGER.info(
+          "File system events are not available for [{}]. Polling the whole directory instead.",
+          rootFile.getName());
+      LOGGER.debug("Unable to create a watch service for [{}].", rootFile.getName(), e);
+      return;
+    }
+
+    this.reconciliationIntervalMillis = reconciliationIntervalMillis;
+    reconcile = true;
+    registerDirectories(rootFile);
+  }
+
   public void destroy() {
+    if (journal != null) {
+      journal.close(rootFile.getName());
+    }
     rootFile.destroy();
 
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        LOGGER.debug("Unable to close the watch service for [{}].", rootFile.getName(), e);
+      }
+    }
+
     if (timer != null) {
       timer.cancel();
       timer.purge();
@@ -181,7 +259,17 @@ public boolean checkAndNotify() {
 
     /* fire directory/file events */
     if (rootFile.checkNetwork()) {
-      checkAndNotify(rootFile, rootFile.getChildren(), listFiles(rootFile.getFile()), listenerCopy);
+      Map<AsyncFileEntry, Set<File>> changedFiles = pollChangedFiles();
+      if (isReconciliationDue()) {
+        LOGGER.debug("Checking all files under [{}]", rootFile.getName());
+        reconcile = false;
+        lastReconciliation = System.currentTimeMillis();
+        retryFiles.clear();
+        checkAndNotify(
+            rootFile, rootFile.getChildren(), listFiles(rootFile.getFile()), listenerCopy);
+      } else {
+        checkChangedFiles(changedFiles, listenerCopy);
+      }
     } else {
       //  If we can't connect to the network then the file doesn't exist to us now.
       LOGGER.debug(
@@ -217,6 +305,8 @@ private void doCreate(AsyncFileEntry entry, final AsyncFileAlterationListener li
       // Directories are always committed and added to the parent IF they
       // don't already exist
 
+      // registered before listing, so that no file created meanwhile is missed
+      register(entry);
       File[] children = listFiles(entry.getFile());
       for (File child : children) {
         doCreate(new AsyncFileEntry(entry, child), listenerCopy);
@@ -239,12 +329,14 @@ private void commitCreate(AsyncFileEntry entry, boolean success) {
       if (success) {
         entry.commit();
         entry.getParent().ifPresent(e -> e.addChild(entry));
+        recordCommit(entry);
         LOGGER.debug(
             "File {} committed to {}",
             entry.getName(),
             entry.getParent().map(AsyncFileEntry::getName).orElse("parent"));
       } else {
         LOGGER.debug("Create task failed for {}", entry.getName());
+        retry(entry);
       }
     } finally {
       onFinish(entry);
@@ -284,9 +376,11 @@ private void commitMatch(AsyncFileEntry entry, boolean success) {
       if (success) {
         LOGGER.trace("commitMatch({},{}): Starting...", entry.getName(), success);
         entry.commit();
+        recordCommit(entry);
         LOGGER.debug("{} committed", entry.getName());
       } else {
         LOGGER.debug("Match task failed for {}", entry.getName());
+        retry(entry);
       }
     } finally {
       onFinish(entry);
@@ -326,13 +420,23 @@ private void commitDelete(AsyncFileEntry entry, boolean success) {
     try {
       if (success) {
         entry.getParent().ifPresent(e -> e.removeChild(entry));
+        if (journal != null) {
+          journal.recordRemoval(rootFile.getName(), entry);
+        }
+        unregister(entry);
         entry.destroy();
         LOGGER.debug(
             "{} was removed from {}",
             entry.getName(),
             entry.getParent().map(AsyncFileEntry::getName).orElse("parent"));
+        //  a deleted directory is kept until its last child is removed, nothing else reports it
+        entry
+            .getParent()
+            .filter(parent -> !parent.hasChildren() && !parent.getFile().exists())
+            .ifPresent(this::retry);
       } else {
         LOGGER.debug("Delete task failed for {}", entry.getName());
+        retry(entry);
       }
     } finally {
       onFinish(entry);
@@ -365,6 +469,9 @@ private void checkAndNotify(
       }
       if (c < files.length && entry.compareToFile(files[c]) == 0) {
         doMatch(entry, listenerCopy);
+        if (files[c].isDirectory()) {
+          register(entry);
+        }
         checkAndNotify(entry, entry.getChildren(), listFiles(files[c]), listenerCopy);
         c++;
       } else {
@@ -402,6 +509,166 @@ private File[] listFiles(File file) {
     return FileUtils.EMPTY_FILE_ARRAY;
   }
 
+  private boolean isReconciliationDue() {
+    return watchService == null
+        || reconcile
+        || System.currentTimeMillis() - lastReconciliation >= reconciliationIntervalMillis;
+  }
+
+  /**
+   * Drains the pending file system events.
+   *
+   * @return the files reported changed, plus those to retry, by parent directory
+   */
+  private Map<AsyncFileEntry, Set<File>> pollChangedFiles() {
+    Map<AsyncFileEntry, Set<File>> changedFiles = new TreeMap<>();
+    for (AsyncFileEntry directory : retryFiles.keySet()) {
+      Set<File> files = retryFiles.remove(directory);
+      if (files != null) {
+        changedFiles.computeIfAbsent(directory, d -> new TreeSet<>()).addAll(files);
+      }
+    }
+    if (watchService == null) {
+      return changedFiles;
+    }
+
+    try {
+      WatchKey key;
+      while ((key = watchService.poll()) != null) {
+        addChangedFiles(key, changedFiles);
+      }
+    } catch (ClosedWatchServiceException e) {
+      LOGGER.debug("The watch service for [{}] was closed.", rootFile.getName(), e);
+      reconcile = true;
+    }
+    return changedFiles;
+  }
+
+  /**
+   * Adds the files of the events of a signalled key to the changed files. The whole tree is checked
+   * on the next poll instead when events were lost.
+   */
+  @VisibleForTesting
+  void addChangedFiles(WatchKey key, Map<AsyncFileEntry, Set<File>> changedFiles) {
+    AsyncFileEntry directory = watchedDirectories.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+        LOGGER.debug("File system events were lost under [{}]", rootFile.getName());
+        reconcile = true;
+      } else {
+        File file = directory.getFile().toPath().resolve((Path) event.context()).toFile();
+        changedFiles.computeIfAbsent(directory, d -> new TreeSet<>()).add(file);
+      }
+    }
+    if (!key.reset()) {
+      watchedDirectories.remove(key);
+      if (directory != null) {
+        watchKeys.remove(directory, key);
+        //  a directory that still exists but can no longer be watched needs a full check
+        reconcile |= directory.getFile().isDirectory();
+      }
+    }
+  }
+
+  /**
+   * Checks only the files reported changed in each directory, rather than listing the whole
+   * directory.
+   */
+  private void checkChangedFiles(
+      Map<AsyncFileEntry, Set<File>> changedFiles, final AsyncFileAlterationListener listenerCopy) {
+    changedFiles.forEach(
+        (directory, files) -> {
+          for (File file : files) {
+            checkFile(directory, file, listenerCopy);
+          }
+        });
+  }
+
+  private void checkFile(
+      AsyncFileEntry directory, File file, final AsyncFileAlterationListener listenerCopy) {
+    Optional<AsyncFileEntry> existing = directory.getChild(file);
+    if (!existing.isPresent()) {
+      if (file.exists()) {
+        doCreate(new AsyncFileEntry(directory, file), listenerCopy);
+      }
+      return;
+    }
+
+    AsyncFileEntry entry = existing.get();
+    if (file.exists()) {
+      doMatch(entry, listenerCopy);
+    } else if (entry.checkNetwork()) {
+      checkAndNotify(entry, entry.getChildren(), FileUtils.EMPTY_FILE_ARRAY, listenerCopy);
+      doDelete(entry, listenerCopy);
+    }
+  }
+
+  /**
+   * Checks the entry again on the next poll. Entries under a directory that no longer exists are
+   * checked from the closest directory that still does, so that the deleted directories are removed
+   * as well.
+   */
+  private void retry(AsyncFileEntry entry) {
+    AsyncFileEntry child = entry;
+    Optional<AsyncFileEntry> parent = entry.getParent();
+    while (parent.isPresent()
+        && parent.get().getParent().isPresent()
+        && !parent.get().getFile().isDirectory()) {
+      child = parent.get();
+      parent = child.getParent();
+    }
+
+    File file = child.getFile();
+    parent.ifPresent(
+        directory ->
+            retryFiles.computeIfAbsent(directory, d -> ConcurrentHashMap.newKeySet()).add(file));
+  }
+
+  private void registerDirectories(AsyncFileEntry entry) {
+    if (entry.getFile().isDirectory()) {
+      register(entry);
+      entry.getChildren().forEach(this::registerDirectories);
+    }
+  }
+
+  private void register(AsyncFileEntry directory) {
+    if (watchService == null || watchKeys.containsKey(directory)) {
+      return;
+    }
+
+    try {
+      WatchKey key =
+          directory
+              .getFile()
+              .toPath()
+              .register(
+                  watchService,
+                  StandardWatchEventKinds.ENTRY_CREATE,
+                  StandardWatchEventKinds.ENTRY_DELETE,
+                  StandardWatchEventKinds.ENTRY_MODIFY);
+      watchedDirectories.put(key, directory);
+      watchKeys.put(directory, key);
+    } catch (IOException | ClosedWatchServiceException e) {
+      LOGGER.debug(
+          "Unable to watch [{}]. Checking all files on the next poll.", directory.getName(), e);
+      reconcile = true;
+    }
+  }
+
+  private void recordCommit(AsyncFileEntry entry) {
+    if (journal != null) {
+      journal.recordCommit(rootFile.getName(), entry);
+    }
+  }
+
+  private void unregister(AsyncFileEntry directory) {
+    WatchKey key = watchKeys.remove(directory);
+    if (key != null) {
+      watchedDirectories.remove(key);
+      key.cancel();
+    }
+  }
+
   private void initChildEntries(AsyncFileEntry parent) throws IllegalStateException {
     File[] children = listFiles(parent.getFile());
     if (children == null) {
@@ -420,7 +687,11 @@ private void onFinish(AsyncFileEntry entry) {
       processing.remove(entry);
       if (processing.isEmpty()) {
         LOGGER.debug("All files finished processing");
-        serializer.store(rootFile.getName(), rootFile);
+        if (journal != null) {
+          journal.checkpoint(rootFile.getName(), rootFile);
+        } else {
+          serializer.store(rootFile.getName(), rootFile);
+        }
         isProcessing = false;
       }
     }
@@ -142,6 +142,16 @@ public List<AsyncFileEntry> getChildren() {
     return new ArrayList<>(children);
   }
 
+  /**
+   * @param file a file directly under this entry
+   * @return the child entry of the file, or empty if the file is not one of the children
+   */
+  public Optional<AsyncFileEntry> getChild(File file) {
+    AsyncFileEntry probe = new AsyncFileEntry(this, file);
+    AsyncFileEntry child = children.ceiling(probe);
+    return probe.equals(child) ? Optional.of(child) : Optional.empty();
+  }
+
   public void addChild(AsyncFileEntry child) {
     children.add(child);
   }
@@ -181,6 +191,20 @@ public void destroy() {
     children.clear();
   }
 
+  /**
+   * Replaces the meta-snapshot of this entry with the one of another entry for the same file,
+   * keeping the children of this entry.
+   *
+   * @param snapshot the entry to copy the meta-snapshot from
+   */
+  void restore(AsyncFileEntry snapshot) {
+    name = snapshot.name;
+    exists = snapshot.exists;
+    lastModified = snapshot.lastModified;
+    directory = snapshot.directory;
+    length = snapshot.length;
+  }
+
   //  Serializing to JSON doesn't allow infinite loops. Thus we
   //  Make the parent null and allow users to re-initialize after loading
   //  from a json.
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.catalog.content.monitor;
+
+/**
+ * An {@link ObjectPersistentStore} for trees of {@link AsyncFileEntry}s that persists the changes
+ * to single entries, so that the cost of persisting grows with the size of the change instead of
+ * the size of the tree.
+ *
+ * <p>{@link #store(String, Object)} persists a whole tree, and {@link #load(String, Class)} returns
+ * it with all the changes recorded since applied.
+ */
+public interface AsyncFileEntryJournal extends ObjectPersistentStore {
+
+  /**
+   * Records that an entry was added to, or changed in, the tree stored with the given key.
+   *
+   * @param key the key of the tree
+   * @param entry the committed entry
+   */
+  void recordCommit(String key, AsyncFileEntry entry);
+
+  /**
+   * Records that an entry was removed from the tree stored with the given key.
+   *
+   * @param key the key of the tree
+   * @param entry the removed entry
+   */
+  void recordRemoval(String key, AsyncFileEntry entry);
+
+  /**
+   * Persists the changes recorded so far. Implementations may store the whole tree instead when
+   * that is cheaper than keeping the changes.
+   *
+   * @param key the key of the tree
+   * @param root the root of the tree
+   */
+  void checkpoint(String key, AsyncFileEntry root);
+
+  /**
+   * Persists the changes recorded so far and releases the resources held for the given key.
+   *
+   * @param key the key of the tree
+   */
+  void close(String key);
+}
@@ -97,6 +97,10 @@ public class ContentDirectoryMonitor implements DirectoryMonitor {
 
   private Integer readLockIntervalMilliseconds;
 
+  private boolean useFileSystemEvents = false;
+
+  private Integer reconciliationIntervalMinutes = 60;
+
   Processor systemSubjectBinder;
 
   /**
@@ -173,6 +177,34 @@ public Integer getReadLockIntervalMilliseconds() {
     return readLockIntervalMilliseconds;
   }
 
+  /**
+   * Set whether an in place monitor reacts to file system events instead of checking the whole
+   * directory on every poll.
+   *
+   * @param useFileSystemEvents
+   */
+  public void setUseFileSystemEvents(Boolean useFileSystemEvents) {
+    this.useFileSystemEvents = Boolean.TRUE.equals(useFileSystemEvents);
+  }
+
+  public boolean getUseFileSystemEvents() {
+    return useFileSystemEvents;
+  }
+
+  /**
+   * Set how often, in minutes, an in place monitor using file system events still checks the whole
+   * directory. If the given argument is less than 1, it is set to 1.
+   *
+   * @param reconciliationIntervalMinutes
+   */
+  public void setReconciliationIntervalMinutes(Integer reconciliationIntervalMinutes) {
+    this.reconciliationIntervalMinutes = Math.max(reconciliationIntervalMinutes, 1);
+  }
+
+  public Integer getReconciliationIntervalMinutes() {
+    return reconciliationIntervalMinutes;
+  }
+
   /**
    * Invoked after all of the setter methods have been called (for initial route creation), and also
    * called whenever an existing route is updated.
@@ -241,6 +273,11 @@ public void updateCallback(Map<String, Object> properties) {
       setProcessingMechanism((String) properties.get("processingMechanism"));
       setNumThreads((Integer) properties.get("numThreads"));
       setReadLockIntervalMilliseconds((Integer) properties.get("readLockIntervalMilliseconds"));
+      setUseFileSystemEvents((Boolean) properties.get("useFileSystemEvents"));
+      Integer reconciliationInterval = (Integer) properties.get("reconciliationIntervalMinutes");
+      if (reconciliationInterval != null) {
+        setReconciliationIntervalMinutes(reconciliationInterval);
+      }
 
       String[] parameterArray = (String[]) properties.get(Constants.ATTRIBUTE_OVERRIDES_KEY);
       if (parameterArray != null) {
@@ -389,6 +426,9 @@ public void configure() throws Exception {
             stringBuilder = new StringBuilder("durable:" + monitoredDirectory);
             if (isDav) {
               stringBuilder.append("?isDav=true");
+            } else if (useFileSystemEvents) {
+              stringBuilder.append("?reconciliationIntervalMinutes=");
+              stringBuilder.append(reconciliationIntervalMinutes);
             }
             break;
         }
@@ -20,6 +20,7 @@
 import org.apache.camel.component.file.GenericFileEndpoint;
 import org.apache.camel.util.StringHelper;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
 
 public class DurableFileComponent extends GenericFileComponent<File> {
 
@@ -42,6 +43,9 @@ protected GenericFileEndpoint<File> buildFileEndpoint(
     boolean isDav = Boolean.parseBoolean(davParam);
     parameters.remove("isDav");
 
+    long reconciliationIntervalMinutes =
+        NumberUtils.toLong(String.valueOf(parameters.remove("reconciliationIntervalMinutes")));
+
     GenericFileConfiguration config = new GenericFileConfiguration();
     File file = new File(remaining);
     if (isDav) {
@@ -51,6 +55,7 @@ protected GenericFileEndpoint<File> buildFileEndpoint(
     DurableFileEndpoint result = new DurableFileEndpoint(uri, remaining, isDav, this);
     result.setFile(file);
     result.setConfiguration(config);
+    result.setReconciliationIntervalMinutes(reconciliationIntervalMinutes);
 
     return result;
   }
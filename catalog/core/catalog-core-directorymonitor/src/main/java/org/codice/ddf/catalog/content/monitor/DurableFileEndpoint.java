@@ -53,6 +53,8 @@ public class DurableFileEndpoint extends GenericFileEndpoint<File> {
 
   private String remaining;
 
+  private long reconciliationIntervalMinutes;
+
   @UriPath(name = "directoryName")
   @Metadata(required = true)
   private File file;
@@ -83,7 +85,8 @@ public GenericFileConsumer<File> createConsumer(Processor processor) throws Exce
           remaining,
           processor,
           new EventfulFileWrapperGenericFileOperations(),
-          new GenericFileNoOpProcessStrategy());
+          new GenericFileNoOpProcessStrategy(),
+          reconciliationIntervalMinutes);
     }
   }
 
@@ -137,6 +140,17 @@ public void setFile(File file) {
     }
   }
 
+  /**
+   * Makes file system consumers react to file system events, checking the whole directory only at
+   * the given interval.
+   *
+   * @param reconciliationIntervalMinutes minutes between checks of the whole directory, or 0 to
+   *     check the whole directory on every poll
+   */
+  public void setReconciliationIntervalMinutes(long reconciliationIntervalMinutes) {
+    this.reconciliationIntervalMinutes = reconciliationIntervalMinutes;
+  }
+
   private static class EventfulFileWrapperGenericFileOperations
       implements GenericFileOperations<File> {
 
@@ -16,6 +16,7 @@
 import static ddf.catalog.Constants.CDM_LOGGER_NAME;
 
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 import org.apache.camel.Processor;
 import org.apache.camel.component.file.GenericFileEndpoint;
 import org.apache.camel.component.file.GenericFileOperations;
@@ -33,14 +34,18 @@ public class DurableFileSystemFileConsumer extends AbstractDurableFileConsumer {
 
   private AsyncFileAlterationObserver observer;
 
+  private final long reconciliationIntervalMinutes;
+
   DurableFileSystemFileConsumer(
       GenericFileEndpoint<File> endpoint,
       String remaining,
       Processor processor,
       GenericFileOperations<File> operations,
-      GenericFileProcessStrategy<File> processStrategy) {
+      GenericFileProcessStrategy<File> processStrategy,
+      long reconciliationIntervalMinutes) {
     super(endpoint, remaining, processor, operations, processStrategy);
     listener = new DurableFileAlterationListener(this);
+    this.reconciliationIntervalMinutes = reconciliationIntervalMinutes;
   }
 
   @Override
@@ -61,7 +66,7 @@ protected void initialize(String fileName) {
       fileSystemPersistenceProvider = new FileSystemPersistenceProvider(getClass().getSimpleName());
     }
     if (jsonSerializer == null) {
-      jsonSerializer = new JsonPersistantStore(getClass().getSimpleName());
+      jsonSerializer = new JournalingPersistentStore(getClass().getSimpleName());
     }
 
     if (observer == null && fileName != null) {
@@ -75,6 +80,10 @@ protected void initialize(String fileName) {
         observer = new AsyncFileAlterationObserver(new File(fileName), jsonSerializer);
         observer.initializePeriodicLogging();
       }
+
+      if (observer != null && reconciliationIntervalMinutes > 0) {
+        observer.watch(TimeUnit.MINUTES.toMillis(reconciliationIntervalMinutes));
+      }
     }
   }
 
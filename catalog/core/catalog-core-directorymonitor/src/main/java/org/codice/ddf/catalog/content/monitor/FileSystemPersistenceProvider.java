@@ -15,8 +15,6 @@
 
 import static ddf.catalog.Constants.CDM_LOGGER_NAME;
 
-import com.hazelcast.core.MapLoader;
-import com.hazelcast.core.MapStore;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
@@ -40,15 +38,14 @@
 import org.slf4j.LoggerFactory;
 
 /**
- * Hazelcast persistence provider implementation of @MapLoader and @MapStore to serialize and
- * persist Java objects stored in Hazelcast cache to disk.
+ * Persistence provider that serializes Java objects to disk, one file per key, under a directory
+ * named after the map.
  *
  * <p>NOTE: The usage of object serialization/deserialization may trigger static analysis warnings.
  * This usage is acceptable as the read/write directory is not configurable and lives under
  * DDF_HOME.
  */
-public class FileSystemPersistenceProvider
-    implements MapLoader<String, Object>, MapStore<String, Object> {
+public class FileSystemPersistenceProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CDM_LOGGER_NAME);
 
@@ -92,7 +89,6 @@ String getMapStorePath() {
     return Paths.get(getPersistencePath(), mapName).toString() + File.separator;
   }
 
-  @Override
   public void store(String key, Object value) {
     File dir = new File(getMapStorePath());
     if (!dir.exists() && !dir.mkdir()) {
@@ -108,14 +104,12 @@ public void store(String key, Object value) {
     }
   }
 
-  @Override
   public void storeAll(Map<String, Object> keyValueMap) {
     for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
       store(entry.getKey(), entry.getValue());
     }
   }
 
-  @Override
   public void delete(String key) {
     File file = new File(getMapStorePath() + key + PERSISTED_FILE_SUFFIX);
     if (file.exists()) {
@@ -125,14 +119,12 @@ public void delete(String key) {
     }
   }
 
-  @Override
   public void deleteAll(Collection<String> keys) {
     for (String key : keys) {
       delete(key);
     }
   }
 
-  @Override
   public Object load(String key) {
     // Not implemented because the Hazelcast data grid is all in cache,
     // so we will never have something persisted that is
@@ -161,7 +153,6 @@ Object loadFromPersistence(String key) {
     return null;
   }
 
-  @Override
   public Map<String, Object> loadAll(Collection<String> keys) {
     Map<String, Object> values = new HashMap<String, Object>();
 
@@ -187,7 +178,6 @@ public boolean accept(File file, String name) {
     return filter;
   }
 
-  @Override
   public Set<String> loadAllKeys() {
     Set<String> keys = new HashSet<String>();
 
@@ -0,0 +1,353 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.catalog.content.monitor;
+
+import static ddf.catalog.Constants.CDM_LOGGER_NAME;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link JsonPersistantStore} that keeps the changes to a stored {@link AsyncFileEntry} tree in
+ * an append-only journal next to the JSON snapshot of the tree.
+ *
+ * <p>Each line of the journal is one change: a {@code +} or {@code -} for a committed or removed
+ * entry, followed by the JSON of the entry without its children. When the tree is loaded the
+ * journal is replayed on top of the snapshot. A line that was only partially written is dropped
+ * from the journal before new changes are appended to it. If any other line cannot be read, the
+ * changes before it are applied and the tree is stored again right away, replacing the journal.
+ *
+ * <p>The journal is compacted by a checkpoint once it has grown larger than the snapshot, so the
+ * cost of rewriting the snapshot is spread over at least as many changes as it holds.
+ */
+public class JournalingPersistentStore extends JsonPersistantStore
+    implements AsyncFileEntryJournal {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CDM_LOGGER_NAME);
+
+  private static final String JOURNAL_FILE_SUFFIX = ".journal";
+
+  private static final char COMMIT = '+';
+
+  private static final char REMOVAL = '-';
+
+  /** Journals smaller than this are never compacted. */
+  private static final long MIN_COMPACTION_SIZE = 1024L * 1024L;
+
+  private final Gson entryGson =
+      new GsonBuilder()
+          .registerTypeAdapter(new TypeToken<File>() {}.getType(), new FileTypeAdapter())
+          .setExclusionStrategies(new ChildrenExclusionStrategy())
+          .create();
+
+  private final Map<String, Writer> journals = new HashMap<>();
+
+  /** Keys whose journal missed a change, so that the next checkpoint has to store the tree. */
+  private final Set<String> incompleteJournals = new HashSet<>();
+
+  public JournalingPersistentStore(String mapName) {
+    super(mapName);
+  }
+
+  JournalingPersistentStore(String mapName, Path persistencePath) {
+    super(mapName, persistencePath);
+  }
+
+  @Override
+  public synchronized void store(String key, Object toStore) {
+    if (!write(key, toStore) || !(toStore instanceof AsyncFileEntry)) {
+      return;
+    }
+
+    //  the snapshot now holds every change in the journal
+    closeJournal(key);
+    deleteJournal(key);
+    incompleteJournals.remove(key);
+  }
+
+  @Override
+  public synchronized <T> T load(String key, Class<T> objectClass) {
+    closeJournal(key);
+    T loaded = super.load(key, objectClass);
+    Path journal = getJournalPath(key);
+    if (loaded == null) {
+      //  changes without a snapshot to apply them to are of no use
+      deleteJournal(key);
+    } else if (loaded instanceof AsyncFileEntry
+        && journal.toFile().exists()
+        && !(truncatePartialChange(journal) && replay((AsyncFileEntry) loaded, journal))) {
+      //  changes journaled from now on would be appended after a change that cannot be read
+      store(key, loaded);
+    }
+    return loaded;
+  }
+
+  @Override
+  public synchronized void recordCommit(String key, AsyncFileEntry entry) {
+    append(key, COMMIT, entry);
+  }
+
+  @Override
+  public synchronized void recordRemoval(String key, AsyncFileEntry entry) {
+    append(key, REMOVAL, entry);
+  }
+
+  @Override
+  public synchronized void checkpoint(String key, AsyncFileEntry root) {
+    Writer writer = journals.get(key);
+    if (writer != null) {
+      try {
+        writer.flush();
+      } catch (IOException e) {
+        LOGGER.debug("Unable to flush the journal for key = {}", key, e);
+        closeJournal(key);
+        incompleteJournals.add(key);
+      }
+    }
+
+    if (incompleteJournals.contains(key) || isCompactionDue(key)) {
+      LOGGER.debug("Compacting the journal for key = {}", key);
+      store(key, root);
+    }
+  }
+
+  @Override
+  public synchronized void close(String key) {
+    closeJournal(key);
+  }
+
+  private Path getJournalPath(String key) {
+    return getPath().resolve(getShaFor(key) + JOURNAL_FILE_SUFFIX);
+  }
+
+  private boolean isCompactionDue(String key) {
+    File snapshot = getPersistedPath(key).toFile();
+    if (!snapshot.exists()) {
+      return true;
+    }
+
+    long journalSize = getJournalPath(key).toFile().length();
+    return journalSize >= MIN_COMPACTION_SIZE && journalSize > snapshot.length();
+  }
+
+  private void append(String key, char operation, AsyncFileEntry entry) {
+    try {
+      Writer writer = journals.get(key);
+      if (writer == null) {
+        Files.createDirectories(getPath());
+        writer =
+            Files.newBufferedWriter(
+                getJournalPath(key),
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        journals.put(key, writer);
+      }
+      writer.write(operation);
+      entryGson.toJson(entry, writer);
+      writer.write('\n');
+    } catch (IOException | JsonParseException e) {
+      //  the snapshot written on the next checkpoint will hold the change instead
+      LOGGER.debug("Unable to journal {} for key = {}", entry.getName(), key, e);
+      closeJournal(key);
+      incompleteJournals.add(key);
+    }
+  }
+
+  private void closeJournal(String key) {
+    Writer writer = journals.remove(key);
+    if (writer != null) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        LOGGER.debug("Unable to close the journal for key = {}", key, e);
+      }
+    }
+  }
+
+  private void deleteJournal(String key) {
+    try {
+      Files.deleteIfExists(getJournalPath(key));
+    } catch (IOException e) {
+      LOGGER.debug("Unable to delete the journal for key = {}", key, e);
+    }
+  }
+
+  /**
+   * An interrupted write can leave the last change partially written. It is dropped so that the
+   * next change is not appended to it.
+   *
+   * @return false if the journal could not be truncated
+   */
+  private boolean truncatePartialChange(Path journal) {
+    try (FileChannel channel =
+        FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer lastByte = ByteBuffer.allocate(1);
+      long end = channel.size();
+      while (end > 0) {
+        lastByte.clear();
+        channel.read(lastByte, end - 1);
+        if (lastByte.get(0) == '\n') {
+          break;
+        }
+        end--;
+      }
+      if (end < channel.size()) {
+        LOGGER.debug("Dropping an incomplete last change from the journal {}", journal);
+        channel.truncate(end);
+      }
+      return true;
+    } catch (IOException e) {
+      LOGGER.debug("Unable to drop an incomplete last change from the journal {}", journal, e);
+      return false;
+    }
+  }
+
+  /** @return false if a change could not be read, in which case the ones after it are ignored */
+  private boolean replay(AsyncFileEntry root, Path journal) {
+    Map<File, AsyncFileEntry> entries = new HashMap<>();
+    index(root, entries);
+    Map<File, List<AsyncFileEntry>> orphans = new HashMap<>();
+
+    int changes = 0;
+    boolean complete = true;
+    try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        AsyncFileEntry entry = entryGson.fromJson(line.substring(1), AsyncFileEntry.class);
+        if (entry == null || entry.getFile() == null) {
+          throw new JsonParseException("Journal entry without a file");
+        }
+
+        if (line.charAt(0) == COMMIT) {
+          replayCommit(entry, entries, orphans);
+        } else if (line.charAt(0) == REMOVAL) {
+          replayRemoval(entry, entries, orphans);
+        } else {
+          throw new JsonParseException("Unknown journal operation " + line.charAt(0));
+        }
+        changes++;
+      }
+    } catch (IOException | JsonParseException e) {
+      LOGGER.debug("Stopped reading the journal {} after {} changes.", journal, changes, e);
+      complete = false;
+    }
+    LOGGER.debug("Applied {} changes from the journal {}", changes, journal);
+    return complete;
+  }
+
+  /**
+   * Entries can be committed before the directory holding them, so an entry whose parent is not in
+   * the tree yet is kept aside until the parent is committed.
+   */
+  private void replayCommit(
+      AsyncFileEntry entry,
+      Map<File, AsyncFileEntry> entries,
+      Map<File, List<AsyncFileEntry>> orphans) {
+    File file = entry.getFile();
+    AsyncFileEntry existing = entries.get(file);
+    if (existing != null) {
+      existing.restore(entry);
+      return;
+    }
+
+    entries.put(file, entry);
+    List<AsyncFileEntry> children = orphans.remove(file);
+    if (children != null) {
+      children.forEach(entry::addChild);
+    }
+
+    AsyncFileEntry parent = entries.get(file.getParentFile());
+    if (parent != null) {
+      parent.addChild(entry);
+    } else {
+      orphans.computeIfAbsent(file.getParentFile(), k -> new ArrayList<>()).add(entry);
+    }
+  }
+
+  private void replayRemoval(
+      AsyncFileEntry entry,
+      Map<File, AsyncFileEntry> entries,
+      Map<File, List<AsyncFileEntry>> orphans) {
+    AsyncFileEntry existing = entries.get(entry.getFile());
+    if (existing == null) {
+      return;
+    }
+
+    AsyncFileEntry parent = entries.get(existing.getFile().getParentFile());
+    if (parent != null) {
+      parent.removeChild(existing);
+    } else {
+      List<AsyncFileEntry> siblings = orphans.get(existing.getFile().getParentFile());
+      if (siblings != null) {
+        siblings.remove(existing);
+      }
+    }
+    unindex(existing, entries);
+    existing.destroy();
+  }
+
+  private void index(AsyncFileEntry entry, Map<File, AsyncFileEntry> entries) {
+    entries.put(entry.getFile(), entry);
+    for (AsyncFileEntry child : entry.getChildren()) {
+      index(child, entries);
+    }
+  }
+
+  private void unindex(AsyncFileEntry entry, Map<File, AsyncFileEntry> entries) {
+    entries.remove(entry.getFile());
+    for (AsyncFileEntry child : entry.getChildren()) {
+      unindex(child, entries);
+    }
+  }
+
+  /** Journal lines hold single entries, their children are journaled on their own. */
+  private static class ChildrenExclusionStrategy implements ExclusionStrategy {
+
+    @Override
+    public boolean shouldSkipField(FieldAttributes f) {
+      return f.getDeclaringClass() == AsyncFileEntry.class && "children".equals(f.getName());
+    }
+
+    @Override
+    public boolean shouldSkipClass(Class<?> clazz) {
+      return false;
+    }
+  }
+}
@@ -28,8 +28,11 @@
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import javax.annotation.Nullable;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.codice.ddf.configuration.AbsolutePathResolver;
 import org.slf4j.Logger;
@@ -41,6 +44,8 @@ public class JsonPersistantStore implements ObjectPersistentStore {
 
   private static final String PERSISTED_FILE_SUFFIX = ".json";
 
+  private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
   private Gson gson =
       new GsonBuilder()
           .registerTypeAdapter(new TypeToken<File>() {}.getType(), new FileTypeAdapter())
@@ -48,20 +53,33 @@ public class JsonPersistantStore implements ObjectPersistentStore {
 
   private final String mapName;
 
+  @Nullable private final Path persistencePath;
+
   public JsonPersistantStore() {
-    mapName = getClass().getSimpleName();
+    this(null, null);
   }
 
   public JsonPersistantStore(String mapName) {
-    this.mapName = mapName;
+    this(mapName, null);
+  }
+
+  JsonPersistantStore(@Nullable String mapName, @Nullable Path persistencePath) {
+    this.mapName = mapName == null ? getClass().getSimpleName() : mapName;
+    this.persistencePath = persistencePath;
   }
 
-  private String getShaFor(String key) {
+  protected String getShaFor(String key) {
     return DigestUtils.sha1Hex(key);
   }
 
-  private Path getPath() {
-    return Paths.get(getPersistencePath(), mapName);
+  protected Path getPath() {
+    return persistencePath != null
+        ? persistencePath.resolve(mapName)
+        : Paths.get(getPersistencePath(), mapName);
+  }
+
+  protected Path getPersistedPath(String key) {
+    return getPath().resolve(getShaFor(key) + PERSISTED_FILE_SUFFIX);
   }
 
   private String getPersistencePath() {
@@ -70,25 +88,43 @@ private String getPersistencePath() {
 
   @Override
   public void store(String key, Object toStore) {
+    write(key, toStore);
+  }
+
+  /**
+   * Writes the value to a temporary file first and then moves it over the persisted file, so that
+   * an interrupted write never leaves a partial value behind.
+   *
+   * @return {@code true} if the value was persisted
+   */
+  protected boolean write(String key, Object toStore) {
     File dir = getPath().toFile();
-    if (!dir.exists() && !dir.mkdir()) {
+    if (!dir.exists() && !dir.mkdirs()) {
       LOGGER.debug("Unable to create directory: {}", dir.getAbsolutePath());
     }
-    String shaKey = getShaFor(key);
-    try (OutputStream file =
-            new FileOutputStream(getPath().resolve(shaKey + PERSISTED_FILE_SUFFIX).toFile());
-        OutputStream buffer = new BufferedOutputStream(file);
-        OutputStreamWriter output = new OutputStreamWriter(buffer)) {
-      gson.toJson(toStore, output);
+    Path persisted = getPersistedPath(key);
+    Path temporary = persisted.resolveSibling(persisted.getFileName() + TEMPORARY_FILE_SUFFIX);
+    try {
+      try (OutputStream file = new FileOutputStream(temporary.toFile());
+          OutputStream buffer = new BufferedOutputStream(file);
+          OutputStreamWriter output = new OutputStreamWriter(buffer)) {
+        gson.toJson(toStore, output);
+      }
+      Files.move(
+          temporary,
+          persisted,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      return true;
     } catch (IOException | JsonIOException e) {
       LOGGER.debug("IOException storing value in cache with key = " + key, e);
+      return false;
     }
   }
 
   @Override
   public <T> T load(String key, Class<T> objectClass) {
-    String shaKey = getShaFor(key);
-    File file = getPath().resolve(shaKey + PERSISTED_FILE_SUFFIX).toFile();
+    File file = getPersistedPath(key).toFile();
     if (!file.exists()) {
       return null;
     }
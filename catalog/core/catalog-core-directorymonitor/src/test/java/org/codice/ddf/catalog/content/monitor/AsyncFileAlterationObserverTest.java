@@ -16,9 +16,12 @@
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
@@ -29,10 +32,16 @@
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import org.apache.camel.spi.Synchronization;
@@ -1200,6 +1209,119 @@ public void testJsonSerial() throws Exception {
     verify(fileListener, times(3)).onFileCreate(any(File.class), any(Synchronization.class));
   }
 
+  @Test
+  public void testWatchNestedDirectory() throws Exception {
+    observer.watch(TimeUnit.HOURS.toMillis(1));
+    initNestedDirectory(2, 2, 2, 0);
+    observer.checkAndNotify();
+    verify(fileListener, times(totalSize))
+        .onFileCreate(any(File.class), any(Synchronization.class));
+    init();
+
+    File[] newFiles = initFiles(3, grandchildDir, "watched00");
+    Stream.of(files).forEach(this::changeData);
+
+    long deadline = System.currentTimeMillis() + timeout;
+    while (countCalls("onFileCreate") + countCalls("onFileChange") < newFiles.length + files.length
+        && System.currentTimeMillis() < deadline) {
+      observer.checkAndNotify();
+      Thread.sleep(50);
+    }
+
+    verify(fileListener, times(newFiles.length))
+        .onFileCreate(any(File.class), any(Synchronization.class));
+    verify(fileListener, times(files.length))
+        .onFileChange(any(File.class), any(Synchronization.class));
+    verify(fileListener, never()).onFileDelete(any(File.class), any(Synchronization.class));
+    observer.destroy();
+  }
+
+  @Test
+  public void testWatchDelete() throws Exception {
+    observer.watch(TimeUnit.HOURS.toMillis(1));
+    initNestedDirectory(2, 2, 2, 0);
+    observer.checkAndNotify();
+    init();
+
+    fileDelete(files[0]);
+    FileUtils.deleteDirectory(grandchildDir);
+
+    AsyncFileEntry childEntry = observer.getRootFile().getChild(childDir).get();
+    pollUntil(
+        () ->
+            countCalls("onFileDelete") == 1 + grandchildFiles.length
+                && !childEntry.getChild(grandchildDir).isPresent());
+
+    verify(fileListener, times(1)).onFileDelete(eq(files[0]), any(Synchronization.class));
+    for (File grandchildFile : grandchildFiles) {
+      verify(fileListener, times(1)).onFileDelete(eq(grandchildFile), any(Synchronization.class));
+    }
+    verify(fileListener, never()).onFileCreate(any(File.class), any(Synchronization.class));
+    verify(fileListener, never()).onFileChange(any(File.class), any(Synchronization.class));
+    assertThat(observer.getRootFile().getChild(files[0]).isPresent(), is(false));
+    assertThat(childEntry.getChild(grandchildDir).isPresent(), is(false));
+    observer.destroy();
+  }
+
+  @Test
+  public void testWatchOverflowChecksAllFiles() throws Exception {
+    initNestedDirectory(2, 2, 2, 0);
+    observer.watch(TimeUnit.HOURS.toMillis(1));
+    observer.checkAndNotify();
+    verify(fileListener, times(totalSize))
+        .onFileCreate(any(File.class), any(Synchronization.class));
+    init();
+
+    //  the file is not known to the observer, as if the events creating it were lost
+    AsyncFileEntry missed = observer.getRootFile().getChild(files[0]).get();
+    observer.getRootFile().removeChild(missed);
+
+    observer.checkAndNotify();
+    verify(fileListener, never()).onFileCreate(any(File.class), any(Synchronization.class));
+
+    WatchEvent<?> overflow = mock(WatchEvent.class);
+    doReturn(StandardWatchEventKinds.OVERFLOW).when(overflow).kind();
+    WatchKey key = mock(WatchKey.class);
+    doReturn(Collections.singletonList(overflow)).when(key).pollEvents();
+    doReturn(true).when(key).reset();
+    observer.addChangedFiles(key, new HashMap<>());
+
+    observer.checkAndNotify();
+    verify(fileListener, times(1)).onFileCreate(eq(files[0]), any(Synchronization.class));
+    verify(fileListener, never()).onFileChange(any(File.class), any(Synchronization.class));
+    assertThat(observer.getRootFile().getChild(files[0]).isPresent(), is(true));
+    observer.destroy();
+  }
+
+  @Test
+  public void testWatchRetriesFailedTask() throws Exception {
+    observer.watch(TimeUnit.HOURS.toMillis(1));
+    observer.checkAndNotify();
+
+    timesToFail.set(1);
+    File[] newFiles = initFiles(1, monitoredDirectory, "retried00");
+    pollUntil(() -> countCalls("onFileCreate") == 2);
+
+    verify(fileListener, times(2)).onFileCreate(eq(newFiles[0]), any(Synchronization.class));
+    assertThat(failures, is(1));
+    assertThat(observer.getRootFile().getChild(newFiles[0]).isPresent(), is(true));
+    observer.destroy();
+  }
+
+  private void pollUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeout;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      observer.checkAndNotify();
+      Thread.sleep(50);
+    }
+  }
+
+  private long countCalls(String method) {
+    return Mockito.mockingDetails(fileListener).getInvocations().stream()
+        .filter(invocation -> invocation.getMethod().getName().equals(method))
+        .count();
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testloadNull() {
     AsyncFileAlterationObserver.load(new File("File"), null);
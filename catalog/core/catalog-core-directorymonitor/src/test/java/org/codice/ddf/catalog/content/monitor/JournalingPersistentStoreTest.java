@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.catalog.content.monitor;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JournalingPersistentStoreTest {
+
+  private static final String MAP_NAME = "test";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path persistencePath;
+
+  private File monitoredDirectory;
+
+  private AsyncFileEntry root;
+
+  private JournalingPersistentStore store;
+
+  @Before
+  public void setup() throws IOException {
+    persistencePath = temporaryFolder.newFolder("data").toPath();
+    monitoredDirectory = temporaryFolder.newFolder("inbox");
+    root = new AsyncFileEntry(monitoredDirectory);
+    store = new JournalingPersistentStore(MAP_NAME, persistencePath);
+  }
+
+  @Test
+  public void testLoadReplaysJournal() throws Exception {
+    AsyncFileEntry deleted = newEntry(root, "deleted");
+    AsyncFileEntry changed = newEntry(root, "changed");
+    store.store(root.getName(), root);
+
+    File subDirectory = new File(monitoredDirectory, "sub");
+    assertThat(subDirectory.mkdir(), is(true));
+    AsyncFileEntry directory = new AsyncFileEntry(root, subDirectory);
+    root.addChild(directory);
+    //  files are committed before the directory holding them
+    store.recordCommit(root.getName(), newEntry(directory, "nested"));
+    store.recordCommit(root.getName(), directory);
+    Files.write(changed.getFile().toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+    changed.commit();
+    store.recordCommit(root.getName(), changed);
+    Files.delete(deleted.getFile().toPath());
+    root.removeChild(deleted);
+    store.recordRemoval(root.getName(), deleted);
+    store.checkpoint(root.getName(), root);
+
+    assertThat(persistedFiles(".journal"), is(1L));
+
+    AsyncFileEntry loaded =
+        new JournalingPersistentStore(MAP_NAME, persistencePath)
+            .load(root.getName(), AsyncFileEntry.class);
+
+    assertThat(loaded, notNullValue());
+    loaded.initialize();
+    assertThat(names(loaded), contains("changed", "sub"));
+    assertThat(names(loaded.getChildren().get(1)), contains("nested"));
+    assertThat(loaded.getChildren().get(0).hasChanged(), is(false));
+  }
+
+  @Test
+  public void testLoadIgnoresIncompleteChange() throws Exception {
+    store.store(root.getName(), root);
+    store.recordCommit(root.getName(), newEntry(root, "committed"));
+    store.close(root.getName());
+
+    try (Stream<Path> journals = Files.list(persistencePath.resolve(MAP_NAME))) {
+      Path journal =
+          journals.filter(path -> path.toString().endsWith(".journal")).findFirst().orElse(null);
+      assertThat(journal, notNullValue());
+      Files.write(
+          journal,
+          "+{\"contentFile\":{\"path\":".getBytes(StandardCharsets.UTF_8),
+          StandardOpenOption.APPEND);
+    }
+
+    AsyncFileEntry loaded = store.load(root.getName(), AsyncFileEntry.class);
+
+    assertThat(loaded, notNullValue());
+    assertThat(names(loaded), contains("committed"));
+
+    store.recordCommit(root.getName(), newEntry(loaded, "afterLoad"));
+    store.close(root.getName());
+    AsyncFileEntry reloaded = store.load(root.getName(), AsyncFileEntry.class);
+
+    assertThat(reloaded, notNullValue());
+    assertThat(names(reloaded), containsInAnyOrder("committed", "afterLoad"));
+  }
+
+  @Test
+  public void testCheckpointWithoutSnapshotStoresTree() throws Exception {
+    store.recordCommit(root.getName(), newEntry(root, "committed"));
+    store.checkpoint(root.getName(), root);
+
+    assertThat(persistedFiles(".json"), is(1L));
+    assertThat(persistedFiles(".journal"), is(0L));
+    AsyncFileEntry loaded = store.load(root.getName(), AsyncFileEntry.class);
+    assertThat(loaded, notNullValue());
+    assertThat(names(loaded), contains("committed"));
+  }
+
+  @Test
+  public void testJournalWithoutSnapshotIsDiscarded() throws Exception {
+    store.recordCommit(root.getName(), newEntry(root, "committed"));
+    store.close(root.getName());
+
+    assertThat(store.load(root.getName(), AsyncFileEntry.class), is((AsyncFileEntry) null));
+    assertThat(persistedFiles(".journal"), is(0L));
+  }
+
+  private AsyncFileEntry newEntry(AsyncFileEntry parent, String name) throws IOException {
+    File file = new File(parent.getFile(), name);
+    Files.write(file.toPath(), name.getBytes(StandardCharsets.UTF_8));
+    AsyncFileEntry entry = new AsyncFileEntry(parent, file);
+    parent.addChild(entry);
+    return entry;
+  }
+
+  private List<String> names(AsyncFileEntry entry) {
+    return entry.getChildren().stream().map(AsyncFileEntry::getName).collect(Collectors.toList());
+  }
+
+  private long persistedFiles(String suffix) throws IOException {
+    try (Stream<Path> files = Files.list(persistencePath.resolve(MAP_NAME))) {
+      return files.filter(path -> path.toString().endsWith(suffix)).count();
+    }
+  }
+}
@@ -30,9 +30,11 @@
 import ddf.catalog.plugin.PreDeliveryPlugin;
 import ddf.catalog.plugin.PreSubscriptionPlugin;
 import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluator;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEventIndex;
+import ddf.catalog.pubsub.internal.EventDispatcher;
 import ddf.catalog.pubsub.internal.PubSubConstants;
-import ddf.catalog.pubsub.internal.PubSubThread;
 import ddf.catalog.pubsub.internal.SubscriptionFilterVisitor;
+import ddf.catalog.pubsub.internal.SubscriptionIndex;
 import ddf.catalog.pubsub.predicate.Predicate;
 import ddf.catalog.util.impl.Requests;
 import java.net.URI;
@@ -44,6 +46,8 @@
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 import org.apache.lucene.store.Directory;
 import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
 import org.osgi.framework.BundleContext;
@@ -64,6 +68,14 @@ public class EventProcessorImpl implements EventProcessor, EventHandler, PostIng
 
   public static final String EXITING = "EXITING: {}";
 
+  private static final int DEFAULT_DISPATCH_QUEUE_SIZE = 10000;
+
+  private static final int DEFAULT_DISPATCH_THREADS = 4;
+
+  private static final int DEFAULT_DISPATCH_BATCH_SIZE = 100;
+
+  private static final long DEFAULT_DISPATCH_OFFER_TIMEOUT_MILLIS = 1000;
+
   protected EventAdmin eventAdmin;
 
   protected BundleContext bundleContext;
@@ -74,7 +86,20 @@ public class EventProcessorImpl implements EventProcessor, EventHandler, PostIng
 
   protected CatalogFramework catalog;
 
-  private Map<String, ServiceRegistration> existingSubscriptions;
+  private final SubscriptionIndex<PublishedEventHandler> subscriptionIndex =
+      new SubscriptionIndex<>();
+
+  private ServiceRegistration dispatcherRegistration;
+
+  private int dispatchQueueSize = DEFAULT_DISPATCH_QUEUE_SIZE;
+
+  private int dispatchThreads = DEFAULT_DISPATCH_THREADS;
+
+  private int dispatchBatchSize = DEFAULT_DISPATCH_BATCH_SIZE;
+
+  private long dispatchOfferTimeoutMillis = DEFAULT_DISPATCH_OFFER_TIMEOUT_MILLIS;
+
+  private volatile EventDispatcher eventDispatcher;
 
   private final ExecutorService threadPool =
       Executors.newCachedThreadPool(
@@ -82,6 +107,7 @@ public class EventProcessorImpl implements EventProcessor, EventHandler, PostIng
 
   public EventProcessorImpl() {
     LOGGER.debug("INSIDE: EventProcessorImpl default constructor");
+    this.eventDispatcher = createEventDispatcher();
   }
 
   public EventProcessorImpl(
@@ -97,7 +123,7 @@ public EventProcessorImpl(
     this.preSubscription = preSubscription;
     this.preDelivery = preDelivery;
     this.catalog = catalog;
-    this.existingSubscriptions = new HashMap<>();
+    this.eventDispatcher = createEventDispatcher();
 
     if (this.preSubscription == null) {
       LOGGER.debug("preSubscription plugins list is NULL");
@@ -190,9 +216,14 @@ public static void processEntry(Metacard metacard, String operation, EventAdmin
           // index and the entry's metadata (in case subscription has
           // textPaths, then it can create Lucene
           // search indices on the metadata using its textPaths)
-          Map<String, Object> contextualMap = new HashMap<>(2, 1);
+          // The event index shares this index, and the ones built for text paths, between all
+          // of the subscriptions evaluating the event
+          Map<String, Object> contextualMap = new HashMap<>(3, 1);
           contextualMap.put("DEFAULT_INDEX", index);
           contextualMap.put("METADATA", metacard.getMetadata());
+          contextualMap.put(
+              PubSubConstants.CONTEXTUAL_EVENT_INDEX_KEY,
+              new ContextualEventIndex(metacard.getMetadata(), index));
           properties.put(PubSubConstants.HEADER_CONTEXTUAL_KEY, contextualMap);
         } catch (Exception e) {
           LOGGER.info("Exception updating context map", e);
@@ -215,6 +246,8 @@ public void init() {
     String methodName = "init";
     LOGGER.trace(ENTERING, methodName);
 
+    restartEventDispatcher();
+
     LOGGER.trace(EXITING, methodName);
   }
 
@@ -222,14 +255,89 @@ public void destroy() {
     String methodName = "destroy";
     LOGGER.trace(ENTERING, methodName);
 
+    unregisterDispatcher();
+    eventDispatcher.shutdown();
+
     LOGGER.trace(EXITING, methodName);
   }
 
+  /** @param dispatchQueueSize maximum number of metacard events waiting to be published */
+  public void setDispatchQueueSize(int dispatchQueueSize) {
+    this.dispatchQueueSize = dispatchQueueSize;
+  }
+
+  /** @param dispatchThreads maximum number of threads publishing metacard events */
+  public void setDispatchThreads(int dispatchThreads) {
+    this.dispatchThreads = dispatchThreads;
+  }
+
+  /** @param dispatchBatchSize maximum number of queued events published by a thread at once */
+  public void setDispatchBatchSize(int dispatchBatchSize) {
+    this.dispatchBatchSize = dispatchBatchSize;
+  }
+
+  /**
+   * @param dispatchOfferTimeoutMillis how long to wait for room in a full queue before the event is
+   *     published by the thread that delivered it
+   */
+  public void setDispatchOfferTimeoutMillis(long dispatchOfferTimeoutMillis) {
+    this.dispatchOfferTimeoutMillis = dispatchOfferTimeoutMillis;
+  }
+
+  /**
+   * Applies an updated configuration and then replaces the event dispatcher once, rather than once
+   * for every changed property.
+   *
+   * @param properties the updated configuration
+   */
+  public void updateConfiguration(Map<String, Object> properties) {
+    if (properties == null) {
+      return;
+    }
+
+    Object queueSize = properties.get("dispatchQueueSize");
+    if (queueSize instanceof Integer) {
+      setDispatchQueueSize((Integer) queueSize);
+    }
+    Object threads = properties.get("dispatchThreads");
+    if (threads instanceof Integer) {
+      setDispatchThreads((Integer) threads);
+    }
+    Object batchSize = properties.get("dispatchBatchSize");
+    if (batchSize instanceof Integer) {
+      setDispatchBatchSize((Integer) batchSize);
+    }
+    Object offerTimeout = properties.get("dispatchOfferTimeoutMillis");
+    if (offerTimeout instanceof Long) {
+      setDispatchOfferTimeoutMillis((Long) offerTimeout);
+    }
+
+    restartEventDispatcher();
+  }
+
+  private EventDispatcher createEventDispatcher() {
+    return new EventDispatcher(
+        eventAdmin,
+        dispatchQueueSize,
+        dispatchThreads,
+        dispatchBatchSize,
+        dispatchOfferTimeoutMillis);
+  }
+
+  private synchronized void restartEventDispatcher() {
+    EventDispatcher previous = eventDispatcher;
+    eventDispatcher = createEventDispatcher();
+    if (previous != null) {
+      // Events already queued are still published by the previous dispatcher
+      previous.shutdown();
+    }
+  }
+
   /**
    * By default the Felix EventAdmin implementation has a timeout of 5000 ms. Your event handler has
    * to return from the handle event method in this time frame. If it does not, it gets Blacklisted.
-   * Therefore, this method processes its events in a separate thread than the EventAdmin who called
-   * it.
+   * Therefore, this method queues its events to be processed by the {@link EventDispatcher} threads
+   * rather than the EventAdmin thread that called it.
    */
   @Override
   public void handleEvent(Event event) {
@@ -238,12 +346,12 @@ public void handleEvent(Event event) {
 
     LOGGER.debug("Received event: {}", event.getTopic());
 
-    if (!existingSubscriptions.isEmpty()) {
+    if (!subscriptionIndex.isEmpty()) {
       String topic = event.getTopic();
       Metacard entry = (Metacard) event.getProperty(EventProcessor.EVENT_METACARD);
       LOGGER.debug("metacard ID = {}", entry.getId());
 
-      new PubSubThread(entry, topic, eventAdmin).start();
+      eventDispatcher.dispatch(entry, topic);
     } else {
       LOGGER.debug(
           "No existing subscriptions, so no need to handle event since there is no one listening ...");
@@ -285,18 +393,12 @@ public void createSubscription(Subscription subscription, String subscriptionId)
       Predicate finalPredicate = (Predicate) subscription.accept(visitor, null);
       LOGGER.debug("predicate from filter visitor: {}", finalPredicate);
 
-      String[] topics = new String[] {PubSubConstants.PUBLISHED_EVENT_TOPIC_NAME};
-
-      Dictionary<String, String[]> props = new Hashtable<>(1, 1);
-      props.put(EventConstants.EVENT_TOPIC, topics);
-      ServiceRegistration serviceRegistration =
-          bundleContext.registerService(
-              EventHandler.class.getName(),
-              new PublishedEventHandler(
-                  finalPredicate, subscription, preDelivery, catalog, threadPool),
-              props);
-
-      existingSubscriptions.put(subscriptionId, serviceRegistration);
+      subscriptionIndex.add(
+          subscriptionId,
+          finalPredicate,
+          new PublishedEventHandler(
+              finalPredicate, subscription, preDelivery, catalog, threadPool));
+      registerDispatcher();
 
       LOGGER.debug("Subscription {} created.", subscriptionId);
     } catch (Exception e) {
@@ -334,11 +436,8 @@ public void deleteSubscription(String subscriptionId) throws SubscriptionNotFoun
 
     try {
       LOGGER.debug("Removing subscription: {}", subscriptionId);
-      ServiceRegistration sr = (ServiceRegistration) existingSubscriptions.get(subscriptionId);
-      if (sr != null) {
-        sr.unregister();
+      if (subscriptionIndex.remove(subscriptionId) != null) {
         LOGGER.debug("Removal complete");
-        existingSubscriptions.remove(subscriptionId);
       } else {
         LOGGER.debug(
             "Unable to find existing subscription: {}.  May already be deleted.", subscriptionId);
@@ -352,6 +451,36 @@ public void deleteSubscription(String subscriptionId) throws SubscriptionNotFoun
     LOGGER.trace(EXITING, methodName);
   }
 
+  /**
+   * Registers the single event handler that dispatches published events to the subscriptions
+   * returned by the {@link SubscriptionIndex}, rather than registering an event handler for every
+   * subscription that would evaluate each event against its full predicate.
+   */
+  private synchronized void registerDispatcher() {
+    if (dispatcherRegistration != null || bundleContext == null) {
+      return;
+    }
+
+    String[] topics = new String[] {PubSubConstants.PUBLISHED_EVENT_TOPIC_NAME};
+
+    Dictionary<String, String[]> props = new Hashtable<>(1, 1);
+    props.put(EventConstants.EVENT_TOPIC, topics);
+    dispatcherRegistration =
+        bundleContext.registerService(
+            EventHandler.class.getName(), new PublishedEventDispatcher(), props);
+  }
+
+  private synchronized void unregisterDispatcher() {
+    if (dispatcherRegistration != null) {
+      try {
+        dispatcherRegistration.unregister();
+      } catch (IllegalStateException e) {
+        LOGGER.debug("Published event dispatcher was already unregistered", e);
+      }
+      dispatcherRegistration = null;
+    }
+  }
+
   @Override
   public void notifyCreated(Metacard newMetacard) {
     LOGGER.trace("ENTERING: notifyCreated");
@@ -398,10 +527,7 @@ protected void postEvent(String topic, Metacard card) {
   public CreateResponse process(CreateResponse createResponse) throws PluginExecutionException {
     LOGGER.trace("ENTERING: process (CreateResponse");
     if (Requests.isLocal(createResponse.getRequest())) {
-      List<Metacard> createdMetacards = createResponse.getCreatedMetacards();
-      for (Metacard currMetacard : createdMetacards) {
-        postEvent(EventProcessor.EVENTS_TOPIC_CREATED, currMetacard);
-      }
+      dispatchEvents(EventProcessor.EVENTS_TOPIC_CREATED, createResponse.getCreatedMetacards());
     }
     LOGGER.trace("EXITING: process (CreateResponse)");
     return createResponse;
@@ -411,10 +537,11 @@ public CreateResponse process(CreateResponse createResponse) throws PluginExecut
   public UpdateResponse process(UpdateResponse updateResponse) throws PluginExecutionException {
     LOGGER.trace("ENTERING: process (UpdateResponse");
     if (Requests.isLocal(updateResponse.getRequest())) {
-      List<Update> updates = updateResponse.getUpdatedMetacards();
-      for (Update currUpdate : updates) {
-        postEvent(EventProcessor.EVENTS_TOPIC_UPDATED, currUpdate.getNewMetacard());
-      }
+      dispatchEvents(
+          EventProcessor.EVENTS_TOPIC_UPDATED,
+          updateResponse.getUpdatedMetacards().stream()
+              .map(Update::getNewMetacard)
+              .collect(Collectors.toList()));
     }
     LOGGER.trace("EXITING: process (UpdateResponse)");
     return updateResponse;
@@ -424,15 +551,59 @@ public UpdateResponse process(UpdateResponse updateResponse) throws PluginExecut
   public DeleteResponse process(DeleteResponse deleteResponse) throws PluginExecutionException {
     LOGGER.trace("ENTERING: process (DeleteResponse");
     if (Requests.isLocal(deleteResponse.getRequest())) {
-      List<Metacard> deletedMetacards = deleteResponse.getDeletedMetacards();
-      for (Metacard currMetacard : deletedMetacards) {
-        postEvent(EventProcessor.EVENTS_TOPIC_DELETED, currMetacard);
-      }
+      dispatchEvents(EventProcessor.EVENTS_TOPIC_DELETED, deleteResponse.getDeletedMetacards());
     }
     LOGGER.trace("EXITING: process (DeleteResponse)");
     return deleteResponse;
   }
 
+  /**
+   * Queues the metacards of one operation as a single event, instead of posting an event per
+   * metacard that {@link #handleEvent(Event)} would then queue one at a time.
+   *
+   * @param topic the {@link EventProcessor} topic of the operation
+   * @param metacards the metacards of the operation
+   */
+  private void dispatchEvents(String topic, List<Metacard> metacards) {
+    if (subscriptionIndex.isEmpty()) {
+      LOGGER.debug("No existing subscriptions, so no need to publish {} events", topic);
+      return;
+    }
+
+    LOGGER.debug("Dispatching {} metacards to topic: {}", metacards.size(), topic);
+    eventDispatcher.dispatch(metacards, topic);
+  }
+
+  private class PublishedEventDispatcher implements EventHandler {
+    @Override
+    public void handleEvent(Event event) {
+      // Keeps the event's metadata index open until every candidate has taken its own hold on it
+      ContextualEventIndex eventIndex = ContextualEventIndex.fromEvent(event);
+      if (eventIndex != null) {
+        eventIndex.acquire();
+      }
+      try {
+        threadPool.submit(
+            () -> {
+              try {
+                for (PublishedEventHandler handler : subscriptionIndex.getCandidates(event)) {
+                  handler.handleEvent(event);
+                }
+              } finally {
+                if (eventIndex != null) {
+                  eventIndex.release();
+                }
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        if (eventIndex != null) {
+          eventIndex.release();
+        }
+        throw e;
+      }
+    }
+  }
+
   /**
    * Enumeration of metacard Date attributes that can be used for subscriptions. In order to use
    * metacard attribute names for getting DateType values, {@link DateType#getDateType(String)}
@@ -18,12 +18,14 @@
 import ddf.catalog.event.Subscription;
 import ddf.catalog.operation.Pingable;
 import ddf.catalog.plugin.PreDeliveryPlugin;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEventIndex;
 import ddf.catalog.pubsub.internal.DeliveryProcessor;
 import ddf.catalog.pubsub.internal.PubSubConstants;
 import ddf.catalog.pubsub.predicate.Predicate;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import org.apache.commons.collections.CollectionUtils;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
@@ -58,7 +60,27 @@ public PublishedEventHandler(
 
   @Override
   public void handleEvent(Event event) {
-    threadPool.submit(new EventProcessor(event));
+    // The searchers of the event's metadata index stay open until this subscription evaluated it
+    ContextualEventIndex eventIndex = ContextualEventIndex.fromEvent(event);
+    if (eventIndex == null) {
+      threadPool.submit(new EventProcessor(event));
+      return;
+    }
+
+    eventIndex.acquire();
+    try {
+      threadPool.submit(
+          () -> {
+            try {
+              new EventProcessor(event).run();
+            } finally {
+              eventIndex.release();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      eventIndex.release();
+      throw e;
+    }
   }
 
   private class EventProcessor implements Runnable {
@@ -105,8 +105,49 @@ public static boolean evaluate(ContextualEvaluationCriteria cec)
     }
 
     // a. query
+    Query q = parseQuery(searchPhrase, cec.isCaseSensitiveSearch());
+
+    // b. search
+    IndexSearcher searcher = new IndexSearcher(index, true);
+    boolean evaluation = evaluate(q, searcher);
+
+    // searcher can only be closed when there
+    // is no need to access the documents any more.
+    searcher.close();
+
+    return evaluation;
+  }
+
+  /**
+   * Runs a parsed query against an already opened index, so that the same index can be searched by
+   * many queries without being rebuilt.
+   *
+   * @param query the query built by {@link #parseQuery(String, boolean)}
+   * @param searcher searcher on an index built by one of the {@code buildIndex} methods
+   * @return true if the query matched the indexed text
+   * @throws IOException if the index could not be searched
+   */
+  public static boolean evaluate(Query query, IndexSearcher searcher) throws IOException {
+    int hitsPerPage = 1;
+    TopDocs topDocs = searcher.search(query, hitsPerPage);
+
+    LOGGER.debug("Found {} hits.", topDocs.totalHits);
+
+    return topDocs.totalHits > 0;
+  }
+
+  /**
+   * Parses a normalized contextual search phrase into the Lucene query that is run against the
+   * index built by {@link #buildIndex(String)}.
+   *
+   * @param searchPhrase the normalized search phrase
+   * @param caseSensitive true to search the case-sensitive indexed text
+   * @return the parsed query
+   * @throws ParseException if the search phrase is not valid Lucene syntax
+   */
+  public static Query parseQuery(String searchPhrase, boolean caseSensitive) throws ParseException {
     QueryParser queryParser = null;
-    if (cec.isCaseSensitiveSearch()) {
+    if (caseSensitive) {
       LOGGER.debug("Doing case-sensitive search ...");
       queryParser =
           new QueryParser(
@@ -127,21 +168,7 @@ public static boolean evaluate(ContextualEvaluationCriteria cec)
     // contextual search phrase
     queryParser.setAllowLeadingWildcard(true);
 
-    Query q = queryParser.parse(searchPhrase);
-
-    // b. search
-    int hitsPerPage = 1;
-    IndexSearcher searcher = new IndexSearcher(index, true);
-    TopDocs topDocs = searcher.search(q, hitsPerPage);
-
-    // c. display results
-    LOGGER.debug("Found {} hits.", topDocs.totalHits);
-
-    // searcher can only be closed when there
-    // is no need to access the documents any more.
-    searcher.close();
-
-    return topDocs.totalHits > 0;
+    return queryParser.parse(searchPhrase);
   }
 
   /**
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.pubsub.criteria.contextual;
+
+import ddf.catalog.pubsub.internal.PubSubConstants;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.Directory;
+import org.osgi.service.event.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Lucene indexes of one event's metadata, shared by all of the contextual subscriptions that
+ * evaluate the event. The metadata is analyzed once into the default index, which holds both the
+ * case-insensitive and case-sensitive text, and once more for each distinct set of text paths used
+ * by the subscriptions. Searchers are opened on first use and then reused.
+ *
+ * <p>Each evaluation of the event holds the index with {@link #acquire()} and {@link #release()},
+ * and the searchers are closed when the last one releases it. Holds are counted under the lock of
+ * the index, so that an evaluation acquiring it cannot race the close of the searchers.
+ */
+public class ContextualEventIndex implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContextualEventIndex.class);
+
+  private final String metadata;
+
+  private final Directory defaultIndex;
+
+  private final Map<List<String>, IndexSearcher> textPathSearchers = new ConcurrentHashMap<>();
+
+  private volatile IndexSearcher defaultSearcher;
+
+  /** The number of holds on the index, guarded by the lock of the index. */
+  private int references;
+
+  /**
+   * @param metadata the metadata of the event's metacard
+   * @param defaultIndex the index of the metadata built with {@link
+   *     ContextualEvaluator#buildIndex(String)}
+   */
+  public ContextualEventIndex(String metadata, Directory defaultIndex) {
+    this.metadata = metadata;
+    this.defaultIndex = defaultIndex;
+  }
+
+  /**
+   * Returns the shared index of an event, or wraps the default index of events that were not posted
+   * with one.
+   *
+   * @param contextualMap the contextual information of the event
+   * @return the index of the event's metadata
+   */
+  public static ContextualEventIndex fromContextualMap(Map<String, Object> contextualMap) {
+    Object eventIndex = contextualMap.get(PubSubConstants.CONTEXTUAL_EVENT_INDEX_KEY);
+    if (eventIndex instanceof ContextualEventIndex) {
+      return (ContextualEventIndex) eventIndex;
+    }
+
+    return new ContextualEventIndex(
+        (String) contextualMap.get("METADATA"), (Directory) contextualMap.get("DEFAULT_INDEX"));
+  }
+
+  /**
+   * @param event a published event
+   * @return the index shared by the subscriptions evaluating the event, or {@code null} if the
+   *     event was not posted with one
+   */
+  public static ContextualEventIndex fromEvent(Event event) {
+    Object contextualMap = event.getProperty(PubSubConstants.HEADER_CONTEXTUAL_KEY);
+    if (contextualMap instanceof Map) {
+      Object eventIndex =
+          ((Map<?, ?>) contextualMap).get(PubSubConstants.CONTEXTUAL_EVENT_INDEX_KEY);
+      if (eventIndex instanceof ContextualEventIndex) {
+        return (ContextualEventIndex) eventIndex;
+      }
+    }
+    return null;
+  }
+
+  /** Holds the index open until the matching {@link #release()}. */
+  public synchronized void acquire() {
+    references++;
+  }
+
+  /** Releases a hold taken with {@link #acquire()}, closing the searchers after the last one. */
+  public synchronized void release() {
+    if (references > 0 && --references == 0) {
+      close();
+    }
+  }
+
+  /** Closes the searchers opened on the index. */
+  @Override
+  public synchronized void close() {
+    if (defaultSearcher != null) {
+      closeSearcher(defaultSearcher);
+      defaultSearcher = null;
+    }
+    textPathSearchers.values().forEach(ContextualEventIndex::closeSearcher);
+    textPathSearchers.clear();
+  }
+
+  private static void closeSearcher(IndexSearcher searcher) {
+    try {
+      searcher.close();
+    } catch (IOException e) {
+      LOGGER.debug("Unable to close searcher of the event metadata index", e);
+    }
+  }
+
+  /** @return a searcher on the index of the entire metadata selected by the default XPaths */
+  public IndexSearcher getSearcher() throws IOException {
+    IndexSearcher searcher = defaultSearcher;
+    if (searcher == null) {
+      synchronized (this) {
+        searcher = defaultSearcher;
+        if (searcher == null) {
+          searcher = new IndexSearcher(defaultIndex, true);
+          defaultSearcher = searcher;
+        }
+      }
+    }
+    return searcher;
+  }
+
+  /**
+   * @param textPaths the XPaths selecting the text to index
+   * @return a searcher on the index of the metadata selected by the text paths
+   */
+  public IndexSearcher getSearcher(Collection<String> textPaths) throws IOException {
+    try {
+      return textPathSearchers.computeIfAbsent(
+          new ArrayList<>(textPaths), this::createTextPathSearcher);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private IndexSearcher createTextPathSearcher(List<String> textPaths) {
+    try {
+      return new IndexSearcher(
+          ContextualEvaluator.buildIndex(metadata, textPaths.toArray(new String[0])), true);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
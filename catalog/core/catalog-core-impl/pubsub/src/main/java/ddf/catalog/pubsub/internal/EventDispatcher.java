@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.pubsub.internal;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.event.EventProcessor;
+import ddf.catalog.pubsub.EventProcessorImpl;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
+import org.osgi.service.event.EventAdmin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Turns the created, updated and deleted metacard events into published events on a bounded number
+ * of threads.
+ *
+ * <p>Events wait in a bounded queue and are drained in batches. The metacards of one create, update
+ * or delete response are queued together as a single event, so a bulk ingest is handled by a few
+ * tasks instead of one thread per metacard. When the queue is full the caller waits up to the offer
+ * timeout for room and then handles the event itself, which slows down the producer instead of
+ * dropping events. The queue depth, batch sizes and the latency between queuing and publishing an
+ * event are recorded as metrics.
+ */
+public class EventDispatcher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventDispatcher.class);
+
+  private static final String METRIC_PREFIX = "ddf.catalog.pubsub.dispatch";
+
+  private static final AtomicInteger QUEUE_DEPTH =
+      Metrics.gauge(METRIC_PREFIX + ".queue", new AtomicInteger());
+
+  private static final Timer LATENCY = Metrics.timer(METRIC_PREFIX + ".latency");
+
+  private static final DistributionSummary BATCH_SIZE = Metrics.summary(METRIC_PREFIX + ".batch");
+
+  private final EventAdmin eventAdmin;
+
+  private final BlockingQueue<PendingEvent> queue;
+
+  private final ThreadPoolExecutor workers;
+
+  private final int threads;
+
+  private final int batchSize;
+
+  private final long offerTimeoutMillis;
+
+  private final AtomicInteger activeDrainers = new AtomicInteger();
+
+  /**
+   * @param eventAdmin used to post the published events
+   * @param queueSize maximum number of events, each holding one or more metacards, waiting to be
+   *     published
+   * @param threads maximum number of threads publishing events
+   * @param batchSize maximum number of events taken off the queue at once by a thread
+   * @param offerTimeoutMillis how long to wait for room in a full queue before the caller publishes
+   *     the event itself
+   */
+  public EventDispatcher(
+      EventAdmin eventAdmin, int queueSize, int threads, int batchSize, long offerTimeoutMillis) {
+    this.eventAdmin = eventAdmin;
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+    this.threads = Math.max(1, threads);
+    this.batchSize = Math.max(1, batchSize);
+    this.offerTimeoutMillis = Math.max(0, offerTimeoutMillis);
+
+    // Threads are only started while there are events to publish
+    this.workers =
+        new ThreadPoolExecutor(
+            this.threads,
+            this.threads,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            StandardThreadFactoryBuilder.newThreadFactory("eventDispatcherThread"));
+    this.workers.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Queues a metacard event to be published.
+   *
+   * @param entry the metacard
+   * @param topic the {@link EventProcessor} topic of the event
+   */
+  public void dispatch(Metacard entry, String topic) {
+    dispatch(Collections.singletonList(entry), topic);
+  }
+
+  /**
+   * Queues the metacards of a single operation to be published together.
+   *
+   * @param entries the metacards
+   * @param topic the {@link EventProcessor} topic of the event
+   */
+  public void dispatch(List<Metacard> entries, String topic) {
+    if (entries.isEmpty()) {
+      return;
+    }
+
+    PendingEvent event = new PendingEvent(entries, topic);
+
+    boolean queued = false;
+    try {
+      queued = queue.offer(event, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (!queued) {
+      LOGGER.debug("Event queue is full, publishing event for {} metacards inline", entries.size());
+      publish(event);
+      return;
+    }
+
+    QUEUE_DEPTH.incrementAndGet();
+    startDrainer();
+  }
+
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /** Stops accepting new work. Events already queued are still published by the running threads. */
+  public void shutdown() {
+    workers.shutdown();
+  }
+
+  private void startDrainer() {
+    if (!reserveDrainer()) {
+      // The running drainers will pick up the event
+      return;
+    }
+
+    try {
+      workers.execute(this::drain);
+    } catch (RejectedExecutionException e) {
+      activeDrainers.decrementAndGet();
+      LOGGER.debug("Event dispatcher is shut down, publishing queued events inline", e);
+      drain();
+    }
+  }
+
+  private boolean reserveDrainer() {
+    int active;
+    do {
+      active = activeDrainers.get();
+      if (active >= threads) {
+        return false;
+      }
+    } while (!activeDrainers.compareAndSet(active, active + 1));
+    return true;
+  }
+
+  private void drain() {
+    List<PendingEvent> batch = new ArrayList<>(batchSize);
+    while (true) {
+      batch.clear();
+      queue.drainTo(batch, batchSize);
+
+      if (batch.isEmpty()) {
+        activeDrainers.decrementAndGet();
+        // An event may have been queued after the drain but before the decrement
+        if (queue.isEmpty() || !reserveDrainer()) {
+          return;
+        }
+        continue;
+      }
+
+      QUEUE_DEPTH.addAndGet(-batch.size());
+      int metacards = batch.stream().mapToInt(event -> event.entries.size()).sum();
+      BATCH_SIZE.record(metacards);
+      LOGGER.debug("Publishing batch of {} events for {} metacards", batch.size(), metacards);
+
+      for (PendingEvent event : batch) {
+        publish(event);
+      }
+    }
+  }
+
+  private void publish(PendingEvent event) {
+    String topic = event.topic;
+    LOGGER.debug("Processing entry event - topic = {}", topic);
+
+    String operation;
+    if (topic.equals(EventProcessor.EVENTS_TOPIC_CREATED)) {
+      operation = PubSubConstants.CREATE;
+    } else if (topic.equals(EventProcessor.EVENTS_TOPIC_UPDATED)) {
+      operation = PubSubConstants.UPDATE;
+    } else if (topic.equals(EventProcessor.EVENTS_TOPIC_DELETED)) {
+      operation = PubSubConstants.DELETE;
+    } else {
+      return;
+    }
+
+    for (Metacard entry : event.entries) {
+      try {
+        EventProcessorImpl.processEntry(entry, operation, eventAdmin);
+      } catch (RuntimeException e) {
+        LOGGER.info("Unable to publish event for metacard {}", entry.getId(), e);
+      }
+    }
+    LATENCY.record(System.nanoTime() - event.queuedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private static class PendingEvent {
+    private final List<Metacard> entries;
+
+    private final String topic;
+
+    private final long queuedNanos = System.nanoTime();
+
+    private PendingEvent(List<Metacard> entries, String topic) {
+      this.entries = entries;
+      this.topic = topic;
+    }
+  }
+}
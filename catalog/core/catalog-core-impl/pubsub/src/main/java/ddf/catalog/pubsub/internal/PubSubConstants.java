@@ -60,5 +60,8 @@ public class PubSubConstants {
 
   public static final String METADATA_DELETED = "<deleted/>";
 
+  /** Key of the {@code ContextualEventIndex} shared by all subscriptions in the contextual map */
+  public static final String CONTEXTUAL_EVENT_INDEX_KEY = "EVENT_INDEX";
+
   private PubSubConstants() {}
 }
@@ -0,0 +1,614 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.pubsub.internal;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.pubsub.EventProcessorImpl.DateType;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluator;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEventIndex;
+import ddf.catalog.pubsub.criteria.geospatial.SpatialOperator;
+import ddf.catalog.pubsub.predicate.AndPredicate;
+import ddf.catalog.pubsub.predicate.ContentTypePredicate;
+import ddf.catalog.pubsub.predicate.ContextualPredicate;
+import ddf.catalog.pubsub.predicate.GeospatialPredicate;
+import ddf.catalog.pubsub.predicate.OrPredicate;
+import ddf.catalog.pubsub.predicate.Predicate;
+import ddf.catalog.pubsub.predicate.TemporalPredicate;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermEnum;
+import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.geotools.geometry.jts.WKTReader2;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.bintree.Bintree;
+import org.locationtech.jts.index.bintree.Interval;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.osgi.service.event.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes the predicates of the registered subscriptions so that only the subscriptions that could
+ * possibly match an event have to be evaluated against it.
+ *
+ * <p>Each subscription predicate is reduced to a set of keys, where the predicate can only match an
+ * event that hits at least one of those keys:
+ *
+ * <ul>
+ *   <li>{@link ContentTypePredicate}s without wildcards are keyed by content type in a hash map
+ *   <li>{@link GeospatialPredicate}s are keyed by the envelope of their geometry, grown by the
+ *       search distance, in a quadtree
+ *   <li>absolute {@link TemporalPredicate}s are keyed by their time period in a binary interval
+ *       tree for each {@link DateType}
+ *   <li>{@link ContextualPredicate}s searching the default metadata index are keyed by the terms
+ *       every matching document must contain
+ * </ul>
+ *
+ * An AND is keyed by its most selective side and an OR by the union of both sides. Predicates that
+ * cannot be reduced this way, such as NOTs, wildcards and relative time periods, are evaluated for
+ * every event. The keys are conservative, so the returned candidates still have to be evaluated
+ * against their full predicate.
+ */
+public class SubscriptionIndex<T> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionIndex.class);
+
+  private static final Pattern CONTENT_TYPE_PATTERN_CHARS =
+      Pattern.compile("[\\\\.*+?^$|()\\[\\]{}]");
+
+  private static final double OPEN_START = Long.MIN_VALUE;
+
+  private static final double OPEN_END = Long.MAX_VALUE;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Entry<T>> entries = new LinkedHashMap<>();
+
+  private final Set<Entry<T>> unindexed = new LinkedHashSet<>();
+
+  private final Map<String, Set<Entry<T>>> contentTypes = new HashMap<>();
+
+  private final Quadtree geospatialTree = new Quadtree();
+
+  private final Map<DateType, Bintree> temporalTrees = new EnumMap<>(DateType.class);
+
+  private final Map<Term, Set<Entry<T>>> termPostings = new HashMap<>();
+
+  /**
+   * Adds a subscription to the index, replacing any subscription already registered with the same
+   * ID.
+   *
+   * @param id the subscription ID
+   * @param predicate the subscription predicate, or null for a subscription without a filter
+   * @param value the value returned for the subscription by {@link #getCandidates(Event)}
+   */
+  public void add(String id, Predicate predicate, T value) {
+    List<Key> keys = predicate == null ? null : getKeys(predicate);
+
+    lock.writeLock().lock();
+    try {
+      removeEntry(id);
+
+      Entry<T> entry = new Entry<>(value, keys);
+      entries.put(id, entry);
+      if (keys == null) {
+        unindexed.add(entry);
+      } else {
+        for (Key key : keys) {
+          key.insert(entry);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    LOGGER.debug("Indexed subscription {} with {} keys", id, keys == null ? "no" : keys.size());
+  }
+
+  /**
+   * Removes a subscription from the index.
+   *
+   * @param id the subscription ID
+   * @return the value of the removed subscription, or null if no subscription had the ID
+   */
+  public T remove(String id) {
+    lock.writeLock().lock();
+    try {
+      Entry<T> entry = removeEntry(id);
+      return entry == null ? null : entry.value;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns the subscriptions whose predicates could match the event.
+   *
+   * @param event event built by {@link ddf.catalog.pubsub.EventProcessorImpl#processEntry}
+   * @return the values of the candidate subscriptions
+   */
+  public List<T> getCandidates(Event event) {
+    lock.readLock().lock();
+    try {
+      if (isDeletedEntry(event)) {
+        // Every predicate lets these events through, see ContextualPredicate
+        return getValues(entries.values());
+      }
+
+      Set<Entry<T>> candidates = new LinkedHashSet<>(unindexed);
+      addContentTypeCandidates(event, candidates);
+
+      Metacard metacard = (Metacard) event.getProperty(PubSubConstants.HEADER_ENTRY_KEY);
+      if (metacard != null) {
+        addGeospatialCandidates(metacard, candidates);
+        addTemporalCandidates(metacard, candidates);
+      }
+
+      addContextualCandidates(event, candidates);
+
+      LOGGER.debug("Found {} of {} candidate subscriptions", candidates.size(), entries.size());
+      return getValues(candidates);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Entry<T> removeEntry(String id) {
+    Entry<T> entry = entries.remove(id);
+    if (entry != null) {
+      if (entry.keys == null) {
+        unindexed.remove(entry);
+      } else {
+        for (Key key : entry.keys) {
+          key.delete(entry);
+        }
+      }
+    }
+    return entry;
+  }
+
+  private List<T> getValues(Iterable<Entry<T>> candidates) {
+    List<T> values = new ArrayList<>();
+    for (Entry<T> entry : candidates) {
+      values.add(entry.value);
+    }
+    return values;
+  }
+
+  private boolean isDeletedEntry(Event event) {
+    Map<String, Object> contextualMap =
+        (Map<String, Object>) event.getProperty(PubSubConstants.HEADER_CONTEXTUAL_KEY);
+
+    return contextualMap != null
+        && PubSubConstants.DELETE.equals(event.getProperty(PubSubConstants.HEADER_OPERATION_KEY))
+        && PubSubConstants.METADATA_DELETED.equals(contextualMap.get("METADATA"));
+  }
+
+  private void addContentTypeCandidates(Event event, Set<Entry<T>> candidates) {
+    if (contentTypes.isEmpty()) {
+      return;
+    }
+
+    // Same parsing as ContentTypeEvaluator
+    Object contentType = event.getProperty(PubSubConstants.HEADER_CONTENT_TYPE_KEY);
+    String inputType = "null";
+    if (contentType != null) {
+      String[] typeVersionPair = contentType.toString().split(",");
+      if (typeVersionPair.length > 0 && !typeVersionPair[0].isEmpty()) {
+        inputType = typeVersionPair[0];
+      }
+    }
+
+    candidates.addAll(contentTypes.getOrDefault(inputType, Collections.emptySet()));
+  }
+
+  private void addGeospatialCandidates(Metacard metacard, Set<Entry<T>> candidates) {
+    if (geospatialTree.size() == 0 || metacard.getLocation() == null) {
+      return;
+    }
+
+    Envelope envelope;
+    try {
+      envelope = new WKTReader2().read(metacard.getLocation()).getEnvelopeInternal();
+    } catch (org.locationtech.jts.io.ParseException e) {
+      LOGGER.debug("Unable to parse location of metacard {}", metacard.getId(), e);
+      return;
+    }
+
+    for (Object item : geospatialTree.query(envelope)) {
+      GeospatialKey key = (GeospatialKey) item;
+      if (key.envelope.intersects(envelope)) {
+        candidates.add(key.entry);
+      }
+    }
+  }
+
+  private void addTemporalCandidates(Metacard metacard, Set<Entry<T>> candidates) {
+    for (Map.Entry<DateType, Bintree> tree : temporalTrees.entrySet()) {
+      Date date;
+      try {
+        date = TemporalPredicate.getDate(metacard, tree.getKey());
+      } catch (RuntimeException e) {
+        LOGGER.debug("Unable to get {} date of metacard {}", tree.getKey(), metacard.getId(), e);
+        continue;
+      }
+
+      if (date == null) {
+        continue;
+      }
+
+      double time = date.getTime();
+      for (Object item : tree.getValue().query(time)) {
+        TemporalKey key = (TemporalKey) item;
+        if (key.interval.getMin() <= time && time <= key.interval.getMax()) {
+          candidates.add(key.entry);
+        }
+      }
+    }
+  }
+
+  private void addContextualCandidates(Event event, Set<Entry<T>> candidates) {
+    if (termPostings.isEmpty()) {
+      return;
+    }
+
+    Map<String, Object> contextualMap =
+        (Map<String, Object>) event.getProperty(PubSubConstants.HEADER_CONTEXTUAL_KEY);
+    if (contextualMap == null || !(contextualMap.get("DEFAULT_INDEX") instanceof Directory)) {
+      return;
+    }
+
+    // The reader belongs to the event index, which closes it once no evaluation holds the index
+    ContextualEventIndex eventIndex = ContextualEventIndex.fromContextualMap(contextualMap);
+    eventIndex.acquire();
+    try {
+      IndexReader reader = eventIndex.getSearcher().getIndexReader();
+      TermEnum terms = reader.terms();
+      try {
+        while (terms.next()) {
+          Set<Entry<T>> postings = termPostings.get(terms.term());
+          if (postings != null) {
+            candidates.addAll(postings);
+          }
+        }
+      } finally {
+        terms.close();
+      }
+    } catch (IOException e) {
+      // Fall back to evaluating every contextual subscription
+      LOGGER.debug("Unable to read the terms of the metadata index", e);
+      for (Set<Entry<T>> postings : termPostings.values()) {
+        candidates.addAll(postings);
+      }
+    } finally {
+      eventIndex.release();
+    }
+  }
+
+  /**
+   * Reduces a predicate to the keys at least one of which must be hit by any event it matches.
+   *
+   * @return the keys, or null if the predicate cannot be indexed
+   */
+  private List<Key> getKeys(Predicate predicate) {
+    if (predicate instanceof AndPredicate) {
+      List<Key> left = getKeys(((AndPredicate) predicate).getLeft());
+      List<Key> right = getKeys(((AndPredicate) predicate).getRight());
+      if (left == null) {
+        return right;
+      } else if (right == null) {
+        return left;
+      }
+      return left.size() <= right.size() ? left : right;
+    } else if (predicate instanceof OrPredicate) {
+      List<Key> left = getKeys(((OrPredicate) predicate).getLeft());
+      List<Key> right = getKeys(((OrPredicate) predicate).getRight());
+      if (left == null || right == null) {
+        return null;
+      }
+      List<Key> keys = new ArrayList<>(left);
+      keys.addAll(right);
+      return keys;
+    } else if (predicate instanceof ContentTypePredicate) {
+      return getContentTypeKeys((ContentTypePredicate) predicate);
+    } else if (predicate instanceof GeospatialPredicate) {
+      return getGeospatialKeys((GeospatialPredicate) predicate);
+    } else if (predicate instanceof TemporalPredicate) {
+      return getTemporalKeys((TemporalPredicate) predicate);
+    } else if (predicate instanceof ContextualPredicate) {
+      return getContextualKeys((ContextualPredicate) predicate);
+    }
+
+    return null;
+  }
+
+  private List<Key> getContentTypeKeys(ContentTypePredicate predicate) {
+    String type = predicate.getType();
+    // ContentTypeEvaluator matches types as regular expressions
+    if (type == null || CONTENT_TYPE_PATTERN_CHARS.matcher(type).find()) {
+      return null;
+    }
+    return Collections.singletonList(new ContentTypeKey(type));
+  }
+
+  private List<Key> getGeospatialKeys(GeospatialPredicate predicate) {
+    Geometry geometry = predicate.getGeoCriteria();
+    if (geometry == null || geometry.isEmpty()) {
+      return null;
+    }
+
+    Envelope envelope = new Envelope(geometry.getEnvelopeInternal());
+    double distance = Math.abs(predicate.getDistance());
+
+    // Mirrors GeospatialEvaluator, which only has non-empty results for these operations
+    if (distance < 0.000001) {
+      String operation = predicate.getGeoOperation();
+      if (operation == null
+          || (!SpatialOperator.CONTAINS.name().equalsIgnoreCase(operation)
+              && !SpatialOperator.OVERLAPS.name().equalsIgnoreCase(operation))) {
+        return null;
+      }
+    } else {
+      envelope.expandBy(distance);
+    }
+
+    return Collections.singletonList(new GeospatialKey(envelope));
+  }
+
+  private List<Key> getTemporalKeys(TemporalPredicate predicate) {
+    // Relative periods move with the current time, so they cannot be indexed
+    if (predicate.getOffset() > 0 || predicate.getType() == null) {
+      return null;
+    }
+
+    Date start = predicate.getStart();
+    Date end = predicate.getEnd();
+    if (start == null && end == null) {
+      return null;
+    }
+
+    return Collections.singletonList(
+        new TemporalKey(
+            predicate.getType(),
+            new Interval(
+                start == null ? OPEN_START : start.getTime(),
+                end == null ? OPEN_END : end.getTime())));
+  }
+
+  private List<Key> getContextualKeys(ContextualPredicate predicate) {
+    String searchPhrase = predicate.getSearchPhrase();
+    // Predicates with text paths search their own index and not the default one
+    if (predicate.hasTextPaths() || searchPhrase == null || searchPhrase.isEmpty()) {
+      return null;
+    }
+
+    try {
+      Set<Term> terms =
+          getRequiredTerms(
+              ContextualEvaluator.parseQuery(searchPhrase, predicate.isCaseSensitive()));
+      if (terms == null) {
+        return null;
+      }
+
+      List<Key> keys = new ArrayList<>(terms.size());
+      for (Term term : terms) {
+        keys.add(new TermKey(term));
+      }
+      return keys;
+    } catch (ParseException e) {
+      LOGGER.debug("Unable to parse contextual search phrase {}", searchPhrase, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the terms at least one of which must be in any document matched by the query.
+   *
+   * @return the terms, or null if they cannot be determined for the query
+   */
+  private Set<Term> getRequiredTerms(Query query) {
+    if (query instanceof TermQuery) {
+      return Collections.singleton(((TermQuery) query).getTerm());
+    } else if (query instanceof PhraseQuery) {
+      Term[] terms = ((PhraseQuery) query).getTerms();
+      return terms.length == 0 ? null : Collections.singleton(terms[0]);
+    } else if (query instanceof BooleanQuery) {
+      return getRequiredTerms((BooleanQuery) query);
+    }
+
+    // Wildcard, prefix, fuzzy and range queries can match terms that are not known up front
+    return null;
+  }
+
+  private Set<Term> getRequiredTerms(BooleanQuery query) {
+    Set<Term> required = null;
+    Set<Term> optional = new HashSet<>();
+    boolean optionalIndexable = true;
+    boolean hasOptional = false;
+
+    for (BooleanClause clause : query.getClauses()) {
+      if (clause.isProhibited()) {
+        continue;
+      }
+
+      Set<Term> terms = getRequiredTerms(clause.getQuery());
+      if (clause.isRequired()) {
+        if (terms != null && (required == null || terms.size() < required.size())) {
+          required = terms;
+        }
+      } else {
+        hasOptional = true;
+        if (terms == null) {
+          optionalIndexable = false;
+        } else {
+          optional.addAll(terms);
+        }
+      }
+    }
+
+    if (required != null) {
+      return required;
+    }
+
+    return hasOptional && optionalIndexable ? optional : null;
+  }
+
+  private static class Entry<T> {
+    private final T value;
+
+    private final List<Key> keys;
+
+    private Entry(T value, List<Key> keys) {
+      this.value = value;
+      this.keys = keys;
+    }
+  }
+
+  private abstract class Key {
+    abstract void insert(Entry<T> entry);
+
+    abstract void delete(Entry<T> entry);
+  }
+
+  private class ContentTypeKey extends Key {
+    private final String type;
+
+    private ContentTypeKey(String type) {
+      this.type = type;
+    }
+
+    @Override
+    void insert(Entry<T> entry) {
+      contentTypes.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(entry);
+    }
+
+    @Override
+    void delete(Entry<T> entry) {
+      removePosting(contentTypes, type, entry);
+    }
+  }
+
+  private class TermKey extends Key {
+    private final Term term;
+
+    private TermKey(Term term) {
+      this.term = term;
+    }
+
+    @Override
+    void insert(Entry<T> entry) {
+      termPostings.computeIfAbsent(term, t -> new LinkedHashSet<>()).add(entry);
+    }
+
+    @Override
+    void delete(Entry<T> entry) {
+      removePosting(termPostings, term, entry);
+    }
+  }
+
+  private class GeospatialKey extends Key {
+    private final Envelope envelope;
+
+    private Entry<T> entry;
+
+    private GeospatialKey(Envelope envelope) {
+      this.envelope = envelope;
+    }
+
+    @Override
+    void insert(Entry<T> entry) {
+      this.entry = entry;
+      geospatialTree.insert(envelope, this);
+    }
+
+    @Override
+    void delete(Entry<T> entry) {
+      geospatialTree.remove(envelope, this);
+    }
+  }
+
+  private class TemporalKey extends Key {
+    private final DateType type;
+
+    private final Interval interval;
+
+    private Entry<T> entry;
+
+    private TemporalKey(DateType type, Interval interval) {
+      this.type = type;
+      this.interval = interval;
+    }
+
+    @Override
+    void insert(Entry<T> entry) {
+      this.entry = entry;
+      temporalTrees.computeIfAbsent(type, t -> new Bintree()).insert(interval, this);
+    }
+
+    @Override
+    void delete(Entry<T> entry) {
+      Bintree tree = temporalTrees.get(type);
+      if (tree != null) {
+        tree.remove(interval, this);
+        if (tree.size() == 0) {
+          temporalTrees.remove(type);
+        }
+      }
+    }
+  }
+
+  private static <K, V> void removePosting(Map<K, Set<V>> postings, K key, V value) {
+    Set<V> values = postings.get(key);
+    if (values != null) {
+      values.remove(value);
+      if (values.isEmpty()) {
+        postings.remove(key);
+      }
+    }
+  }
+}
@@ -16,6 +16,7 @@
 import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluationCriteria;
 import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluationCriteriaImpl;
 import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluator;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEventIndex;
 import ddf.catalog.pubsub.criteria.contextual.ContextualTokenizer;
 import ddf.catalog.pubsub.internal.PubSubConstants;
 import java.io.IOException;
@@ -26,7 +27,8 @@
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.lucene.queryParser.ParseException;
-import org.apache.lucene.store.Directory;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
 import org.osgi.service.event.Event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +44,8 @@ public class ContextualPredicate implements Predicate {
 
   private Collection<String> textPaths;
 
+  private Query query;
+
   public ContextualPredicate(
       String searchPhrase,
       boolean fuzzy,
@@ -55,6 +59,15 @@ public ContextualPredicate(
       this.textPaths = new ArrayList<String>(textPaths);
     }
     this.searchPhrase = normalizePhrase(searchPhrase, fuzzy);
+
+    // Parse the search phrase once here instead of for every event
+    if (!this.searchPhrase.isEmpty()) {
+      try {
+        this.query = ContextualEvaluator.parseQuery(this.searchPhrase, caseSensitiveSearch);
+      } catch (ParseException e) {
+        LOGGER.debug("Unable to parse contextual search phrase {}", this.searchPhrase, e);
+      }
+    }
   }
 
   public static boolean isContextual(String searchPhrase) {
@@ -209,7 +222,6 @@ public boolean matches(Event properties) {
 
     LOGGER.debug("Headers: {}", properties);
 
-    ContextualEvaluationCriteria cec = null;
     Map<String, Object> contextualMap =
         (Map<String, Object>) properties.getProperty(PubSubConstants.HEADER_CONTEXTUAL_KEY);
 
@@ -235,46 +247,30 @@ public boolean matches(Event properties) {
       return true;
     }
 
-    // If predicate specified one or more text paths, then extract the entry's metadata from the
-    // Event properties and
-    // pass it and the text path(s) to the evaluation criteria (which will build a Lucene index
-    // on the metadata using the
-    // text paths)
-    if (this.textPaths != null && !this.textPaths.isEmpty()) {
-      LOGGER.debug("creating criteria with textPaths and metadata document");
-      try {
-        cec =
-            new ContextualEvaluationCriteriaImpl(
-                searchPhrase,
-                fuzzy,
-                caseSensitiveSearch,
-                this.textPaths.toArray(new String[this.textPaths.size()]),
-                (String) contextualMap.get("METADATA"));
-      } catch (IOException e) {
-        LOGGER.debug("IO exception during context evaluation", e);
-        return false;
-      }
+    // Without a search phrase the predicate only checks that its text paths exist in the
+    // metadata, which does not need a Lucene index
+    if (searchPhrase.isEmpty()) {
+      return hasTextPaths() && evaluateTextPaths(metadata);
+    }
 
-      // This predicate has no text paths specified, so can use default Lucene search index, which
-      // indexed the entry's entire metadata
-      // per the default XPath expressions in ContextualEvaluator, from the event's properties
-      // data
-    } else {
-      LOGGER.debug("using default Lucene search index for metadata");
-      cec =
-          new ContextualEvaluationCriteriaImpl(
-              searchPhrase,
-              fuzzy,
-              caseSensitiveSearch,
-              (Directory) contextualMap.get("DEFAULT_INDEX"));
+    if (query == null) {
+      LOGGER.debug("Search phrase {} could not be parsed", searchPhrase);
+      return false;
     }
 
+    // Search the metadata index shared by all the subscriptions evaluating this event. Predicates
+    // with text paths use an index built on the text selected by those paths, which is also
+    // shared by the predicates with the same text paths.
+    ContextualEventIndex eventIndex = ContextualEventIndex.fromContextualMap(contextualMap);
+    eventIndex.acquire();
     try {
-      return ContextualEvaluator.evaluate(cec);
+      IndexSearcher searcher =
+          hasTextPaths() ? eventIndex.getSearcher(textPaths) : eventIndex.getSearcher();
+      return ContextualEvaluator.evaluate(query, searcher);
     } catch (IOException e) {
       LOGGER.debug("IO Exception evaluating context criteria", e);
-    } catch (ParseException e) {
-      LOGGER.debug("Parse Exception evaluating context criteria", e);
+    } finally {
+      eventIndex.release();
     }
 
     LOGGER.debug("EXITING: {}", methodName);
@@ -282,6 +278,24 @@ public boolean matches(Event properties) {
     return false;
   }
 
+  private boolean evaluateTextPaths(String metadata) {
+    try {
+      ContextualEvaluationCriteria cec =
+          new ContextualEvaluationCriteriaImpl(
+              searchPhrase,
+              fuzzy,
+              caseSensitiveSearch,
+              this.textPaths.toArray(new String[this.textPaths.size()]),
+              metadata);
+      return ContextualEvaluator.evaluate(cec);
+    } catch (IOException e) {
+      LOGGER.debug("IO exception during context evaluation", e);
+    } catch (ParseException e) {
+      LOGGER.debug("Parse Exception evaluating context criteria", e);
+    }
+    return false;
+  }
+
   public String getSearchPhrase() {
     return searchPhrase;
   }
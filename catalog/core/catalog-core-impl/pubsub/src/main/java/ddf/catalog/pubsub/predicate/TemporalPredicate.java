@@ -98,36 +98,7 @@ public boolean matches(Event properties) {
     if (entry != null) {
       LOGGER.debug("entry id: {}", entry.getId());
 
-      switch (this.type) {
-        case MODIFIED:
-          LOGGER.debug("search by modified: {}", entry.getModifiedDate());
-          date = entry.getModifiedDate();
-          break;
-        case METACARD_MODIFIED:
-          LOGGER.debug(
-              "search by metacard modified: {}", entry.getAttribute(Core.METACARD_MODIFIED));
-          date = (Date) entry.getAttribute(Core.METACARD_MODIFIED).getValue();
-          break;
-        case EFFECTIVE:
-          LOGGER.debug("search by effective: {}", entry.getEffectiveDate());
-          date = entry.getEffectiveDate();
-          break;
-        case CREATED:
-          LOGGER.debug("search by created: {}", entry.getCreatedDate());
-          date = entry.getCreatedDate();
-          break;
-        case METACARD_CREATED:
-          LOGGER.debug("search by metacard created: {}", entry.getAttribute(Core.METACARD_CREATED));
-          date = (Date) entry.getAttribute(Core.METACARD_CREATED).getValue();
-          break;
-        case EXPIRATION:
-          LOGGER.debug("search by expiration: {}", entry.getExpirationDate());
-          date = entry.getExpirationDate();
-          break;
-        default:
-          LOGGER.debug("unsupported type: {}", type);
-          throw new IllegalArgumentException("Unsupported date type for TemporalPredicate");
-      }
+      date = getDate(entry, type);
 
       if (offset > 0) {
         this.end = new Date();
@@ -145,6 +116,40 @@ public boolean matches(Event properties) {
     return TemporalEvaluator.evaluate(tec);
   }
 
+  /**
+   * Returns the date of the given metacard that is compared against by a temporal predicate of the
+   * given {@link DateType}.
+   *
+   * @param entry the metacard
+   * @param type the date to return
+   * @return the date, which may be null if the metacard does not have it
+   */
+  public static Date getDate(Metacard entry, DateType type) {
+    switch (type) {
+      case MODIFIED:
+        LOGGER.debug("search by modified: {}", entry.getModifiedDate());
+        return entry.getModifiedDate();
+      case METACARD_MODIFIED:
+        LOGGER.debug("search by metacard modified: {}", entry.getAttribute(Core.METACARD_MODIFIED));
+        return (Date) entry.getAttribute(Core.METACARD_MODIFIED).getValue();
+      case EFFECTIVE:
+        LOGGER.debug("search by effective: {}", entry.getEffectiveDate());
+        return entry.getEffectiveDate();
+      case CREATED:
+        LOGGER.debug("search by created: {}", entry.getCreatedDate());
+        return entry.getCreatedDate();
+      case METACARD_CREATED:
+        LOGGER.debug("search by metacard created: {}", entry.getAttribute(Core.METACARD_CREATED));
+        return (Date) entry.getAttribute(Core.METACARD_CREATED).getValue();
+      case EXPIRATION:
+        LOGGER.debug("search by expiration: {}", entry.getExpirationDate());
+        return entry.getExpirationDate();
+      default:
+        LOGGER.debug("unsupported type: {}", type);
+        throw new IllegalArgumentException("Unsupported date type for TemporalPredicate");
+    }
+  }
+
   public Date getEnd() {
     return DateUtils.copy(end);
   }
@@ -157,6 +162,11 @@ public DateType getType() {
     return type;
   }
 
+  /** @return the length of the relative time period in milliseconds, or 0 for absolute periods */
+  public long getOffset() {
+    return offset;
+  }
+
   public String toString() {
     StringBuilder sb = new StringBuilder();
 
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.pubsub;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluator;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEventIndex;
+import ddf.catalog.pubsub.internal.PubSubConstants;
+import ddf.catalog.pubsub.predicate.ContextualPredicate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.store.Directory;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.event.Event;
+
+public class ContextualEventIndexTest {
+
+  private static final String METADATA =
+      "<Resource><title>Lorem Ipsum</title><description>Dolor sit amet</description></Resource>";
+
+  private static final List<String> TITLE_PATH = Collections.singletonList("//title");
+
+  private ContextualEventIndex eventIndex;
+
+  private Event event;
+
+  @Before
+  public void setUp() throws Exception {
+    Directory index = ContextualEvaluator.buildIndex(METADATA);
+    eventIndex = new ContextualEventIndex(METADATA, index);
+
+    Map<String, Object> contextualMap = new HashMap<>();
+    contextualMap.put("DEFAULT_INDEX", index);
+    contextualMap.put("METADATA", METADATA);
+    contextualMap.put(PubSubConstants.CONTEXTUAL_EVENT_INDEX_KEY, eventIndex);
+
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PubSubConstants.HEADER_OPERATION_KEY, PubSubConstants.CREATE);
+    properties.put(PubSubConstants.HEADER_CONTEXTUAL_KEY, contextualMap);
+    event = new Event(PubSubConstants.PUBLISHED_EVENT_TOPIC_NAME, properties);
+  }
+
+  @Test
+  public void testSearchersAreReused() throws Exception {
+    assertThat(eventIndex.getSearcher(), is(sameInstance(eventIndex.getSearcher())));
+    assertThat(
+        eventIndex.getSearcher(TITLE_PATH), is(sameInstance(eventIndex.getSearcher(TITLE_PATH))));
+    assertThat(eventIndex.getSearcher(TITLE_PATH), is(not(sameInstance(eventIndex.getSearcher()))));
+  }
+
+  @Test
+  public void testSearchersAreClosedByLastRelease() throws Exception {
+    eventIndex.acquire();
+    eventIndex.acquire();
+    IndexReader reader = eventIndex.getSearcher().getIndexReader();
+    IndexReader textPathReader = eventIndex.getSearcher(TITLE_PATH).getIndexReader();
+
+    eventIndex.release();
+    assertThat(reader.getRefCount(), is(1));
+    assertThat(textPathReader.getRefCount(), is(1));
+
+    eventIndex.release();
+    assertThat(reader.getRefCount(), is(0));
+    assertThat(textPathReader.getRefCount(), is(0));
+  }
+
+  @Test
+  public void testSearchersAreReopenedAfterLastRelease() throws Exception {
+    eventIndex.acquire();
+    IndexReader reader = eventIndex.getSearcher().getIndexReader();
+    eventIndex.release();
+    eventIndex.release();
+
+    eventIndex.acquire();
+    IndexReader reopened = eventIndex.getSearcher().getIndexReader();
+    assertThat(reopened, is(not(sameInstance(reader))));
+    assertThat(reopened.getRefCount(), is(1));
+
+    eventIndex.release();
+    assertThat(reopened.getRefCount(), is(0));
+  }
+
+  @Test
+  public void testFromEvent() {
+    assertThat(ContextualEventIndex.fromEvent(event), is(sameInstance(eventIndex)));
+    assertThat(
+        ContextualEventIndex.fromEvent(
+            new Event(PubSubConstants.PUBLISHED_EVENT_TOPIC_NAME, new HashMap<String, Object>())),
+        is(nullValue()));
+  }
+
+  @Test
+  public void testPredicatesSearchSharedIndex() {
+    assertThat(new ContextualPredicate("amet", false, false, null).matches(event), is(true));
+    assertThat(new ContextualPredicate("Ipsum", false, true, null).matches(event), is(true));
+    assertThat(new ContextualPredicate("ipsum", false, true, null).matches(event), is(false));
+    assertThat(new ContextualPredicate("lorem", false, false, TITLE_PATH).matches(event), is(true));
+    assertThat(new ContextualPredicate("amet", false, false, TITLE_PATH).matches(event), is(false));
+  }
+}
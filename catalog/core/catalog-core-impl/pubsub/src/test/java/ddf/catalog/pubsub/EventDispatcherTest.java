@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.pubsub;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.event.EventProcessor;
+import ddf.catalog.pubsub.internal.EventDispatcher;
+import ddf.catalog.pubsub.internal.PubSubConstants;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+
+public class EventDispatcherTest {
+
+  private final ConcurrentLinkedQueue<Event> postedEvents = new ConcurrentLinkedQueue<>();
+
+  private EventDispatcher dispatcher;
+
+  @After
+  public void tearDown() {
+    if (dispatcher != null) {
+      dispatcher.shutdown();
+    }
+  }
+
+  @Test
+  public void testAllEventsArePublished() throws Exception {
+    CountDownLatch published = new CountDownLatch(50);
+    dispatcher = new EventDispatcher(new LatchEventAdmin(published, null), 100, 2, 10, 1000);
+
+    for (int i = 0; i < 50; i++) {
+      dispatcher.dispatch(createMetacard("id" + i), EventProcessor.EVENTS_TOPIC_CREATED);
+    }
+
+    assertThat(published.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(postedEvents, hasSize(50));
+    assertThat(dispatcher.getQueueDepth(), is(0));
+  }
+
+  @Test
+  public void testTopicsMapToOperations() throws Exception {
+    CountDownLatch published = new CountDownLatch(3);
+    dispatcher = new EventDispatcher(new LatchEventAdmin(published, null), 10, 1, 10, 1000);
+
+    dispatcher.dispatch(createMetacard("created"), EventProcessor.EVENTS_TOPIC_CREATED);
+    dispatcher.dispatch(createMetacard("updated"), EventProcessor.EVENTS_TOPIC_UPDATED);
+    dispatcher.dispatch(createMetacard("deleted"), EventProcessor.EVENTS_TOPIC_DELETED);
+
+    assertThat(published.await(10, TimeUnit.SECONDS), is(true));
+    List<Object> operations = new ArrayList<>();
+    for (Event event : postedEvents) {
+      operations.add(event.getProperty(PubSubConstants.HEADER_OPERATION_KEY));
+    }
+    assertThat(
+        operations,
+        containsInAnyOrder(PubSubConstants.CREATE, PubSubConstants.UPDATE, PubSubConstants.DELETE));
+  }
+
+  @Test
+  public void testFullQueuePublishesInline() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch published = new CountDownLatch(3);
+    LatchEventAdmin eventAdmin = new LatchEventAdmin(published, release);
+    dispatcher = new EventDispatcher(eventAdmin, 1, 1, 1, 0);
+
+    // The first event blocks the only dispatch thread and the second one fills the queue
+    dispatcher.dispatch(createMetacard("first"), EventProcessor.EVENTS_TOPIC_CREATED);
+    assertThat(eventAdmin.workerBlocked.await(10, TimeUnit.SECONDS), is(true));
+    dispatcher.dispatch(createMetacard("second"), EventProcessor.EVENTS_TOPIC_CREATED);
+
+    dispatcher.dispatch(createMetacard("third"), EventProcessor.EVENTS_TOPIC_CREATED);
+    assertThat(postedEvents, hasSize(1));
+    assertThat(
+        postedEvents.peek().getProperty(PubSubConstants.HEADER_ID_KEY), is((Object) "third"));
+
+    release.countDown();
+    assertThat(published.await(10, TimeUnit.SECONDS), is(true));
+  }
+
+  @Test
+  public void testMetacardsOfOneOperationShareAQueueSlot() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch published = new CountDownLatch(4);
+    LatchEventAdmin eventAdmin = new LatchEventAdmin(published, release);
+    dispatcher = new EventDispatcher(eventAdmin, 1, 1, 1, 0);
+
+    dispatcher.dispatch(createMetacard("first"), EventProcessor.EVENTS_TOPIC_CREATED);
+    assertThat(eventAdmin.workerBlocked.await(10, TimeUnit.SECONDS), is(true));
+
+    // The three metacards fit in the single queue slot, so none of them is published inline
+    dispatcher.dispatch(
+        Arrays.asList(createMetacard("a"), createMetacard("b"), createMetacard("c")),
+        EventProcessor.EVENTS_TOPIC_CREATED);
+    assertThat(postedEvents, is(empty()));
+    assertThat(dispatcher.getQueueDepth(), is(1));
+
+    release.countDown();
+    assertThat(published.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(postedEvents, hasSize(4));
+  }
+
+  private MetacardImpl createMetacard(String id) {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId(id);
+    return metacard;
+  }
+
+  private class LatchEventAdmin implements EventAdmin {
+    private final Thread testThread = Thread.currentThread();
+
+    private final CountDownLatch workerBlocked = new CountDownLatch(1);
+
+    private final CountDownLatch published;
+
+    private final CountDownLatch release;
+
+    private LatchEventAdmin(CountDownLatch published, CountDownLatch release) {
+      this.published = published;
+      this.release = release;
+    }
+
+    @Override
+    public void postEvent(Event event) {
+      // Only the dispatch threads are held back, events published inline go straight through
+      if (release != null && Thread.currentThread() != testThread) {
+        workerBlocked.countDown();
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      postedEvents.add(event);
+      published.countDown();
+    }
+
+    @Override
+    public void sendEvent(Event event) {
+      postEvent(event);
+    }
+  }
+}
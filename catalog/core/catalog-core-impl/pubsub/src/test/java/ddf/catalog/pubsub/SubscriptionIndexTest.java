@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.pubsub;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.pubsub.EventProcessorImpl.DateType;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluator;
+import ddf.catalog.pubsub.criteria.geospatial.SpatialOperator;
+import ddf.catalog.pubsub.internal.PubSubConstants;
+import ddf.catalog.pubsub.internal.SubscriptionFilterVisitor;
+import ddf.catalog.pubsub.internal.SubscriptionIndex;
+import ddf.catalog.pubsub.predicate.ContentTypePredicate;
+import ddf.catalog.pubsub.predicate.ContextualPredicate;
+import ddf.catalog.pubsub.predicate.GeospatialPredicate;
+import ddf.catalog.pubsub.predicate.Predicate;
+import ddf.catalog.pubsub.predicate.TemporalPredicate;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.event.Event;
+
+public class SubscriptionIndexTest {
+
+  private static final String METADATA =
+      "<Resource><title>Lorem ipsum dolor</title><description>Sit amet</description></Resource>";
+
+  private static final String POLYGON = "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))";
+
+  private SubscriptionIndex<String> index;
+
+  @Before
+  public void setUp() {
+    index = new SubscriptionIndex<>();
+  }
+
+  @Test
+  public void testContentTypeLookup() throws Exception {
+    index.add("nitf", new ContentTypePredicate("nitf", null), "nitf");
+    index.add("jpeg", new ContentTypePredicate("jpeg", null), "jpeg");
+    index.add("wildcard", new ContentTypePredicate("ni*", null), "wildcard");
+
+    assertThat(
+        index.getCandidates(createEvent(createMetacard("nitf"))),
+        containsInAnyOrder("nitf", "wildcard"));
+    assertThat(index.getCandidates(createEvent(createMetacard("pdf"))), contains("wildcard"));
+  }
+
+  @Test
+  public void testGeospatialLookup() throws Exception {
+    index.add("intersects", geospatial(POLYGON, SpatialOperator.OVERLAPS, 0), "intersects");
+    index.add("within", geospatial(POLYGON, SpatialOperator.CONTAINS, 0), "within");
+    index.add("dwithin", geospatial("POINT (20 20)", null, 2), "dwithin");
+
+    MetacardImpl inside = createMetacard("nitf");
+    inside.setLocation("POINT (5 5)");
+    assertThat(
+        index.getCandidates(createEvent(inside)), containsInAnyOrder("intersects", "within"));
+
+    MetacardImpl near = createMetacard("nitf");
+    near.setLocation("POINT (21 21)");
+    assertThat(index.getCandidates(createEvent(near)), contains("dwithin"));
+
+    MetacardImpl outside = createMetacard("nitf");
+    outside.setLocation("POINT (50 50)");
+    assertThat(index.getCandidates(createEvent(outside)), is(empty()));
+  }
+
+  @Test
+  public void testTemporalLookup() throws Exception {
+    index.add(
+        "absolute",
+        new TemporalPredicate(new Date(1000), new Date(2000), DateType.MODIFIED),
+        "absolute");
+    index.add(
+        "openEnded", new TemporalPredicate(new Date(3000), null, DateType.MODIFIED), "openEnded");
+    index.add("relative", new TemporalPredicate(60000, DateType.MODIFIED), "relative");
+
+    MetacardImpl metacard = createMetacard("nitf");
+    metacard.setModifiedDate(new Date(1500));
+    assertThat(
+        index.getCandidates(createEvent(metacard)), containsInAnyOrder("absolute", "relative"));
+
+    metacard.setModifiedDate(new Date(5000));
+    assertThat(
+        index.getCandidates(createEvent(metacard)), containsInAnyOrder("openEnded", "relative"));
+  }
+
+  @Test
+  public void testContextualLookup() throws Exception {
+    index.add("term", new ContextualPredicate("ipsum", false, false, null), "term");
+    index.add("missing", new ContextualPredicate("zebra", false, false, null), "missing");
+    index.add("or", new ContextualPredicate("zebra OR amet", false, false, null), "or");
+    index.add("and", new ContextualPredicate("zebra AND amet", false, false, null), "and");
+    index.add("wildcard", new ContextualPredicate("zeb*", false, false, null), "wildcard");
+
+    assertThat(
+        index.getCandidates(createEvent(createMetacard("nitf"))),
+        containsInAnyOrder("term", "or", "wildcard"));
+  }
+
+  @Test
+  public void testCompositeLookup() throws Exception {
+    Predicate nitfInside =
+        SubscriptionFilterVisitor.and(
+            new ContentTypePredicate("nitf", null),
+            geospatial(POLYGON, SpatialOperator.OVERLAPS, 0));
+    Predicate nitfOrJpeg =
+        SubscriptionFilterVisitor.or(
+            new ContentTypePredicate("nitf", null), new ContentTypePredicate("jpeg", null));
+    Predicate notNitf = SubscriptionFilterVisitor.not(new ContentTypePredicate("nitf", null));
+    index.add("and", nitfInside, "and");
+    index.add("or", nitfOrJpeg, "or");
+    index.add("not", notNitf, "not");
+    index.add("unfiltered", null, "unfiltered");
+
+    MetacardImpl metacard = createMetacard("jpeg");
+    metacard.setLocation("POINT (5 5)");
+    assertThat(
+        index.getCandidates(createEvent(metacard)), containsInAnyOrder("or", "not", "unfiltered"));
+  }
+
+  @Test
+  public void testDeletedEntryReturnsAllSubscriptions() throws Exception {
+    index.add("nitf", new ContentTypePredicate("nitf", null), "nitf");
+    index.add("dwithin", geospatial("POINT (20 20)", null, 2), "dwithin");
+
+    Map<String, Object> contextualMap = new HashMap<>();
+    contextualMap.put("METADATA", PubSubConstants.METADATA_DELETED);
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PubSubConstants.HEADER_OPERATION_KEY, PubSubConstants.DELETE);
+    properties.put(PubSubConstants.HEADER_ENTRY_KEY, createMetacard("jpeg"));
+    properties.put(PubSubConstants.HEADER_CONTENT_TYPE_KEY, "jpeg,");
+    properties.put(PubSubConstants.HEADER_CONTEXTUAL_KEY, contextualMap);
+
+    assertThat(
+        index.getCandidates(new Event(PubSubConstants.PUBLISHED_EVENT_TOPIC_NAME, properties)),
+        containsInAnyOrder("nitf", "dwithin"));
+  }
+
+  @Test
+  public void testAddReplacesAndRemove() throws Exception {
+    index.add("id", new ContentTypePredicate("nitf", null), "nitf");
+    index.add("id", new ContentTypePredicate("jpeg", null), "jpeg");
+
+    assertThat(index.size(), is(1));
+    assertThat(index.getCandidates(createEvent(createMetacard("nitf"))), is(empty()));
+    assertThat(index.getCandidates(createEvent(createMetacard("jpeg"))), contains("jpeg"));
+
+    assertThat(index.remove("id"), is("jpeg"));
+    assertThat(index.isEmpty(), is(true));
+    assertThat(index.getCandidates(createEvent(createMetacard("jpeg"))), is(empty()));
+  }
+
+  private GeospatialPredicate geospatial(String wkt, SpatialOperator operator, double distance) {
+    return new GeospatialPredicate(wkt, operator == null ? null : operator.name(), distance);
+  }
+
+  private MetacardImpl createMetacard(String contentType) {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId("id");
+    metacard.setContentTypeName(contentType);
+    metacard.setMetadata(METADATA);
+    return metacard;
+  }
+
+  private Event createEvent(MetacardImpl metacard) throws IOException {
+    Map<String, Object> contextualMap = new HashMap<>();
+    contextualMap.put("DEFAULT_INDEX", ContextualEvaluator.buildIndex(metacard.getMetadata()));
+    contextualMap.put("METADATA", metacard.getMetadata());
+
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PubSubConstants.HEADER_OPERATION_KEY, PubSubConstants.CREATE);
+    properties.put(PubSubConstants.HEADER_ENTRY_KEY, metacard);
+    properties.put(PubSubConstants.HEADER_CONTENT_TYPE_KEY, metacard.getContentTypeName() + ",");
+    properties.put(PubSubConstants.HEADER_CONTEXTUAL_KEY, contextualMap);
+    return new Event(PubSubConstants.PUBLISHED_EVENT_TOPIC_NAME, properties);
+  }
+}
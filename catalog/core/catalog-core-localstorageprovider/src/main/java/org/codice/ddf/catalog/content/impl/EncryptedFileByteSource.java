@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.catalog.content.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import ddf.security.encryption.crypter.Crypter;
+import ddf.security.encryption.crypter.Crypter.CrypterException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link ByteSource} that reads an encrypted file through a seekable decrypting channel. The plain
+ * content is never copied to a temporary file, and reading a {@link #slice(long, long)} of the
+ * content only decrypts the ciphertext segments covering that range.
+ */
+class EncryptedFileByteSource extends ByteSource {
+
+  private final Crypter crypter;
+
+  private final Path path;
+
+  private final long offset;
+
+  private final long length;
+
+  EncryptedFileByteSource(Crypter crypter, Path path) {
+    this(crypter, path, 0, Long.MAX_VALUE);
+  }
+
+  private EncryptedFileByteSource(Crypter crypter, Path path, long offset, long length) {
+    this.crypter = crypter;
+    this.path = path;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  public InputStream openStream() throws IOException {
+    SeekableByteChannel decryptedChannel = openChannel();
+    try {
+      decryptedChannel.position(offset);
+    } catch (IOException e) {
+      decryptedChannel.close();
+      throw e;
+    }
+    return ByteStreams.limit(Channels.newInputStream(decryptedChannel), length);
+  }
+
+  @Override
+  public long size() throws IOException {
+    try (SeekableByteChannel decryptedChannel = openChannel()) {
+      return Math.min(length, Math.max(0, decryptedChannel.size() - offset));
+    }
+  }
+
+  @Override
+  public ByteSource slice(long sliceOffset, long sliceLength) {
+    checkArgument(sliceOffset >= 0, "offset (%s) may not be negative", sliceOffset);
+    checkArgument(sliceLength >= 0, "length (%s) may not be negative", sliceLength);
+    long maxLength = Math.max(0, length - sliceOffset);
+    return new EncryptedFileByteSource(
+        crypter, path, offset + sliceOffset, Math.min(sliceLength, maxLength));
+  }
+
+  private SeekableByteChannel openChannel() throws IOException {
+    SeekableByteChannel encryptedChannel = Files.newByteChannel(path, StandardOpenOption.READ);
+    try {
+      return crypter.decrypt(encryptedChannel);
+    } catch (CrypterException e) {
+      encryptedChannel.close();
+      throw new IOException("Unable to decrypt " + path, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "EncryptedFileByteSource(" + path + ", " + offset + ", " + length + ")";
+  }
+}
@@ -37,13 +37,14 @@
 import ddf.catalog.content.operation.impl.UpdateStorageResponseImpl;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.mime.MimeTypeMapper;
 import ddf.mime.MimeTypeResolutionException;
 import ddf.security.encryption.crypter.Crypter;
 import ddf.security.encryption.crypter.Crypter.CrypterException;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -58,6 +59,7 @@
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -161,8 +163,27 @@ public ReadStorageResponse read(ReadStorageRequest readRequest) throws StorageEx
     }
 
     URI uri = readRequest.getResourceUri();
-    ContentItem returnItem = readContent(uri);
-    return new ReadStorageResponseImpl(readRequest, returnItem);
+    long bytesToSkip = getLongProperty(readRequest, ResourceRequest.BYTES_TO_SKIP, 0);
+    long bytesToRead = getLongProperty(readRequest, ResourceRequest.BYTES_TO_READ, -1);
+
+    Map<String, Serializable> properties = new HashMap<>();
+    ContentItem returnItem = readContent(uri, bytesToSkip, bytesToRead, properties);
+    ReadStorageResponse response = new ReadStorageResponseImpl(readRequest, returnItem);
+    response.getProperties().putAll(properties);
+    return response;
+  }
+
+  private long getLongProperty(ReadStorageRequest request, String name, long defaultValue) {
+    Serializable value = request.getPropertyValue(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.toString());
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Ignoring invalid {} value {}", name, value);
+      return defaultValue;
+    }
   }
 
   @Override
@@ -183,7 +204,8 @@ public UpdateStorageResponse update(UpdateStorageRequest updateRequest) throws S
         ContentItem updateItem = contentItem;
         if (StringUtils.isBlank(contentItem.getFilename())
             || StringUtils.equals(contentItem.getFilename(), ContentItem.DEFAULT_FILE_NAME)) {
-          ContentItem existingItem = readContent(new URI(contentItem.getUri()));
+          ContentItem existingItem =
+              readContent(new URI(contentItem.getUri()), 0, -1, new HashMap<>());
           updateItem = new ContentItemDecorator(contentItem, existingItem);
         }
 
@@ -402,7 +424,9 @@ public void rollback(StorageRequest request) throws StorageException {
     }
   }
 
-  private ContentItem readContent(URI uri) throws StorageException {
+  private ContentItem readContent(
+      URI uri, long bytesToSkip, long bytesToRead, Map<String, Serializable> responseProperties)
+      throws StorageException {
     Path path = getContentFilePath(uri);
 
     if (path == null) {
@@ -412,9 +436,9 @@ private ContentItem readContent(URI uri) throws StorageException {
 
     String filename = path.getFileName().toString();
 
-    // resolve external reference if necessary, determine the extension, and retrieve an
-    // InputStream to the content
-    InputStream contentInputStream;
+    // resolve external reference if necessary, determine the extension, and retrieve a
+    // ByteSource to the decrypted content
+    ByteSource byteSource;
     String extension;
 
     try {
@@ -423,18 +447,30 @@ private ContentItem readContent(URI uri) throws StorageException {
         extension =
             FilenameUtils.getExtension(
                 FilenameUtils.removeExtension(path.getFileName().toString()));
-        contentInputStream = getInputStreamFromReference(path);
+        byteSource = getByteSourceFromReference(path);
       } else {
         extension = FilenameUtils.getExtension(path.getFileName().toString());
-        contentInputStream = getInputStreamFromResource(path);
+        byteSource = new EncryptedFileByteSource(crypter, path);
       }
     } catch (IOException e) {
       throw new StorageException(
           String.format("Unable to resolve InputStream given URI of %s", uri), e);
     }
 
-    // decrypt the content and return as a ByteSource
-    ByteSource byteSource = decryptStream(contentInputStream);
+    // determine the MimeType of the content
+    String mimeType = determineMimeType(extension, path, byteSource);
+
+    // only return the requested range of the content; stored files are decrypted from the start
+    // of the range rather than from the start of the file
+    if (bytesToSkip > 0 || bytesToRead >= 0) {
+      try {
+        responseProperties.put(ReadStorageResponse.TOTAL_SIZE, byteSource.size());
+      } catch (IOException e) {
+        LOGGER.debug("Problem determining total size of resource {}", uri, e);
+      }
+      byteSource = byteSource.slice(bytesToSkip, bytesToRead < 0 ? Long.MAX_VALUE : bytesToRead);
+      responseProperties.put(ReadStorageResponse.BYTE_RANGE_APPLIED, true);
+    }
 
     // determine the size of the content
     long size = 0;
@@ -445,14 +481,12 @@ private ContentItem readContent(URI uri) throws StorageException {
       LOGGER.debug("Problem determining size of resource; defaulting to {}.", size, e);
     }
 
-    // determine the MimeType of the content
-    String mimeType = determineMimeType(extension, path, byteSource);
-
     return new ContentItemImpl(
         uri.getSchemeSpecificPart(), uri.getFragment(), byteSource, mimeType, filename, size, null);
   }
 
-  private InputStream getInputStreamFromReference(Path externalReferencePath) throws IOException {
+  private ByteSource getByteSourceFromReference(Path externalReferencePath)
+      throws IOException, StorageException {
     URI reference;
 
     try {
@@ -472,19 +506,15 @@ private InputStream getInputStreamFromReference(Path externalReferencePath) thro
       newPath = Paths.get(reference);
     }
 
-    // if the reference can be represented as a path
+    // if the reference can be represented as a path it can be decrypted in place
     if (newPath != null) {
       if (!newPath.toFile().exists()) {
         throw new IOException("Cannot read " + reference + ".");
       }
-      return getInputStreamFromResource(newPath);
+      return new EncryptedFileByteSource(crypter, newPath);
     }
 
-    return reference.toURL().openStream();
-  }
-
-  private InputStream getInputStreamFromResource(Path path) throws IOException {
-    return Files.newInputStream(path);
+    return decryptStream(reference.toURL().openStream());
   }
 
   private String determineMimeType(String extension, Path path, ByteSource byteSource) {
@@ -646,15 +676,7 @@ public InputStream openStream() throws IOException {
           InputStream encryptedInputStream = crypter.encrypt(plainInputStream)) {
         copySize = Files.copy(encryptedInputStream, contentItemPath);
       }
-      byteSource =
-          new ByteSource() {
-            @Override
-            public InputStream openStream() throws IOException {
-              try (InputStream fileInputStream = new FileInputStream(contentItemPath.toFile())) {
-                return crypter.decrypt(fileInputStream);
-              }
-            }
-          };
+      byteSource = new EncryptedFileByteSource(crypter, contentItemPath);
 
       if (copySize < itemSize && LOGGER.isWarnEnabled()) {
         LOGGER.warn(
@@ -51,6 +51,7 @@
 import ddf.catalog.content.operation.impl.UpdateStorageRequestImpl;
 import ddf.catalog.data.Attribute;
 import ddf.catalog.data.Metacard;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.mime.MimeTypeMapper;
 import ddf.mime.MimeTypeResolver;
 import ddf.mime.mapper.MimeTypeMapperImpl;
@@ -63,6 +64,7 @@
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -72,6 +74,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.apache.commons.io.FileUtils;
@@ -168,6 +171,48 @@ public void testRead() throws Exception {
     assertReadRequest(uriString, NITF_MIME_TYPE);
   }
 
+  @Test
+  public void testReadWithByteRange() throws Exception {
+    CreateStorageResponse createResponse =
+        assertContentItem(TEST_INPUT_CONTENTS, NITF_MIME_TYPE, TEST_INPUT_FILENAME);
+    URI uri = new URI(createResponse.getCreatedContentItems().get(0).getUri());
+
+    Map<String, Serializable> properties = new HashMap<>();
+    properties.put(ResourceRequest.BYTES_TO_SKIP, 6L);
+    properties.put(ResourceRequest.BYTES_TO_READ, 3L);
+    ReadStorageResponse readResponse = provider.read(new ReadStorageRequestImpl(uri, properties));
+
+    assertThat(readResponse.getPropertyValue(ReadStorageResponse.BYTE_RANGE_APPLIED), is(true));
+    assertThat(readResponse.getContentItem().getSize(), is(3L));
+    assertThat(
+        IOUtils.toString(readResponse.getContentItem().getInputStream(), StandardCharsets.UTF_8),
+        is("Wor"));
+  }
+
+  @Test
+  public void testReadByteRangeOfEncryptedFile() throws Exception {
+    byte[] contents = new byte[4096 * 4];
+    new Random().nextBytes(contents);
+    Path encryptedFile = Paths.get(baseTmpDir, TEST_INPUT_FILENAME);
+    Crypter crypter = new Crypter(CRYPTER_NAME);
+    try (InputStream encryptedStream = crypter.encrypt(new ByteArrayInputStream(contents))) {
+      Files.copy(encryptedStream, encryptedFile);
+    }
+
+    ByteSource byteSource = new EncryptedFileByteSource(crypter, encryptedFile);
+    assertThat(byteSource.size(), is((long) contents.length));
+    assertThat(byteSource.read(), is(contents));
+
+    ByteSource range = byteSource.slice(4096 * 2 + 100, 5000);
+    assertThat(range.size(), is(5000L));
+    assertThat(range.read(), is(Arrays.copyOfRange(contents, 4096 * 2 + 100, 4096 * 2 + 5100)));
+
+    ByteSource tail = byteSource.slice(contents.length - 10, 100);
+    assertThat(tail.size(), is(10L));
+    assertThat(
+        tail.read(), is(Arrays.copyOfRange(contents, contents.length - 10, contents.length)));
+  }
+
   @Test(expected = StorageException.class)
   public void testReadDeletedReference() throws Exception {
     Path tempFile = Files.createTempFile("test", "nitf");
@@ -0,0 +1,401 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.impl;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.resource.data.ReliableResource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the products cached in the product cache directory, bounded by the total size of the
+ * cached products.
+ *
+ * <p>Entries are held in memory in least recently used order and, once the total size of the cached
+ * products exceeds the maximum, the least recently used products are evicted and their files
+ * deleted until it no longer does. The index is persisted to a single append-only log in the
+ * product cache directory, which is replayed when the index is opened and rewritten, in least
+ * recently used order, once it holds too many stale records and when the index is closed.
+ */
+public class ProductCacheIndex implements Closeable {
+
+  static final String INDEX_FILE_NAME = "product-cache.index";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProductCacheIndex.class);
+
+  private static final String METRIC_PREFIX = "ddf.catalog.resource.cache";
+
+  private static final Counter EVICTIONS = Metrics.counter(METRIC_PREFIX + ".evictions");
+
+  private static final AtomicLong CACHE_SIZE_BYTES =
+      Metrics.gauge(METRIC_PREFIX + ".bytes", new AtomicLong());
+
+  private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+  private static final byte PUT_RECORD = 1;
+
+  private static final byte REMOVE_RECORD = 2;
+
+  /** Minimum number of stale records in the log before it is rewritten. */
+  private static final int MIN_STALE_RECORDS = 64;
+
+  private final Map<String, ReliableResource> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final Path indexFile;
+
+  private long maxSizeBytes;
+
+  private long sizeBytes = 0;
+
+  private int logRecords = 0;
+
+  private DataOutputStream log;
+
+  /**
+   * @param directory the product cache directory
+   * @param maxSizeBytes maximum total size of the cached products. If 0, no size limit will be
+   *     enforced.
+   */
+  public ProductCacheIndex(Path directory, long maxSizeBytes) {
+    this.indexFile = directory.resolve(INDEX_FILE_NAME);
+    this.maxSizeBytes = maxSizeBytes;
+
+    try {
+      FileUtils.forceMkdir(directory.toFile());
+    } catch (IOException e) {
+      LOGGER.warn("Could not make directory: {}", directory.toAbsolutePath());
+    }
+
+    synchronized (this) {
+      load();
+      if (isCompactionNeeded()) {
+        compact();
+      } else {
+        openLog();
+      }
+      evict();
+    }
+  }
+
+  /**
+   * Gets an entry and marks it as the most recently used one.
+   *
+   * @return the entry for the key, {@code null} if not found
+   */
+  public synchronized ReliableResource get(String key) {
+    ReliableResource resource = entries.get(key);
+    if (resource != null) {
+      resource.setLastTouchedMillis(System.currentTimeMillis());
+    }
+    return resource;
+  }
+
+  /**
+   * Adds or replaces an entry, as the most recently used one, then evicts the least recently used
+   * entries if the cached products exceed the maximum size.
+   */
+  public synchronized void put(ReliableResource resource) {
+    ReliableResource previous = entries.put(resource.getKey(), resource);
+    if (previous != null) {
+      sizeBytes -= weight(previous);
+    }
+    sizeBytes += weight(resource);
+    append(PUT_RECORD, resource);
+    evict();
+    updateSizeMetric();
+  }
+
+  /**
+   * Removes an entry from the index. The cached product file is left for the caller to delete.
+   *
+   * @return the removed entry, {@code null} if not found
+   */
+  public synchronized ReliableResource remove(String key) {
+    ReliableResource removed = entries.remove(key);
+    if (removed != null) {
+      sizeBytes -= weight(removed);
+      append(REMOVE_RECORD, removed);
+      updateSizeMetric();
+    }
+    return removed;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** @return total size, in bytes, of the cached products */
+  public synchronized long getSizeBytes() {
+    return sizeBytes;
+  }
+
+  public synchronized long getMaxSizeBytes() {
+    return maxSizeBytes;
+  }
+
+  /** @param maxSizeBytes If 0, no size limit will be enforced. */
+  public synchronized void setMaxSizeBytes(long maxSizeBytes) {
+    this.maxSizeBytes = maxSizeBytes;
+    evict();
+    updateSizeMetric();
+  }
+
+  /** Rewrites the log so that the order in which entries were used survives a restart. */
+  @Override
+  public synchronized void close() {
+    if (log != null) {
+      compact();
+      IOUtils.closeQuietly(log);
+      log = null;
+    }
+  }
+
+  private void evict() {
+    Iterator<ReliableResource> lruEntries = entries.values().iterator();
+    while (maxSizeBytes > 0 && sizeBytes > maxSizeBytes && lruEntries.hasNext()) {
+      ReliableResource evicted = lruEntries.next();
+      lruEntries.remove();
+      sizeBytes -= weight(evicted);
+      append(REMOVE_RECORD, evicted);
+      EVICTIONS.increment();
+
+      LOGGER.debug("Evicting entry {} from product cache", evicted.getKey());
+      if (evicted.getFilePath() != null) {
+        File cachedFile = new File(evicted.getFilePath());
+        if (cachedFile.exists() && !cachedFile.delete()) {
+          LOGGER.info("Could not delete file {}", cachedFile.getAbsolutePath());
+        }
+      }
+    }
+  }
+
+  private void load() {
+    if (!indexFile.toFile().exists()) {
+      return;
+    }
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      while (true) {
+        byte recordType;
+        try {
+          recordType = in.readByte();
+        } catch (EOFException e) {
+          break;
+        }
+        logRecords++;
+
+        if (recordType == PUT_RECORD) {
+          ReliableResource resource = readEntry(in);
+          ReliableResource previous = entries.put(resource.getKey(), resource);
+          if (previous != null) {
+            sizeBytes -= weight(previous);
+          }
+          sizeBytes += weight(resource);
+        } else if (recordType == REMOVE_RECORD) {
+          ReliableResource removed = entries.remove(in.readUTF());
+          if (removed != null) {
+            sizeBytes -= weight(removed);
+          }
+        } else {
+          throw new IOException("Unknown record type " + recordType);
+        }
+      }
+    } catch (IOException | ClassNotFoundException e) {
+      // Usually a record only partially written when the system stopped. Everything read up to
+      // it is kept, and the log is rewritten without it.
+      LOGGER.info(
+          "Unable to read all of product cache index {}. Entries after the first unreadable one are ignored.",
+          indexFile,
+          e);
+      logRecords = Integer.MAX_VALUE;
+    }
+
+    LOGGER.debug("Loaded {} entries from product cache index {}", entries.size(), indexFile);
+    updateSizeMetric();
+  }
+
+  private boolean isCompactionNeeded() {
+    long staleRecords = (long) logRecords - entries.size();
+    return staleRecords > MIN_STALE_RECORDS && staleRecords > entries.size();
+  }
+
+  /** Rewrites the log with one record per entry, in least recently used order. */
+  private void compact() {
+    IOUtils.closeQuietly(log);
+    log = null;
+
+    Path tempFile = indexFile.resolveSibling(INDEX_FILE_NAME + TEMP_FILE_SUFFIX);
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+      for (ReliableResource resource : entries.values()) {
+        out.writeByte(PUT_RECORD);
+        writeEntry(out, resource);
+      }
+    } catch (IOException e) {
+      LOGGER.info("Unable to rewrite product cache index {}", indexFile, e);
+      FileUtils.deleteQuietly(tempFile.toFile());
+      openLog();
+      return;
+    }
+
+    try {
+      Files.move(
+          tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      logRecords = entries.size();
+    } catch (IOException e) {
+      LOGGER.info("Unable to replace product cache index {}", indexFile, e);
+      FileUtils.deleteQuietly(tempFile.toFile());
+    }
+    openLog();
+  }
+
+  private void openLog() {
+    try {
+      OutputStream out =
+          Files.newOutputStream(indexFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      log = new DataOutputStream(new BufferedOutputStream(out));
+    } catch (IOException e) {
+      LOGGER.warn(
+          "Unable to open product cache index {}. Cached products will not be remembered after a restart.",
+          indexFile,
+          e);
+      log = null;
+    }
+  }
+
+  private void append(byte recordType, ReliableResource resource) {
+    if (log == null) {
+      return;
+    }
+
+    try {
+      log.writeByte(recordType);
+      if (recordType == PUT_RECORD) {
+        writeEntry(log, resource);
+      } else {
+        log.writeUTF(resource.getKey());
+      }
+      log.flush();
+      logRecords++;
+    } catch (IOException e) {
+      LOGGER.info("Unable to write to product cache index {}", indexFile, e);
+    }
+
+    if (isCompactionNeeded()) {
+      compact();
+    }
+  }
+
+  private static void writeEntry(DataOutputStream out, ReliableResource resource)
+      throws IOException {
+    out.writeUTF(resource.getKey());
+    writeNullableString(out, resource.getFilePath());
+    writeNullableString(
+        out, resource.getMimeType() == null ? null : resource.getMimeType().toString());
+    writeNullableString(out, resource.getName());
+    out.writeLong(resource.getSize());
+    out.writeLong(resource.getLastTouchedMillis());
+
+    ByteArrayOutputStream metacardBytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream metacardOut = new ObjectOutputStream(metacardBytes)) {
+      metacardOut.writeObject(resource.getMetacard());
+    }
+    out.writeInt(metacardBytes.size());
+    metacardBytes.writeTo(out);
+  }
+
+  private static ReliableResource readEntry(DataInputStream in)
+      throws IOException, ClassNotFoundException {
+    String key = in.readUTF();
+    String filePath = readNullableString(in);
+    String mimeType = readNullableString(in);
+    String name = readNullableString(in);
+    long size = in.readLong();
+    long lastTouchedMillis = in.readLong();
+
+    byte[] metacardBytes = new byte[in.readInt()];
+    in.readFully(metacardBytes);
+    Metacard metacard;
+    try (ObjectInputStream metacardIn =
+        new ObjectInputStream(new ByteArrayInputStream(metacardBytes))) {
+      metacard = (Metacard) metacardIn.readObject();
+    }
+
+    ReliableResource resource =
+        new ReliableResource(key, filePath, toMimeType(mimeType), name, metacard);
+    resource.setSize(size);
+    resource.setLastTouchedMillis(lastTouchedMillis);
+    return resource;
+  }
+
+  private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readNullableString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static MimeType toMimeType(String mimeType) {
+    if (mimeType == null) {
+      return null;
+    }
+
+    try {
+      return new MimeType(mimeType);
+    } catch (MimeTypeParseException e) {
+      LOGGER.debug("Unable to parse mime type {} of cached product", mimeType, e);
+      return null;
+    }
+  }
+
+  private static long weight(ReliableResource resource) {
+    return Math.max(resource.getSize(), 0);
+  }
+
+  private void updateSizeMetric() {
+    CACHE_SIZE_BYTES.set(sizeBytes);
+  }
+}
@@ -15,41 +15,36 @@
 
 import static ddf.catalog.cache.impl.CachedResourceMetacardComparator.isSame;
 
-import com.hazelcast.config.Config;
-import com.hazelcast.config.EvictionPolicy;
-import com.hazelcast.config.JoinConfig;
-import com.hazelcast.config.MapConfig;
-import com.hazelcast.config.MapStoreConfig;
-import com.hazelcast.config.SSLConfig;
-import com.hazelcast.core.Hazelcast;
-import com.hazelcast.core.HazelcastInstance;
-import com.hazelcast.core.IMap;
-import com.hazelcast.map.merge.PassThroughMergePolicy;
 import ddf.catalog.cache.ResourceCacheInterface;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.data.ReliableResource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import java.io.File;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.codice.ddf.configuration.PropertyResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Cache of products retrieved from sources. Products are cached as files in the product cache
+ * directory and tracked by a {@link ProductCacheIndex}, which evicts the least recently used
+ * products once the directory exceeds its maximum size.
+ */
 public class ResourceCacheImpl implements ResourceCacheInterface {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ResourceCacheImpl.class);
 
-  private static final String PRODUCT_CACHE_NAME = "Product_Cache";
-
-  private static final String HAZELCAST_STORAGE_PROPERTY = "storage";
+  private static final String METRIC_PREFIX = "ddf.catalog.resource.cache";
 
-  private static final int HAZELCAST_PORT = 5701;
+  private static final Counter HITS = Metrics.counter(METRIC_PREFIX + ".hits");
 
-  private static final boolean HAZELCAST_PORT_AUTO_INCREMENT = true;
+  private static final Counter MISSES = Metrics.counter(METRIC_PREFIX + ".misses");
 
   private static final long BYTES_IN_MEGABYTES = FileUtils.ONE_MB;
 
@@ -60,53 +55,36 @@ public class ResourceCacheImpl implements ResourceCacheInterface {
   /** Directory for products cached to file system */
   private String productCacheDirectory;
 
-  private HazelcastInstance instance;
+  private long maxDirSizeBytes = DEFAULT_MAX_CACHE_DIR_SIZE_BYTES;
 
-  private IMap<Object, Object> cache;
-
-  private ProductCacheDirListener<Object, Object> cacheListener =
-      new ProductCacheDirListener<>(DEFAULT_MAX_CACHE_DIR_SIZE_BYTES);
+  private ProductCacheIndex cache;
 
   public ResourceCacheImpl(String productCacheDirectory) {
     this.productCacheDirectory = productCacheDirectory;
     initCache();
   }
 
-  /** Called after all parameters are set */
-  public void setCache(HazelcastInstance instance) {
-    LOGGER.trace("ENTERING: setCache()");
-    this.instance = instance;
-    if (this.instance == null) {
-      Config cfg = initHazelcastConfig(productCacheDirectory);
-      cfg.setClassLoader(getClass().getClassLoader());
-      this.instance = Hazelcast.newHazelcastInstance(cfg);
-    }
-
-    cache = this.instance.getMap(PRODUCT_CACHE_NAME);
-    cacheListener.setHazelcastInstance(this.instance);
-    cache.addEntryListener(cacheListener, true);
-  }
-
-  public void initCache() {
-    // if a hazelcast instance is already running, shut it down first
-    if (instance != null) {
+  public synchronized void initCache() {
+    // if an index is already open, close it first
+    if (cache != null) {
       teardownCache();
     }
-    setCache(null);
+    cache = new ProductCacheIndex(Paths.get(productCacheDirectory), maxDirSizeBytes);
   }
 
-  public void teardownCache() {
-    instance.shutdown();
+  public synchronized void teardownCache() {
+    cache.close();
   }
 
   public long getCacheDirMaxSizeMegabytes() {
     LOGGER.debug("Getting max size for cache directory.");
-    return cacheListener.getMaxDirSizeBytes() / BYTES_IN_MEGABYTES;
+    return maxDirSizeBytes / BYTES_IN_MEGABYTES;
   }
 
-  public void setCacheDirMaxSizeMegabytes(long cacheDirMaxSizeMegabytes) {
+  public synchronized void setCacheDirMaxSizeMegabytes(long cacheDirMaxSizeMegabytes) {
     LOGGER.debug("Setting max size for cache directory: {}", cacheDirMaxSizeMegabytes);
-    cacheListener.setMaxDirSizeBytes(cacheDirMaxSizeMegabytes * BYTES_IN_MEGABYTES);
+    maxDirSizeBytes = cacheDirMaxSizeMegabytes * BYTES_IN_MEGABYTES;
+    cache.setMaxSizeBytes(maxDirSizeBytes);
   }
 
   public String getProductCacheDirectory() {
@@ -140,7 +118,7 @@ public boolean isPending(String key) {
   public void put(ReliableResource reliableResource) {
     LOGGER.trace("ENTERING: put(ReliableResource)");
     reliableResource.setLastTouchedMillis(System.currentTimeMillis());
-    cache.put(reliableResource.getKey(), reliableResource);
+    cache.put(reliableResource);
     removePendingCacheEntry(reliableResource.getKey());
 
     LOGGER.trace("EXITING: put(ReliableResource)");
@@ -182,7 +160,7 @@ public Resource getValid(String key, Metacard latestMetacard) {
     }
     LOGGER.debug("key {}", key);
 
-    ReliableResource cachedResource = (ReliableResource) cache.get(key);
+    ReliableResource cachedResource = cache.get(key);
 
     // Check that ReliableResource actually maps to a file (product) in the
     // product cache directory. This check handles the case if the product
@@ -192,20 +170,24 @@ public Resource getValid(String key, Metacard latestMetacard) {
         LOGGER.debug(
             "Entry found in cache was out-of-date or otherwise invalid.  Will need to be re-cached.  Entry key: {}",
             key);
+        MISSES.increment();
         return null;
       }
 
       if (cachedResource.hasProduct()) {
         LOGGER.trace("EXITING: get() for key {}", key);
+        HITS.increment();
         return cachedResource;
       } else {
         cache.remove(key);
         LOGGER.debug(
             "Entry found in the cache, but no product found in cache directory for key = {}", key);
+        MISSES.increment();
         return null;
       }
     } else {
       LOGGER.debug("No product found in cache for key = {}", key);
+      MISSES.increment();
       return null;
     }
   }
@@ -221,7 +203,7 @@ public boolean containsValid(String key, Metacard latestMetacard) {
     if (key == null) {
       return false;
     }
-    ReliableResource cachedResource = (ReliableResource) cache.get(key);
+    ReliableResource cachedResource = cache.get(key);
     return (cachedResource != null) && (validateCacheEntry(cachedResource, latestMetacard));
   }
 
@@ -265,40 +247,4 @@ protected boolean validateCacheEntry(ReliableResource cachedResource, Metacard l
     LOGGER.trace("EXITING: validateCacheEntry");
     return false;
   }
-
-  private Config initHazelcastConfig(String productCacheDirectory) {
-    Config cfg = new Config();
-
-    JoinConfig joinConfig = cfg.getNetworkConfig().getJoin();
-    joinConfig.getMulticastConfig().setEnabled(false);
-
-    MapConfig defaultMapConfig = cfg.getMapConfig("default");
-    defaultMapConfig.setBackupCount(2);
-    defaultMapConfig.setEvictionPolicy(EvictionPolicy.LRU);
-    defaultMapConfig.setMergePolicy(PassThroughMergePolicy.class.getCanonicalName());
-
-    MapConfig productCacheMapConfig = cfg.getMapConfig(PRODUCT_CACHE_NAME);
-    productCacheMapConfig.setBackupCount(0);
-
-    MapStoreConfig productCacheMapStoreConfig = new MapStoreConfig();
-
-    productCacheMapStoreConfig.setEnabled(true);
-    productCacheMapStoreConfig.setFactoryClassName(
-        FileSystemMapStoreFactory.class.getCanonicalName());
-    productCacheMapStoreConfig.setWriteDelaySeconds(0);
-    productCacheMapStoreConfig.setProperty(HAZELCAST_STORAGE_PROPERTY, productCacheDirectory);
-
-    productCacheMapConfig.setMapStoreConfig(productCacheMapStoreConfig);
-
-    cfg.getNetworkConfig()
-        .setPort(HAZELCAST_PORT)
-        .setPortAutoIncrement(HAZELCAST_PORT_AUTO_INCREMENT)
-        .setOutboundPorts(Arrays.asList(0))
-        .setJoin(joinConfig)
-        .setSSLConfig(new SSLConfig());
-    cfg.addMapConfig(defaultMapConfig);
-    cfg.addMapConfig(productCacheMapConfig);
-
-    return cfg;
-  }
 }
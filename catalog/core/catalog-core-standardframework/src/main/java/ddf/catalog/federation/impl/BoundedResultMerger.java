@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.federation.impl;
+
+import ddf.catalog.data.Result;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges the results returned by several sources into a single sorted page as the source responses
+ * arrive. Only the best {@code maxResults} results seen so far are kept in a bounded heap, so
+ * memory usage does not grow with the number of sources. Results that compare as equal keep the
+ * order in which they were added, matching the stable sort done when all the results are collected
+ * and then sorted.
+ */
+class BoundedResultMerger {
+
+  private final Comparator<Entry> entryComparator;
+
+  private final PriorityQueue<Entry> heap;
+
+  private final int maxResults;
+
+  private long sequence = 0;
+
+  /**
+   * @param comparator comparator used to sort the results
+   * @param maxResults maximum number of results to keep, or a value less than 1 to keep them all
+   */
+  BoundedResultMerger(Comparator<? super Result> comparator, int maxResults) {
+    this.maxResults = maxResults > 0 ? maxResults : Integer.MAX_VALUE;
+    this.entryComparator =
+        Comparator.<Entry, Result>comparing(entry -> entry.result, comparator)
+            .thenComparingLong(entry -> entry.sequence);
+    // The head of the heap is the worst result kept so far, so it can be evicted cheaply
+    this.heap = new PriorityQueue<>(entryComparator.reversed());
+  }
+
+  void addAll(Collection<Result> results) {
+    for (Result result : results) {
+      add(result);
+    }
+  }
+
+  void add(Result result) {
+    Entry entry = new Entry(result, sequence++);
+
+    if (heap.size() < maxResults) {
+      heap.add(entry);
+    } else if (entryComparator.compare(entry, heap.peek()) < 0) {
+      heap.poll();
+      heap.add(entry);
+    }
+  }
+
+  int size() {
+    return heap.size();
+  }
+
+  /** @return the results kept so far, in sorted order */
+  List<Result> getSortedResults() {
+    List<Entry> entries = new ArrayList<>(heap);
+    entries.sort(entryComparator);
+
+    List<Result> results = new ArrayList<>(entries.size());
+    for (Entry entry : entries) {
+      results.add(entry.result);
+    }
+    return results;
+  }
+
+  private static class Entry {
+    private final Result result;
+
+    private final long sequence;
+
+    private Entry(Result result, long sequence) {
+      this.result = result;
+      this.sequence = sequence;
+    }
+  }
+}
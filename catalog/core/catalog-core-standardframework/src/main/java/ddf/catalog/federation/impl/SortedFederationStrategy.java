@@ -13,6 +13,8 @@
  */
 package ddf.catalog.federation.impl;
 
+import static ddf.catalog.Constants.QUERY_CURSOR_KEY;
+
 import com.google.common.annotations.VisibleForTesting;
 import ddf.catalog.data.Result;
 import ddf.catalog.federation.FederationException;
@@ -176,12 +178,18 @@ public QueryResponse federate(List<Source> sources, QueryRequest queryRequest) {
       if (source != null) {
         LOGGER.debug("running query on source: {}", source.getId());
 
+        Map<String, Serializable> sourceProperties = new HashMap<>(queryRequest.getProperties());
+        if (sources.size() > 1) {
+          // A cursor only describes a position in a single source's results
+          sourceProperties.remove(QUERY_CURSOR_KEY);
+        }
+
         QueryRequest sourceQueryRequest =
             new QueryRequestImpl(
                 modifiedQuery,
                 queryRequest.isEnterprise(),
                 Collections.singleton(source.getId()),
-                new HashMap<>(queryRequest.getProperties()));
+                sourceProperties);
         try {
           for (PreFederatedQueryPlugin service : preQuery) {
             try {
@@ -296,6 +304,30 @@ public void setMaxStartIndex(int maxStartIndex) {
     }
   }
 
+  /**
+   * To be set via Spring/Blueprint
+   *
+   * @param streamingMerge if {@code true}, source responses are merged into a bounded, sorted page
+   *     as they arrive instead of being collected and sorted once all the sources have responded
+   */
+  public void setStreamingMerge(boolean streamingMerge) {
+    sortedQueryMonitorFactory.setStreamingMerge(streamingMerge);
+  }
+
+  /**
+   * To be set via Spring/Blueprint
+   *
+   * @param sourceCutoffMillis maximum time, in milliseconds, to wait for slower sources once the
+   *     first source has successfully responded with results. A value less than 1 disables the
+   *     cut-off.
+   */
+  public void setSourceCutoffMillis(long sourceCutoffMillis) {
+    if (sourceCutoffMillis < 0) {
+      LOGGER.debug("Invalid source cut-off input. Disabling the source cut-off.");
+    }
+    sortedQueryMonitorFactory.setSourceCutoffMillis(Math.max(sourceCutoffMillis, 0));
+  }
+
   static class OffsetResultHandler implements Runnable {
 
     private QueryResponseImpl originalResults = null;
@@ -77,18 +77,42 @@ class SortedQueryMonitor implements Runnable {
 
   private final long deadline;
 
+  private final boolean streamingMerge;
+
+  private final long sourceCutoffMillis;
+
   public SortedQueryMonitor(
       CompletionService<SourceResponse> completionService,
       Map<Future<SourceResponse>, QueryRequest> futures,
       QueryResponseImpl returnResults,
       QueryRequest request,
       List<PostFederatedQueryPlugin> postQuery) {
+    this(completionService, futures, returnResults, request, postQuery, false, 0);
+  }
+
+  /**
+   * @param streamingMerge if {@code true}, each source response is merged into a bounded heap as
+   *     soon as it arrives instead of collecting all the results before sorting them
+   * @param sourceCutoffMillis maximum time, in milliseconds, to wait for the remaining sources once
+   *     the first source has successfully responded with results. Sources that have not responded
+   *     by then are reported as timed out. A value less than 1 disables the cut-off.
+   */
+  public SortedQueryMonitor(
+      CompletionService<SourceResponse> completionService,
+      Map<Future<SourceResponse>, QueryRequest> futures,
+      QueryResponseImpl returnResults,
+      QueryRequest request,
+      List<PostFederatedQueryPlugin> postQuery,
+      boolean streamingMerge,
+      long sourceCutoffMillis) {
     this.completionService = completionService;
     this.returnResults = returnResults;
     this.request = request;
     this.query = request.getQuery();
     this.futures = futures;
     this.postQuery = postQuery;
+    this.streamingMerge = streamingMerge;
+    this.sourceCutoffMillis = sourceCutoffMillis;
     deadline = System.currentTimeMillis() + query.getTimeoutMillis();
   }
 
@@ -144,7 +168,10 @@ public void run() {
     }
 
     List<Result> resultList = new ArrayList<>();
+    BoundedResultMerger resultMerger =
+        streamingMerge ? new BoundedResultMerger(resultComparator, query.getPageSize()) : null;
     long totalHits = 0;
+    long cutoffDeadline = Long.MAX_VALUE;
     Set<ProcessingDetails> detailsOfReturnResults = returnResults.getProcessingDetails();
 
     Map<String, Serializable> returnProperties = returnResults.getProperties();
@@ -156,10 +183,13 @@ public void run() {
       SourceResponse sourceResponse = null;
       try {
         Future<SourceResponse> future;
-        if (query.getTimeoutMillis() < 1) {
+        if (query.getTimeoutMillis() < 1 && cutoffDeadline == Long.MAX_VALUE) {
           future = completionService.take();
         } else {
-          future = completionService.poll(getTimeRemaining(deadline), TimeUnit.MILLISECONDS);
+          long effectiveDeadline =
+              query.getTimeoutMillis() < 1 ? cutoffDeadline : Math.min(deadline, cutoffDeadline);
+          future =
+              completionService.poll(getTimeRemaining(effectiveDeadline), TimeUnit.MILLISECONDS);
           if (future == null) {
             timeoutRemainingSources(detailsOfReturnResults);
             break;
@@ -182,6 +212,12 @@ public void run() {
         } else {
           sourceResponse =
               executePostFederationQueryPlugins(sourceResponse, queryRequest, sourceId);
+          // A failed or empty response leaves nothing to return, so it does not start the cut-off
+          if (sourceCutoffMillis > 0
+              && cutoffDeadline == Long.MAX_VALUE
+              && !sourceResponse.getResults().isEmpty()) {
+            cutoffDeadline = System.currentTimeMillis() + sourceCutoffMillis;
+          }
         }
       } catch (InterruptedException e) {
         if (queryRequest != null) {
@@ -201,7 +237,11 @@ public void run() {
         sourceResponse =
             executePostFederationQueryPluginsWithSourceError(queryRequest, sourceId, e);
       }
-      resultList.addAll(sourceResponse.getResults());
+      if (resultMerger != null) {
+        resultMerger.addAll(sourceResponse.getResults());
+      } else {
+        resultList.addAll(sourceResponse.getResults());
+      }
       long hits = sourceResponse.getHits();
       totalHits += hits;
       hitsPerSource.merge(sourceId, hits, (l1, l2) -> l1 + l2);
@@ -212,10 +252,16 @@ public void run() {
           sourceProcessingDetailsToProcessingDetails(sourceId, sourceResponse));
     }
     returnProperties.put("hitsPerSource", hitsPerSource);
-    LOGGER.debug("All sources finished returning results: {}", resultList.size());
 
     returnResults.setHits(totalHits);
-    returnResults.addResults(sortedResults(resultList, resultComparator), true);
+    if (resultMerger != null) {
+      // Every source has responded or been cut off, so the position of each merged result is final
+      LOGGER.debug("All sources finished returning results: {}", resultMerger.size());
+      returnResults.addResults(resultMerger.getSortedResults(), true);
+    } else {
+      LOGGER.debug("All sources finished returning results: {}", resultList.size());
+      returnResults.addResults(sortedResults(resultList, resultComparator), true);
+    }
   }
 
   private Set<ProcessingDetails> sourceProcessingDetailsToProcessingDetails(
@@ -24,6 +24,10 @@
 
 class SortedQueryMonitorFactory {
 
+  private volatile boolean streamingMerge = false;
+
+  private volatile long sourceCutoffMillis = 0;
+
   public Runnable createMonitor(
       final CompletionService<SourceResponse> completionService,
       final Map<Future<SourceResponse>, QueryRequest> futures,
@@ -31,6 +35,21 @@ public Runnable createMonitor(
       final QueryRequest request,
       List<PostFederatedQueryPlugin> postQuery) {
 
-    return new SortedQueryMonitor(completionService, futures, returnResults, request, postQuery);
+    return new SortedQueryMonitor(
+        completionService,
+        futures,
+        returnResults,
+        request,
+        postQuery,
+        streamingMerge,
+        sourceCutoffMillis);
+  }
+
+  public void setStreamingMerge(boolean streamingMerge) {
+    this.streamingMerge = streamingMerge;
+  }
+
+  public void setSourceCutoffMillis(long sourceCutoffMillis) {
+    this.sourceCutoffMillis = sourceCutoffMillis;
   }
 }
@@ -20,18 +20,29 @@
 import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.operation.impl.ResourceResponseImpl;
+import ddf.catalog.resource.FileChannelResource;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceNotSupportedException;
+import ddf.catalog.resource.data.ReliableResource;
 import ddf.catalog.resource.download.DownloadManagerState.DownloadState;
+import ddf.catalog.resource.impl.FileChannelResourceImpl;
+import ddf.catalog.resourceretriever.ByteRange;
 import ddf.catalog.resourceretriever.ResourceRetriever;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.lang.StringUtils;
 import org.codice.ddf.catalog.resource.download.DownloadException;
@@ -49,6 +60,8 @@ public class ReliableResourceDownloadManager implements DownloadManager {
 
   private static final int ONE_SECOND_IN_MS = 1000;
 
+  private static final long DEFAULT_ATTACH_TIMEOUT_MS = 30L * ONE_SECOND_IN_MS;
+
   private static final Logger LOGGER =
       LoggerFactory.getLogger(ReliableResourceDownloadManager.class);
 
@@ -58,6 +71,15 @@ public class ReliableResourceDownloadManager implements DownloadManager {
 
   private ExecutorService executor;
 
+  private long attachTimeoutMs = DEFAULT_ATTACH_TIMEOUT_MS;
+
+  /**
+   * Downloads currently being cached, by cache key, so that concurrent requests for the same
+   * product read the product as it is being cached rather than each retrieving it from the source.
+   */
+  private final Map<String, CompletableFuture<ReliableResourceDownloader>> sharedDownloads =
+      new ConcurrentHashMap<>();
+
   /** @param downloaderConfig reference to the {@link ReliableResourceDownloaderConfig} */
   public ReliableResourceDownloadManager(
       ReliableResourceDownloaderConfig downloaderConfig,
@@ -112,6 +134,9 @@ public ResourceResponse download(
           downloaderConfig
               .getResourceCache()
               .getValid(new CacheKey(metacard, resourceRequest).generateKey(), metacard);
+      if (cachedResource != null) {
+        cachedResource = getCachedResource(resourceRequest, cachedResource);
+      }
       if (cachedResource != null) {
         resourceResponse =
             new ResourceResponseImpl(
@@ -123,25 +148,156 @@ public ResourceResponse download(
       }
     }
 
+    String sharedDownloadKey = null;
+    CompletableFuture<ReliableResourceDownloader> sharedDownload = null;
+    if (resourceResponse == null) {
+      sharedDownloadKey = getSharedDownloadKey(resourceRequest, metacard);
+    }
+    if (sharedDownloadKey != null) {
+      CompletableFuture<ReliableResourceDownloader> newDownload = new CompletableFuture<>();
+      CompletableFuture<ReliableResourceDownloader> inFlightDownload =
+          sharedDownloads.putIfAbsent(sharedDownloadKey, newDownload);
+      if (inFlightDownload == null) {
+        sharedDownload = newDownload;
+      } else {
+        resourceResponse = attachToDownload(inFlightDownload, resourceRequest, metacard);
+      }
+    }
+
     if (resourceResponse == null) {
       try {
-        resourceResponse = retriever.retrieveResource();
-      } catch (ResourceNotFoundException | ResourceNotSupportedException | IOException e) {
-        throw new DownloadException("Cannot download resource", e);
+        try {
+          resourceResponse = retriever.retrieveResource();
+        } catch (ResourceNotFoundException | ResourceNotSupportedException | IOException e) {
+          throw new DownloadException("Cannot download resource", e);
+        }
+
+        resourceResponse.getProperties().put(Metacard.ID, metacard.getId());
+        // Sources do not create ResourceResponses with the original ResourceRequest, hence
+        // it is added here because it will be needed for caching
+        resourceResponse =
+            new ResourceResponseImpl(
+                resourceRequest, resourceResponse.getProperties(), resourceResponse.getResource());
+
+        // A product already stored as is on the local file system is served from its file
+        // rather than downloaded into the cache
+        if (resourceResponse.getResource() instanceof FileChannelResource) {
+          LOGGER.debug("Product for metacard ID = {} is a local file", metacard.getId());
+        } else {
+          resourceResponse =
+              startDownload(
+                  downloadIdentifier,
+                  resourceResponse,
+                  retriever,
+                  metacard,
+                  sharedDownloadKey,
+                  sharedDownload);
+        }
+      } finally {
+        // Release any clients waiting to attach to a download that could not be started
+        if (sharedDownload != null && !sharedDownload.isDone()) {
+          sharedDownloads.remove(sharedDownloadKey, sharedDownload);
+          sharedDownload.complete(null);
+        }
       }
+    }
+    return resourceResponse;
+  }
 
-      resourceResponse.getProperties().put(Metacard.ID, metacard.getId());
-      // Sources do not create ResourceResponses with the original ResourceRequest, hence
-      // it is added here because it will be needed for caching
-      resourceResponse =
-          new ResourceResponseImpl(
-              resourceRequest, resourceResponse.getProperties(), resourceResponse.getResource());
+  /**
+   * @return the cache key of the product requested if its download can be shared with other clients
+   *     requesting the same product, or {@code null} if it cannot be
+   */
+  private String getSharedDownloadKey(ResourceRequest resourceRequest, Metacard metacard) {
+    if (!downloaderConfig.isCacheEnabled()
+        || ByteRange.fromProperties(resourceRequest.getProperties()).isPartial()) {
+      return null;
+    }
 
-      resourceResponse = startDownload(downloadIdentifier, resourceResponse, retriever, metacard);
+    try {
+      return new CacheKey(metacard, resourceRequest).generateKey();
+    } catch (IllegalArgumentException e) {
+      LOGGER.debug("Cannot create cache key for resource with metacard ID = {}", metacard.getId());
+      return null;
+    }
+  }
+
+  /**
+   * Attaches the client to a download of the same product already in progress, so that the product
+   * is read from the file it is being cached to.
+   *
+   * <p>The client waits at most the attach timeout for the download in progress to start, so a
+   * source that is slow to respond to the first client does not hold up every other client.
+   *
+   * @return the {@link ResourceResponse} to return to the client, or {@code null} if the download
+   *     in progress cannot be shared and the product must be retrieved from the source
+   */
+  private ResourceResponse attachToDownload(
+      CompletableFuture<ReliableResourceDownloader> inFlightDownload,
+      ResourceRequest resourceRequest,
+      Metacard metacard) {
+    ReliableResourceDownloader downloader;
+    try {
+      downloader = inFlightDownload.get(attachTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      LOGGER.debug("Unable to attach to download of metacard ID = {}", metacard.getId(), e);
+      return null;
+    } catch (TimeoutException e) {
+      LOGGER.debug(
+          "Download of metacard ID = {} did not start within {} ms. Have to retrieve it from source",
+          metacard.getId(),
+          attachTimeoutMs);
+      return null;
+    }
+
+    ResourceResponse resourceResponse =
+        downloader == null ? null : downloader.attachReader(resourceRequest);
+    if (resourceResponse != null) {
+      LOGGER.debug(
+          "Attached to download in progress of product for metacard ID = {}", metacard.getId());
+    } else {
+      LOGGER.debug(
+          "Unable to attach to download of metacard ID = {}. Have to retrieve it from source",
+          metacard.getId());
     }
     return resourceResponse;
   }
 
+  /**
+   * Returns the cached product, or the byte range of it that was requested, as a {@link
+   * FileChannelResource} so that it can be served straight from the cache file.
+   *
+   * @return the cached product to return, or {@code null} if the cache file could not be read
+   */
+  private Resource getCachedResource(ResourceRequest resourceRequest, Resource cachedResource) {
+    if (!(cachedResource instanceof ReliableResource)) {
+      return cachedResource;
+    }
+
+    Path cacheFile = Paths.get(((ReliableResource) cachedResource).getFilePath());
+    long fileSize;
+    try {
+      fileSize = Files.size(cacheFile);
+    } catch (IOException e) {
+      LOGGER.debug("Unable to read cached product {}", cachedResource.getName(), e);
+      return null;
+    }
+
+    ByteRange range = ByteRange.fromProperties(resourceRequest.getProperties());
+    long start = Math.min(range.getStart(), fileSize);
+    long size = fileSize - start;
+    if (range.getLength() != ByteRange.TO_END) {
+      size = Math.min(size, range.getLength());
+    }
+
+    LOGGER.debug("Reading {} of cached product {}", range, cachedResource.getName());
+    return new FileChannelResourceImpl(
+        cacheFile, start, size, cachedResource.getMimeType(), cachedResource.getName());
+  }
+
   public void setMaxRetryAttempts(int maxRetryAttempts) {
     downloaderConfig.setMaxRetryAttempts(maxRetryAttempts);
   }
@@ -151,6 +307,14 @@ public void setDelayBetweenAttempts(int delayBetweenAttempts) {
     downloaderConfig.setDelayBetweenAttemptsMS(delayBetweenAttempts * ONE_SECOND_IN_MS);
   }
 
+  /**
+   * @param attachTimeoutMs how long, in milliseconds, a client waits for a download of the same
+   *     product already requested by another client to start before retrieving it itself
+   */
+  public void setAttachTimeoutMs(long attachTimeoutMs) {
+    this.attachTimeoutMs = attachTimeoutMs;
+  }
+
   public void setMonitorPeriod(long monitorPeriod) {
     downloaderConfig.setMonitorPeriodMS(monitorPeriod * ONE_SECOND_IN_MS);
   }
@@ -183,6 +347,10 @@ public void setProductCacheDirectory(String productCacheDirectory) {
     this.downloaderConfig.getResourceCache().setProductCacheDirectory(productCacheDirectory);
   }
 
+  public void setCacheDirMaxSizeMegabytes(long cacheDirMaxSizeMegabytes) {
+    this.downloaderConfig.getResourceCache().setCacheDirMaxSizeMegabytes(cacheDirMaxSizeMegabytes);
+  }
+
   public List<DownloadInfo> getDownloadsInProgress() {
     List<DownloadInfo> downloadsInProgress = new ArrayList<>();
     for (String downloadIdentifier : downloadStatusInfo.getAllDownloads()) {
@@ -200,7 +368,9 @@ private ResourceResponse startDownload(
       String downloadIdentifier,
       ResourceResponse resourceResponse,
       ResourceRetriever retriever,
-      Metacard metacard) {
+      Metacard metacard,
+      String sharedDownloadKey,
+      CompletableFuture<ReliableResourceDownloader> sharedDownload) {
     AtomicBoolean downloadStarted = new AtomicBoolean(Boolean.FALSE);
     ReliableResourceDownloader downloader =
         new ReliableResourceDownloader(
@@ -209,6 +379,18 @@ private ResourceResponse startDownload(
     ResourceResponse response = downloader.setupDownload(metacard, downloadStatusInfo);
     response.getProperties().put(DOWNLOAD_ID_PROPERTY_KEY, downloadIdentifier);
 
+    if (sharedDownload != null) {
+      if (downloader.isCaching()) {
+        // Other clients can read the product from the cache file until the download finishes
+        downloader.setDownloadFinishedListener(
+            () -> sharedDownloads.remove(sharedDownloadKey, sharedDownload));
+        sharedDownload.complete(downloader);
+      } else {
+        sharedDownloads.remove(sharedDownloadKey, sharedDownload);
+        sharedDownload.complete(null);
+      }
+    }
+
     // Start download in separate thread so can return ResourceResponse with
     // ReliableResourceInputStream available for client to start reading from
     executor.submit(downloader);
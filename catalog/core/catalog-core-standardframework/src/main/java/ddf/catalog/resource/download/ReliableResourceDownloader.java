@@ -23,6 +23,7 @@
 import ddf.catalog.event.retrievestatus.DownloadsStatusEventListener;
 import ddf.catalog.event.retrievestatus.DownloadsStatusEventPublisher;
 import ddf.catalog.event.retrievestatus.DownloadsStatusEventPublisher.ProductRetrievalStatus;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.operation.impl.ResourceResponseImpl;
 import ddf.catalog.resource.Resource;
@@ -31,12 +32,15 @@
 import ddf.catalog.resource.data.ReliableResource;
 import ddf.catalog.resource.download.DownloadManagerState.DownloadState;
 import ddf.catalog.resource.download.ReliableResourceStatus.DownloadStatus;
+import ddf.catalog.resource.impl.ByteRangeResourceImpl;
 import ddf.catalog.resource.impl.ResourceImpl;
+import ddf.catalog.resourceretriever.ByteRange;
 import ddf.catalog.resourceretriever.ResourceRetriever;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Timer;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
@@ -68,9 +72,12 @@ public class ReliableResourceDownloader implements Runnable {
 
   private final Object lock = new Object();
 
-  private ReliableResourceCallable reliableResourceCallable;
+  /** Guards the clients attached to this download and the state of the cache file they read. */
+  private final Object readerLock = new Object();
 
-  private Future<ReliableResourceStatus> downloadFuture;
+  private volatile ReliableResourceCallable reliableResourceCallable;
+
+  private volatile Future<ReliableResourceStatus> downloadFuture;
 
   private ExecutorService downloadExecutor;
 
@@ -114,6 +121,13 @@ public class ReliableResourceDownloader implements Runnable {
    */
   private boolean doCaching;
 
+  /** Number of clients, other than the one that started this download, reading the cache file. */
+  private int attachedReaders = 0;
+
+  private volatile CacheFileState cacheFileState = CacheFileState.NOT_CACHING;
+
+  private Runnable downloadFinishedListener;
+
   public ReliableResourceDownloader(
       ReliableResourceDownloaderConfig downloaderConfig,
       AtomicBoolean downloadStarted,
@@ -155,7 +169,7 @@ public ResourceResponse setupDownload(Metacard metacard, DownloadStatusInfo down
     // Create new ResourceResponse to return that will encapsulate the
     // ReliableResourceInputStream that will be read by the client simultaneously as the product
     // is cached to disk (if caching is enabled)
-    ResourceImpl newResource = new ResourceImpl(streamReadByClient, mimeType, resourceName);
+    ResourceImpl newResource = ByteRangeResourceImpl.wrap(resource, streamReadByClient, mimeType);
     resourceResponse =
         new ResourceResponseImpl(
             resourceResponse.getRequest(), resourceResponse.getProperties(), newResource);
@@ -166,6 +180,14 @@ public ResourceResponse setupDownload(Metacard metacard, DownloadStatusInfo down
     eventListener.setDownloadMap(downloadIdentifier, resourceResponse);
     downloadStatusInfo.addDownloadInfo(downloadIdentifier, this, resourceResponse);
 
+    // A byte range of the product cannot be cached since the cache only holds whole products
+    if (downloaderConfig.isCacheEnabled()
+        && resourceResponse.getRequest() != null
+        && ByteRange.fromProperties(resourceResponse.getRequest().getProperties()).isPartial()) {
+      LOGGER.debug("Requested a byte range of the product - no caching will be done.");
+      return resourceResponse;
+    }
+
     if (downloaderConfig.isCacheEnabled()) {
 
       CacheKey keyMaker = null;
@@ -199,6 +221,7 @@ public ResourceResponse setupDownload(Metacard metacard, DownloadStatusInfo down
         try {
           fos = FileUtils.openOutputStream(new File(filePath));
           doCaching = true;
+          cacheFileState = CacheFileState.IN_PROGRESS;
           this.downloadState.setCacheEnabled(true);
         } catch (IOException e) {
           LOGGER.info("Unable to open cache file {} - no caching will be done.", filePath);
@@ -388,6 +411,7 @@ public void run() {
                 reliableResourceStatus.getBytesRead(),
                 downloadIdentifier);
             if (doCaching) {
+              setCacheFileState(CacheFileState.FAILED);
               deleteCacheFile(fos);
               resourceCache.removePendingCacheEntry(reliableResource.getKey());
               // Disable caching since the cache file being written to had issues
@@ -440,13 +464,22 @@ public void run() {
                 "",
                 reliableResourceStatus.getBytesRead(),
                 downloadIdentifier);
-            if (doCaching && downloaderConfig.isCacheWhenCanceled()) {
-              LOGGER.debug("Continuing to cache product");
-              reliableResourceCallable =
-                  constructReliableResourceCallable(
-                      resourceInputStream, null, fos, downloaderConfig.getChunkSize(), lock);
-              reliableResourceCallable.setBytesRead(bytesRead);
-            } else {
+            // Keep caching while other clients are reading the cache file. The new Callable is
+            // created while holding the reader lock so the last of those clients to leave cancels
+            // it.
+            boolean continueCaching;
+            synchronized (readerLock) {
+              continueCaching =
+                  doCaching && (downloaderConfig.isCacheWhenCanceled() || attachedReaders > 0);
+              if (continueCaching) {
+                LOGGER.debug("Continuing to cache product");
+                reliableResourceCallable =
+                    constructReliableResourceCallable(
+                        resourceInputStream, null, fos, downloaderConfig.getChunkSize(), lock);
+                reliableResourceCallable.setBytesRead(bytesRead);
+              }
+            }
+            if (!continueCaching) {
               break;
             }
 
@@ -562,6 +595,15 @@ private void postFailedDownloadState(ReliableResourceStatus reliableResourceStat
 
   private void cleanupAfterDownload(ReliableResourceStatus reliableResourceStatus) {
 
+    if (cacheFileState == CacheFileState.IN_PROGRESS) {
+      setCacheFileState(
+          reliableResourceStatus != null
+                  && DownloadStatus.RESOURCE_DOWNLOAD_COMPLETE.equals(
+                      reliableResourceStatus.getDownloadStatus())
+              ? CacheFileState.COMPLETE
+              : CacheFileState.FAILED);
+    }
+
     if (reliableResourceStatus != null) {
       // If caching was not successful, then remove this product from the pending cache list
       // (Otherwise partially cached files will remain in pending list and returned to
@@ -592,6 +634,100 @@ private void cleanupAfterDownload(ReliableResourceStatus reliableResourceStatus)
     LOGGER.debug("Closing source InputStream");
     IOUtils.closeQuietly(resourceInputStream);
     LOGGER.debug("Closed source InputStream");
+
+    if (downloadFinishedListener != null) {
+      downloadFinishedListener.run();
+    }
+  }
+
+  /**
+   * Attaches another client to this download so that it reads the product from the file it is being
+   * cached to, rather than starting another download of the same product.
+   *
+   * @param resourceRequest the request of the client attaching to this download
+   * @return a {@link ResourceResponse} whose resource reads the cache file as it is written, or
+   *     {@code null} if this download is not caching the product or has failed
+   */
+  ResourceResponse attachReader(ResourceRequest resourceRequest) {
+    InputStream cacheFileInputStream;
+    synchronized (readerLock) {
+      if (cacheFileState != CacheFileState.IN_PROGRESS
+          && cacheFileState != CacheFileState.COMPLETE) {
+        return null;
+      }
+
+      try {
+        cacheFileInputStream = new SharedResourceInputStream(this, filePath);
+      } catch (IOException e) {
+        LOGGER.debug("Unable to open cache file {} for reading", filePath, e);
+        return null;
+      }
+      attachedReaders++;
+      LOGGER.debug("Attached reader {} to download {}", attachedReaders, downloadIdentifier);
+    }
+
+    Resource resource = resourceResponse.getResource();
+    return new ResourceResponseImpl(
+        resourceRequest,
+        new HashMap<>(resourceResponse.getProperties()),
+        new ResourceImpl(cacheFileInputStream, resource.getMimeType(), resource.getName()));
+  }
+
+  /**
+   * Called when a client attached with {@link #attachReader(ResourceRequest)} stops reading. The
+   * download is canceled once the client that started it and all attached clients have left, unless
+   * the product should be cached anyway.
+   */
+  void releaseReader() {
+    synchronized (readerLock) {
+      attachedReaders--;
+      LOGGER.debug(
+          "Released reader from download {}, {} remaining", downloadIdentifier, attachedReaders);
+      if (attachedReaders > 0
+          || cacheFileState != CacheFileState.IN_PROGRESS
+          || downloadState.getDownloadState() != DownloadState.CANCELED
+          || downloaderConfig.isCacheWhenCanceled()) {
+        return;
+      }
+
+      ReliableResourceCallable callable = reliableResourceCallable;
+      if (callable != null) {
+        LOGGER.debug("Last reader left download {} - canceling it", downloadIdentifier);
+        synchronized (callable) {
+          callable.setCancelDownload(true);
+          Future<ReliableResourceStatus> future = downloadFuture;
+          if (future != null) {
+            future.cancel(true);
+          }
+        }
+      }
+    }
+  }
+
+  /** @return {@code true} once the cache file will no longer be written to */
+  boolean isCacheFileFinished() {
+    return cacheFileState == CacheFileState.COMPLETE || cacheFileState == CacheFileState.FAILED;
+  }
+
+  /** @return {@code true} if the whole product was written to the cache file */
+  boolean isCacheFileComplete() {
+    return cacheFileState == CacheFileState.COMPLETE;
+  }
+
+  /** @return {@code true} if attached clients can read the product from the cache file */
+  boolean isCaching() {
+    return cacheFileState == CacheFileState.IN_PROGRESS;
+  }
+
+  /** @param listener called once this download has finished, whether or not it succeeded */
+  void setDownloadFinishedListener(Runnable listener) {
+    this.downloadFinishedListener = listener;
+  }
+
+  private void setCacheFileState(CacheFileState state) {
+    synchronized (readerLock) {
+      cacheFileState = state;
+    }
   }
 
   private void delay() throws InterruptedException {
@@ -649,6 +785,13 @@ ReliableResourceCallable constructReliableResourceCallable(
     return new ReliableResourceCallable(input, countingFbos, fos, chunkSize, lock);
   }
 
+  @VisibleForTesting
+  int getAttachedReaders() {
+    synchronized (readerLock) {
+      return attachedReaders;
+    }
+  }
+
   @VisibleForTesting
   ResourceRetrievalMonitor constructResourceRetrievalMonitor() {
     return new ResourceRetrievalMonitor(
@@ -660,4 +803,11 @@ ResourceRetrievalMonitor constructResourceRetrievalMonitor() {
         metacard,
         downloadIdentifier);
   }
+
+  private enum CacheFileState {
+    NOT_CACHING,
+    IN_PROGRESS,
+    COMPLETE,
+    FAILED
+  }
 }
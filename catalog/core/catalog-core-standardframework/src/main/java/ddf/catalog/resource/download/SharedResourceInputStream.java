@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource.download;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * InputStream used by clients attached to a download started by another client. It reads the file
+ * the product is being cached to, waiting for more data whenever it catches up with the download,
+ * until the {@link ReliableResourceDownloader} has finished writing the file.
+ */
+class SharedResourceInputStream extends InputStream {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedResourceInputStream.class);
+
+  private static final long POLL_INTERVAL_MS = 100;
+
+  private final ReliableResourceDownloader downloader;
+
+  private final FileInputStream cacheFileInputStream;
+
+  private boolean closed = false;
+
+  SharedResourceInputStream(ReliableResourceDownloader downloader, String cacheFilePath)
+      throws IOException {
+    this.downloader = downloader;
+    this.cacheFileInputStream = new FileInputStream(cacheFilePath);
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] buffer = new byte[1];
+    int n = read(buffer, 0, 1);
+    return n == -1 ? -1 : buffer[0] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    if (closed) {
+      throw new IOException("Stream is closed");
+    }
+    if (length == 0) {
+      return 0;
+    }
+
+    while (true) {
+      // Check whether the download has finished before reading so that bytes written just before
+      // it finished are not missed.
+      boolean finished = downloader.isCacheFileFinished();
+      int n = cacheFileInputStream.read(buffer, offset, length);
+      if (n > 0) {
+        return n;
+      }
+      if (finished) {
+        if (downloader.isCacheFileComplete()) {
+          return -1;
+        }
+        throw new IOException("Download failed or cancelled - cannot retrieve product");
+      }
+
+      try {
+        TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for product download");
+      }
+    }
+  }
+
+  @Override
+  public int available() throws IOException {
+    return closed ? 0 : cacheFileInputStream.available();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    LOGGER.debug("Closing shared cache file InputStream");
+    try {
+      cacheFileInputStream.close();
+    } finally {
+      downloader.releaseReader();
+    }
+  }
+}
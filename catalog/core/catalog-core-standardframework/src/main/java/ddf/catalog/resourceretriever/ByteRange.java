@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resourceretriever;
+
+import ddf.catalog.operation.ResourceRequest;
+import java.io.Serializable;
+import java.util.Map;
+import org.apache.commons.lang.math.NumberUtils;
+
+/**
+ * The byte range requested for a resource, read from the {@link ResourceRequest#BYTES_TO_SKIP} and
+ * {@link ResourceRequest#BYTES_TO_READ} request properties.
+ */
+public class ByteRange {
+
+  /** Length used when the range extends to the end of the resource. */
+  public static final long TO_END = -1L;
+
+  private static final ByteRange WHOLE_RESOURCE = new ByteRange(0, TO_END);
+
+  private final long start;
+
+  private final long length;
+
+  public ByteRange(long start, long length) {
+    this.start = Math.max(0, start);
+    this.length = length < 0 ? TO_END : length;
+  }
+
+  /**
+   * @param properties request properties, may be {@code null}
+   * @return the range held in the properties, or a range covering the whole resource
+   */
+  public static ByteRange fromProperties(Map<String, Serializable> properties) {
+    if (properties == null) {
+      return WHOLE_RESOURCE;
+    }
+
+    long start = toLong(properties.get(ResourceRequest.BYTES_TO_SKIP), 0);
+    long length = toLong(properties.get(ResourceRequest.BYTES_TO_READ), TO_END);
+    if (start <= 0 && length < 0) {
+      return WHOLE_RESOURCE;
+    }
+    return new ByteRange(start, length);
+  }
+
+  private static long toLong(Serializable value, long defaultValue) {
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    return value == null ? defaultValue : NumberUtils.toLong(value.toString(), defaultValue);
+  }
+
+  public long getStart() {
+    return start;
+  }
+
+  /** @return the number of bytes in the range, or {@link #TO_END} if it is open ended */
+  public long getLength() {
+    return length;
+  }
+
+  /** @return {@code true} if this range does not cover the whole resource */
+  public boolean isPartial() {
+    return start > 0 || length != TO_END;
+  }
+
+  /**
+   * @param bytesRead number of bytes of this range already read
+   * @return the part of this range left to read
+   */
+  public ByteRange remaining(long bytesRead) {
+    long remainingLength = length == TO_END ? TO_END : Math.max(0, length - bytesRead);
+    return new ByteRange(start + bytesRead, remainingLength);
+  }
+
+  /**
+   * Puts this range in the given properties, replacing any range already in them.
+   *
+   * @param properties properties to update
+   */
+  public void putInto(Map<String, Serializable> properties) {
+    properties.remove(ResourceRequest.BYTES_TO_SKIP);
+    properties.remove(ResourceRequest.BYTES_TO_READ);
+    if (start > 0) {
+      properties.put(ResourceRequest.BYTES_TO_SKIP, start);
+    }
+    if (length != TO_END) {
+      properties.put(ResourceRequest.BYTES_TO_READ, length);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "bytes=" + start + "-" + (length == TO_END ? "" : String.valueOf(start + length - 1));
+  }
+}
@@ -72,8 +72,10 @@ public ResourceResponse retrieveResource(long bytesToSkip) throws ResourceNotFou
 
     Map<String, Serializable> props = new HashMap<>(properties);
 
+    // Retries skip the bytes already read, which are relative to the start of any range that was
+    // requested
     if (bytesToSkip > 0) {
-      props.put(BYTES_TO_SKIP, bytesToSkip);
+      ByteRange.fromProperties(properties).remaining(bytesToSkip).putInto(props);
     }
 
     URI derivedUri = null;
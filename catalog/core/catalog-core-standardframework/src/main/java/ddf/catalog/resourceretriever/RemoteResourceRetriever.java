@@ -59,8 +59,10 @@ public ResourceResponse retrieveResource(long bytesToSkip)
     // Create a fresh HashMap so as not to disturb the existing properties if we need to add to them
     Map<String, Serializable> props = new HashMap<>(properties);
 
+    // Retries skip the bytes already read, which are relative to the start of any range that was
+    // requested
     if (bytesToSkip > 0) {
-      props.put(BYTES_TO_SKIP, bytesToSkip);
+      ByteRange.fromProperties(properties).remaining(bytesToSkip).putInto(props);
     }
 
     return source.retrieveResource(resourceUri, props);
@@ -13,6 +13,7 @@
  */
 package ddf.catalog.resourceretriever;
 
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceNotSupportedException;
@@ -20,7 +21,7 @@
 
 public interface ResourceRetriever {
 
-  static final String BYTES_TO_SKIP = "BytesToSkip";
+  static final String BYTES_TO_SKIP = ResourceRequest.BYTES_TO_SKIP;
 
   public ResourceResponse retrieveResource()
       throws ResourceNotFoundException, ResourceNotSupportedException, IOException;
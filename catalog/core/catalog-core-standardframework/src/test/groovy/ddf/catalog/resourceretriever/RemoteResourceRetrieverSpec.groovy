@@ -13,6 +13,7 @@
  */
 package ddf.catalog.resourceretriever
 
+import ddf.catalog.operation.ResourceRequest
 import ddf.catalog.operation.ResourceResponse
 import ddf.catalog.resource.ResourceNotFoundException
 import ddf.catalog.source.RemoteSource
@@ -74,4 +75,23 @@ class RemoteResourceRetrieverSpec extends Specification {
         where:
         bytesToSkip << [1, 100, 4096, 4097]
     }
+
+    def 'test retry of a byte range skips from the start of the range'() {
+        setup:
+        props.put(ResourceRequest.BYTES_TO_SKIP, 100L)
+        props.put(ResourceRequest.BYTES_TO_READ, 50L)
+        def retriever = new RemoteResourceRetriever(remoteSource, this.uri, props)
+
+        when:
+        def response = retriever.retrieveResource(20)
+
+        then:
+        1 * remoteSource.retrieveResource(_ as URI, {
+            it.get(ResourceRequest.BYTES_TO_SKIP) == 120L &&
+                    it.get(ResourceRequest.BYTES_TO_READ) == 30L
+        }) >> mockResponse
+
+        response == mockResponse
+        props.get(ResourceRequest.BYTES_TO_SKIP) == 100L
+    }
 }
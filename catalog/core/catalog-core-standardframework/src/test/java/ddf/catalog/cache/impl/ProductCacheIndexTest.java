@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.resource.data.ReliableResource;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import javax.activation.MimeType;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProductCacheIndexTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path productCacheDir;
+
+  private ProductCacheIndex index;
+
+  @Before
+  public void setup() throws IOException {
+    productCacheDir = temporaryFolder.newFolder("cache").toPath();
+  }
+
+  @After
+  public void teardownTest() {
+    if (index != null) {
+      index.close();
+    }
+  }
+
+  @Test
+  public void testExceedCacheDirMaxSize() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 15);
+
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+
+    // ensure that the entry has not been removed from the cache since it doesn't exceed the max
+    // size
+    verifyCached("rr1", "10bytes.txt");
+
+    simulateAddFileToProductCache("rr2", "15bytes.txt", "15bytes.txt");
+
+    verifyRemovedFromCache("rr1", "10bytes.txt");
+    verifyCached("rr2", "15bytes.txt");
+  }
+
+  @Test
+  public void testExceedCacheDirMaxSizeMultipleEvictions() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 28);
+
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+    simulateAddFileToProductCache("rr2", "15bytes.txt", "15bytes.txt");
+    simulateAddFileToProductCache("rr3", "15bytes_B.txt", "15bytes_B.txt");
+
+    verifyRemovedFromCache("rr1", "10bytes.txt");
+    verifyRemovedFromCache("rr2", "15bytes.txt");
+    verifyCached("rr3", "15bytes_B.txt");
+  }
+
+  @Test
+  public void testNotExceedCacheDirMaxSize() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 50);
+
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+    simulateAddFileToProductCache("rr2", "15bytes.txt", "15bytes.txt");
+    simulateAddFileToProductCache("rr3", "15bytes_B.txt", "15bytes_B.txt");
+
+    verifyCached("rr1", "10bytes.txt");
+    verifyCached("rr2", "15bytes.txt");
+    verifyCached("rr3", "15bytes_B.txt");
+    assertThat(index.getSizeBytes(), is(40L));
+  }
+
+  @Test
+  public void testSingleFileExceedCacheDirMaxSize() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 5);
+
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+
+    verifyRemovedFromCache("rr1", "10bytes.txt");
+  }
+
+  @Test
+  public void testCacheDirMaxSizeManyEntries() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 10);
+
+    for (int i = 0; i < 12; i++) {
+      simulateAddFileToProductCache("rr" + i, "10bytes.txt", i + "10bytes.txt");
+    }
+
+    // entries from 0-10 should be removed from cache
+    for (int i = 0; i < 11; i++) {
+      verifyRemovedFromCache("rr" + i, i + "10bytes.txt");
+    }
+    verifyCached("rr11", "1110bytes.txt");
+  }
+
+  @Test
+  public void testCacheDirMaxSizeLargeEntry() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 132);
+
+    // push 12 files into cache to total a size of 120 bytes
+    for (int i = 0; i < 12; i++) {
+      simulateAddFileToProductCache("rr" + i, "10bytes.txt", i + "10bytes.txt");
+    }
+    for (int i = 0; i < 12; i++) {
+      verifyCached("rr" + i, i + "10bytes.txt");
+    }
+
+    // push 1 large file into cache to total 245 bytes
+    simulateAddFileToProductCache("rr12", "125bytes.txt", "125bytes.txt");
+
+    for (int i = 0; i < 12; i++) {
+      verifyRemovedFromCache("rr" + i, i + "10bytes.txt");
+    }
+    verifyCached("rr12", "125bytes.txt");
+  }
+
+  @Test
+  public void testCacheDirMaxSize0() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 0);
+
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+    simulateAddFileToProductCache("rr2", "15bytes.txt", "15bytes.txt");
+
+    verifyCached("rr1", "10bytes.txt");
+    verifyCached("rr2", "15bytes.txt");
+  }
+
+  @Test
+  public void testRecentlyUsedEntryNotEvicted() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 30);
+
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+    simulateAddFileToProductCache("rr2", "15bytes.txt", "15bytes.txt");
+    index.get("rr1");
+    simulateAddFileToProductCache("rr3", "15bytes_B.txt", "15bytes_B.txt");
+
+    verifyCached("rr1", "10bytes.txt");
+    verifyRemovedFromCache("rr2", "15bytes.txt");
+    verifyCached("rr3", "15bytes_B.txt");
+  }
+
+  @Test
+  public void testReducingMaxSizeEvictsEntries() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 0);
+
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+    simulateAddFileToProductCache("rr2", "15bytes.txt", "15bytes.txt");
+    index.setMaxSizeBytes(20);
+
+    verifyRemovedFromCache("rr1", "10bytes.txt");
+    verifyCached("rr2", "15bytes.txt");
+  }
+
+  @Test
+  public void testEntriesSurviveReopen() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 0);
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+    simulateAddFileToProductCache("rr2", "15bytes.txt", "15bytes.txt");
+    simulateAddFileToProductCache("rr3", "15bytes_B.txt", "15bytes_B.txt");
+    index.remove("rr2");
+    index.get("rr1");
+    index.close();
+
+    // rr3 is now the least recently used entry and is evicted first
+    index = new ProductCacheIndex(productCacheDir, 20);
+
+    assertThat(index.size(), is(1));
+    verifyCached("rr1", "10bytes.txt");
+    assertNull(index.get("rr2"));
+    verifyRemovedFromCache("rr3", "15bytes_B.txt");
+
+    ReliableResource reloaded = index.get("rr1");
+    assertThat(reloaded.getName(), is("10bytes.txt"));
+    assertThat(reloaded.getSize(), is(10L));
+  }
+
+  @Test
+  public void testPartiallyWrittenRecordIgnored() throws IOException {
+    index = new ProductCacheIndex(productCacheDir, 0);
+    simulateAddFileToProductCache("rr1", "10bytes.txt", "10bytes.txt");
+    simulateAddFileToProductCache("rr2", "15bytes.txt", "15bytes.txt");
+    index = null;
+
+    // simulate the system stopping while the last record was being written
+    File indexFile = productCacheDir.resolve(ProductCacheIndex.INDEX_FILE_NAME).toFile();
+    try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+      file.setLength(file.length() - 5);
+    }
+
+    index = new ProductCacheIndex(productCacheDir, 0);
+
+    verifyCached("rr1", "10bytes.txt");
+    assertNull(index.get("rr2"));
+    assertThat(index.getSizeBytes(), is(10L));
+  }
+
+  private void simulateAddFileToProductCache(String key, String fileName, String destFileName)
+      throws IOException {
+    File productOriginalLocation =
+        new File(this.getClass().getClassLoader().getResource(fileName).getPath());
+    File rrCachedFile = productCacheDir.resolve(destFileName).toFile();
+    FileUtils.copyFile(productOriginalLocation, rrCachedFile);
+    ReliableResource rr =
+        new ReliableResource(
+            key, rrCachedFile.getAbsolutePath(), new MimeType(), fileName, new MetacardImpl());
+    rr.setSize(rrCachedFile.length());
+    index.put(rr);
+  }
+
+  private void verifyCached(String rrKey, String rrFileName) {
+    assertNotNull(index.get(rrKey));
+    assertTrue(productCacheDir.resolve(rrFileName).toFile().exists());
+  }
+
+  private void verifyRemovedFromCache(String rrKey, String rrFileName) {
+    assertNull(index.get(rrKey));
+    assertFalse(productCacheDir.resolve(rrFileName).toFile().exists());
+  }
+}
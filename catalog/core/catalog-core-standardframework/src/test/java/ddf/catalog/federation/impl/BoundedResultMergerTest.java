@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.federation.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.ResultImpl;
+import ddf.catalog.util.impl.RelevanceResultComparator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.opengis.filter.sort.SortOrder;
+
+public class BoundedResultMergerTest {
+
+  private static final RelevanceResultComparator DESCENDING_RELEVANCE =
+      new RelevanceResultComparator(SortOrder.DESCENDING);
+
+  @Test
+  public void testMergesSourcesInSortedOrder() {
+    BoundedResultMerger merger = new BoundedResultMerger(DESCENDING_RELEVANCE, 0);
+
+    merger.addAll(results(0.9, 0.5, 0.1));
+    merger.addAll(results(0.8, 0.6, 0.2));
+
+    assertThat(scores(merger.getSortedResults())).containsExactly(0.9, 0.8, 0.6, 0.5, 0.2, 0.1);
+  }
+
+  @Test
+  public void testKeepsOnlyBestResults() {
+    BoundedResultMerger merger = new BoundedResultMerger(DESCENDING_RELEVANCE, 3);
+
+    merger.addAll(results(0.9, 0.5, 0.1));
+    merger.addAll(results(0.8, 0.6, 0.2));
+    merger.addAll(results(0.05));
+
+    assertThat(merger.size()).isEqualTo(3);
+    assertThat(scores(merger.getSortedResults())).containsExactly(0.9, 0.8, 0.6);
+  }
+
+  @Test
+  public void testEqualResultsKeepInsertionOrder() {
+    BoundedResultMerger merger = new BoundedResultMerger(DESCENDING_RELEVANCE, 2);
+    List<Result> first = results(0.5);
+    List<Result> second = results(0.5);
+    List<Result> third = results(0.5);
+
+    merger.addAll(first);
+    merger.addAll(second);
+    merger.addAll(third);
+
+    assertThat(merger.getSortedResults()).containsExactly(first.get(0), second.get(0));
+  }
+
+  private List<Result> results(Double... scores) {
+    return Arrays.stream(scores)
+        .map(
+            score -> {
+              ResultImpl result = new ResultImpl();
+              result.setRelevanceScore(score);
+              return result;
+            })
+        .collect(Collectors.toList());
+  }
+
+  private List<Double> scores(List<Result> results) {
+    return results.stream().map(Result::getRelevanceScore).collect(Collectors.toList());
+  }
+}
@@ -231,6 +231,54 @@ public void interruptThirdFuture() throws Exception {
             NullPointerException.class, InterruptedException.class, InterruptedException.class);
   }
 
+  @Test
+  public void sourceCutoffAfterFirstSuccessfulResponse() throws Exception {
+    when(query.getTimeoutMillis()).thenReturn(0L);
+    when(queryRequest.getQuery()).thenReturn(query);
+
+    SortedQueryMonitor queryMonitor =
+        new SortedQueryMonitor(
+            completionService, futures, queryResponse, queryRequest, new ArrayList<>(), false, 100);
+
+    // Source-0 fails and Source-3 has no results, so only Source-1 starts the cut-off
+    List<Future<SourceResponse>> keys = new ArrayList<>(futures.keySet());
+    final Iterator<Future<SourceResponse>> takenFutures =
+        Lists.newArrayList(keys.get(0), keys.get(3), keys.get(1)).iterator();
+    when(completionService.take()).thenAnswer((invocationOnMock -> takenFutures.next()));
+    when(completionService.poll(anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(null);
+    queryMonitor.run();
+
+    verify(completionService, times(3)).take();
+    verify(completionService, times(1)).poll(anyLong(), eq(TimeUnit.MILLISECONDS));
+    assertThat(queryResponse.getResults().size()).isEqualTo(3);
+    assertThat(queryResponse.getProcessingDetails())
+        .extracting(byName("exception"))
+        .extracting(byName("class"))
+        .contains(NullPointerException.class, TimeoutException.class);
+    assertThat(queryResponse.getProcessingDetails())
+        .extracting(byName("sourceId"))
+        .contains("Source-2");
+  }
+
+  @Test
+  public void streamingMergeKeepsRequestedPage() throws Exception {
+    when(query.getTimeoutMillis()).thenReturn(0L);
+    when(query.getPageSize()).thenReturn(2);
+    when(queryRequest.getQuery()).thenReturn(query);
+
+    SortedQueryMonitor queryMonitor =
+        new SortedQueryMonitor(
+            completionService, futures, queryResponse, queryRequest, new ArrayList<>(), true, 0);
+
+    final Iterator<Future<SourceResponse>> futureIter =
+        new ArrayList<>(futures.keySet()).iterator();
+    when(completionService.take()).thenAnswer((invocationOnMock -> futureIter.next()));
+    queryMonitor.run();
+
+    assertThat(queryResponse.getHits()).isEqualTo(4);
+    assertThat(queryResponse.getResults().size()).isEqualTo(2);
+  }
+
   @Test
   public void testPersistenceOfProcessingDetails() throws InterruptedException, ExecutionException {
 
@@ -433,6 +481,48 @@ private void testSorting(
     assertResults(queryResponse.getResults(), TEST_PROPERTY, outputArray);
   }
 
+  @Test
+  public void testStreamingMergeSortsAcrossSources() throws Exception {
+    PropertyName propertyName = mock(PropertyName.class);
+    when(propertyName.getPropertyName()).thenReturn(TEST_PROPERTY);
+
+    SortBy sortBy = mock(SortBy.class);
+    when(sortBy.getSortOrder()).thenReturn(SortOrder.ASCENDING);
+    when(sortBy.getPropertyName()).thenReturn(propertyName);
+
+    CompletionService completionService = mock(CompletionService.class);
+    QueryRequest queryRequest = mock(QueryRequest.class);
+    Query query = mock(Query.class);
+    when(query.getSortBy()).thenReturn(sortBy);
+    when(query.getTimeoutMillis()).thenReturn(5000L);
+    when(query.getPageSize()).thenReturn(3);
+    when(queryRequest.getQuery()).thenReturn(query);
+
+    Map<Future<SourceResponse>, QueryRequest> futures = new LinkedHashMap<>();
+    String[][] sourceValues = {{"a", "d", "f"}, {"b", "c", "e"}};
+    for (int i = 0; i < sourceValues.length; i++) {
+      Future futureMock = mock(Future.class);
+      when(futureMock.get())
+          .thenReturn(getMockedResponse(getResults(TEST_PROPERTY, sourceValues[i])));
+      QueryRequest sourceRequest = mock(QueryRequest.class);
+      when(sourceRequest.getSourceIds()).thenReturn(Collections.singleton("Sort-Source-" + i));
+      futures.put(futureMock, sourceRequest);
+    }
+    QueryResponseImpl queryResponse = new QueryResponseImpl(queryRequest);
+
+    SortedQueryMonitor queryMonitor =
+        new SortedQueryMonitor(
+            completionService, futures, queryResponse, queryRequest, new ArrayList<>(), true, 0);
+
+    final Iterator<Future<SourceResponse>> futureIter =
+        new ArrayList<>(futures.keySet()).iterator();
+    when(completionService.poll(anyLong(), any()))
+        .thenAnswer((invocationOnMock -> futureIter.next()));
+    queryMonitor.run();
+
+    assertResults(queryResponse.getResults(), TEST_PROPERTY, new String[] {"a", "b", "c"});
+  }
+
   private List<Result> getResults(String property, Serializable... values) {
     List<Result> results = new ArrayList<>();
     for (Serializable value : values) {
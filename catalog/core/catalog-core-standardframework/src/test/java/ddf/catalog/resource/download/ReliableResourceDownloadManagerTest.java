@@ -20,8 +20,12 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -38,6 +42,7 @@
 import ddf.catalog.event.retrievestatus.DownloadsStatusEventPublisher;
 import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.resource.FileChannelResource;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceNotSupportedException;
@@ -54,6 +59,8 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -292,6 +299,168 @@ public void testDownloadWithCaching() throws Exception {
     cleanup();
   }
 
+  @Test
+  public void testDownloadRangeFromCache() throws Exception {
+    Metacard metacard = getMockMetacard(EXPECTED_METACARD_ID, EXPECTED_METACARD_SOURCE_ID);
+    Map<String, Serializable> properties = new HashMap<>();
+    properties.put(ResourceRequest.BYTES_TO_SKIP, 10L);
+    properties.put(ResourceRequest.BYTES_TO_READ, 20L);
+    resourceRequest = mock(ResourceRequest.class);
+    when(resourceRequest.getProperties()).thenReturn(properties);
+
+    ReliableResource cachedResource =
+        new ReliableResource(
+            EXPECTED_CACHE_KEY,
+            productInputFilename,
+            new MimeType("text/plain"),
+            "foo_10_lines.txt",
+            metacard);
+    when(resourceCache.getValid(anyString(), any(Metacard.class))).thenReturn(cachedResource);
+    downloadMgr.setCacheEnabled(true);
+
+    ResourceRetriever retriever = mock(ResourceRetriever.class);
+    ResourceResponse newResourceResponse =
+        downloadMgr.download(resourceRequest, metacard, retriever);
+
+    assertThat(newResourceResponse.getResource(), is(instanceOf(FileChannelResource.class)));
+    assertThat(newResourceResponse.getResource().getSize(), is(20L));
+    try (InputStream is = newResourceResponse.getResource().getInputStream()) {
+      assertThat(IOUtils.toString(is), is(expectedFileContents.substring(10, 30)));
+    }
+    verify(retriever, never()).retrieveResource();
+  }
+
+  @Test
+  public void testConcurrentDownloadsShareOneRetrieval() throws Exception {
+    mis = new MockInputStream(productInputFilename, true);
+    mis.setReadDelay(MONITOR_PERIOD - 2, TimeUnit.MILLISECONDS);
+    Metacard metacard = getMockMetacard(EXPECTED_METACARD_ID, EXPECTED_METACARD_SOURCE_ID);
+    resourceResponse = getMockResourceResponse();
+
+    ResourceRetriever retriever = mock(ResourceRetriever.class);
+    when(retriever.retrieveResource()).thenReturn(resourceResponse);
+
+    int chunkSize = 50;
+    startDownload(true, chunkSize, false, metacard, retriever);
+
+    ResourceResponse sharedResourceResponse =
+        downloadMgr.download(resourceRequest, metacard, retriever);
+    InputStream sharedInputStream = sharedResourceResponse.getResource().getInputStream();
+    assertThat(sharedInputStream, is(instanceOf(SharedResourceInputStream.class)));
+
+    ByteArrayOutputStream clientBytesRead = clientRead(chunkSize, productInputStream);
+    String sharedBytesRead;
+    try (InputStream is = sharedInputStream) {
+      sharedBytesRead = IOUtils.toString(is);
+    }
+
+    verifyClientBytesRead(clientBytesRead);
+    assertThat(sharedBytesRead, is(expectedFileContents));
+    verify(retriever).retrieveResource();
+
+    cleanup();
+  }
+
+  @Test
+  public void testAttachTimesOutAndRetrievesIndependently() throws Exception {
+    Metacard metacard = getMockMetacard(EXPECTED_METACARD_ID, EXPECTED_METACARD_SOURCE_ID);
+    CountDownLatch retrieving = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ResourceRetriever slowRetriever = mock(ResourceRetriever.class);
+    when(slowRetriever.retrieveResource())
+        .thenAnswer(
+            invocation -> {
+              retrieving.countDown();
+              release.await(10, TimeUnit.SECONDS);
+              throw new IOException("source did not respond");
+            });
+
+    mis = new MockInputStream(productInputFilename);
+    resourceResponse = getMockResourceResponse();
+    ResourceRetriever retriever = mock(ResourceRetriever.class);
+    when(retriever.retrieveResource()).thenReturn(resourceResponse);
+
+    downloadMgr.setCacheEnabled(true);
+    downloadMgr.setAttachTimeoutMs(100);
+    ExecutorService firstClient = Executors.newSingleThreadExecutor();
+    try {
+      Future<ResourceResponse> firstDownload =
+          firstClient.submit(() -> downloadMgr.download(resourceRequest, metacard, slowRetriever));
+      assertThat(retrieving.await(10, TimeUnit.SECONDS), is(true));
+
+      ResourceResponse newResourceResponse =
+          downloadMgr.download(resourceRequest, metacard, retriever);
+      productInputStream = newResourceResponse.getResource().getInputStream();
+      assertThat(productInputStream, is(instanceOf(ReliableResourceInputStream.class)));
+      verifyClientBytesRead(clientRead(50, productInputStream));
+      verify(retriever).retrieveResource();
+
+      release.countDown();
+      try {
+        firstDownload.get(10, TimeUnit.SECONDS);
+        fail("The first download should have failed");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause(), is(instanceOf(DownloadException.class)));
+      }
+    } finally {
+      release.countDown();
+      firstClient.shutdownNow();
+    }
+
+    cleanup();
+  }
+
+  @Test
+  public void testAttachToFailedDownloadRetrievesIndependently() throws Exception {
+    Metacard metacard = getMockMetacard(EXPECTED_METACARD_ID, EXPECTED_METACARD_SOURCE_ID);
+    CountDownLatch retrieving = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ResourceRetriever failingRetriever = mock(ResourceRetriever.class);
+    when(failingRetriever.retrieveResource())
+        .thenAnswer(
+            invocation -> {
+              retrieving.countDown();
+              release.await(10, TimeUnit.SECONDS);
+              throw new IOException("source failed");
+            });
+
+    mis = new MockInputStream(productInputFilename);
+    resourceResponse = getMockResourceResponse();
+    ResourceRetriever retriever = mock(ResourceRetriever.class);
+    when(retriever.retrieveResource()).thenReturn(resourceResponse);
+
+    downloadMgr.setCacheEnabled(true);
+    ExecutorService clients = Executors.newFixedThreadPool(2);
+    try {
+      Future<ResourceResponse> firstDownload =
+          clients.submit(() -> downloadMgr.download(resourceRequest, metacard, failingRetriever));
+      assertThat(retrieving.await(10, TimeUnit.SECONDS), is(true));
+
+      // The second client waits on the first download, which then fails
+      Future<ResourceResponse> secondDownload =
+          clients.submit(() -> downloadMgr.download(resourceRequest, metacard, retriever));
+      release.countDown();
+
+      try {
+        firstDownload.get(10, TimeUnit.SECONDS);
+        fail("The first download should have failed");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause(), is(instanceOf(DownloadException.class)));
+      }
+
+      ResourceResponse newResourceResponse = secondDownload.get(10, TimeUnit.SECONDS);
+      productInputStream = newResourceResponse.getResource().getInputStream();
+      assertThat(productInputStream, is(instanceOf(ReliableResourceInputStream.class)));
+      verifyClientBytesRead(clientRead(50, productInputStream));
+      verify(retriever).retrieveResource();
+    } finally {
+      release.countDown();
+      clients.shutdownNow();
+    }
+
+    cleanup();
+  }
+
   /**
    * Verifies that if client is reading from @ReliableResourceInputStream slower than {@link
    * ReliableResourceCallable} is reading from product InputStream and writing to
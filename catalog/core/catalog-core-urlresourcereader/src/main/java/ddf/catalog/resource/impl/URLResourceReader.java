@@ -14,11 +14,14 @@
 package ddf.catalog.resource.impl;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.HttpHeaders;
 import ddf.catalog.content.data.ContentItem;
 import ddf.catalog.data.Metacard;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.operation.impl.ResourceResponseImpl;
+import ddf.catalog.resource.ByteRangeResource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceReader;
 import ddf.mime.MimeTypeMapper;
@@ -31,11 +34,11 @@
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URLConnection;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.AccessController;
-import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.Collections;
@@ -86,8 +89,6 @@ public class URLResourceReader implements ResourceReader {
 
   private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
 
-  private static final String BYTES_TO_SKIP = "BytesToSkip";
-
   private static final String USERNAME = "username";
 
   @SuppressWarnings("squid:S2068" /* Password property key */)
@@ -266,18 +267,24 @@ public Boolean getFollowRedirects() {
   public ResourceResponse retrieveResource(URI resourceURI, Map<String, Serializable> properties)
       throws IOException, ResourceNotFoundException {
     String bytesToSkip;
+    long bytesToRead = -1L;
     if (resourceURI == null) {
       LOGGER.debug("Resource URI was null");
       throw new ResourceNotFoundException("Unable to find resource");
     }
 
-    if (properties.containsKey(BYTES_TO_SKIP)) {
-      bytesToSkip = properties.get(BYTES_TO_SKIP).toString();
+    if (properties.containsKey(ResourceRequest.BYTES_TO_SKIP)) {
+      bytesToSkip = properties.get(ResourceRequest.BYTES_TO_SKIP).toString();
       LOGGER.debug("bytesToSkip: {}", bytesToSkip);
     } else {
       bytesToSkip = "0";
     }
 
+    if (properties.containsKey(ResourceRequest.BYTES_TO_READ)) {
+      bytesToRead = Long.parseLong(properties.get(ResourceRequest.BYTES_TO_READ).toString());
+      LOGGER.debug("bytesToRead: {}", bytesToRead);
+    }
+
     switch (resourceURI.getScheme()) {
       case URL_HTTP_SCHEME:
       case URL_HTTPS_SCHEME:
@@ -296,14 +303,14 @@ public ResourceResponse retrieveResource(URI resourceURI, Map<String, Serializab
 
         String fileAddress = resourceURI.toURL().getFile();
         LOGGER.debug("resource name: {}", fileAddress);
-        return retrieveHttpProduct(resourceURI, fileAddress, bytesToSkip, properties);
+        return retrieveHttpProduct(resourceURI, fileAddress, bytesToSkip, bytesToRead, properties);
       case URL_FILE_SCHEME:
         LOGGER.debug("Resource URI is a File");
         File filePathName = new File(resourceURI);
         if (validateFilePath(filePathName)) {
           String fileName = filePathName.getName();
           LOGGER.debug("resource name: {}", fileName);
-          return retrieveFileProduct(resourceURI, fileName, bytesToSkip);
+          return retrieveFileProduct(resourceURI, fileName, bytesToSkip, bytesToRead);
         } else {
           throw new ResourceNotFoundException(
               "Error retrieving resource ["
@@ -329,31 +336,25 @@ public ResourceResponse retrieveResource(URI resourceURI, Map<String, Serializab
   }
 
   private ResourceResponse retrieveFileProduct(
-      URI resourceURI, String productName, String bytesToSkip) throws ResourceNotFoundException {
-    URLConnection connection;
+      URI resourceURI, String productName, String bytesToSkip, long bytesToRead)
+      throws ResourceNotFoundException {
     try {
-      LOGGER.debug("Opening connection to: {}", resourceURI);
-      connection = resourceURI.toURL().openConnection();
-
-      final String originalFileName = productName;
-      productName =
-          AccessController.doPrivileged(
-              (PrivilegedAction<String>)
-                  () ->
-                      StringUtils.defaultIfBlank(
-                          handleContentDispositionHeader(
-                              connection.getHeaderField(HttpHeaders.CONTENT_DISPOSITION)),
-                          originalFileName));
+      // Local files are returned as a FileChannelResource so endpoints can send the bytes straight
+      // from the file rather than copying them through a stream
+      Path path = Paths.get(resourceURI);
+      long fileSize = Files.size(path);
+      long offset = getFileOffset(bytesToSkip, fileSize, resourceURI);
+      long size = fileSize - offset;
+      if (bytesToRead >= 0) {
+        size = Math.min(size, bytesToRead);
+      }
+      LOGGER.debug("Returning {} bytes of {} starting at byte {}", size, path, offset);
 
       String mimeType = getMimeType(resourceURI, productName);
 
-      InputStream is = connection.getInputStream();
-
-      skipBytes(is, bytesToSkip);
-
       return new ResourceResponseImpl(
-          new ResourceImpl(
-              new BufferedInputStream(is), mimeType, FilenameUtils.getName(productName)));
+          new FileChannelResourceImpl(
+              path, offset, size, mimeType, FilenameUtils.getName(productName)));
     } catch (MimeTypeResolutionException | IOException e) {
       LOGGER.info("Error retrieving resource", e);
       throw new ResourceNotFoundException(
@@ -361,8 +362,38 @@ private ResourceResponse retrieveFileProduct(
     }
   }
 
+  /* Rejects skipping a negative number of bytes, or skipping past the last byte of the file */
+  private long getFileOffset(String bytesToSkip, long fileSize, URI resourceURI)
+      throws ResourceNotFoundException {
+    if (bytesToSkip == null) {
+      return 0;
+    }
+
+    long offset;
+    try {
+      offset = Long.parseLong(bytesToSkip);
+    } catch (NumberFormatException e) {
+      throw new ResourceNotFoundException(
+          "Invalid number of bytes to skip [" + bytesToSkip + "] for resource: " + resourceURI, e);
+    }
+    if (offset < 0 || (offset > 0 && offset >= fileSize)) {
+      throw new ResourceNotFoundException(
+          "Requested range starting at byte "
+              + offset
+              + " is outside of the "
+              + fileSize
+              + " bytes of resource: "
+              + resourceURI);
+    }
+    return offset;
+  }
+
   private ResourceResponse retrieveHttpProduct(
-      URI resourceURI, String productName, String bytesToSkip, Map<String, Serializable> properties)
+      URI resourceURI,
+      String productName,
+      String bytesToSkip,
+      long bytesToRead,
+      Map<String, Serializable> properties)
       throws ResourceNotFoundException {
 
     try {
@@ -370,6 +401,13 @@ private ResourceResponse retrieveHttpProduct(
 
       WebClient client = getWebClient(resourceURI, properties);
 
+      // Only ask the server for the requested range so the skipped bytes are not transferred
+      String range = getRangeHeader(Long.parseLong(bytesToSkip), bytesToRead);
+      if (range != null) {
+        LOGGER.debug("Requesting range {}", range);
+        client.header(HttpHeaders.RANGE, range);
+      }
+
       Response response = client.get();
 
       MultivaluedMap<String, Object> headers = response.getHeaders();
@@ -402,17 +440,38 @@ private ResourceResponse retrieveHttpProduct(
       }
 
       long responseBytesSkipped = 0L;
+      // A server ignoring the range header returns the whole product
+      long totalSize =
+          Response.Status.OK.getStatusCode() == clientResponse.getStatus()
+              ? getLongHeader(headers, HttpHeaders.CONTENT_LENGTH)
+              : ByteRangeResource.UNKNOWN_SIZE;
       if (headers.getFirst(HttpHeaders.CONTENT_RANGE) != null) {
         String contentRangeHeader = String.valueOf(headers.getFirst(HttpHeaders.CONTENT_RANGE));
         responseBytesSkipped =
             Long.parseLong(
                 StringUtils.substringBetween(contentRangeHeader.toLowerCase(), "bytes ", "-"));
+        totalSize = parseLong(StringUtils.substringAfter(contentRangeHeader, "/"));
       }
       alignStream(is, Long.parseLong(bytesToSkip), responseBytesSkipped);
 
-      return new ResourceResponseImpl(
-          new ResourceImpl(
-              new BufferedInputStream(is), mimeType, FilenameUtils.getName(productName)));
+      InputStream productStream = new BufferedInputStream(limitBytes(is, bytesToRead));
+      if (range == null) {
+        return new ResourceResponseImpl(
+            new ResourceImpl(productStream, mimeType, FilenameUtils.getName(productName)));
+      }
+
+      long start = Long.parseLong(bytesToSkip);
+      long size = ByteRangeResource.UNKNOWN_SIZE;
+      if (totalSize >= 0) {
+        size = Math.max(0, totalSize - start);
+        if (bytesToRead >= 0) {
+          size = Math.min(size, bytesToRead);
+        }
+      }
+      ByteRangeResourceImpl resource =
+          new ByteRangeResourceImpl(
+              productStream, mimeType, FilenameUtils.getName(productName), start, size, totalSize);
+      return new ResourceResponseImpl(resource);
     } catch (MimeTypeResolutionException | IOException | WebApplicationException e) {
       LOGGER.info("Error retrieving resource", e);
       throw new ResourceNotFoundException(
@@ -500,18 +559,32 @@ private String handleContentDispositionHeader(String contentDispositionHeader) {
     return "";
   }
 
-  private void skipBytes(InputStream is, String bytesToSkip) throws IOException {
-    if (bytesToSkip != null) {
-      LOGGER.debug("Skipping {} bytes", bytesToSkip);
-      long bytesSkipped = is.skip(Long.parseLong(bytesToSkip));
-      if (Long.parseLong(bytesToSkip) != bytesSkipped) {
-        LOGGER.debug(
-            "Did not skip specified bytes while retrieving resource."
-                + " Bytes to skip: {} -- Skipped Bytes: {}",
-            bytesToSkip,
-            bytesSkipped);
-      }
+  private String getRangeHeader(long bytesToSkip, long bytesToRead) {
+    if (bytesToRead > 0) {
+      return "bytes=" + bytesToSkip + "-" + (bytesToSkip + bytesToRead - 1);
+    } else if (bytesToSkip > 0) {
+      return "bytes=" + bytesToSkip + "-";
     }
+    return null;
+  }
+
+  private long getLongHeader(MultivaluedMap<String, Object> headers, String name) {
+    Object value = headers.getFirst(name);
+    return value == null ? ByteRangeResource.UNKNOWN_SIZE : parseLong(String.valueOf(value));
+  }
+
+  /* The total size of a range is "*" when the server does not know it */
+  private long parseLong(String value) {
+    try {
+      return Long.parseLong(StringUtils.trim(value));
+    } catch (NumberFormatException e) {
+      return ByteRangeResource.UNKNOWN_SIZE;
+    }
+  }
+
+  /* Servers may ignore the range header, so never return more than the bytes requested */
+  private InputStream limitBytes(InputStream is, long bytesToRead) {
+    return bytesToRead < 0 ? is : ByteStreams.limit(is, bytesToRead);
   }
 
   private void alignStream(InputStream in, long requestedBytesToSkip, long responseBytesSkipped)
@@ -16,6 +16,7 @@
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
@@ -30,7 +31,9 @@
 import com.google.common.collect.ImmutableSet;
 import com.google.common.net.HttpHeaders;
 import ddf.catalog.content.data.ContentItem;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.resource.FileChannelResource;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.mime.MimeTypeMapper;
@@ -47,6 +50,7 @@
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -206,6 +210,51 @@ public void testReadJPGFile() throws Exception {
         TEST_PATH.toAbsolutePath().toString() + "pdf");
   }
 
+  @Test
+  public void testReadFileRangeReturnsFileChannelResource() throws Exception {
+    Path filePath = TEST_PATH.resolve(JPEG_FILE_NAME_1).toAbsolutePath();
+    URLResourceReader resourceReader = new URLResourceReader(mimeTypeMapper, clientBuilderFactory);
+    resourceReader.setRootResourceDirectories(
+        ImmutableSet.of(TEST_PATH.toAbsolutePath().toString()));
+
+    Map<String, Serializable> arguments = new HashMap<>();
+    arguments.put(ResourceRequest.BYTES_TO_SKIP, 10L);
+    arguments.put(ResourceRequest.BYTES_TO_READ, 20L);
+
+    Resource resource = resourceReader.retrieveResource(filePath.toUri(), arguments).getResource();
+
+    assertThat(resource, is(instanceOf(FileChannelResource.class)));
+    FileChannelResource fileResource = (FileChannelResource) resource;
+    assertThat(fileResource.getPath(), is(filePath));
+    assertThat(fileResource.getOffset(), is(10L));
+    assertThat(fileResource.getSize(), is(20L));
+    assertThat(fileResource.getMimeType().toString(), containsString(JPEG_MIME_TYPE));
+
+    byte[] expected = Arrays.copyOfRange(Files.readAllBytes(filePath), 10, 30);
+    assertThat(fileResource.getByteArray(), is(expected));
+  }
+
+  @Test(expected = ResourceNotFoundException.class)
+  public void testReadFileRangePastEndIsRejected() throws Exception {
+    Path filePath = TEST_PATH.resolve(JPEG_FILE_NAME_1).toAbsolutePath();
+    readFileRange(filePath, Files.size(filePath));
+  }
+
+  @Test(expected = ResourceNotFoundException.class)
+  public void testReadFileNegativeRangeIsRejected() throws Exception {
+    readFileRange(TEST_PATH.resolve(JPEG_FILE_NAME_1).toAbsolutePath(), -1L);
+  }
+
+  private void readFileRange(Path filePath, long bytesToSkip) throws Exception {
+    URLResourceReader resourceReader = new URLResourceReader(mimeTypeMapper, clientBuilderFactory);
+    resourceReader.setRootResourceDirectories(
+        ImmutableSet.of(TEST_PATH.toAbsolutePath().toString()));
+
+    Map<String, Serializable> arguments = new HashMap<>();
+    arguments.put(ResourceRequest.BYTES_TO_SKIP, bytesToSkip);
+    resourceReader.retrieveResource(filePath.toUri(), arguments);
+  }
+
   @Test
   public void testReadMPEGFile() throws Exception {
     String filePath = TEST_PATH.resolve(MPEG_FILE_NAME_1).toAbsolutePath().toString();
@@ -543,6 +592,38 @@ public void testServerDoesNotSupportPartialContent() throws Exception {
         uri, JPEG_FILE_NAME_1, JPEG_MIME_TYPE, bytesToSkip, null, 3, uri);
   }
 
+  /**
+   * Tests that a bounded byte range is requested from the server with a range header, and that no
+   * more than the requested bytes are returned when the server ignores it.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testRetrieveBoundedByteRange() throws Exception {
+    URI uri = new URI(HTTP_SCHEME_PLUS_SEP + HOST + "/src/test/resources/data/" + BAD_FILE_NAME);
+
+    Response mockResponse = mock(Response.class);
+    when(mockWebClient.get()).thenReturn(mockResponse);
+    MultivaluedMap<String, Object> map = new MultivaluedHashMap<>();
+    map.put(
+        HttpHeaders.CONTENT_DISPOSITION,
+        Arrays.asList("inline; filename=\"" + JPEG_FILE_NAME_1 + "\""));
+    when(mockResponse.getHeaders()).thenReturn(map);
+    when(mockResponse.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+    when(mockResponse.getEntity()).thenReturn(getBinaryData());
+
+    Map<String, Serializable> arguments = new HashMap<>();
+    arguments.put(ResourceRequest.BYTES_TO_SKIP, 1L);
+    arguments.put(ResourceRequest.BYTES_TO_READ, 2L);
+
+    TestURLResourceReader resourceReader =
+        new TestURLResourceReader(mimeTypeMapper, clientBuilderFactory);
+    ResourceResponse resourceResponse = resourceReader.retrieveResource(uri, arguments);
+
+    verify(mockWebClient).header(HttpHeaders.RANGE, "bytes=1-2");
+    assertThat(resourceResponse.getResource().getByteArray(), is(new byte[] {66, 67}));
+  }
+
   @Test
   public void testUnquotedNameInContentDisposition() throws Exception {
     URI uri = new URI(HTTP_SCHEME_PLUS_SEP + HOST + "/src/test/resources/data/" + BAD_FILE_NAME);
@@ -27,20 +27,32 @@
 import ddf.catalog.plugin.PreIngestPlugin;
 import ddf.catalog.plugin.StopProcessingException;
 import ddf.catalog.util.Describable;
+import ddf.catalog.validation.BatchMetacardValidator;
 import ddf.catalog.validation.MetacardValidator;
 import ddf.catalog.validation.ValidationException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,8 +61,6 @@ public class MetacardValidityMarkerPlugin implements PreIngestPlugin {
 
   private static final Logger INGEST_LOGGER = LoggerFactory.getLogger(Constants.INGEST_LOGGER_NAME);
 
-  private final Predicate<Object> didNotFailEnforcedValidator = Objects::nonNull;
-
   private static final String INVALID_TAG = "INVALID";
 
   private static final String VALID_TAG = "VALID";
@@ -63,6 +73,12 @@ public class MetacardValidityMarkerPlugin implements PreIngestPlugin {
 
   private boolean enforceWarnings = true;
 
+  private int validationThreads = 1;
+
+  private volatile ExecutorService validationExecutor;
+
+  private final Map<String, Timer> validatorTimers = new ConcurrentHashMap<>();
+
   @Override
   public CreateRequest process(CreateRequest input)
       throws PluginExecutionException, StopProcessingException {
@@ -79,85 +95,244 @@ public UpdateRequest process(UpdateRequest input)
         validatedUpdates, input.getAttributeName(), input.getProperties(), input.getStoreIds());
   }
 
-  private <T> List<T> validateList(List<T> requestItems, Function<T, Metacard> itemToMetacard) {
-    Map<String, Integer> counter = new HashMap<>();
-
-    List<T> validated =
+  /**
+   * Runs the validators in the order given by {@link #getValidationOrder()}. A {@link
+   * BatchMetacardValidator} runs once over the metacards that passed the enforced validators run
+   * before it, so that metacards removed by a cheap enforced validator are not part of the batch.
+   */
+  private <T> List<T> validateList(List<T> requestItems, Function<T, Metacard> itemToMetacard)
+      throws PluginExecutionException {
+    Map<String, Integer> counter = new ConcurrentHashMap<>();
+    List<ItemValidation<T>> remaining =
         requestItems.stream()
-            .map(item -> validate(item, itemToMetacard, counter))
-            .filter(didNotFailEnforcedValidator)
+            .map(item -> new ItemValidation<>(item, itemToMetacard.apply(item)))
             .collect(Collectors.toList());
 
-    return validated;
+    List<MetacardValidator> validators = new ArrayList<>();
+    for (MetacardValidator validator : getValidationOrder()) {
+      if (validator instanceof BatchMetacardValidator) {
+        remaining = validateEach(remaining, validators, counter);
+        validators = new ArrayList<>();
+        if (remaining.size() > 1) {
+          remaining = validateBatch(remaining, (BatchMetacardValidator) validator, counter);
+          continue;
+        }
+      }
+      validators.add(validator);
+    }
+    remaining = validateEach(remaining, validators, counter);
+
+    return remaining.stream().map(this::markValidity).collect(Collectors.toList());
   }
 
-  private <T> T validate(
-      T item, Function<T, Metacard> itemToMetacard, Map<String, Integer> counter) {
-    Set<Serializable> newErrors = new HashSet<>();
-    Set<Serializable> newWarnings = new HashSet<>();
-    Set<Serializable> errorValidators = new HashSet<>();
-    Set<Serializable> warningValidators = new HashSet<>();
+  /**
+   * Runs the validators over each metacard, concurrently when there are validation threads.
+   *
+   * @return the metacards that did not fail an enforced validator
+   */
+  private <T> List<ItemValidation<T>> validateEach(
+      List<ItemValidation<T>> items,
+      List<MetacardValidator> validators,
+      Map<String, Integer> counter)
+      throws PluginExecutionException {
+    if (validators.isEmpty()) {
+      return items;
+    }
 
-    Metacard metacard = itemToMetacard.apply(item);
-    Set<String> tags = metacard.getTags();
-    tags.remove(VALID_TAG);
-    tags.remove(INVALID_TAG);
+    ExecutorService executor = validationExecutor;
+    if (executor == null || items.size() < 2) {
+      return items.stream()
+          .filter(item -> validate(item, validators, counter))
+          .collect(Collectors.toList());
+    }
 
-    String valid = VALID_TAG;
+    // validators such as the duplication validator query the catalog as the ingesting subject
+    Subject subject = ThreadContext.getSubject();
+    List<Future<Boolean>> tasks = new ArrayList<>(items.size());
+    for (ItemValidation<T> item : items) {
+      Callable<Boolean> task = () -> validate(item, validators, counter);
+      tasks.add(executor.submit(subject != null ? subject.associateWith(task) : task));
+    }
+
+    List<ItemValidation<T>> validated = new ArrayList<>(items.size());
+    try {
+      for (int i = 0; i < tasks.size(); i++) {
+        if (tasks.get(i).get()) {
+          validated.add(items.get(i));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PluginExecutionException("Interrupted while validating metacards", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new PluginExecutionException("Could not validate metacards", cause);
+    } finally {
+      tasks.forEach(task -> task.cancel(false));
+    }
+    return validated;
+  }
 
+  /**
+   * Runs a {@link BatchMetacardValidator} once over the metacards, so that it can check them
+   * together instead of once per metacard. Its time is recorded as one sample per metacard so that
+   * it can be compared with the validators that run per metacard.
+   *
+   * @return the metacards that did not fail the validator if it is enforced
+   */
+  private <T> List<ItemValidation<T>> validateBatch(
+      List<ItemValidation<T>> items,
+      BatchMetacardValidator validator,
+      Map<String, Integer> counter) {
+    List<Metacard> metacards =
+        items.stream().map(item -> item.metacard).collect(Collectors.toList());
+    List<Optional<ValidationException>> results;
+    long start = System.nanoTime();
+    try {
+      results = validator.validate(metacards);
+    } finally {
+      long perMetacard = (System.nanoTime() - start) / metacards.size();
+      Timer timer = getValidatorTimer(validator);
+      for (int i = 0; i < metacards.size(); i++) {
+        timer.record(perMetacard, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    List<ItemValidation<T>> validated = new ArrayList<>(items.size());
+    for (int i = 0; i < items.size(); i++) {
+      ItemValidation<T> item = items.get(i);
+      Optional<ValidationException> failure = results.get(i);
+      if (!failure.isPresent() || addValidationProblems(item, validator, failure.get(), counter)) {
+        validated.add(item);
+      }
+    }
+    return validated;
+  }
+
+  /**
+   * Orders the enforced validators first, cheapest first by their mean time so far, so that a
+   * metacard failing a cheap enforced validator is removed before the expensive validators run. The
+   * remaining validators keep their configured order.
+   */
+  private List<MetacardValidator> getValidationOrder() {
+    List<MetacardValidator> enforced = new ArrayList<>();
+    List<MetacardValidator> unenforced = new ArrayList<>();
     for (MetacardValidator validator : metacardValidators) {
+      if (isValidatorEnforced(getValidatorName(validator))) {
+        enforced.add(validator);
+      } else {
+        unenforced.add(validator);
+      }
+    }
+
+    enforced.sort(
+        Comparator.comparingDouble(
+            validator -> getValidatorTimer(validator).mean(TimeUnit.NANOSECONDS)));
+    enforced.addAll(unenforced);
+    return enforced;
+  }
+
+  private Timer getValidatorTimer(MetacardValidator validator) {
+    return validatorTimers.computeIfAbsent(
+        String.valueOf(getValidatorName(validator)),
+        name ->
+            Timer.builder("ddf.catalog.validation.validator")
+                .tag("validator", name)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry));
+  }
+
+  /** @return {@code false} if the metacard failed an enforced validator */
+  private boolean validate(
+      ItemValidation<?> item, List<MetacardValidator> validators, Map<String, Integer> counter) {
+    for (MetacardValidator validator : validators) {
+      long start = System.nanoTime();
       try {
-        validator.validate(metacard);
+        validator.validate(item.metacard);
       } catch (ValidationException e) {
-        String validatorName = getValidatorName(validator);
-        boolean validationErrorsExist = CollectionUtils.isNotEmpty(e.getErrors());
-        boolean validationWarningsExist = CollectionUtils.isNotEmpty(e.getWarnings());
-
-        if ((isValidatorEnforced(validatorName) && validationErrorsExist && enforceErrors)
-            || isValidatorEnforced(validatorName) && validationWarningsExist && enforceWarnings) {
-          INGEST_LOGGER.debug(
-              "The metacard with title='{}' and id={} is being removed from the operation because it failed the enforced validator [{}].",
-              metacard.getTitle(),
-              metacard.getId(),
-              validatorName);
-          return null;
-        } else {
-          if (validationErrorsExist) {
-            INGEST_LOGGER.debug(
-                "The metacard with title='{}' and id={} had an unenforced validation error [{}] and error message='{}'.",
-                metacard.getTitle(),
-                metacard.getId(),
-                validatorName,
-                e.getMessage());
-          }
-          if (validationWarningsExist) {
-            INGEST_LOGGER.debug(
-                "The metacard with title='{}' and id={} had an unenforced validation warning [{}] and warning message ='{}'.",
-                metacard.getTitle(),
-                metacard.getId(),
-                validatorName,
-                e.getMessage());
-          }
-          if (validationErrorsExist || validationWarningsExist) {
-            INGEST_LOGGER.info(
-                "The metacard with title='{}' and id={} had {} unenforced validation warnings and {} unenforced validation errors.",
-                metacard.getTitle(),
-                metacard.getId(),
-                e.getWarnings() != null ? e.getWarnings().size() : 0,
-                e.getErrors() != null ? e.getErrors().size() : 0);
-          }
-
-          getValidationProblems(
-              validatorName,
-              e,
-              newErrors,
-              newWarnings,
-              errorValidators,
-              warningValidators,
-              counter);
+        if (!addValidationProblems(item, validator, e, counter)) {
+          return false;
         }
+      } finally {
+        getValidatorTimer(validator).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
       }
     }
+    return true;
+  }
+
+  /** @return {@code false} if the metacard is removed because the validator is enforced */
+  private boolean addValidationProblems(
+      ItemValidation<?> item,
+      MetacardValidator validator,
+      ValidationException e,
+      Map<String, Integer> counter) {
+    Metacard metacard = item.metacard;
+    String validatorName = getValidatorName(validator);
+    boolean validationErrorsExist = CollectionUtils.isNotEmpty(e.getErrors());
+    boolean validationWarningsExist = CollectionUtils.isNotEmpty(e.getWarnings());
+
+    if ((isValidatorEnforced(validatorName) && validationErrorsExist && enforceErrors)
+        || isValidatorEnforced(validatorName) && validationWarningsExist && enforceWarnings) {
+      INGEST_LOGGER.debug(
+          "The metacard with title='{}' and id={} is being removed from the operation because it failed the enforced validator [{}].",
+          metacard.getTitle(),
+          metacard.getId(),
+          validatorName);
+      return false;
+    }
+
+    if (validationErrorsExist) {
+      INGEST_LOGGER.debug(
+          "The metacard with title='{}' and id={} had an unenforced validation error [{}] and error message='{}'.",
+          metacard.getTitle(),
+          metacard.getId(),
+          validatorName,
+          e.getMessage());
+    }
+    if (validationWarningsExist) {
+      INGEST_LOGGER.debug(
+          "The metacard with title='{}' and id={} had an unenforced validation warning [{}] and warning message ='{}'.",
+          metacard.getTitle(),
+          metacard.getId(),
+          validatorName,
+          e.getMessage());
+    }
+    if (validationErrorsExist || validationWarningsExist) {
+      INGEST_LOGGER.info(
+          "The metacard with title='{}' and id={} had {} unenforced validation warnings and {} unenforced validation errors.",
+          metacard.getTitle(),
+          metacard.getId(),
+          e.getWarnings() != null ? e.getWarnings().size() : 0,
+          e.getErrors() != null ? e.getErrors().size() : 0);
+    }
+
+    getValidationProblems(
+        validatorName,
+        e,
+        item.newErrors,
+        item.newWarnings,
+        item.errorValidators,
+        item.warningValidators,
+        counter);
+    return true;
+  }
+
+  /** Sets the validation attributes and the validity tag of a metacard that passed validation. */
+  private <T> T markValidity(ItemValidation<T> item) {
+    Metacard metacard = item.metacard;
+    Set<String> tags = metacard.getTags();
+    tags.remove(VALID_TAG);
+    tags.remove(INVALID_TAG);
+
+    Set<Serializable> newErrors = item.newErrors;
+    Set<Serializable> newWarnings = item.newWarnings;
+
+    String valid = VALID_TAG;
 
     Attribute existingErrors = metacard.getAttribute(Validation.VALIDATION_ERRORS);
     Attribute existingWarnings = metacard.getAttribute(Validation.VALIDATION_WARNINGS);
@@ -186,13 +361,13 @@ private <T> T validate(
     metacard.setAttribute(
         new AttributeImpl(
             Validation.FAILED_VALIDATORS_WARNINGS,
-            (List<Serializable>) new ArrayList<>(warningValidators)));
+            (List<Serializable>) new ArrayList<>(item.warningValidators)));
     metacard.setAttribute(
         new AttributeImpl(
             Validation.FAILED_VALIDATORS_ERRORS,
-            (List<Serializable>) new ArrayList<>(errorValidators)));
+            (List<Serializable>) new ArrayList<>(item.errorValidators)));
 
-    return item;
+    return item.item;
   }
 
   private void getValidationProblems(
@@ -286,4 +461,59 @@ public void setEnforceWarnings(boolean enforceWarnings) {
   public boolean getEnforceWarnings() {
     return enforceWarnings;
   }
+
+  /**
+   * Sets the number of threads validating the metacards of a request concurrently. With a single
+   * thread metacards are validated on the ingest thread.
+   */
+  public synchronized void setValidationThreads(int validationThreads) {
+    int threads = Math.max(validationThreads, 1);
+    if (threads == this.validationThreads) {
+      return;
+    }
+
+    this.validationThreads = threads;
+    ExecutorService previous = validationExecutor;
+    validationExecutor =
+        threads > 1
+            ? Executors.newFixedThreadPool(
+                threads,
+                StandardThreadFactoryBuilder.newThreadFactory("metacardValidityMarkerThread"))
+            : null;
+    if (previous != null) {
+      previous.shutdown();
+    }
+  }
+
+  public int getValidationThreads() {
+    return validationThreads;
+  }
+
+  public synchronized void destroy() {
+    if (validationExecutor != null) {
+      validationExecutor.shutdown();
+      validationExecutor = null;
+    }
+  }
+
+  /** The validation problems found so far for an item of a request. */
+  private static class ItemValidation<T> {
+
+    private final T item;
+
+    private final Metacard metacard;
+
+    private final Set<Serializable> newErrors = new HashSet<>();
+
+    private final Set<Serializable> newWarnings = new HashSet<>();
+
+    private final Set<Serializable> errorValidators = new HashSet<>();
+
+    private final Set<Serializable> warningValidators = new HashSet<>();
+
+    ItemValidation(T item, Metacard metacard) {
+      this.item = item;
+      this.metacard = metacard;
+    }
+  }
 }
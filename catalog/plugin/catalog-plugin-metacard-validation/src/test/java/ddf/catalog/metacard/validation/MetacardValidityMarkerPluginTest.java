@@ -23,9 +23,12 @@
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
@@ -46,6 +49,7 @@
 import ddf.catalog.plugin.PluginExecutionException;
 import ddf.catalog.plugin.StopProcessingException;
 import ddf.catalog.util.Describable;
+import ddf.catalog.validation.BatchMetacardValidator;
 import ddf.catalog.validation.MetacardValidator;
 import ddf.catalog.validation.ValidationException;
 import java.io.Serializable;
@@ -54,6 +58,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -66,6 +71,8 @@
 public class MetacardValidityMarkerPluginTest {
   private static final String ID = "ID";
 
+  private static final String ENFORCED_ID = "ENFORCED_ID";
+
   private static final String SAMPLE_WARNING = "sample warning";
 
   private static final String SAMPLE_ERROR = "sample error";
@@ -74,6 +81,8 @@ public class MetacardValidityMarkerPluginTest {
 
   private static final String SECOND = "second";
 
+  private static final String THIRD = "third";
+
   private static final String VALID_TAG = "VALID";
 
   private static final String INVALID_TAG = "INVALID";
@@ -281,6 +290,103 @@ public void testProcessDelete() throws StopProcessingException, PluginExecutionE
     assertThat(returnedDeleteRequest, is(theInstance(deleteRequest)));
   }
 
+  @Test
+  public void testMetacardsValidatedConcurrently()
+      throws ValidationException, StopProcessingException, PluginExecutionException {
+    MetacardValidator warningValidator = getMockFailingValidatorWithWarnings();
+    when(((Describable) warningValidator).getId()).thenReturn(SECOND);
+    metacardValidators.add(warningValidator);
+    metacardValidators.add(getMockEnforcedFailingValidatorWithId(ID));
+    enforcedMetacardValidators.add(ID);
+    plugin.setValidationThreads(2);
+
+    try {
+      CreateRequest createRequest = getMockCreateRequest();
+      List<Metacard> createdMetacards = createRequest.getMetacards();
+      verifyEnforcedCreate(createRequest, createdMetacards.subList(1, createdMetacards.size()));
+      assertThat(
+          createdMetacards.get(1).getAttribute(Validation.VALIDATION_WARNINGS).getValues(),
+          contains(SAMPLE_WARNING));
+
+      UpdateRequest updateRequest = getMockUpdateRequest();
+      List<Metacard> updatedMetacards = getUpdatedMetacards(updateRequest);
+      verifyEnforcedUpdate(updateRequest, updatedMetacards.subList(1, updatedMetacards.size()));
+    } finally {
+      plugin.destroy();
+    }
+  }
+
+  @Test
+  public void testEnforcedValidatorRunsBeforeUnenforcedValidators()
+      throws ValidationException, StopProcessingException, PluginExecutionException {
+    MetacardValidator unenforcedValidator = getMockPassingValidator();
+    metacardValidators.add(unenforcedValidator);
+    metacardValidators.add(getMockEnforcedFailingValidatorWithId(ID));
+    enforcedMetacardValidators.add(ID);
+
+    CreateRequest createRequest = getMockCreateRequest();
+    List<Metacard> createdMetacards = createRequest.getMetacards();
+    verifyEnforcedCreate(createRequest, createdMetacards.subList(1, createdMetacards.size()));
+
+    verify(unenforcedValidator, never()).validate(argThat(isMetacardWithTitle(FIRST)));
+    verify(unenforcedValidator).validate(argThat(isMetacardWithTitle(SECOND)));
+  }
+
+  @Test
+  public void testBatchValidatorValidatesWholeBatchOnce()
+      throws ValidationException, StopProcessingException, PluginExecutionException {
+    ValidationException validationException = mock(ValidationException.class);
+    when(validationException.getErrors()).thenReturn(Collections.singletonList(SAMPLE_ERROR));
+    BatchMetacardValidator batchValidator =
+        mock(BatchMetacardValidator.class, withSettings().extraInterfaces(Describable.class));
+    when(((Describable) batchValidator).getId()).thenReturn(ID);
+    when(batchValidator.validate(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<Metacard>>getArgument(0).stream()
+                    .map(
+                        metacard ->
+                            FIRST.equals(metacard.getTitle())
+                                ? Optional.of(validationException)
+                                : Optional.empty())
+                    .collect(Collectors.toList()));
+    metacardValidators.add(batchValidator);
+    enforcedMetacardValidators.add(ID);
+
+    CreateRequest createRequest = getMockCreateRequest();
+    List<Metacard> createdMetacards = createRequest.getMetacards();
+    verifyEnforcedCreate(createRequest, createdMetacards.subList(1, createdMetacards.size()));
+
+    verify(batchValidator).validate(createdMetacards);
+    verify(batchValidator, never()).validate(any(Metacard.class));
+  }
+
+  @Test
+  public void testBatchValidatorSkipsMetacardsFailingEnforcedValidators()
+      throws ValidationException, StopProcessingException, PluginExecutionException {
+    BatchMetacardValidator batchValidator =
+        mock(BatchMetacardValidator.class, withSettings().extraInterfaces(Describable.class));
+    when(((Describable) batchValidator).getId()).thenReturn(ID);
+    when(batchValidator.validate(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<Metacard>>getArgument(0).stream()
+                    .map(metacard -> Optional.<ValidationException>empty())
+                    .collect(Collectors.toList()));
+    metacardValidators.add(batchValidator);
+    metacardValidators.add(getMockEnforcedFailingValidatorWithId(ENFORCED_ID));
+    enforcedMetacardValidators.add(ENFORCED_ID);
+
+    List<Metacard> listMetacards =
+        Lists.newArrayList(
+            metacardWithTitle(FIRST), metacardWithTitle(SECOND), metacardWithTitle(THIRD));
+    CreateRequest createRequest = new CreateRequestImpl(listMetacards, PROPERTIES, DESTINATIONS);
+    verifyEnforcedCreate(createRequest, listMetacards.subList(1, listMetacards.size()));
+
+    verify(batchValidator).validate(listMetacards.subList(1, listMetacards.size()));
+    verify(batchValidator, never()).validate(any(Metacard.class));
+  }
+
   private void verifyEnforcedCreate(
       CreateRequest originalRequest, List<Metacard> expectedAllowedMetacards)
       throws PluginExecutionException, StopProcessingException {
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.rest.api;
+
+/** Thrown when the byte range requested for a product cannot be served. */
+public class RangeNotSatisfiableException extends CatalogServiceException {
+
+  private final long resourceSize;
+
+  /**
+   * @param message the reason the range cannot be served
+   * @param resourceSize the size of the product in bytes, or -1 if it is not known
+   */
+  public RangeNotSatisfiableException(String message, long resourceSize) {
+    super(message);
+    this.resourceSize = resourceSize;
+  }
+
+  /** @return the size of the product in bytes, or -1 if it is not known */
+  public long getResourceSize() {
+    return resourceSize;
+  }
+}
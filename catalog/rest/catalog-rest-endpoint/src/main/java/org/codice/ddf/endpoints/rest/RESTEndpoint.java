@@ -16,11 +16,18 @@
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.plugin.OAuthPluginException;
+import ddf.catalog.resource.ByteRangeResource;
 import ddf.catalog.resource.DataUsageLimitExceededException;
+import ddf.catalog.resource.FileChannelResource;
 import ddf.catalog.resource.Resource;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
@@ -40,6 +47,7 @@
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import org.apache.commons.codec.CharEncoding;
@@ -47,6 +55,7 @@
 import org.apache.cxf.jaxrs.ext.multipart.MultipartBody;
 import org.codice.ddf.rest.api.CatalogService;
 import org.codice.ddf.rest.api.CatalogServiceException;
+import org.codice.ddf.rest.api.RangeNotSatisfiableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +69,10 @@ public class RESTEndpoint implements RESTService {
 
   private static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
 
+  private static final String HEADER_RANGE = "Range";
+
+  private static final String HEADER_CONTENT_RANGE = "Content-Range";
+
   private static final String BYTES = "bytes";
 
   private CatalogService catalogService;
@@ -231,7 +244,24 @@ public Response getDocument(
       }
 
       LOGGER.debug("Read and transform complete, preparing response.");
-      responseBuilder = Response.ok(content.getInputStream(), content.getMimeTypeValue());
+      if (isRangeRequest(httpRequest) && content instanceof ByteRangeResource) {
+        ByteRangeResource range = (ByteRangeResource) content;
+        if (!isSatisfiable(range)) {
+          return createRangeNotSatisfiableResponse(range);
+        }
+        if (range.getSize() > 0) {
+          responseBuilder =
+              Response.status(Status.PARTIAL_CONTENT)
+                  .entity(getEntity(content))
+                  .type(content.getMimeTypeValue())
+                  .header(HEADER_CONTENT_RANGE, getContentRange(range));
+        } else {
+          LOGGER.debug("Size of range of {} is unknown, returning it in full.", range.getName());
+          responseBuilder = Response.ok(getEntity(content), content.getMimeTypeValue());
+        }
+      } else {
+        responseBuilder = Response.ok(getEntity(content), content.getMimeTypeValue());
+      }
 
       // Add the Accept-ranges header to let the client know that we accept ranges in bytes
       responseBuilder.header(HEADER_ACCEPT_RANGES, BYTES);
@@ -245,6 +275,10 @@ public Response getDocument(
 
       return responseBuilder.build();
 
+    } catch (RangeNotSatisfiableException e) {
+      LOGGER.debug(e.getMessage());
+      return createRangeNotSatisfiableResponse(e.getResourceSize());
+
     } catch (CatalogServiceException e) {
       return createBadRequestResponse(e.getMessage());
 
@@ -395,6 +429,95 @@ public Response deleteDocument(
     }
   }
 
+  /* Requests for several ranges are answered with the whole product */
+  private boolean isRangeRequest(HttpServletRequest httpRequest) {
+    if (httpRequest == null) {
+      return false;
+    }
+    String rangeHeader = httpRequest.getHeader(HEADER_RANGE);
+    return StringUtils.isNotBlank(rangeHeader) && !rangeHeader.contains(",");
+  }
+
+  /* A range is satisfiable when it holds at least one byte of the product */
+  private boolean isSatisfiable(ByteRangeResource range) {
+    long totalSize = range.getTotalSize();
+    return range.getSize() != 0
+        && (totalSize == ByteRangeResource.UNKNOWN_SIZE || range.getRangeStart() < totalSize);
+  }
+
+  private String getContentRange(ByteRangeResource range) {
+    long totalSize = range.getTotalSize();
+    return BYTES
+        + " "
+        + range.getRangeStart()
+        + "-"
+        + (range.getRangeStart() + range.getSize() - 1)
+        + "/"
+        + (totalSize == ByteRangeResource.UNKNOWN_SIZE ? "*" : totalSize);
+  }
+
+  private Response createRangeNotSatisfiableResponse(ByteRangeResource range) {
+    LOGGER.debug(
+        "Requested range starting at byte {} of {} is not satisfiable",
+        range.getRangeStart(),
+        range.getName());
+    if (!(range instanceof FileChannelResource)) {
+      closeQuietly(range.getInputStream());
+    }
+    return createRangeNotSatisfiableResponse(range.getTotalSize());
+  }
+
+  private Response createRangeNotSatisfiableResponse(long totalSize) {
+    ResponseBuilder responseBuilder = Response.status(Status.REQUESTED_RANGE_NOT_SATISFIABLE);
+    if (totalSize >= 0) {
+      responseBuilder.header(HEADER_CONTENT_RANGE, BYTES + " */" + totalSize);
+    }
+    return responseBuilder.build();
+  }
+
+  private void closeQuietly(InputStream inputStream) {
+    if (inputStream == null) {
+      return;
+    }
+    try {
+      inputStream.close();
+    } catch (IOException e) {
+      LOGGER.debug("Unable to close resource stream", e);
+    }
+  }
+
+  /**
+   * Products that are already on local disk, such as cached products, are sent to the client
+   * straight from the file with {@link FileChannel#transferTo(long, long,
+   * java.nio.channels.WritableByteChannel)} instead of being copied through {@link
+   * BinaryContent#getInputStream()}.
+   */
+  private Object getEntity(BinaryContent content) {
+    if (!(content instanceof FileChannelResource)) {
+      return content.getInputStream();
+    }
+
+    FileChannelResource resource = (FileChannelResource) content;
+    LOGGER.debug("Sending file resource {} directly from file", resource.getName());
+    return (StreamingOutput)
+        outputStream -> {
+          try (FileChannel channel =
+              FileChannel.open(resource.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = resource.getOffset();
+            long remaining = resource.getSize();
+            while (remaining > 0) {
+              long transferred = channel.transferTo(position, remaining, target);
+              if (transferred <= 0) {
+                throw new IOException("Resource file " + resource.getPath() + " was truncated");
+              }
+              position += transferred;
+              remaining -= transferred;
+            }
+          }
+        };
+  }
+
   private void setFileNameOnResponseBuilder(
       String id, BinaryContent content, ResponseBuilder responseBuilder) {
     String filename = null;
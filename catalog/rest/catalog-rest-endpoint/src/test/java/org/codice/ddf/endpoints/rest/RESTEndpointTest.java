@@ -14,10 +14,15 @@
 package org.codice.ddf.endpoints.rest;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ddf.catalog.CatalogFramework;
@@ -27,39 +32,62 @@
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.Result;
 import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.data.impl.ResultImpl;
 import ddf.catalog.filter.FilterBuilder;
 import ddf.catalog.filter.proxy.builder.GeotoolsFilterBuilder;
 import ddf.catalog.operation.CreateRequest;
 import ddf.catalog.operation.QueryRequest;
 import ddf.catalog.operation.QueryResponse;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.impl.CreateResponseImpl;
+import ddf.catalog.resource.FileChannelResource;
 import ddf.catalog.resource.Resource;
+import ddf.catalog.resource.impl.ByteRangeResourceImpl;
+import ddf.catalog.resource.impl.FileChannelResourceImpl;
+import ddf.catalog.resource.impl.ResourceImpl;
 import ddf.catalog.source.IngestException;
 import ddf.catalog.source.SourceUnavailableException;
 import ddf.mime.MimeTypeMapper;
 import ddf.mime.tika.TikaMimeTypeResolver;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.tika.io.IOUtils;
 import org.codice.ddf.attachment.impl.AttachmentParserImpl;
+import org.codice.ddf.rest.api.CatalogService;
 import org.codice.ddf.rest.service.impl.CatalogServiceImpl;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class RESTEndpointTest {
 
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   private static final int OK = 200;
 
   private static final int NO_CONTENT = 204;
 
+  private static final int PARTIAL_CONTENT = 206;
+
+  private static final int RANGE_NOT_SATISFIABLE = 416;
+
   private static final int NOT_FOUND = 404;
 
   private static final String SAMPLE_ID = "12345678900987654321abcdeffedcba";
@@ -98,6 +126,10 @@ public class RESTEndpointTest {
 
   private static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
 
+  private static final String HEADER_CONTENT_RANGE = "Content-Range";
+
+  private static final String RANGE = "test";
+
   private static final String ACCEPT_RANGES_VALUE = "bytes";
 
   private static final String HEADER_CONTENT_DISPOSITION = "Content-Disposition";
@@ -283,6 +315,184 @@ public void testGetDocumentResourceLocalSuccess() throws Exception {
     assertEquals(GET_TYPE_OUTPUT, response.getMetadata().toString());
   }
 
+  /** Tests that a resource on local disk is sent directly from its file */
+  @Test
+  public void testGetDocumentFileChannelResource() throws Exception {
+    Path file = temporaryFolder.newFile(GET_FILENAME).toPath();
+    Files.write(file, ("prefix-" + GET_STREAM + "-suffix").getBytes(StandardCharsets.UTF_8));
+    FileChannelResource resource =
+        new FileChannelResourceImpl(file, 7, GET_STREAM.length(), GET_MIME_TYPE, GET_FILENAME);
+
+    CatalogService catalogService = mock(CatalogService.class);
+    when(catalogService.getDocument(any(), any(), any(), any(), any(), any())).thenReturn(resource);
+    UriInfo uriInfo = mock(UriInfo.class);
+    when(uriInfo.getAbsolutePath()).thenReturn(new URI(LOCAL_RETRIEVE_ADDRESS + "/" + GET_ID));
+
+    Response response =
+        new RESTEndpoint(catalogService).getDocument(GET_ID, "resource", uriInfo, null);
+
+    assertEquals(OK, response.getStatus());
+    assertEquals(String.valueOf(GET_STREAM.length()), response.getHeaderString("Content-Length"));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((StreamingOutput) response.getEntity()).write(output);
+    assertEquals(GET_STREAM, output.toString(StandardCharsets.UTF_8.name()));
+  }
+
+  /** Tests that a requested byte range is returned as partial content */
+  @Test
+  public void testGetDocumentRange() throws Exception {
+    Response response =
+        getRange(
+            new ByteRangeResourceImpl(rangeStream(), GET_MIME_TYPE, GET_FILENAME, 5, 4, 20),
+            "bytes=5-8");
+
+    assertEquals(PARTIAL_CONTENT, response.getStatus());
+    assertEquals("bytes 5-8/20", response.getHeaderString(HEADER_CONTENT_RANGE));
+    assertEquals("4", response.getHeaderString("Content-Length"));
+    assertEquals(RANGE, IOUtils.toString((InputStream) response.getEntity()));
+  }
+
+  /** Tests that a byte range starting past the end of the product is rejected */
+  @Test
+  public void testGetDocumentRangeNotSatisfiable() throws Exception {
+    Response response =
+        getRange(
+            new ByteRangeResourceImpl(
+                new ByteArrayInputStream(new byte[0]), GET_MIME_TYPE, GET_FILENAME, 20, 0, 20),
+            "bytes=20-");
+
+    assertEquals(RANGE_NOT_SATISFIABLE, response.getStatus());
+    assertEquals("bytes */20", response.getHeaderString(HEADER_CONTENT_RANGE));
+    assertNull(response.getEntity());
+  }
+
+  /** Tests that a product is returned in full when no byte range is requested */
+  @Test
+  public void testGetDocumentWithoutRange() throws Exception {
+    ResourceImpl resource = new ResourceImpl(rangeStream(), GET_MIME_TYPE, GET_FILENAME);
+    resource.setSize(RANGE.length());
+
+    Response response = getRange(resource, null);
+
+    assertEquals(OK, response.getStatus());
+    assertNull(response.getHeaderString(HEADER_CONTENT_RANGE));
+    assertEquals(String.valueOf(RANGE.length()), response.getHeaderString("Content-Length"));
+    assertEquals(RANGE, IOUtils.toString((InputStream) response.getEntity()));
+  }
+
+  /** Tests that a byte range with both ends is read from its start for its length */
+  @Test
+  public void testGetDocumentRangeIsRead() throws Exception {
+    Map<String, Serializable> arguments = new HashMap<>();
+    Response response = getRangeOfProduct(arguments, "bytes=5-8", "20");
+
+    assertEquals(OK, response.getStatus());
+    assertEquals(5L, arguments.get(ResourceRequest.BYTES_TO_SKIP));
+    assertEquals(4L, arguments.get(ResourceRequest.BYTES_TO_READ));
+  }
+
+  /** Tests that an open-ended byte range is read to the end of the product */
+  @Test
+  public void testGetDocumentOpenEndedRangeIsRead() throws Exception {
+    Map<String, Serializable> arguments = new HashMap<>();
+    getRangeOfProduct(arguments, "bytes=5-", "20");
+
+    assertEquals(5L, arguments.get(ResourceRequest.BYTES_TO_SKIP));
+    assertNull(arguments.get(ResourceRequest.BYTES_TO_READ));
+  }
+
+  /** Tests that a byte range ending past the end of the product is read to its end */
+  @Test
+  public void testGetDocumentRangePastEndIsShortened() throws Exception {
+    Map<String, Serializable> arguments = new HashMap<>();
+    getRangeOfProduct(arguments, "bytes=5-100", "20");
+
+    assertEquals(5L, arguments.get(ResourceRequest.BYTES_TO_SKIP));
+    assertEquals(15L, arguments.get(ResourceRequest.BYTES_TO_READ));
+  }
+
+  /** Tests that a suffix byte range is read from the end of the product */
+  @Test
+  public void testGetDocumentSuffixRangeIsResolved() throws Exception {
+    Map<String, Serializable> arguments = new HashMap<>();
+    getRangeOfProduct(arguments, "bytes=-4", "20");
+
+    assertEquals(16L, arguments.get(ResourceRequest.BYTES_TO_SKIP));
+    assertEquals(4L, arguments.get(ResourceRequest.BYTES_TO_READ));
+  }
+
+  /** Tests that a suffix byte range longer than the product covers the whole product */
+  @Test
+  public void testGetDocumentSuffixRangeLongerThanProduct() throws Exception {
+    Map<String, Serializable> arguments = new HashMap<>();
+    getRangeOfProduct(arguments, "bytes=-40", "20");
+
+    assertNull(arguments.get(ResourceRequest.BYTES_TO_SKIP));
+    assertEquals(20L, arguments.get(ResourceRequest.BYTES_TO_READ));
+  }
+
+  /** Tests that a suffix byte range of a product of unknown size returns the whole product */
+  @Test
+  public void testGetDocumentSuffixRangeOfUnknownSize() throws Exception {
+    Map<String, Serializable> arguments = new HashMap<>();
+    Response response = getRangeOfProduct(arguments, "bytes=-4", null);
+
+    assertEquals(OK, response.getStatus());
+    assertTrue(arguments.isEmpty());
+  }
+
+  /** Tests that a request for several byte ranges returns the whole product */
+  @Test
+  public void testGetDocumentMultipleRangesReturnWholeProduct() throws Exception {
+    Map<String, Serializable> arguments = new HashMap<>();
+    Response response = getRangeOfProduct(arguments, "bytes=0-1,5-8", "20");
+
+    assertEquals(OK, response.getStatus());
+    assertNull(response.getHeaderString(HEADER_CONTENT_RANGE));
+    assertTrue(arguments.isEmpty());
+  }
+
+  /** Tests that a request for several byte ranges of a ranged resource is not partial content */
+  @Test
+  public void testGetDocumentMultipleRangesOfRangedResource() throws Exception {
+    Response response =
+        getRange(
+            new ByteRangeResourceImpl(rangeStream(), GET_MIME_TYPE, GET_FILENAME, 0, 4, 4),
+            "bytes=0-1,2-3");
+
+    assertEquals(OK, response.getStatus());
+    assertNull(response.getHeaderString(HEADER_CONTENT_RANGE));
+  }
+
+  /** Tests that a byte range starting past the end of the product is rejected before reading it */
+  @Test
+  public void testGetDocumentRangePastEndOfProductIsRejected() throws Exception {
+    assertRangeRejected("bytes=20-", "bytes */20");
+  }
+
+  /** Tests that an empty suffix byte range is rejected */
+  @Test
+  public void testGetDocumentEmptySuffixRangeIsRejected() throws Exception {
+    assertRangeRejected("bytes=-0", "bytes */20");
+  }
+
+  /** Tests that a byte range ending before its start is rejected */
+  @Test
+  public void testGetDocumentReversedRangeIsRejected() throws Exception {
+    assertRangeRejected("bytes=8-5", "bytes */20");
+  }
+
+  /** Tests that malformed range headers are rejected */
+  @Test
+  public void testGetDocumentMalformedRangeIsRejected() throws Exception {
+    assertRangeRejected("items=0-5", "bytes */20");
+    assertRangeRejected("bytes=5", "bytes */20");
+    assertRangeRejected("bytes=-", "bytes */20");
+    assertRangeRejected("bytes=a-b", "bytes */20");
+    assertRangeRejected("bytes=--5", "bytes */20");
+    assertRangeRejected("bytes=99999999999999999999-", "bytes */20");
+  }
+
   /** Tests retrieving a federated resource with a successful response */
   @Test
   public void testGetDocumentResourceFedSuccess() throws Exception {
@@ -297,6 +507,72 @@ public void testGetDocumentResourceFedSuccess() throws Exception {
     assertEquals(GET_TYPE_OUTPUT, response.getMetadata().toString());
   }
 
+  private InputStream rangeStream() {
+    return new ByteArrayInputStream(RANGE.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void assertRangeRejected(String rangeHeader, String contentRange) throws Exception {
+    Map<String, Serializable> arguments = new HashMap<>();
+    Response response = getRangeOfProduct(arguments, rangeHeader, "20");
+
+    assertEquals(RANGE_NOT_SATISFIABLE, response.getStatus());
+    assertEquals(contentRange, response.getHeaderString(HEADER_CONTENT_RANGE));
+    assertTrue(arguments.isEmpty());
+  }
+
+  /**
+   * Requests a byte range of a product of the given size through the catalog service, collecting
+   * the arguments the product is read with.
+   */
+  @SuppressWarnings({"unchecked"})
+  private Response getRangeOfProduct(
+      Map<String, Serializable> arguments, String rangeHeader, String resourceSize)
+      throws Exception {
+    CatalogFramework framework = givenCatalogFramework();
+    QueryResponse queryResponse = mock(QueryResponse.class);
+    when(framework.query(isA(QueryRequest.class), isNull())).thenReturn(queryResponse);
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setResourceSize(resourceSize);
+    when(queryResponse.getResults())
+        .thenReturn(Collections.singletonList(new ResultImpl(metacard)));
+    when(framework.transform(isA(Metacard.class), anyString(), isA(Map.class)))
+        .thenAnswer(
+            invocation -> {
+              arguments.putAll(invocation.getArgument(2));
+              return new ResourceImpl(rangeStream(), GET_MIME_TYPE, GET_FILENAME);
+            });
+
+    CatalogServiceImpl catalogServiceImpl =
+        new CatalogServiceImpl(
+            framework,
+            new AttachmentParserImpl(mock(MimeTypeMapper.class)),
+            mock(AttributeRegistry.class));
+    catalogServiceImpl.setTikaMimeTypeResolver(new TikaMimeTypeResolver());
+    catalogServiceImpl.setFilterBuilder(new GeotoolsFilterBuilder());
+    HttpServletRequest httpRequest = mock(HttpServletRequest.class);
+    when(httpRequest.getHeader("Range")).thenReturn(rangeHeader);
+
+    Response response =
+        new RESTEndpoint(catalogServiceImpl)
+            .getDocument(
+                GET_ID, "resource", createSpecificUriInfo(LOCAL_RETRIEVE_ADDRESS), httpRequest);
+    if (response.getStatus() == RANGE_NOT_SATISFIABLE) {
+      verify(framework, never()).transform(any(), any(), any());
+    }
+    arguments.remove("url");
+    return response;
+  }
+
+  private Response getRange(Resource resource, String rangeHeader) throws Exception {
+    CatalogService catalogService = mock(CatalogService.class);
+    when(catalogService.getDocument(any(), any(), any(), any(), any(), any())).thenReturn(resource);
+    UriInfo uriInfo = createSpecificUriInfo(LOCAL_RETRIEVE_ADDRESS);
+    HttpServletRequest httpRequest = mock(HttpServletRequest.class);
+    when(httpRequest.getHeader("Range")).thenReturn(rangeHeader);
+
+    return new RESTEndpoint(catalogService).getDocument(GET_ID, "resource", uriInfo, httpRequest);
+  }
+
   /**
    * Creates the mock setup for the GET tests above. Parameters provide the CatalogFramework, which
    * will be setup for the test, and also specify which test case is being run.
@@ -39,6 +39,7 @@
 import ddf.catalog.operation.CreateRequest;
 import ddf.catalog.operation.CreateResponse;
 import ddf.catalog.operation.QueryResponse;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.UpdateRequest;
 import ddf.catalog.operation.impl.CreateRequestImpl;
 import ddf.catalog.operation.impl.DeleteRequestImpl;
@@ -107,6 +108,7 @@
 import org.codice.ddf.platform.util.uuidgenerator.UuidGenerator;
 import org.codice.ddf.rest.api.CatalogService;
 import org.codice.ddf.rest.api.CatalogServiceException;
+import org.codice.ddf.rest.api.RangeNotSatisfiableException;
 import org.opengis.filter.Filter;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -121,8 +123,6 @@ public abstract class AbstractCatalogService implements CatalogService {
 
   public static final String DEFAULT_METACARD_TRANSFORMER = "xml";
 
-  private static final String BYTES_TO_SKIP = "BytesToSkip";
-
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractCatalogService.class);
 
   private static final Logger INGEST_LOGGER = LoggerFactory.getLogger(Constants.INGEST_LOGGER_NAME);
@@ -343,11 +343,16 @@ public BinaryContent getDocument(
         // Check for Range header set the value in the map appropriately so that the
         // catalogFramework
         // can take care of the skipping
-        long bytesToSkip = getRangeStart(httpRequest);
+        ByteRange range = getByteRange(httpRequest, card);
+
+        if (range != null && range.start > 0) {
+          LOGGER.debug("Bytes to skip: {}", range.start);
+          convertedMap.put(ResourceRequest.BYTES_TO_SKIP, range.start);
+        }
 
-        if (bytesToSkip > 0) {
-          LOGGER.debug("Bytes to skip: {}", bytesToSkip);
-          convertedMap.put(BYTES_TO_SKIP, bytesToSkip);
+        if (range != null && range.length >= 0) {
+          LOGGER.debug("Bytes to read: {}", range.length);
+          convertedMap.put(ResourceRequest.BYTES_TO_READ, range.length);
         }
 
         LOGGER.debug("Calling transform.");
@@ -1189,49 +1194,98 @@ public String getFileExtensionForMimeType(String mimeType) {
     return fileExtension;
   }
 
-  private boolean rangeHeaderExists(HttpServletRequest httpRequest) {
-    boolean response = false;
+  /**
+   * Parses the single byte range of a Range header, resolving suffix ranges and ranges running past
+   * the end of the product against its {@link Metacard#RESOURCE_SIZE}.
+   *
+   * @return the range to read, or {@code null} to read the whole product when there is no Range
+   *     header, several ranges are requested, or a suffix range is requested for a product of
+   *     unknown size
+   * @throws RangeNotSatisfiableException if the header is malformed or the range holds no byte of
+   *     the product
+   */
+  private ByteRange getByteRange(HttpServletRequest httpRequest, Metacard metacard)
+      throws RangeNotSatisfiableException {
+    String rangeHeader = httpRequest == null ? null : httpRequest.getHeader(HEADER_RANGE);
+    if (StringUtils.isBlank(rangeHeader)) {
+      return null;
+    }
 
-    if (httpRequest != null && httpRequest.getHeader(HEADER_RANGE) != null) {
-      response = true;
+    long resourceSize = getResourceSize(metacard);
+    String rangeSet = rangeHeader.trim();
+    if (!StringUtils.startsWithIgnoreCase(rangeSet, BYTES_EQUAL)) {
+      throw new RangeNotSatisfiableException("Invalid range header: " + rangeHeader, resourceSize);
     }
 
-    return response;
-  }
+    rangeSet = rangeSet.substring(BYTES_EQUAL.length());
+    if (rangeSet.contains(",")) {
+      LOGGER.debug("Returning the whole product for multiple ranges requested: {}", rangeHeader);
+      return null;
+    }
 
-  // Return 0 (beginning of stream) if the range header does not exist.
-  private long getRangeStart(HttpServletRequest httpRequest) throws UnsupportedQueryException {
-    long response = 0;
+    String first = StringUtils.substringBefore(rangeSet, "-").trim();
+    String last = StringUtils.substringAfter(rangeSet, "-").trim();
+    if (!rangeSet.contains("-")
+        || !StringUtils.isNumeric(first)
+        || !StringUtils.isNumeric(last)
+        || (first.isEmpty() && last.isEmpty())) {
+      throw new RangeNotSatisfiableException("Invalid range header: " + rangeHeader, resourceSize);
+    }
 
-    if (httpRequest != null && rangeHeaderExists(httpRequest)) {
-      String rangeHeader = httpRequest.getHeader(HEADER_RANGE);
-      String range = getRange(rangeHeader);
+    try {
+      if (first.isEmpty()) {
+        return getSuffixRange(Long.parseLong(last), resourceSize, rangeHeader);
+      }
 
-      if (range != null) {
-        response = Long.parseLong(range);
+      long start = Long.parseLong(first);
+      long end = last.isEmpty() ? -1 : Long.parseLong(last);
+      if ((end >= 0 && end < start) || (resourceSize >= 0 && start >= resourceSize)) {
+        throw new RangeNotSatisfiableException(
+            "Unsatisfiable range header: " + rangeHeader, resourceSize);
       }
-    }
 
-    return response;
+      if (end < 0) {
+        return new ByteRange(start, -1);
+      }
+      if (resourceSize >= 0) {
+        end = Math.min(end, resourceSize - 1);
+      }
+      return new ByteRange(start, end - start + 1);
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Unable to parse range header {}", rangeHeader, e);
+      throw new RangeNotSatisfiableException("Invalid range header: " + rangeHeader, resourceSize);
+    }
   }
 
-  private String getRange(String rangeHeader) throws UnsupportedQueryException {
-    String response = null;
+  /* Resolves a range of the last bytes of the product, which needs the size of the product */
+  private ByteRange getSuffixRange(long suffixLength, long resourceSize, String rangeHeader)
+      throws RangeNotSatisfiableException {
+    if (suffixLength == 0 || resourceSize == 0) {
+      throw new RangeNotSatisfiableException(
+          "Unsatisfiable range header: " + rangeHeader, resourceSize);
+    }
+    if (resourceSize < 0) {
+      LOGGER.debug("Returning the whole product of unknown size for range: {}", rangeHeader);
+      return null;
+    }
+
+    long length = Math.min(suffixLength, resourceSize);
+    return new ByteRange(resourceSize - length, length);
+  }
 
-    if (rangeHeader != null) {
-      if (rangeHeader.startsWith(BYTES_EQUAL)) {
-        String tempString = rangeHeader.substring(BYTES_EQUAL.length());
-        if (tempString.contains("-")) {
-          response = rangeHeader.substring(BYTES_EQUAL.length(), rangeHeader.lastIndexOf('-'));
-        } else {
-          response = rangeHeader.substring(BYTES_EQUAL.length());
-        }
-      } else {
-        throw new UnsupportedQueryException("Invalid range header: " + rangeHeader);
-      }
+  // Return -1 if the metacard does not hold the size of its product.
+  private long getResourceSize(Metacard metacard) {
+    String resourceSize = metacard.getResourceSize();
+    if (resourceSize == null) {
+      return -1;
     }
 
-    return response;
+    try {
+      return Long.parseLong(resourceSize.trim());
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Unable to parse resource size {} of {}", resourceSize, metacard.getId(), e);
+      return -1;
+    }
   }
 
   private String constructUrl(
@@ -1312,4 +1366,17 @@ public InputStream getInputStream() {
       return inputStream;
     }
   }
+
+  /** A byte range of a product, read to the end of the product when its length is -1. */
+  private static class ByteRange {
+
+    private final long start;
+
+    private final long length;
+
+    private ByteRange(long start, long length) {
+      this.start = start;
+      this.length = length;
+    }
+  }
 }
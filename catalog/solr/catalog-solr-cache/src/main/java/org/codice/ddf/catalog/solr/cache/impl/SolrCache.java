@@ -279,6 +279,7 @@ public void forceCommit() {
   public void shutdown() {
     LOGGER.debug("Shutting down cache expiration scheduler.");
     shutdownCacheExpirationScheduler();
+    metacardClient.shutdown();
     LOGGER.debug("Shutting down Solr client.");
     try {
       client.close();
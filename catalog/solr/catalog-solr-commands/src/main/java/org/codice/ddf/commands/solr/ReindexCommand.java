@@ -21,6 +21,7 @@
 import ddf.catalog.operation.impl.CreateRequestImpl;
 import ddf.catalog.source.solr.DynamicSchemaResolver;
 import ddf.catalog.source.solr.SolrMetacardClientImpl;
+import ddf.catalog.source.solr.SolrMetacardTypeStore;
 import ddf.security.Subject;
 import java.io.IOException;
 import java.security.AccessController;
@@ -69,19 +70,22 @@ public class ReindexCommand extends SolrCommands {
 
   private Reader readerThread = null;
 
-  private SolrMetacardClientImpl metacardClient =
-      new SolrMetacardClientImpl(null, null, null, new DynamicSchemaResolver());
+  private SolrMetacardClientImpl metacardClient = null;
 
   private long totalCount = 0;
 
   private AtomicLong count = new AtomicLong();
 
+  private AtomicLong unconvertedCount = new AtomicLong();
+
   private long startTime;
 
   private ThreadPoolExecutor publishExecutor;
 
   private SolrClient solrjClient = null;
 
+  private SolrClient metacardTypesClient = null;
+
   @Reference private CatalogFramework catalogFramework;
 
   @Reference private SolrClientFactory clientFactory;
@@ -158,6 +162,9 @@ public Object execute() throws Exception {
       // configured.
       solrjClient = clientFactory.newClient(collection);
     }
+    if (metacardClient == null) {
+      metacardClient = createMetacardClient();
+    }
 
     try {
       if (isSolrClientAvailable(solrjClient)) {
@@ -184,10 +191,29 @@ public Object execute() throws Exception {
     }
 
     printInfoMessage("Re-Indexing has been completed. " + count.get() + " records processed");
+    if (unconvertedCount.get() > 0) {
+      printErrorMessage(
+          unconvertedCount.get()
+              + " records could not be converted to metacards and were not re-indexed");
+    }
 
     return null;
   }
 
+  /**
+   * Documents only hold a reference to their metacard type, so the types are read from the metacard
+   * types core of the same Solr system.
+   */
+  private SolrMetacardClientImpl createMetacardClient() {
+    if (metacardTypesClient == null) {
+      metacardTypesClient = clientFactory.newClient(SolrMetacardTypeStore.METACARD_TYPES_CORE_NAME);
+    }
+
+    DynamicSchemaResolver resolver = new DynamicSchemaResolver();
+    resolver.setMetacardTypeStore(new SolrMetacardTypeStore(metacardTypesClient));
+    return new SolrMetacardClientImpl(null, null, null, resolver);
+  }
+
   @VisibleForTesting
   protected void setSolrjClient(SolrClient solrjClient) {
     this.solrjClient = solrjClient;
@@ -198,6 +224,11 @@ protected void setMetacardClient(SolrMetacardClientImpl metacardClient) {
     this.metacardClient = metacardClient;
   }
 
+  @VisibleForTesting
+  protected void setMetacardTypesClient(SolrClient metacardTypesClient) {
+    this.metacardTypesClient = metacardTypesClient;
+  }
+
   @VisibleForTesting
   protected void setNumThread(int numThreads) {
     this.numThreads = numThreads;
@@ -315,9 +346,8 @@ private List<Metacard> getData(org.codice.solr.client.solrj.SolrClient sourceSol
         Metacard metacard = metacardClient.createMetacard(doc);
         data.add(metacard);
       } catch (MetacardCreationException e) {
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("Unable to convert: {} to metacard", doc, e);
-        }
+        unconvertedCount.incrementAndGet();
+        LOGGER.warn("Unable to convert document {} to metacard", doc.getFirstValue("id_txt"), e);
       }
     }
     return data;
@@ -27,7 +27,9 @@
 import ddf.catalog.data.types.Core;
 import ddf.catalog.operation.CreateRequest;
 import ddf.catalog.operation.CreateResponse;
+import ddf.catalog.source.solr.SchemaFields;
 import ddf.catalog.source.solr.SolrMetacardClientImpl;
+import ddf.catalog.source.solr.json.MetacardTypeMapperFactory;
 import ddf.security.Subject;
 import java.util.concurrent.Callable;
 import org.apache.shiro.util.ThreadContext;
@@ -107,6 +109,63 @@ public void testReindex() throws Exception {
     verify(catalogFramework, times(1)).create(any(CreateRequest.class));
   }
 
+  @Test
+  public void testReindexDocumentReferencingItsMetacardType() throws Exception {
+    ThreadContext.bind(mock(Subject.class));
+
+    SolrClient cloudClient = mock(SolrClient.class);
+    when(cloudClient.isAvailable()).thenReturn(true);
+
+    QueryResponse hitCountResponse = mock(QueryResponse.class);
+    SolrDocumentList hitCountResults = mock(SolrDocumentList.class);
+    when(hitCountResults.getNumFound()).thenReturn(1L);
+    when(hitCountResponse.getResults()).thenReturn(hitCountResults);
+
+    SolrDocument doc = new SolrDocument();
+    doc.put("id_txt", "1234");
+    doc.put(SchemaFields.METACARD_TYPE_FIELD_NAME, "basic#1");
+    SolrDocumentList dataDocumentList = new SolrDocumentList();
+    dataDocumentList.add(doc);
+    dataDocumentList.setNumFound(1L);
+    QueryResponse dataResponse = mock(QueryResponse.class);
+    when(dataResponse.getResults()).thenReturn(dataDocumentList);
+    when(dataResponse.getNextCursorMark()).thenReturn("cursor1234");
+
+    QueryResponse emptyResponse = mock(QueryResponse.class);
+    when(emptyResponse.getResults()).thenReturn(new SolrDocumentList());
+    when(cloudClient.query(any(SolrQuery.class)))
+        .thenReturn(hitCountResponse, dataResponse, emptyResponse);
+
+    SolrDocument typeDoc = new SolrDocument();
+    typeDoc.put(
+        "metacard_type" + SchemaFields.BINARY_SUFFIX,
+        MetacardTypeMapperFactory.newObjectMapper().writeValueAsBytes(MetacardImpl.BASIC_METACARD));
+    SolrClient metacardTypesClient = mock(SolrClient.class);
+    when(metacardTypesClient.getById("basic#1")).thenReturn(typeDoc);
+
+    CreateResponse createResponse = mock(CreateResponse.class);
+    CatalogFramework catalogFramework = mock(CatalogFramework.class);
+    when(catalogFramework.create(any(CreateRequest.class))).thenReturn(createResponse);
+
+    Security security = mock(Security.class);
+    Subject subject = mock(Subject.class);
+    when(security.runAsAdmin(any())).thenReturn(subject);
+    when(subject.execute(any(Callable.class)))
+        .thenAnswer(c -> ((Callable) c.getArguments()[0]).call());
+
+    ReindexCommand command = new ReindexCommand();
+    command.setSolrjClient(cloudClient);
+    command.setMetacardTypesClient(metacardTypesClient);
+    command.setNumThread(1);
+    command.setCollection("catalog");
+    command.setSolrHost("http://localhost:8994/solr");
+    command.setCatalogFramework(catalogFramework);
+    command.security = security;
+    command.execute();
+
+    verify(catalogFramework, times(1)).create(any(CreateRequest.class));
+  }
+
   @Test
   public void testQueryOptions() {
     ReindexCommand command = new ReindexCommand();
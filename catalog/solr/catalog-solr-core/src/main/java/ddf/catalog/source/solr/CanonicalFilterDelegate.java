@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import ddf.catalog.filter.impl.SimpleFilterDelegate;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Renders a filter as a string that is equal for filters selecting the same metacards in the same
+ * way: operands of {@code and} and {@code or} are sorted and every literal is rendered without loss
+ * of precision. Used as part of {@link SolrQueryCache} and {@link SolrFilterTranslationCache} keys.
+ */
+class CanonicalFilterDelegate extends SimpleFilterDelegate<String> {
+
+  private final boolean sortOperands;
+
+  CanonicalFilterDelegate() {
+    this(true);
+  }
+
+  /**
+   * @param sortOperands whether the operands of {@code and} and {@code or} are sorted, or kept in
+   *     the order they are visited
+   */
+  CanonicalFilterDelegate(boolean sortOperands) {
+    this.sortOperands = sortOperands;
+  }
+
+  @Override
+  public <S> String defaultOperation(
+      Object property, S literal, Class<S> literalClass, Enum operation) {
+    return operation(operation, property, literal);
+  }
+
+  @Override
+  public String and(List<String> operands) {
+    return logical(LogicalPropertyOperation.AND, operands);
+  }
+
+  @Override
+  public String or(List<String> operands) {
+    return logical(LogicalPropertyOperation.OR, operands);
+  }
+
+  @Override
+  public String not(String operand) {
+    return LogicalPropertyOperation.NOT.name() + "(" + operand + ")";
+  }
+
+  @Override
+  public String include() {
+    return LogicalPropertyOperation.INCLUDE.name();
+  }
+
+  @Override
+  public String exclude() {
+    return LogicalPropertyOperation.EXCLUDE.name();
+  }
+
+  @Override
+  public String propertyIsEqualTo(String functionName, List<Object> arguments, Object literal) {
+    return operation(FunctionOperation.FUNCTION, functionName, arguments, literal);
+  }
+
+  @Override
+  public String propertyIsEqualTo(String propertyName, String literal, boolean isCaseSensitive) {
+    return operation(
+        ComparisonPropertyOperation.IS_EQUAL_TO, propertyName, literal, isCaseSensitive);
+  }
+
+  @Override
+  public String propertyIsNotEqualTo(String propertyName, String literal, boolean isCaseSensitive) {
+    return operation(
+        ComparisonPropertyOperation.IS_NOT_EQUAL_TO, propertyName, literal, isCaseSensitive);
+  }
+
+  @Override
+  public String propertyIsLike(String propertyName, String pattern, boolean isCaseSensitive) {
+    return operation(ComparisonPropertyOperation.IS_LIKE, propertyName, pattern, isCaseSensitive);
+  }
+
+  @Override
+  public <S> String propertyIsBetween(
+      String propertyName,
+      S lowerBoundary,
+      S upperBoundary,
+      Class<S> literalClass,
+      ComparisonPropertyOperation operation) {
+    return operation(operation, propertyName, lowerBoundary, upperBoundary);
+  }
+
+  @Override
+  public String xpathIsLike(String xpath, String pattern, boolean isCaseSensitive) {
+    return operation(XPathPropertyOperation.XPATH_IS_LIKE, xpath, pattern, isCaseSensitive);
+  }
+
+  @Override
+  public String beyond(String propertyName, String wkt, double distance) {
+    return operation(SpatialPropertyOperation.BEYOND, propertyName, wkt, distance);
+  }
+
+  @Override
+  public String dwithin(String propertyName, String wkt, double distance) {
+    return operation(SpatialPropertyOperation.DWITHIN, propertyName, wkt, distance);
+  }
+
+  @Override
+  public String begins(String propertyName, Date startDate, Date endDate) {
+    return operation(TemporalPropertyOperation.BEGINS, propertyName, startDate, endDate);
+  }
+
+  /**
+   * Operands are rendered canonically already, with their literals quoted, so they are joined as
+   * is.
+   */
+  private String logical(LogicalPropertyOperation operation, List<String> operands) {
+    List<String> sorted = new ArrayList<>(operands);
+    if (sortOperands) {
+      Collections.sort(sorted);
+    }
+    return operation.name() + "(" + String.join(",", sorted) + ")";
+  }
+
+  private static String operation(Enum operation, Object... arguments) {
+    StringBuilder builder = new StringBuilder(operation.name()).append('(');
+    for (int i = 0; i < arguments.length; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      render(arguments[i], builder);
+    }
+    return builder.append(')').toString();
+  }
+
+  private static void render(Object value, StringBuilder builder) {
+    if (value == null) {
+      builder.append("null");
+    } else if (value instanceof String) {
+      quote((String) value, builder);
+    } else if (value instanceof Date) {
+      builder.append("date:").append(((Date) value).getTime());
+    } else if (value instanceof byte[]) {
+      builder.append("bytes:").append(Base64.getEncoder().encodeToString((byte[]) value));
+    } else if (value instanceof Range) {
+      render((Range<?>) value, builder);
+    } else if (value instanceof Collection) {
+      renderAll(((Collection<?>) value).toArray(), builder);
+    } else if (value.getClass().isArray()) {
+      Object[] values = new Object[Array.getLength(value)];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = Array.get(value, i);
+      }
+      renderAll(values, builder);
+    } else if (value instanceof Number || value instanceof Boolean || value instanceof Enum) {
+      builder.append(value.getClass().getSimpleName()).append(':').append(value);
+    } else {
+      quote(value.getClass().getName() + ':' + value, builder);
+    }
+  }
+
+  private static void render(Range<?> range, StringBuilder builder) {
+    if (range.hasLowerBound()) {
+      builder.append(range.lowerBoundType() == BoundType.CLOSED ? '[' : '(');
+      render(range.lowerEndpoint(), builder);
+    } else {
+      builder.append('(');
+    }
+    builder.append("..");
+    if (range.hasUpperBound()) {
+      render(range.upperEndpoint(), builder);
+      builder.append(range.upperBoundType() == BoundType.CLOSED ? ']' : ')');
+    } else {
+      builder.append(')');
+    }
+  }
+
+  private static void renderAll(Object[] values, StringBuilder builder) {
+    builder.append('[');
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      render(values[i], builder);
+    }
+    builder.append(']');
+  }
+
+  private static void quote(String value, StringBuilder builder) {
+    builder.append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+  }
+}
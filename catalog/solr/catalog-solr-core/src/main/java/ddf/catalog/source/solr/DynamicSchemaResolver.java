@@ -18,6 +18,7 @@
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import ddf.catalog.data.AttributeDescriptor;
 import ddf.catalog.data.AttributeType;
 import ddf.catalog.data.AttributeType.AttributeFormat;
@@ -27,12 +28,12 @@
 import ddf.catalog.data.impl.AttributeDescriptorImpl;
 import ddf.catalog.data.impl.MetacardTypeImpl;
 import ddf.catalog.data.types.experimental.Extracted;
+import ddf.catalog.source.solr.codec.ValueCodec;
+import ddf.catalog.source.solr.codec.ValueCodecRegistry;
 import ddf.catalog.source.solr.json.MetacardTypeMapperFactory;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.io.StringReader;
 import java.security.AccessController;
@@ -47,6 +48,9 @@
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.xml.stream.XMLInputFactory;
@@ -90,12 +94,21 @@ public class DynamicSchemaResolver {
 
   private static final int TOKEN_MAXIMUM_BYTES = 32766;
 
+  private static final int METACARD_TYPES_CACHE_SIZE = 4096;
+
+  private static final int MAX_METACARD_TYPES_LOAD_ATTEMPTS = 5;
+
+  private static final long METACARD_TYPES_LOAD_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(1);
+
   static final String PHONETICS_FEATURE = "phonetics";
 
   static final char FIRST_CHAR_OF_SUFFIX = '_';
 
   private static final String COULD_NOT_READ_METACARD_TYPE_MESSAGE = "Could not read MetacardType.";
 
+  private static final String COULD_NOT_STORE_METACARD_TYPE_MESSAGE =
+      "Could not store MetacardType.";
+
   private static final String FIELDS_KEY = "fields";
 
   private static final String COULD_NOT_SERIALIZE_OBJECT_MESSAGE = "Could not serialize object";
@@ -122,6 +135,27 @@ public class DynamicSchemaResolver {
 
   private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
 
+  private static final ThreadLocal<WKTReader> WKT_READER =
+      ThreadLocal.withInitial(() -> new WKTReader(GEOMETRY_FACTORY));
+
+  private static final String INDEX_STAGE_METRIC = "ddf.catalog.solr.index.stage";
+
+  private static final String STAGE_TAG = "stage";
+
+  private static final Timer XML_STAGE_TIMER = Metrics.timer(INDEX_STAGE_METRIC, STAGE_TAG, "xml");
+
+  private static final Timer TEXT_STAGE_TIMER =
+      Metrics.timer(INDEX_STAGE_METRIC, STAGE_TAG, "text");
+
+  private static final Timer GEOMETRY_STAGE_TIMER =
+      Metrics.timer(INDEX_STAGE_METRIC, STAGE_TAG, "geometry");
+
+  private static final Timer OBJECT_STAGE_TIMER =
+      Metrics.timer(INDEX_STAGE_METRIC, STAGE_TAG, "object");
+
+  private static final Timer METACARD_TYPE_STAGE_TIMER =
+      Metrics.timer(INDEX_STAGE_METRIC, STAGE_TAG, "metacard-type");
+
   private static final Logger LOGGER = LoggerFactory.getLogger(DynamicSchemaResolver.class);
 
   private static int metadataMaximumBytes;
@@ -147,7 +181,7 @@ public class DynamicSchemaResolver {
     }
   }
 
-  Set<String> fieldsCache = new HashSet<>();
+  Set<String> fieldsCache = ConcurrentHashMap.newKeySet();
 
   private Set<String> anyTextFields = new HashSet<>();
 
@@ -158,10 +192,17 @@ public class DynamicSchemaResolver {
   private SchemaFields schemaFields;
 
   private Cache<String, MetacardType> metacardTypesCache =
-      CacheBuilder.newBuilder().maximumSize(4096).initialCapacity(64).build();
+      CacheBuilder.newBuilder().maximumSize(METACARD_TYPES_CACHE_SIZE).initialCapacity(64).build();
 
   private Cache<String, byte[]> metacardTypeNameToSerialCache =
-      CacheBuilder.newBuilder().maximumSize(4096).initialCapacity(64).build();
+      CacheBuilder.newBuilder().maximumSize(METACARD_TYPES_CACHE_SIZE).initialCapacity(64).build();
+
+  private Cache<String, String> schemaNameToMetacardTypeKeyCache =
+      CacheBuilder.newBuilder().maximumSize(METACARD_TYPES_CACHE_SIZE).initialCapacity(64).build();
+
+  private volatile SolrMetacardTypeStore metacardTypeStore;
+
+  private final ValueCodecRegistry valueCodecs = new ValueCodecRegistry();
 
   public DynamicSchemaResolver(List<String> additionalFields) {
     schemaFields = new SchemaFields();
@@ -197,6 +238,28 @@ public static void addAdditionalFields(
         .forEach(field -> dynamicSchemaResolver.fieldsCache.add(field));
   }
 
+  /**
+   * Adds a codec used to store values of {@link AttributeFormat#OBJECT} attributes of its class.
+   *
+   * @see ValueCodecRegistry#register(ValueCodec)
+   */
+  public void registerValueCodec(ValueCodec<?> codec) {
+    valueCodecs.register(codec);
+  }
+
+  /**
+   * Stores metacard types in the given store instead of on each document. Documents then only
+   * reference their type by a key derived from its content. The types already in the store are
+   * loaded into the cache once it becomes available. Types that could not be loaded are read from
+   * the store the first time a document references them.
+   *
+   * @param store store used to persist metacard types
+   */
+  public void setMetacardTypeStore(SolrMetacardTypeStore store) {
+    this.metacardTypeStore = store;
+    store.whenAvailable(s -> loadMetacardTypesFromStore(s, 1));
+  }
+
   public void addAdditionalFields(List<AttributeDescriptor> additionalFields) {
     additionalFields.stream().forEach(this::addToFieldsCache);
   }
@@ -253,7 +316,11 @@ void addFieldsFromClient(SolrClient client) throws SolrServerException, IOExcept
     }
   }
 
-  /** Adds the fields of the Metacard into the {@link SolrInputDocument} */
+  /**
+   * Adds the fields of the Metacard into the {@link SolrInputDocument}. Safe to call concurrently;
+   * the time spent in each stage of building the document is recorded under {@value
+   * #INDEX_STAGE_METRIC}.
+   */
   void addFields(Metacard metacard, SolrInputDocument solrInputDocument)
       throws MetacardCreationException {
     MetacardType schema = metacard.getMetacardType();
@@ -272,7 +339,9 @@ void addFields(Metacard metacard, SolrInputDocument solrInputDocument)
               && solrInputDocument.getFieldValue(
                       formatIndexName + getSpecialIndexSuffix(AttributeFormat.STRING))
                   == null) {
+            long start = System.nanoTime();
             List<String> parsedTexts = parseTextFrom(attributeValues);
+            XML_STAGE_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
             // parsedTexts => *_txt_tokenized
             String specialStringIndexName =
@@ -284,10 +353,12 @@ void addFields(Metacard metacard, SolrInputDocument solrInputDocument)
               && solrInputDocument.getFieldValue(
                       ad.getName() + getFieldSuffix(AttributeFormat.STRING))
                   == null) {
+            long start = System.nanoTime();
             List<Serializable> truncatedValues =
                 attributeValues.stream()
                     .map(value -> value != null ? truncateAsUTF8(value.toString()) : value)
                     .collect(Collectors.toList());
+            TEXT_STAGE_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             // *_txt
             solrInputDocument.addField(
                 ad.getName() + getFieldSuffix(AttributeFormat.STRING), truncatedValues);
@@ -299,17 +370,17 @@ void addFields(Metacard metacard, SolrInputDocument solrInputDocument)
                     + getSpecialIndexSuffix(AttributeFormat.STRING),
                 attributeValues);
           } else if (AttributeFormat.OBJECT.equals(format)) {
-            ByteArrayOutputStream byteArrayOS = new ByteArrayOutputStream();
             List<Serializable> byteArrays = new ArrayList<>();
+            long start = System.nanoTime();
 
-            try (ObjectOutputStream out = new ObjectOutputStream(byteArrayOS)) {
+            try {
               for (Serializable serializable : attributeValues) {
-                out.writeObject(serializable);
-                byteArrays.add(byteArrayOS.toByteArray());
-                out.reset();
+                byteArrays.add(valueCodecs.encode(serializable));
               }
             } catch (IOException e) {
               throw new MetacardCreationException(COULD_NOT_SERIALIZE_OBJECT_MESSAGE, e);
+            } finally {
+              OBJECT_STAGE_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
 
             attributeValues = byteArrays;
@@ -318,8 +389,10 @@ void addFields(Metacard metacard, SolrInputDocument solrInputDocument)
           if (AttributeFormat.GEOMETRY.equals(format)
               && solrInputDocument.getFieldValue(formatIndexName + SchemaFields.SORT_SUFFIX)
                   == null) {
-            solrInputDocument.addField(
-                formatIndexName + SchemaFields.SORT_SUFFIX, createCenterPoint(attributeValues));
+            long start = System.nanoTime();
+            String centerPoint = createCenterPoint(attributeValues);
+            GEOMETRY_STAGE_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            solrInputDocument.addField(formatIndexName + SchemaFields.SORT_SUFFIX, centerPoint);
           }
 
           if (AttributeFormat.STRING.equals(format)
@@ -350,23 +423,84 @@ void addFields(Metacard metacard, SolrInputDocument solrInputDocument)
      * Lastly the metacardType must be added to the solr document. These are internal fields
      */
     String schemaName = String.format("%s#%s", schema.getName(), schema.hashCode());
-    solrInputDocument.addField(SchemaFields.METACARD_TYPE_FIELD_NAME, schemaName);
-    byte[] metacardTypeBytes = metacardTypeNameToSerialCache.getIfPresent(schemaName);
+    SolrMetacardTypeStore store = metacardTypeStore;
+    String metacardTypeKey = schemaNameToMetacardTypeKeyCache.getIfPresent(schemaName);
 
-    if (metacardTypeBytes == null) {
+    if (metacardTypeKey == null) {
+      long start = System.nanoTime();
       MetacardType coreMetacardType =
           new MetacardTypeImpl(
               schema.getName(), convertAttributeDescriptors(schema.getAttributeDescriptors()));
+      byte[] metacardTypeBytes = serialize(coreMetacardType);
 
-      metacardTypesCache.put(schemaName, coreMetacardType);
+      if (store == null) {
+        metacardTypeKey = schemaName;
+        metacardTypeNameToSerialCache.put(metacardTypeKey, metacardTypeBytes);
+      } else {
+        metacardTypeKey =
+            String.format("%s#%s", schema.getName(), Hashing.sha256().hashBytes(metacardTypeBytes));
+        storeMetacardType(store, metacardTypeKey, metacardTypeBytes);
+      }
 
-      metacardTypeBytes = serialize(coreMetacardType);
-      metacardTypeNameToSerialCache.put(schemaName, metacardTypeBytes);
+      metacardTypesCache.put(metacardTypeKey, coreMetacardType);
+      schemaNameToMetacardTypeKeyCache.put(schemaName, metacardTypeKey);
 
       addToFieldsCache(coreMetacardType.getAttributeDescriptors());
+      METACARD_TYPE_STAGE_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    solrInputDocument.addField(SchemaFields.METACARD_TYPE_FIELD_NAME, metacardTypeKey);
+
+    if (store == null) {
+      solrInputDocument.addField(
+          SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME,
+          metacardTypeNameToSerialCache.getIfPresent(metacardTypeKey));
     }
+  }
 
-    solrInputDocument.addField(SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME, metacardTypeBytes);
+  private void storeMetacardType(SolrMetacardTypeStore store, String key, byte[] metacardType)
+      throws MetacardCreationException {
+    try {
+      if (store.get(key) == null) {
+        store.add(key, metacardType);
+      }
+    } catch (SolrServerException | SolrException | IOException e) {
+      throw new MetacardCreationException(COULD_NOT_STORE_METACARD_TYPE_MESSAGE, e);
+    }
+  }
+
+  /**
+   * Loads the stored metacard types, retrying with an exponential backoff a limited number of times
+   * since the store reports being available again right away when the failure is not caused by the
+   * core being down.
+   */
+  private void loadMetacardTypesFromStore(SolrMetacardTypeStore store, int attempt) {
+    try {
+      store.forEach(METACARD_TYPES_CACHE_SIZE, this::cacheStoredMetacardType);
+    } catch (SolrServerException | SolrException | IOException e) {
+      if (attempt >= MAX_METACARD_TYPES_LOAD_ATTEMPTS) {
+        LOGGER.info(
+            "Could not load metacard types from the store after {} attempts. They will be read from the store as they are needed.",
+            attempt,
+            e);
+        return;
+      }
+
+      long delay = METACARD_TYPES_LOAD_RETRY_DELAY_MS << (attempt - 1);
+      LOGGER.trace("Could not load metacard types from the store, retrying in {} ms", delay, e);
+      CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+          .execute(() -> store.whenAvailable(s -> loadMetacardTypesFromStore(s, attempt + 1)));
+    }
+  }
+
+  private void cacheStoredMetacardType(String key, byte[] bytes) {
+    try {
+      MetacardType metacardType = METACARD_TYPE_MAPPER.readValue(bytes, MetacardType.class);
+      metacardTypesCache.put(key, metacardType);
+      addToFieldsCache(metacardType.getAttributeDescriptors());
+    } catch (IOException e) {
+      LOGGER.info("IO exception loading stored metacard type {}", key, e);
+    }
   }
 
   private String truncate(String value, int length) {
@@ -410,7 +544,7 @@ private String truncateAsUTF8(String value) {
   }
 
   private String createCenterPoint(List<Serializable> values) {
-    WKTReader reader = new WKTReader(GEOMETRY_FACTORY);
+    WKTReader reader = WKT_READER.get();
     List<Geometry> geometries = new ArrayList<>();
 
     for (Serializable serializable : values) {
@@ -493,8 +627,6 @@ List<Serializable> getDocValues(String solrFieldName, Collection<Object> docValu
     return values;
   }
 
-  @SuppressWarnings(
-      "squid:S2093" /* try-with-resource will throw IOException with InputStream and we do not care to get that exception */)
   private Serializable getDocValue(String solrFieldName, Object docValue) {
 
     AttributeFormat format = getType(solrFieldName);
@@ -507,22 +639,10 @@ private Serializable getDocValue(String solrFieldName, Object docValue) {
        */
       return Short.parseShort(docValue.toString());
     } else if (AttributeFormat.OBJECT.equals(format)) {
-
-      ByteArrayInputStream bais = null;
-      ObjectInputStream in = null;
-
       try {
-        bais = new ByteArrayInputStream((byte[]) docValue);
-        in = new ObjectInputStream(bais);
-        return (Serializable) in.readObject();
+        return valueCodecs.decode((byte[]) docValue);
       } catch (IOException e) {
         LOGGER.info("IO exception loading input document", e);
-      } catch (ClassNotFoundException e) {
-        LOGGER.info("Could not create object to return.", e);
-        // TODO which exception to throw?
-      } finally {
-        IOUtils.closeQuietly(bais);
-        IOUtils.closeQuietly(in);
       }
 
       return null;
@@ -640,6 +760,14 @@ public MetacardType getMetacardType(SolrDocument doc) throws MetacardCreationExc
     }
 
     byte[] bytes = (byte[]) doc.getFirstValue(SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME);
+    if (bytes == null) {
+      bytes = getStoredMetacardType(mTypeFieldName);
+    }
+    if (bytes == null) {
+      LOGGER.info("No metacard type found for {}", mTypeFieldName);
+      throw new MetacardCreationException(COULD_NOT_READ_METACARD_TYPE_MESSAGE);
+    }
+
     try {
       cachedMetacardType = METACARD_TYPE_MAPPER.readValue(bytes, MetacardType.class);
     } catch (IOException e) {
@@ -647,13 +775,51 @@ public MetacardType getMetacardType(SolrDocument doc) throws MetacardCreationExc
       throw new MetacardCreationException(COULD_NOT_READ_METACARD_TYPE_MESSAGE);
     }
 
-    metacardTypeNameToSerialCache.put(mTypeFieldName, bytes);
     metacardTypesCache.put(mTypeFieldName, cachedMetacardType);
     addToFieldsCache(cachedMetacardType.getAttributeDescriptors());
 
     return cachedMetacardType;
   }
 
+  private byte[] getStoredMetacardType(String key) throws MetacardCreationException {
+    SolrMetacardTypeStore store = metacardTypeStore;
+    if (store == null) {
+      return null;
+    }
+
+    try {
+      return store.get(key);
+    } catch (SolrServerException | SolrException | IOException e) {
+      throw new MetacardCreationException(COULD_NOT_READ_METACARD_TYPE_MESSAGE, e);
+    }
+  }
+
+  /**
+   * @return true if the {@link MetacardType} of the document can be read without its object, either
+   *     from the cache or from the metacard type store
+   */
+  boolean isMetacardTypeAvailable(SolrDocument doc) {
+    Object mTypeFieldName = doc.getFirstValue(SchemaFields.METACARD_TYPE_FIELD_NAME);
+    if (mTypeFieldName == null) {
+      return false;
+    }
+
+    String key = mTypeFieldName.toString();
+    if (metacardTypesCache.getIfPresent(key) != null) {
+      return true;
+    }
+
+    try {
+      byte[] bytes = getStoredMetacardType(key);
+      if (bytes != null) {
+        cacheStoredMetacardType(key, bytes);
+      }
+    } catch (MetacardCreationException e) {
+      LOGGER.debug("Could not read metacard type {} from the store", key, e);
+    }
+    return metacardTypesCache.getIfPresent(key) != null;
+  }
+
   String getCaseSensitiveField(
       String mappedPropertyName, Map<String, Serializable> enabledFeatures) {
     if (isPhoneticsEnabled(enabledFeatures)
@@ -820,6 +986,10 @@ private List<String> parseTextFrom(List<Serializable> xmlDatas) {
         }
         parsedTexts.add(builder.toString());
         builder.setLength(0);
+
+        // closing each reader hands its buffers back to the parser for reuse by the next value
+        xmlStreamReader.close();
+        xmlStreamReader = null;
       }
     } catch (XMLStreamException e1) {
       LOGGER.info(
@@ -872,6 +1042,14 @@ Stream<String> anyTextFields() {
     return anyTextFields.stream();
   }
 
+  /**
+   * @return a value that changes whenever a field becomes known to the resolver; fields are never
+   *     forgotten, so the number of known fields is enough
+   */
+  int getFieldsVersion() {
+    return fieldsCache.size();
+  }
+
   private Set<String> getAnyTextFields() {
     String property =
         AccessController.doPrivileged(
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.AttributeDescriptor;
+import ddf.catalog.data.AttributeType.AttributeFormat;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.filter.impl.SimpleFilterDelegate;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Tells whether a filter could match a metacard. The answer is only {@code false} when the filter
+ * certainly does not match, e.g. because it compares an attribute the metacard does not have or
+ * requires an exact value the metacard does not hold; anything that cannot be decided locally is
+ * answered with {@code true}.
+ */
+class MetacardMatchDelegate extends SimpleFilterDelegate<Boolean> {
+
+  /** Longer values may have been truncated when indexed, so they are not compared exactly. */
+  private static final int MAX_COMPARED_LENGTH = 8192;
+
+  private final Metacard metacard;
+
+  MetacardMatchDelegate(Metacard metacard) {
+    this.metacard = metacard;
+  }
+
+  @Override
+  public <S> Boolean defaultOperation(
+      Object property, S literal, Class<S> literalClass, Enum operation) {
+    if (!(property instanceof String)
+        || operation == ComparisonPropertyOperation.IS_NOT_EQUAL_TO
+        || operation == ComparisonPropertyOperation.IS_NULL
+        || operation == SpatialPropertyOperation.DISJOINT
+        || operation == SpatialPropertyOperation.BEYOND
+        || operation instanceof XPathPropertyOperation
+        || operation instanceof FunctionOperation) {
+      return true;
+    }
+    return isIndirect((String) property) || getValues((String) property) != null;
+  }
+
+  @Override
+  public Boolean and(List<Boolean> operands) {
+    return operands.stream().allMatch(Boolean::booleanValue);
+  }
+
+  @Override
+  public Boolean or(List<Boolean> operands) {
+    return operands.stream().anyMatch(Boolean::booleanValue);
+  }
+
+  @Override
+  public Boolean not(Boolean operand) {
+    return true;
+  }
+
+  @Override
+  public Boolean include() {
+    return true;
+  }
+
+  @Override
+  public Boolean exclude() {
+    return false;
+  }
+
+  @Override
+  public Boolean propertyIsEqualTo(String propertyName, String literal, boolean isCaseSensitive) {
+    if (literal.isEmpty()) {
+      // an empty literal selects the metacards without the attribute
+      return true;
+    } else if (isIndirect(propertyName) || !isString(propertyName)) {
+      return defaultOperation(
+          propertyName, literal, String.class, ComparisonPropertyOperation.IS_EQUAL_TO);
+    }
+
+    List<Serializable> values = getValues(propertyName);
+    if (values == null) {
+      return false;
+    }
+
+    for (Serializable value : values) {
+      if (!(value instanceof String)
+          || ((String) value).length() > MAX_COMPARED_LENGTH
+          || (isCaseSensitive ? literal.equals(value) : literal.equalsIgnoreCase((String) value))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isString(String propertyName) {
+    AttributeDescriptor descriptor =
+        metacard.getMetacardType().getAttributeDescriptor(propertyName);
+    return descriptor != null
+        && descriptor.getType().getAttributeFormat() == AttributeFormat.STRING;
+  }
+
+  private List<Serializable> getValues(String propertyName) {
+    Attribute attribute = metacard.getAttribute(propertyName);
+    return (attribute == null || attribute.getValue() == null) ? null : attribute.getValues();
+  }
+
+  /** @return true if the property is not matched against a single attribute of the same name */
+  private static boolean isIndirect(String propertyName) {
+    return Metacard.ANY_TEXT.equals(propertyName)
+        || Metacard.ANY_GEO.equals(propertyName)
+        || Metacard.ANY_DATE.equals(propertyName)
+        || propertyName.startsWith("/")
+        || propertyName.contains("*")
+        || propertyName.contains("[");
+  }
+}
@@ -43,6 +43,7 @@
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -52,6 +53,7 @@
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.Validate;
@@ -98,6 +100,8 @@ public class SolrCatalogProviderImpl extends MaskableImpl implements CatalogProv
 
   private final SolrMetacardClientImpl client;
 
+  @Nullable private final SolrQueryCache queryCache;
+
   /**
    * Constructor that creates a new instance and allows for a custom {@link DynamicSchemaResolver}
    *
@@ -123,6 +127,7 @@ public SolrCatalogProviderImpl(
     solr.whenAvailable(this::addFieldsFromClientToResolver);
     this.client =
         new ProviderSolrMetacardClient(solrClient, adapter, solrFilterDelegateFactory, resolver);
+    this.queryCache = SolrQueryCache.fromSystemProperties(adapter);
   }
 
   @Override
@@ -188,7 +193,8 @@ public void maskId(String id) {
   @Override
   public SourceResponse query(QueryRequest request) throws UnsupportedQueryException {
     long startTime = System.currentTimeMillis();
-    SourceResponse response = client.query(request);
+    SourceResponse response =
+        queryCache == null ? client.query(request) : queryCache.query(request, client::query);
     LOGGER.debug("Time elapsed for Query {} ms", System.currentTimeMillis() - startTime);
     return response;
   }
@@ -230,6 +236,8 @@ public CreateResponse create(CreateRequest request) throws IngestException {
     } catch (SolrServerException | SolrException | IOException | MetacardCreationException e) {
       LOGGER.info("Solr could not ingest metacard(s) during create.", e);
       throw new IngestException("Could not ingest metacard(s).", e);
+    } finally {
+      invalidateQueryCache(output, client.getVisibilityDelayMillis(output, isForcedAutoCommit()));
     }
     LOGGER.debug(
         "Time elapsed to create {} metacards is {} ms",
@@ -312,6 +320,14 @@ public UpdateResponse update(UpdateRequest updateRequest) throws IngestException
     } catch (SolrServerException | SolrException | IOException | MetacardCreationException e) {
       LOGGER.info("Failed to update metacard(s) with Solr.", e);
       throw new IngestException("Failed to update metacard(s).");
+    } finally {
+      List<Metacard> updatedMetacards = new ArrayList<>();
+      for (Update update : updateList) {
+        updatedMetacards.add(update.getOldMetacard());
+        updatedMetacards.add(update.getNewMetacard());
+      }
+      invalidateQueryCache(
+          updatedMetacards, client.getVisibilityDelayMillis(newMetacards, isForcedAutoCommit()));
     }
 
     return new UpdateResponseImpl(updateRequest, updateRequest.getProperties(), updateList);
@@ -335,26 +351,38 @@ public DeleteResponse delete(DeleteRequest deleteRequest) throws IngestException
       return new DeleteResponseImpl(deleteRequest, null, deletedMetacards);
     }
 
-    if (identifiers.size() <= MAX_BOOLEAN_CLAUSES) {
-      deleteListOfMetacards(deletedMetacards, identifiers, attributeName);
-    } else {
-      List<? extends Serializable> identifierPaged;
-      int currPagingSize;
-
-      for (currPagingSize = MAX_BOOLEAN_CLAUSES;
-          currPagingSize < identifiers.size();
-          currPagingSize += MAX_BOOLEAN_CLAUSES) {
-        identifierPaged = identifiers.subList(currPagingSize - MAX_BOOLEAN_CLAUSES, currPagingSize);
+    try {
+      if (identifiers.size() <= MAX_BOOLEAN_CLAUSES) {
+        deleteListOfMetacards(deletedMetacards, identifiers, attributeName);
+      } else {
+        List<? extends Serializable> identifierPaged;
+        int currPagingSize;
+
+        for (currPagingSize = MAX_BOOLEAN_CLAUSES;
+            currPagingSize < identifiers.size();
+            currPagingSize += MAX_BOOLEAN_CLAUSES) {
+          identifierPaged =
+              identifiers.subList(currPagingSize - MAX_BOOLEAN_CLAUSES, currPagingSize);
+          deleteListOfMetacards(deletedMetacards, identifierPaged, attributeName);
+        }
+        identifierPaged =
+            identifiers.subList(currPagingSize - MAX_BOOLEAN_CLAUSES, identifiers.size());
         deleteListOfMetacards(deletedMetacards, identifierPaged, attributeName);
       }
-      identifierPaged =
-          identifiers.subList(currPagingSize - MAX_BOOLEAN_CLAUSES, identifiers.size());
-      deleteListOfMetacards(deletedMetacards, identifierPaged, attributeName);
+    } finally {
+      // deletes are committed before they return
+      invalidateQueryCache(deletedMetacards, 0);
     }
 
     return new DeleteResponseImpl(deleteRequest, null, deletedMetacards);
   }
 
+  private void invalidateQueryCache(List<Metacard> metacards, long visibleInMillis) {
+    if (queryCache != null) {
+      queryCache.invalidate(metacards, visibleInMillis);
+    }
+  }
+
   private void addFieldsFromClientToResolver(SolrClient client) {
     try {
       resolver.addFieldsFromClient(client);
@@ -458,7 +486,7 @@ private List<Metacard> getMetacards(
           identifierPaged.stream()
               .filter(Objects::nonNull)
               .map(Object::toString)
-              .collect(Collectors.toSet());
+              .collect(Collectors.toCollection(LinkedHashSet::new));
       try {
         return client.getIds(ids);
       } catch (UnsupportedQueryException e) {
@@ -503,6 +531,7 @@ private boolean isForcedAutoCommit() {
   }
 
   public void shutdown() {
+    client.shutdown();
     LOGGER.debug("Closing down Solr client.");
     try {
       solr.close();
@@ -0,0 +1,327 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import com.google.common.annotations.VisibleForTesting;
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.MetacardType;
+import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.apache.solr.common.SolrDocument;
+
+/**
+ * A {@link Metacard} backed by the {@link SolrDocument} returned for it by a query. Each attribute
+ * is only decoded from the document the first time it is read. Setting an attribute decodes the
+ * whole document into a {@link MetacardImpl} that holds the attributes from then on, so the
+ * document itself is never modified by callers. The document is released as soon as all of its
+ * attributes have been decoded, so only metacards that have not been fully read keep it.
+ *
+ * <p>When the query only returned some of the attributes, reading any other attribute first adds
+ * the rest of the document using the {@link Loader} set for the page of results the metacard came
+ * from. The fields it adds are held until they are decoded in turn.
+ */
+class SolrDocumentMetacard extends MetacardImpl {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The document returned by the query, {@code null} once all its attributes are decoded. */
+  private transient SolrDocument doc;
+
+  private final transient DynamicSchemaResolver resolver;
+
+  /** The Solr field holding each attribute of the document. */
+  private final transient Map<String, String> fields = new HashMap<>();
+
+  private final transient Map<String, Attribute> decodedAttributes = new HashMap<>();
+
+  private transient volatile Set<String> returnedAttributes;
+
+  private transient volatile Loader loader;
+
+  private transient MetacardImpl metacard;
+
+  /**
+   * @param doc the document returned by the query
+   * @param metacardType the type of the metacard
+   * @param resolver used to decode the fields of the document
+   */
+  SolrDocumentMetacard(
+      SolrDocument doc, MetacardType metacardType, DynamicSchemaResolver resolver) {
+    super(metacardType);
+    this.doc = doc;
+    this.resolver = resolver;
+    doc.getFieldNames().forEach(this::addField);
+  }
+
+  /** Copies the fields and decoded attributes of the original, but not its loader. */
+  private SolrDocumentMetacard(SolrDocumentMetacard original) {
+    super(original.getMetacardType());
+    this.resolver = original.resolver;
+    if (original.doc != null) {
+      this.doc = new SolrDocument();
+      this.doc.putAll(original.doc);
+    }
+    this.fields.putAll(original.fields);
+    original.decodedAttributes.forEach(
+        (name, attribute) ->
+            decodedAttributes.put(name, attribute == null ? null : new AttributeImpl(attribute)));
+    setSourceId(original.getSourceId());
+  }
+
+  @Override
+  public Attribute getAttribute(String name) {
+    Set<String> returned = returnedAttributes;
+    if (returned != null && !returned.contains(name)) {
+      load();
+    }
+
+    synchronized (this) {
+      if (metacard != null) {
+        return metacard.getAttribute(name);
+      }
+      Attribute attribute = decode(name);
+      releaseDocumentIfDecoded();
+      return attribute;
+    }
+  }
+
+  @Override
+  public void setAttribute(Attribute attribute) {
+    if (attribute == null) {
+      return;
+    }
+
+    load();
+    synchronized (this) {
+      getMetacard().setAttribute(attribute);
+    }
+  }
+
+  /** Adds the fields of the complete document that were not returned by the query. */
+  synchronized void addFields(SolrDocument completeDoc) {
+    for (String field : completeDoc.getFieldNames()) {
+      if (!isKnownField(field)) {
+        if (doc == null) {
+          doc = new SolrDocument();
+        }
+        doc.setField(field, completeDoc.getFieldValue(field));
+        String name = addField(field);
+        if (name != null && metacard != null && metacard.getAttribute(name) == null) {
+          metacard.setAttribute(decode(name));
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets the loader used to add the attributes that the query did not return.
+   *
+   * @param returnedAttributes the names of the attributes the query returned
+   * @param loader loads the attributes the query did not return
+   */
+  void setLoader(Set<String> returnedAttributes, Loader loader) {
+    this.loader = loader;
+    this.returnedAttributes = returnedAttributes;
+  }
+
+  /** Called by the {@link Loader} once it has added the remaining fields, or failed to. */
+  void setLoaded() {
+    loader = null;
+    returnedAttributes = null;
+    synchronized (this) {
+      releaseDocumentIfDecoded();
+    }
+  }
+
+  /**
+   * Decodes every attribute held by the document, so that the document is released now rather than
+   * when the attributes are read. Attributes the query did not return are still loaded when read.
+   */
+  synchronized void decodeAll() {
+    if (metacard == null) {
+      fields.keySet().forEach(this::decode);
+      releaseDocumentIfDecoded();
+    }
+  }
+
+  /**
+   * Copies the metacard without decoding the attributes that have not been read yet. When the query
+   * did not return all the attributes, copies made with the same map share a loader, so that the
+   * rest of their attributes are loaded together like those of the page of results the metacards
+   * came from.
+   *
+   * @param copyLoaders the loaders of the copies, by the loader of the metacard they were copied
+   *     from
+   */
+  Metacard copy(Map<Loader, PageLoader> copyLoaders) {
+    Loader pending = loader;
+    if (pending != null && !(pending instanceof PageLoader)) {
+      pending.load();
+    }
+
+    synchronized (this) {
+      if (metacard != null) {
+        MetacardImpl copy = new MetacardImpl(getMetacardType());
+        copy.setSourceId(getSourceId());
+        MetacardImpl complete = getMetacard();
+        for (String name : fields.keySet()) {
+          Attribute attribute = complete.getAttribute(name);
+          if (attribute != null) {
+            copy.setAttribute(new AttributeImpl(attribute));
+          }
+        }
+        return copy;
+      }
+
+      SolrDocumentMetacard copy = new SolrDocumentMetacard(this);
+      pending = loader;
+      if (pending instanceof PageLoader) {
+        PageLoader copyLoader =
+            copyLoaders.computeIfAbsent(pending, page -> ((PageLoader) page).newLoader());
+        copyLoader.add(copy.getId(), copy);
+        copy.setLoader(returnedAttributes, copyLoader);
+      }
+      return copy;
+    }
+  }
+
+  /**
+   * Passes each value held by the metacard to the consumer, as it is held, without decoding the
+   * attributes that have not been read yet.
+   */
+  synchronized void forEachHeldValue(Consumer<Object> consumer) {
+    if (metacard != null) {
+      for (String name : fields.keySet()) {
+        Attribute attribute = metacard.getAttribute(name);
+        if (attribute != null) {
+          attribute.getValues().forEach(consumer);
+        }
+      }
+      return;
+    }
+
+    if (doc != null) {
+      for (String field : doc.getFieldNames()) {
+        doc.getFieldValues(field).forEach(consumer);
+      }
+    }
+    for (Attribute attribute : decodedAttributes.values()) {
+      if (attribute != null) {
+        attribute.getValues().forEach(consumer);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  synchronized boolean holdsDocument() {
+    return doc != null;
+  }
+
+  private void load() {
+    Loader pending = loader;
+    if (pending != null) {
+      pending.load();
+    }
+  }
+
+  private boolean isKnownField(String field) {
+    return resolver.isPrivateField(field)
+        || field.equals(fields.get(resolver.resolveFieldName(field)));
+  }
+
+  private String addField(String field) {
+    if (resolver.isPrivateField(field)) {
+      return null;
+    }
+
+    String name = resolver.resolveFieldName(field);
+    fields.put(name, field);
+    decodedAttributes.remove(name);
+    return name;
+  }
+
+  private Attribute decode(String name) {
+    if (decodedAttributes.containsKey(name)) {
+      return decodedAttributes.get(name);
+    }
+
+    Attribute attribute = null;
+    String field = fields.get(name);
+    if (field != null) {
+      Collection<Object> fieldValues = doc.getFieldValues(field);
+      Attribute decoded = new AttributeImpl(name, resolver.getDocValues(field, fieldValues));
+      if (decoded.getValue() != null) {
+        attribute = decoded;
+      }
+    }
+
+    decodedAttributes.put(name, attribute);
+    return attribute;
+  }
+
+  private MetacardImpl getMetacard() {
+    if (metacard == null) {
+      metacard = new MetacardImpl(getMetacardType());
+      for (String name : fields.keySet()) {
+        metacard.setAttribute(decode(name));
+      }
+      decodedAttributes.clear();
+      releaseDocumentIfDecoded();
+    }
+    return metacard;
+  }
+
+  /**
+   * Drops the document once every attribute it holds has been decoded. Fields the {@link Loader}
+   * adds later are held in a new document until they are decoded too.
+   */
+  private void releaseDocumentIfDecoded() {
+    if (doc != null
+        && (metacard != null || decodedAttributes.keySet().containsAll(fields.keySet()))) {
+      doc = null;
+    }
+  }
+
+  /** Serializes the complete metacard as a plain {@link MetacardImpl}. */
+  private Object writeReplace() {
+    load();
+    synchronized (this) {
+      MetacardImpl complete = getMetacard();
+      complete.setSourceId(getSourceId());
+      return complete;
+    }
+  }
+
+  /** Loads the attributes that were not returned by the query. */
+  @FunctionalInterface
+  interface Loader {
+    void load();
+  }
+
+  /** Loads the attributes that were not returned by the query for a page of results at once. */
+  interface PageLoader extends Loader {
+
+    /** Adds a metacard of the page. */
+    void add(String id, SolrDocumentMetacard metacard);
+
+    /** @return an empty loader reading from the same place as this one */
+    PageLoader newLoader();
+  }
+}
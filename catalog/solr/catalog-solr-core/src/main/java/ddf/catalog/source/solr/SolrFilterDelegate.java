@@ -1064,4 +1064,16 @@ public boolean isIdQuery() {
   public Set<String> getIds() {
     return Collections.unmodifiableSet(ids);
   }
+
+  /**
+   * Restores the state another delegate built up while translating the same filter, for when the
+   * translation is reused instead of repeated.
+   */
+  void restoreTranslationState(
+      boolean isSortedByDistance, String sortedDistancePoint, boolean isIdQuery, Set<String> ids) {
+    this.isSortedByDistance = isSortedByDistance;
+    this.sortedDistancePoint = sortedDistancePoint;
+    this.isIdQuery = isIdQuery;
+    this.ids.addAll(ids);
+  }
 }
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static ddf.catalog.source.solr.SolrMetacardClientImpl.accessProperty;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import ddf.catalog.filter.FilterAdapter;
+import ddf.catalog.source.UnsupportedQueryException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.opengis.filter.Filter;
+import org.opengis.filter.sort.SortBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reuses the {@link SolrQuery} a {@link SolrFilterDelegate} produced for a filter when the same
+ * filter is queried again, instead of walking it, resolving its fields and parsing its geometries
+ * once more.
+ *
+ * <p>Translations are keyed by a rendering of the filter that keeps every literal, since how a
+ * literal is translated depends on its content (wildcards, quoted phrases, empty strings, geometry
+ * types, ids). The key also holds the sort properties, the enabled features the translation reads
+ * and the version of the fields known to the {@link DynamicSchemaResolver}. Filters with relative
+ * temporal operations are translated against the current time and are never reused.
+ *
+ * <p>Because the key holds the literals, only queries repeating the exact same filter, such as
+ * polling or saved searches, reuse a translation; ad-hoc queries that only share the shape of a
+ * filter each take an entry. The cache is therefore disabled unless it is given a size.
+ */
+class SolrFilterTranslationCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SolrFilterTranslationCache.class);
+
+  private static final String METRIC_NAME = "ddf.catalog.solr.query.translation.cache";
+
+  private static final String SOLR_QUERY_TRANSLATION_CACHE_SIZE =
+      "solr.query.translationCache.size";
+
+  private final FilterAdapter filterAdapter;
+
+  private final DynamicSchemaResolver resolver;
+
+  private final Cache<String, Translation> cache;
+
+  SolrFilterTranslationCache(
+      FilterAdapter filterAdapter, DynamicSchemaResolver resolver, long maximumSize, String name) {
+    this.filterAdapter = filterAdapter;
+    this.resolver = resolver;
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+
+    GuavaCacheMetrics.monitor(Metrics.globalRegistry, cache, METRIC_NAME, Tags.of("client", name));
+  }
+
+  /**
+   * @return a cache sized by the {@code solr.query.translationCache.size} system property, or
+   *     {@code null} if the size is 0 or not set
+   */
+  @Nullable
+  static SolrFilterTranslationCache fromSystemProperties(
+      FilterAdapter filterAdapter, DynamicSchemaResolver resolver, String name) {
+    long maximumSize =
+        NumberUtils.toLong(accessProperty(SOLR_QUERY_TRANSLATION_CACHE_SIZE, "0"));
+    if (maximumSize <= 0) {
+      return null;
+    }
+    return new SolrFilterTranslationCache(filterAdapter, resolver, maximumSize, name);
+  }
+
+  /**
+   * Translates the filter with the delegate, or restores a previous translation of the same filter
+   * into the delegate.
+   *
+   * @param sortBys the sort policy already set on the delegate
+   * @param enabledFeatures the features the delegate was created with
+   * @return a query the caller may modify
+   */
+  SolrQuery translate(
+      Filter filter,
+      SolrFilterDelegate delegate,
+      List<SortBy> sortBys,
+      Map<String, Serializable> enabledFeatures)
+      throws UnsupportedQueryException {
+    // a delegate subclass may carry state that is not restored
+    String key =
+        delegate.getClass() == SolrFilterDelegate.class
+            ? getKey(filter, sortBys, enabledFeatures)
+            : null;
+    if (key == null) {
+      return filterAdapter.adapt(filter, delegate);
+    }
+
+    Translation translation = cache.getIfPresent(key);
+    if (translation != null) {
+      return translation.restore(delegate);
+    }
+
+    SolrQuery query = filterAdapter.adapt(filter, delegate);
+    if (query != null) {
+      cache.put(key, new Translation(query, delegate));
+    }
+    return query;
+  }
+
+  @Nullable
+  private String getKey(
+      Filter filter, List<SortBy> sortBys, Map<String, Serializable> enabledFeatures) {
+    String rendered;
+    try {
+      rendered = filterAdapter.adapt(filter, new TranslationKeyDelegate());
+    } catch (UnsupportedQueryException | RuntimeException e) {
+      LOGGER.trace("Not reusing the translation of a filter that could not be rendered", e);
+      return null;
+    }
+    if (rendered == null) {
+      return null;
+    }
+
+    StringBuilder key = new StringBuilder(rendered).append('|');
+    for (SortBy sortBy : sortBys) {
+      key.append(
+              sortBy.getPropertyName() == null ? null : sortBy.getPropertyName().getPropertyName())
+          .append(';');
+    }
+
+    Serializable phonetics =
+        enabledFeatures == null
+            ? null
+            : enabledFeatures.get(DynamicSchemaResolver.PHONETICS_FEATURE);
+    return key.append('|')
+        .append(phonetics)
+        .append('|')
+        .append(resolver.getFieldsVersion())
+        .toString();
+  }
+
+  /** Renders filters in visiting order and refuses the ones translated against the current time. */
+  private static class TranslationKeyDelegate extends CanonicalFilterDelegate {
+
+    private TranslationKeyDelegate() {
+      // the last spatial operation visited decides the distance sort point
+      super(false);
+    }
+
+    @Override
+    public String relative(String propertyName, long duration) {
+      throw new UnsupportedOperationException("Relative temporal operations are not reused.");
+    }
+  }
+
+  private static class Translation {
+
+    private final SolrQuery query;
+
+    private final boolean isSortedByDistance;
+
+    private final String sortedDistancePoint;
+
+    private final boolean isIdQuery;
+
+    private final Set<String> ids;
+
+    private Translation(SolrQuery query, SolrFilterDelegate delegate) {
+      this.query = query.getCopy();
+      this.isSortedByDistance = delegate.isSortedByDistance();
+      this.sortedDistancePoint = delegate.getSortedDistancePoint();
+      this.isIdQuery = delegate.isIdQuery();
+      this.ids = Collections.unmodifiableSet(new HashSet<>(delegate.getIds()));
+    }
+
+    private SolrQuery restore(SolrFilterDelegate delegate) {
+      delegate.restoreTranslationState(isSortedByDistance, sortedDistancePoint, isIdQuery, ids);
+      return query.getCopy();
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Merges the documents of concurrent writes into shared Solr update requests.
+ *
+ * <p>The first caller to find no batch being collected becomes its leader: it waits until {@code
+ * maxDocuments} documents are pending or {@code maxDelayMillis} have passed, then sends everything
+ * pending while the next caller starts collecting the following batch. Every caller returns once
+ * the request holding its documents has been acknowledged by Solr. Documents are grouped by their
+ * {@link Visibility} within a batch so that each group is sent with the same commit options it
+ * would have been sent with on its own.
+ */
+class SolrGroupCommitter {
+
+  private static final DistributionSummary BATCH_SIZE =
+      Metrics.summary("ddf.catalog.solr.index.group.size");
+
+  /** How soon the documents of a write must become visible to searches. */
+  enum Visibility {
+    /** Visible after the next commit configured on the Solr server. */
+    DEFAULT,
+    /** Visible within the near real time commit window. */
+    NEAR_REAL_TIME,
+    /** Visible as soon as the write returns. */
+    IMMEDIATE
+  }
+
+  /** Sends documents to Solr. */
+  @FunctionalInterface
+  interface Writer {
+    void write(List<SolrInputDocument> docs, Visibility visibility)
+        throws SolrServerException, IOException;
+  }
+
+  private final Writer writer;
+
+  private final int maxDocuments;
+
+  private final long maxDelayNanos;
+
+  private final Object lock = new Object();
+
+  private List<PendingWrite> pending = new ArrayList<>();
+
+  private int pendingDocuments;
+
+  private boolean collecting;
+
+  SolrGroupCommitter(Writer writer, int maxDocuments, long maxDelayMillis) {
+    this.writer = writer;
+    this.maxDocuments = maxDocuments;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+  }
+
+  /**
+   * Writes the documents as part of a shared batch, returning once the batch has been written.
+   *
+   * @throws IOException if the batch could not be written, or if interrupted while waiting for it
+   * @throws SolrServerException if Solr rejected the batch
+   */
+  void write(List<SolrInputDocument> docs, Visibility visibility)
+      throws SolrServerException, IOException {
+    PendingWrite write = new PendingWrite(docs, visibility);
+    boolean leader;
+
+    synchronized (lock) {
+      pending.add(write);
+      pendingDocuments += docs.size();
+      leader = !collecting;
+      if (leader) {
+        collecting = true;
+      } else if (pendingDocuments >= maxDocuments) {
+        lock.notifyAll();
+      }
+    }
+
+    if (leader) {
+      flush(collect());
+    }
+
+    await(write);
+  }
+
+  private List<PendingWrite> collect() {
+    synchronized (lock) {
+      long deadline = System.nanoTime() + maxDelayNanos;
+      long remaining = maxDelayNanos;
+      while (pendingDocuments < maxDocuments && remaining > 0) {
+        try {
+          TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        remaining = deadline - System.nanoTime();
+      }
+
+      List<PendingWrite> batch = pending;
+      pending = new ArrayList<>();
+      pendingDocuments = 0;
+      collecting = false;
+      return batch;
+    }
+  }
+
+  private void flush(List<PendingWrite> batch) {
+    Map<Visibility, List<PendingWrite>> groups = new EnumMap<>(Visibility.class);
+    for (PendingWrite write : batch) {
+      groups.computeIfAbsent(write.visibility, v -> new ArrayList<>()).add(write);
+    }
+
+    for (Map.Entry<Visibility, List<PendingWrite>> group : groups.entrySet()) {
+      List<SolrInputDocument> docs = new ArrayList<>();
+      group.getValue().forEach(write -> docs.addAll(write.docs));
+      BATCH_SIZE.record(docs.size());
+
+      try {
+        writer.write(docs, group.getKey());
+        group.getValue().forEach(write -> write.result.complete(null));
+      } catch (SolrServerException | IOException | RuntimeException e) {
+        group.getValue().forEach(write -> write.result.completeExceptionally(e));
+      }
+    }
+  }
+
+  private static void await(PendingWrite write) throws SolrServerException, IOException {
+    try {
+      write.result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the Solr update");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SolrServerException) {
+        throw (SolrServerException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException("Could not write documents to Solr", cause);
+    }
+  }
+
+  private static class PendingWrite {
+
+    private final List<SolrInputDocument> docs;
+
+    private final Visibility visibility;
+
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    private PendingWrite(List<SolrInputDocument> docs, Visibility visibility) {
+      this.docs = docs;
+      this.visibility = visibility;
+    }
+  }
+}
@@ -39,6 +39,9 @@ public interface SolrMetacardClient {
    */
   SourceResponse query(QueryRequest request) throws UnsupportedQueryException;
 
+  /** Stops the threads used by this client. The client must not be used afterwards. */
+  void shutdown();
+
   /**
    * Runs a Solr query and converts the result as a list of {@link Metacard} objects.
    *
@@ -48,6 +51,13 @@ public interface SolrMetacardClient {
    */
   List<Metacard> query(String queryString) throws UnsupportedQueryException;
 
+  /**
+   * Gets metacards by id.
+   *
+   * @param ids the ids of the metacards
+   * @return the metacards found, in the iteration order of the ids
+   * @throws UnsupportedQueryException if the metacards could not be read
+   */
   List<Metacard> getIds(Set<String> ids) throws UnsupportedQueryException;
 
   /** @return set of supported content types. */
@@ -16,6 +16,9 @@
 import static ddf.catalog.Constants.ADDITIONAL_SORT_BYS;
 import static ddf.catalog.Constants.EXPERIMENTAL_FACET_PROPERTIES_KEY;
 import static ddf.catalog.Constants.EXPERIMENTAL_FACET_RESULTS_KEY;
+import static ddf.catalog.Constants.QUERY_CURSOR_KEY;
+import static ddf.catalog.Constants.QUERY_NEXT_CURSOR_KEY;
+import static ddf.catalog.Constants.REQUESTED_ATTRIBUTES_KEY;
 import static ddf.catalog.Constants.SUGGESTION_BUILD_KEY;
 import static ddf.catalog.Constants.SUGGESTION_CONTEXT_KEY;
 import static ddf.catalog.Constants.SUGGESTION_DICT_KEY;
@@ -29,14 +32,12 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import ddf.catalog.data.Attribute;
 import ddf.catalog.data.AttributeType;
 import ddf.catalog.data.ContentType;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardCreationException;
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.Result;
-import ddf.catalog.data.impl.AttributeImpl;
 import ddf.catalog.data.impl.ContentTypeImpl;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.data.impl.ResultImpl;
@@ -49,7 +50,10 @@
 import ddf.catalog.operation.impl.QueryResponseImpl;
 import ddf.catalog.operation.impl.SourceResponseImpl;
 import ddf.catalog.source.UnsupportedQueryException;
+import ddf.catalog.source.solr.SolrGroupCommitter.Visibility;
 import ddf.measure.Distance;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
 import java.io.Serializable;
 import java.security.AccessController;
@@ -61,10 +65,16 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.collections.CollectionUtils;
@@ -73,6 +83,8 @@
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrRequest.METHOD;
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.StreamingResponseCallback;
+import org.apache.solr.client.solrj.impl.StreamingBinaryResponseParser;
 import org.apache.solr.client.solrj.request.AbstractUpdateRequest;
 import org.apache.solr.client.solrj.response.FacetField;
 import org.apache.solr.client.solrj.response.PivotField;
@@ -84,7 +96,10 @@
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
 import org.apache.solr.common.util.SimpleOrderedMap;
+import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
 import org.codice.solr.client.solrj.SolrClient;
 import org.opengis.filter.sort.SortBy;
 import org.opengis.filter.sort.SortOrder;
@@ -112,6 +127,10 @@ public class SolrMetacardClientImpl implements SolrMetacardClient {
 
   private static final String IDS_KEY = "ids";
 
+  private static final String ID_FIELD = Metacard.ID + SchemaFields.TEXT_SUFFIX;
+
+  private static final String CURSOR_SORT_FIELD = ID_FIELD;
+
   public static final String SORT_FIELD_KEY = "sfield";
 
   public static final String POINT_KEY = "pt";
@@ -149,11 +168,60 @@ public class SolrMetacardClientImpl implements SolrMetacardClient {
   private final int commitNrtCommitWithinMs =
       Math.max(NumberUtils.toInt(accessProperty(SOLR_COMMIT_NRT_COMMITWITHINMS, "1000")), 0);
 
+  /** The property the Solr configuration reads the soft commit interval from. */
+  private static final String SOLR_AUTO_SOFT_COMMIT_MAX_TIME = "solr.autoSoftCommit.maxTime";
+
+  private final long autoSoftCommitMaxTimeMs =
+      Math.max(NumberUtils.toLong(accessProperty(SOLR_AUTO_SOFT_COMMIT_MAX_TIME, "30000")), 0);
+
   private static final String SOLR_QUERY_TIMEALLOWEDMS = "solr.query.timeAllowed";
 
   private final int queryTimeAllowedMs =
       Math.max(NumberUtils.toInt(accessProperty(SOLR_QUERY_TIMEALLOWEDMS, "0")), 0);
 
+  private static final String SOLR_QUERY_STREAMING_PAGE_SIZE = "solr.query.streamingPageSize";
+
+  private final int queryStreamingPageSize =
+      Math.max(NumberUtils.toInt(accessProperty(SOLR_QUERY_STREAMING_PAGE_SIZE, "0")), 0);
+
+  private static final String SOLR_INDEX_GROUP_COMMIT = "solr.index.groupCommit";
+
+  private static final String SOLR_INDEX_GROUP_COMMIT_MAX_DOCUMENTS =
+      "solr.index.groupCommit.maxDocuments";
+
+  private static final String SOLR_INDEX_GROUP_COMMIT_MAX_DELAY_MS =
+      "solr.index.groupCommit.maxDelayMs";
+
+  private final SolrGroupCommitter groupCommitter;
+
+  private final SolrFilterTranslationCache translationCache;
+
+  private static final String SOLR_INDEX_BUILDER_THREADS = "solr.index.builderThreads";
+
+  /** Builds the {@link SolrInputDocument}s of a batch. */
+  private final ExecutorService documentBuilders =
+      Executors.newFixedThreadPool(
+          Math.max(
+              NumberUtils.toInt(
+                  accessProperty(
+                      SOLR_INDEX_BUILDER_THREADS,
+                      String.valueOf(Runtime.getRuntime().availableProcessors()))),
+              1),
+          StandardThreadFactoryBuilder.newThreadFactory("solrDocumentBuilderThread"));
+
+  private static final Timer DOCUMENT_TIMER = Metrics.timer("ddf.catalog.solr.index.document");
+
+  private static final String SOLR_QUERY_GET_BY_ID_THREADS = "solr.query.getByIdThreads";
+
+  /** Fetches the chunks of large get-by-id lookups. */
+  private final ExecutorService getByIdFetchers =
+      Executors.newFixedThreadPool(
+          Math.max(NumberUtils.toInt(accessProperty(SOLR_QUERY_GET_BY_ID_THREADS, "4")), 1),
+          StandardThreadFactoryBuilder.newThreadFactory("solrGetByIdThread"));
+
+  private static final Timer GET_BY_ID_CHUNK_TIMER =
+      Metrics.timer("ddf.catalog.solr.query.getById.chunk");
+
   protected ResultHighlighter highlighter;
 
   public SolrMetacardClientImpl(
@@ -166,12 +234,36 @@ public SolrMetacardClientImpl(
     filterAdapter = catalogFilterAdapter;
     resolver = dynamicSchemaResolver;
     highlighter = new ResultHighlighter(resolver, filterAdapter);
+    groupCommitter = createGroupCommitter();
+    translationCache =
+        SolrFilterTranslationCache.fromSystemProperties(
+            filterAdapter, resolver, getClass().getSimpleName());
+  }
+
+  private SolrGroupCommitter createGroupCommitter() {
+    if (!BooleanUtils.toBoolean(accessProperty(SOLR_INDEX_GROUP_COMMIT, "false"))) {
+      return null;
+    }
+
+    return new SolrGroupCommitter(
+        this::write,
+        Math.max(
+            NumberUtils.toInt(accessProperty(SOLR_INDEX_GROUP_COMMIT_MAX_DOCUMENTS, "500")), 1),
+        Math.max(
+            NumberUtils.toLong(accessProperty(SOLR_INDEX_GROUP_COMMIT_MAX_DELAY_MS, "10")), 0));
   }
 
   public SolrClient getClient() {
     return client;
   }
 
+  @Override
+  public void shutdown() {
+    LOGGER.debug("Shutting down Solr metacard client thread pools.");
+    documentBuilders.shutdown();
+    getByIdFetchers.shutdown();
+  }
+
   @Override
   public SourceResponse query(QueryRequest request) throws UnsupportedQueryException {
     if (request == null || request.getQuery() == null) {
@@ -206,7 +298,15 @@ public SourceResponse query(QueryRequest request) throws UnsupportedQueryExcepti
           query.setParam(SPELLCHECK_KEY, true);
         }
         highlighter.processPreQuery(request, query);
-        solrResponse = client.query(query, METHOD.POST);
+        if (isStreamedQuery(query, userSpellcheckIsOn)) {
+          solrResponse = queryAndStreamResults(query, results, getRequestedAttributes(request));
+        } else {
+          solrResponse = client.query(query, METHOD.POST);
+        }
+
+        if (isCursorQuery(query) && !userSpellcheckIsOn) {
+          responseProps.put(QUERY_NEXT_CURSOR_KEY, solrResponse.getNextCursorMark());
+        }
       }
 
       if (isFacetedQuery) {
@@ -221,7 +321,7 @@ public SourceResponse query(QueryRequest request) throws UnsupportedQueryExcepti
       docs =
           handleSpellcheck(request, solrResponse, responseProps, query, docs, userSpellcheckIsOn);
       if (docs != null) {
-        addDocsToResults(docs, results);
+        addDocsToResults(docs, results, getRequestedAttributes(request));
         totalHits = docs.getNumFound();
       }
     } catch (SolrServerException | IOException | SolrException e) {
@@ -231,18 +331,76 @@ public SourceResponse query(QueryRequest request) throws UnsupportedQueryExcepti
     return new SourceResponseImpl(request, responseProps, results, totalHits);
   }
 
-  private List<SolrDocument> getSolrDocs(Set<String> ids) throws UnsupportedQueryException {
-    List<SolrDocument> solrDocs = new ArrayList<>(ids.size());
-    List<List<String>> partitions = Lists.partition(new ArrayList<>(ids), GET_BY_ID_LIMIT);
+  /**
+   * Gets the documents in chunks of {@link #GET_BY_ID_LIMIT} ids. When there are several chunks
+   * they are fetched concurrently on a bounded pool. The documents found are returned in the
+   * iteration order of the ids, whatever order Solr returned each chunk in.
+   */
+  private List<SolrDocument> getSolrDocs(Collection<String> ids) throws UnsupportedQueryException {
+    List<String> orderedIds = new ArrayList<>(ids);
+    List<List<String>> partitions = Lists.partition(orderedIds, GET_BY_ID_LIMIT);
+    if (partitions.size() <= 1) {
+      List<SolrDocument> solrDocs = new ArrayList<>(ids.size());
+      for (List<String> partition : partitions) {
+        getSolrDocsChunk(partition).iterator().forEachRemaining(solrDocs::add);
+      }
+      return inOrderOf(orderedIds, solrDocs);
+    }
+
+    List<Future<SolrDocumentList>> chunks = new ArrayList<>(partitions.size());
     for (List<String> partition : partitions) {
-      try {
-        SolrDocumentList page = client.getById(partition);
-        page.iterator().forEachRemaining(solrDocs::add);
-      } catch (SolrServerException | SolrException | IOException e) {
-        throw new UnsupportedQueryException(ERR_UNSUPPORTED_QUERY_MSG, e);
+      chunks.add(getByIdFetchers.submit(() -> getSolrDocsChunk(partition)));
+    }
+
+    List<SolrDocument> solrDocs = new ArrayList<>(ids.size());
+    try {
+      for (Future<SolrDocumentList> chunk : chunks) {
+        chunk.get().iterator().forEachRemaining(solrDocs::add);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UnsupportedQueryException("Interrupted while getting metacards by id", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UnsupportedQueryException) {
+        throw (UnsupportedQueryException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
       }
+      throw new UnsupportedQueryException(ERR_UNSUPPORTED_QUERY_MSG, cause);
+    } finally {
+      chunks.forEach(chunk -> chunk.cancel(false));
+    }
+    return inOrderOf(orderedIds, solrDocs);
+  }
+
+  private List<SolrDocument> inOrderOf(List<String> ids, List<SolrDocument> solrDocs) {
+    Map<String, SolrDocument> docsById = new HashMap<>();
+    for (SolrDocument doc : solrDocs) {
+      docsById.put(doc.getFirstValue(ID_FIELD).toString(), doc);
+    }
+
+    List<SolrDocument> orderedDocs = new ArrayList<>(docsById.size());
+    for (String id : ids) {
+      SolrDocument doc = docsById.get(id);
+      if (doc != null) {
+        orderedDocs.add(doc);
+      }
+    }
+    return orderedDocs;
+  }
+
+  private SolrDocumentList getSolrDocsChunk(List<String> ids) throws UnsupportedQueryException {
+    long start = System.nanoTime();
+    try {
+      return client.getById(ids);
+    } catch (SolrServerException | SolrException | IOException e) {
+      throw new UnsupportedQueryException(ERR_UNSUPPORTED_QUERY_MSG, e);
+    } finally {
+      GET_BY_ID_CHUNK_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
     }
-    return solrDocs;
   }
 
   private boolean handleFacetRequest(SolrQuery query, QueryRequest request) {
@@ -416,20 +574,135 @@ private Collation getCollationToResend(QueryResponse solrResponse) {
     return bestCollation;
   }
 
-  private void addDocsToResults(SolrDocumentList docs, List<Result> results)
+  private void addDocsToResults(
+      SolrDocumentList docs, List<Result> results, Set<String> requestedAttributes)
       throws UnsupportedQueryException {
+    ResultPageLoader loader = requestedAttributes != null ? new ResultPageLoader() : null;
     for (SolrDocument doc : docs) {
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("SOLR DOC: {}", doc.getFieldValue(Metacard.ID + SchemaFields.TEXT_SUFFIX));
+      results.add(toResult(doc, requestedAttributes, loader));
+    }
+  }
+
+  private ResultImpl toResult(
+      SolrDocument doc, Set<String> requestedAttributes, ResultPageLoader loader)
+      throws UnsupportedQueryException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("SOLR DOC: {}", doc.getFieldValue(ID_FIELD));
+    }
+    try {
+      if (loader != null) {
+        addMetacardTypeObject(doc);
       }
-      ResultImpl tmpResult;
-      try {
-        tmpResult = createResult(doc);
-      } catch (MetacardCreationException e) {
-        throw new UnsupportedQueryException("Could not create result metacard(s).", e);
+      MetacardImpl metacard = createMetacard(doc);
+      if (loader != null && metacard instanceof SolrDocumentMetacard) {
+        ((SolrDocumentMetacard) metacard).setLoader(requestedAttributes, loader);
+        loader.add(doc.getFirstValue(ID_FIELD).toString(), (SolrDocumentMetacard) metacard);
       }
+      return createResult(doc, metacard);
+    } catch (MetacardCreationException e) {
+      throw new UnsupportedQueryException("Could not create result metacard(s).", e);
+    }
+  }
+
+  /**
+   * Large pages are streamed unless spellcheck may replace their documents with the ones of a
+   * corrected query.
+   */
+  private boolean isStreamedQuery(SolrQuery query, boolean userSpellcheckIsOn) {
+    return queryStreamingPageSize > 0
+        && !userSpellcheckIsOn
+        && query.getRows() != null
+        && query.getRows() >= queryStreamingPageSize;
+  }
+
+  /**
+   * Sends the query and converts each document into a result as it is read from the response, so
+   * that the documents of a page are never all held in memory next to their results. The documents
+   * are left out of the returned response; its document list only holds the number found.
+   */
+  private QueryResponse queryAndStreamResults(
+      SolrQuery query, List<Result> results, Set<String> requestedAttributes)
+      throws SolrServerException, IOException, UnsupportedQueryException {
+    ResultStreamingCallback callback = new ResultStreamingCallback(results, requestedAttributes);
+
+    // same as SolrClient.queryAndStreamResponse, but posted like the other queries
+    org.apache.solr.client.solrj.request.QueryRequest streamingRequest =
+        new org.apache.solr.client.solrj.request.QueryRequest(query, METHOD.POST);
+    streamingRequest.setStreamingResponseCallback(callback);
+    streamingRequest.setResponseParser(new StreamingBinaryResponseParser(callback));
+    QueryResponse response = new QueryResponse(client.request(streamingRequest), null);
+
+    if (callback.failure != null) {
+      throw callback.failure;
+    }
+    return response;
+  }
 
-      results.add(tmpResult);
+  /**
+   * Returns the names of the attributes requested with {@link
+   * ddf.catalog.Constants#REQUESTED_ATTRIBUTES_KEY}, along with the ID that is always returned, or
+   * {@code null} if all attributes should be returned.
+   */
+  private Set<String> getRequestedAttributes(QueryRequest request) {
+    Serializable requested = request.getPropertyValue(REQUESTED_ATTRIBUTES_KEY);
+    if (!(requested instanceof Collection)) {
+      return null;
+    }
+
+    Set<String> attributes =
+        ((Collection<?>) requested)
+            .stream()
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .collect(Collectors.toCollection(HashSet::new));
+    attributes.add(Metacard.ID);
+    return attributes;
+  }
+
+  /**
+   * Limits the stored fields returned with each document to the fields of the requested attributes,
+   * keeping any function fields, such as the score, already in the field list.
+   */
+  private void addRequestedFields(SolrQuery query, Set<String> requestedAttributes) {
+    Set<String> fields = new LinkedHashSet<>();
+    fields.add(ID_FIELD);
+    fields.add(SchemaFields.METACARD_TYPE_FIELD_NAME);
+    for (String attribute : requestedAttributes) {
+      fields.addAll(resolver.getAnonymousField(attribute));
+    }
+
+    String currentFields = query.getFields();
+    if (currentFields != null) {
+      Arrays.stream(currentFields.split(","))
+          .filter(field -> !"*".equals(field))
+          .forEach(fields::add);
+    }
+
+    LOGGER.debug("Requesting fields {}", fields);
+    query.setFields(fields.toArray(new String[0]));
+  }
+
+  /**
+   * The metacard type object is only needed for types that have not been read before, so it is not
+   * requested with the results but retrieved on its own when missing.
+   */
+  private void addMetacardTypeObject(SolrDocument doc) throws UnsupportedQueryException {
+    if (doc.getFieldValue(SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME) != null
+        || resolver.isMetacardTypeAvailable(doc)) {
+      return;
+    }
+
+    ModifiableSolrParams params = new ModifiableSolrParams();
+    params.set(CommonParams.FL, SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME);
+    try {
+      SolrDocument typeDoc = client.getById(doc.getFirstValue(ID_FIELD).toString(), params);
+      if (typeDoc != null) {
+        doc.setField(
+            SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME,
+            typeDoc.getFieldValue(SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME));
+      }
+    } catch (SolrServerException | SolrException | IOException e) {
+      throw new UnsupportedQueryException(ERR_UNSUPPORTED_QUERY_MSG, e);
     }
   }
 
@@ -602,7 +875,11 @@ protected SolrQuery getSolrQuery(QueryRequest request, SolrFilterDelegate solrFi
       solrFilterDelegate.setSortPolicy(sortBys.toArray(new SortBy[0]));
     }
 
-    SolrQuery query = filterAdapter.adapt(request.getQuery(), solrFilterDelegate);
+    SolrQuery query =
+        translationCache == null
+            ? filterAdapter.adapt(request.getQuery(), solrFilterDelegate)
+            : translationCache.translate(
+                request.getQuery(), solrFilterDelegate, sortBys, request.getProperties());
 
     return postAdapt(request, solrFilterDelegate, query);
   }
@@ -654,8 +931,16 @@ protected SolrQuery postAdapt(
       throw new UnsupportedQueryException("Start index must be greater than 0");
     }
 
-    // Solr is 0-based
-    query.setStart(request.getQuery().getStartIndex() - 1);
+    Serializable cursor = request.getPropertyValue(QUERY_CURSOR_KEY);
+    boolean isCursorRequest = cursor instanceof String;
+
+    if (isCursorRequest) {
+      // The cursor mark tracks the position in the result set, Solr requires the start to be 0
+      query.setStart(0);
+    } else {
+      // Solr is 0-based
+      query.setStart(request.getQuery().getStartIndex() - 1);
+    }
 
     if (queryingForAllRecords(request)) {
       try {
@@ -669,13 +954,38 @@ protected SolrQuery postAdapt(
 
     setSortProperty(request, query, filterDelegate);
 
-    if (queryTimeAllowedMs > 0) {
+    Set<String> requestedAttributes = getRequestedAttributes(request);
+    if (requestedAttributes != null) {
+      addRequestedFields(query, requestedAttributes);
+    }
+
+    if (isCursorRequest) {
+      addCursorMark(query, (String) cursor);
+    } else if (queryTimeAllowedMs > 0) {
+      // Partial results would make a cursor skip documents, so only limit non-cursor queries
       query.setTimeAllowed(queryTimeAllowedMs);
     }
 
     return query;
   }
 
+  /**
+   * Adds the cursor mark to the query. Solr requires the sort of a cursor query to end with the
+   * unique key so that the position of every document in the result set is stable between pages.
+   */
+  private void addCursorMark(SolrQuery query, String cursor) {
+    boolean sortedById =
+        query.getSorts().stream().anyMatch(sort -> CURSOR_SORT_FIELD.equals(sort.getItem()));
+    if (!sortedById) {
+      query.addSort(CURSOR_SORT_FIELD, SolrQuery.ORDER.asc);
+    }
+    query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursor);
+  }
+
+  private boolean isCursorQuery(SolrQuery query) {
+    return query.get(CursorMarkParams.CURSOR_MARK_PARAM) != null;
+  }
+
   private boolean queryingForAllRecords(QueryRequest request) {
     if (ZERO_PAGESIZE_COMPATIBILTY.get()) {
       return request.getQuery().getPageSize() < 1;
@@ -766,8 +1076,8 @@ protected String setSortProperty(
     return resolver.getSortKey(sortProperty);
   }
 
-  private ResultImpl createResult(SolrDocument doc) throws MetacardCreationException {
-    ResultImpl result = new ResultImpl(createMetacard(doc));
+  private ResultImpl createResult(SolrDocument doc, Metacard metacard) {
+    ResultImpl result = new ResultImpl(metacard);
 
     if (doc.get(RELEVANCE_SORT_FIELD) != null) {
       result.setRelevanceScore(((Float) (doc.get(RELEVANCE_SORT_FIELD))).doubleValue());
@@ -791,20 +1101,93 @@ private ResultImpl createResult(SolrDocument doc) throws MetacardCreationExcepti
 
   public MetacardImpl createMetacard(SolrDocument doc) throws MetacardCreationException {
     MetacardType metacardType = resolver.getMetacardType(doc);
-    MetacardImpl metacard = new MetacardImpl(metacardType);
+    return new SolrDocumentMetacard(doc, metacardType, resolver);
+  }
+
+  /**
+   * Turns each document of a query response into a result as it is streamed from Solr, rather than
+   * first reading the whole page of documents into memory. Each metacard is decoded as soon as it
+   * is read, so that its document can be dropped; only the decoded results of the page are kept.
+   */
+  private class ResultStreamingCallback extends StreamingResponseCallback {
+
+    private final List<Result> results;
+
+    private final Set<String> requestedAttributes;
+
+    private final ResultPageLoader loader;
+
+    private UnsupportedQueryException failure;
 
-    for (String solrFieldName : doc.getFieldNames()) {
-      if (!resolver.isPrivateField(solrFieldName)) {
-        Collection<Object> fieldValues = doc.getFieldValues(solrFieldName);
-        Attribute attr =
-            new AttributeImpl(
-                resolver.resolveFieldName(solrFieldName),
-                resolver.getDocValues(solrFieldName, fieldValues));
-        metacard.setAttribute(attr);
+    ResultStreamingCallback(List<Result> results, Set<String> requestedAttributes) {
+      this.results = results;
+      this.requestedAttributes = requestedAttributes;
+      this.loader = requestedAttributes != null ? new ResultPageLoader() : null;
+    }
+
+    @Override
+    public void streamSolrDocument(SolrDocument doc) {
+      if (failure != null) {
+        // keep reading the response, it is failed once it has been consumed
+        return;
+      }
+
+      try {
+        Result result = toResult(doc, requestedAttributes, loader);
+        if (result.getMetacard() instanceof SolrDocumentMetacard) {
+          ((SolrDocumentMetacard) result.getMetacard()).decodeAll();
+        }
+        results.add(result);
+      } catch (UnsupportedQueryException e) {
+        failure = e;
       }
     }
 
-    return metacard;
+    @Override
+    public void streamDocListInfo(long numFound, long start, Float maxScore) {
+      // read from the document list of the response
+    }
+  }
+
+  /**
+   * Loads the attributes that were not requested for all the metacards of a page of results at
+   * once, the first time any of them is read.
+   */
+  private class ResultPageLoader implements SolrDocumentMetacard.PageLoader {
+
+    private final Map<String, SolrDocumentMetacard> metacards = new HashMap<>();
+
+    @Override
+    public synchronized void add(String id, SolrDocumentMetacard metacard) {
+      metacards.put(id, metacard);
+    }
+
+    @Override
+    public SolrDocumentMetacard.PageLoader newLoader() {
+      return new ResultPageLoader();
+    }
+
+    @Override
+    public synchronized void load() {
+      if (metacards.isEmpty()) {
+        return;
+      }
+
+      LOGGER.debug("Loading the remaining attributes of {} results", metacards.size());
+      try {
+        for (SolrDocument doc : getSolrDocs(metacards.keySet())) {
+          SolrDocumentMetacard metacard = metacards.get(doc.getFirstValue(ID_FIELD).toString());
+          if (metacard != null) {
+            metacard.addFields(doc);
+          }
+        }
+      } catch (UnsupportedQueryException e) {
+        LOGGER.info("Unable to load the remaining attributes of {} results", metacards.size(), e);
+      } finally {
+        metacards.values().forEach(SolrDocumentMetacard::setLoaded);
+        metacards.clear();
+      }
+    }
   }
 
   @Override
@@ -815,27 +1198,111 @@ public List<SolrInputDocument> add(List<Metacard> metacards, boolean forceAutoCo
     }
 
     boolean isNrtCommit = false;
-    List<SolrInputDocument> docs = new ArrayList<>();
     for (Metacard metacard : metacards) {
-      docs.add(getSolrInputDocument(metacard));
       if (commitNrtMetacardType.contains(metacard.getMetacardType().getName())) {
         isNrtCommit = true;
       }
     }
+    List<SolrInputDocument> docs = getSolrInputDocuments(metacards);
+
+    Visibility visibility;
+    if (forceAutoCommit) {
+      visibility = Visibility.IMMEDIATE;
+    } else if (isNrtCommit) {
+      visibility = Visibility.NEAR_REAL_TIME;
+    } else {
+      visibility = Visibility.DEFAULT;
+    }
+
+    if (groupCommitter != null) {
+      groupCommitter.write(docs, visibility);
+    } else {
+      write(docs, visibility);
+    }
+
+    return docs;
+  }
+
+  /**
+   * @return how long metacards written by {@link #add(List, boolean)} may take to become visible to
+   *     searches once it returns
+   */
+  long getVisibilityDelayMillis(List<Metacard> metacards, boolean forceAutoCommit) {
+    if (forceAutoCommit) {
+      return 0;
+    }
+
+    for (Metacard metacard : metacards) {
+      if (commitNrtMetacardType.contains(metacard.getMetacardType().getName())) {
+        return Math.min(commitNrtCommitWithinMs, autoSoftCommitMaxTimeMs);
+      }
+    }
+    return autoSoftCommitMaxTimeMs;
+  }
 
-    if (!forceAutoCommit) {
-      if (isNrtCommit) {
+  private void write(List<SolrInputDocument> docs, Visibility visibility)
+      throws SolrServerException, IOException {
+    switch (visibility) {
+      case IMMEDIATE:
+        softCommit(docs);
+        break;
+      case NEAR_REAL_TIME:
         client.add(docs, commitNrtCommitWithinMs);
-      } else {
+        break;
+      default:
         client.add(docs);
-      }
-    } else {
-      softCommit(docs);
+    }
+  }
+
+  /**
+   * Builds the documents of a batch in parallel on a bounded pool, keeping the order of the
+   * metacards.
+   */
+  private List<SolrInputDocument> getSolrInputDocuments(List<Metacard> metacards)
+      throws MetacardCreationException {
+    if (metacards.size() == 1) {
+      return Lists.newArrayList(buildSolrInputDocument(metacards.get(0)));
+    }
+
+    List<Future<SolrInputDocument>> tasks = new ArrayList<>(metacards.size());
+    for (Metacard metacard : metacards) {
+      tasks.add(documentBuilders.submit(() -> buildSolrInputDocument(metacard)));
     }
 
+    List<SolrInputDocument> docs = new ArrayList<>(tasks.size());
+    try {
+      for (Future<SolrInputDocument> task : tasks) {
+        docs.add(task.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MetacardCreationException("Interrupted while creating Solr documents");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof MetacardCreationException) {
+        throw (MetacardCreationException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new MetacardCreationException("Could not create Solr document", cause);
+    } finally {
+      tasks.forEach(task -> task.cancel(false));
+    }
     return docs;
   }
 
+  private SolrInputDocument buildSolrInputDocument(Metacard metacard)
+      throws MetacardCreationException {
+    long start = System.nanoTime();
+    try {
+      return getSolrInputDocument(metacard);
+    } finally {
+      DOCUMENT_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
   protected SolrInputDocument getSolrInputDocument(Metacard metacard)
       throws MetacardCreationException {
     SolrInputDocument solrInputDocument = new SolrInputDocument();
@@ -899,7 +1366,7 @@ public String getIdentifierQuery(String fieldName, List<? extends Serializable>
     return queryBuilder.toString();
   }
 
-  private static String accessProperty(String key, String defaultValue) {
+  static String accessProperty(String key, String defaultValue) {
     PrivilegedAction<String> action = () -> System.getProperty(key, defaultValue);
     String value = AccessController.doPrivileged(action);
     LOGGER.debug("Read system property [{}] with value [{}]", key, value);
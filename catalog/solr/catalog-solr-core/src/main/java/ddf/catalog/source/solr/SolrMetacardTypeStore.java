@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.codice.solr.client.solrj.SolrClient;
+
+/**
+ * Stores each serialized {@link ddf.catalog.data.MetacardType} once in a dedicated Solr core, keyed
+ * by the value held in {@link SchemaFields#METACARD_TYPE_FIELD_NAME} of the documents using it.
+ */
+public class SolrMetacardTypeStore implements Closeable {
+
+  public static final String METACARD_TYPES_CORE_NAME = "metacard_types";
+
+  static final String ID_FIELD_NAME = "id" + SchemaFields.TEXT_SUFFIX;
+
+  static final String TYPE_FIELD_NAME = "metacard_type" + SchemaFields.BINARY_SUFFIX;
+
+  private final SolrClient client;
+
+  public SolrMetacardTypeStore(SolrClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Runs the initializer once the underlying core is available.
+   *
+   * @see SolrClient#whenAvailable(SolrClient.Initializer)
+   */
+  void whenAvailable(Consumer<SolrMetacardTypeStore> initializer) {
+    client.whenAvailable(c -> initializer.accept(this));
+  }
+
+  /**
+   * Stores a serialized metacard type. Types are only added the first time a key is seen, so the
+   * addition is committed right away to make it visible to queries.
+   */
+  void add(String key, byte[] metacardType) throws SolrServerException, IOException {
+    SolrInputDocument doc = new SolrInputDocument();
+    doc.addField(ID_FIELD_NAME, key);
+    doc.addField(TYPE_FIELD_NAME, metacardType);
+    client.add(doc);
+    client.commit();
+  }
+
+  /** @return the serialized metacard type stored under the key, or {@code null} if there is none */
+  byte[] get(String key) throws SolrServerException, IOException {
+    SolrDocument doc = client.getById(key);
+    return (doc == null) ? null : (byte[]) doc.getFirstValue(TYPE_FIELD_NAME);
+  }
+
+  /** Passes up to {@code limit} of the stored metacard types to the consumer. */
+  void forEach(int limit, BiConsumer<String, byte[]> consumer)
+      throws SolrServerException, IOException {
+    SolrQuery query = new SolrQuery("*:*");
+    query.setFields(ID_FIELD_NAME, TYPE_FIELD_NAME);
+    query.setRows(limit);
+
+    for (SolrDocument doc : client.query(query).getResults()) {
+      consumer.accept(
+          doc.getFirstValue(ID_FIELD_NAME).toString(), (byte[]) doc.getFirstValue(TYPE_FIELD_NAME));
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    client.close();
+  }
+}
@@ -0,0 +1,483 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static ddf.catalog.source.solr.SolrMetacardClientImpl.accessProperty;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.AttributeDescriptor;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.data.impl.ResultImpl;
+import ddf.catalog.filter.FilterAdapter;
+import ddf.catalog.operation.Query;
+import ddf.catalog.operation.QueryRequest;
+import ddf.catalog.operation.SourceResponse;
+import ddf.catalog.operation.impl.SourceResponseImpl;
+import ddf.catalog.source.UnsupportedQueryException;
+import ddf.security.assertion.SecurityAssertion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.apache.commons.lang.BooleanUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.Subject;
+import org.opengis.filter.sort.SortBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the responses of the local Solr catalog provider.
+ *
+ * <p>Responses are keyed by a canonical form of the query filter, its sort and page window, and the
+ * request properties, with maps and sets in sorted order and subjects by the names of their
+ * principals. Requests with properties that cannot be rendered that way are not cached. Each write
+ * passes the metacards it created, updated or deleted to {@link #invalidate(Collection, long)},
+ * which drops the responses those metacards appear in or could match, and keeps such responses out
+ * of the cache until the write is visible to searches. Writes made by other nodes sharing the same
+ * Solr cloud are not seen, so responses also expire after a configurable time.
+ */
+class SolrQueryCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SolrQueryCache.class);
+
+  private static final String METRIC_PREFIX = "ddf.catalog.solr.query.cache";
+
+  private static final String SOLR_QUERY_CACHE = "solr.query.cache";
+
+  private static final String SOLR_QUERY_CACHE_MAX_MEGABYTES = "solr.query.cache.maxMegabytes";
+
+  private static final String SOLR_QUERY_CACHE_EXPIRATION_SECONDS =
+      "solr.query.cache.expirationSeconds";
+
+  private static final Counter INVALIDATIONS = Metrics.counter(METRIC_PREFIX + ".invalidations");
+
+  /** Past this many written metacards waiting to become visible, no response is cached. */
+  private static final int MAX_PENDING_METACARDS = 1000;
+
+  /** Rough per-object overhead used to estimate the memory held by a cached response. */
+  private static final int OBJECT_OVERHEAD_BYTES = 64;
+
+  /** Loads a response on a cache miss. */
+  @FunctionalInterface
+  interface Loader {
+    SourceResponse query(QueryRequest request) throws UnsupportedQueryException;
+  }
+
+  private final FilterAdapter filterAdapter;
+
+  private final Cache<String, CachedResponse> cache;
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+
+  SolrQueryCache(FilterAdapter filterAdapter, long maxBytes, long expirationSeconds) {
+    this.filterAdapter = filterAdapter;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, CachedResponse response) -> response.weight)
+            .expireAfterWrite(expirationSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    GuavaCacheMetrics.monitor(Metrics.globalRegistry, cache, METRIC_PREFIX);
+    Metrics.gauge(METRIC_PREFIX + ".bytes", this, SolrQueryCache::getEstimatedBytes);
+  }
+
+  /**
+   * @return a cache configured by the {@code solr.query.cache} system properties, or {@code null}
+   *     if caching is disabled
+   */
+  @Nullable
+  static SolrQueryCache fromSystemProperties(FilterAdapter filterAdapter) {
+    if (!BooleanUtils.toBoolean(accessProperty(SOLR_QUERY_CACHE, "false"))) {
+      return null;
+    }
+
+    long maxMegabytes =
+        Math.max(NumberUtils.toLong(accessProperty(SOLR_QUERY_CACHE_MAX_MEGABYTES, "64")), 1);
+    long expirationSeconds =
+        Math.max(NumberUtils.toLong(accessProperty(SOLR_QUERY_CACHE_EXPIRATION_SECONDS, "60")), 1);
+    return new SolrQueryCache(filterAdapter, maxMegabytes * 1024 * 1024, expirationSeconds);
+  }
+
+  /** @return the cached response to the request, or the response of the loader */
+  SourceResponse query(QueryRequest request, Loader loader) throws UnsupportedQueryException {
+    String key = getKey(request);
+    if (key == null) {
+      return loader.query(request);
+    }
+
+    CachedResponse cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return cached.toResponse(request);
+    }
+
+    long loadedGeneration = generation.get();
+    SourceResponse response = loader.query(request);
+    CachedResponse loaded = new CachedResponse(request.getQuery(), response);
+
+    // a write that happened while querying may or may not be part of the response, and so may a
+    // write that is not visible to searches yet
+    if (generation.get() == loadedGeneration && !isAffectedByPendingWrites(loaded)) {
+      cache.put(key, loaded);
+    }
+    return response;
+  }
+
+  /** Drops the cached responses that include or could match any of the written metacards. */
+  void invalidate(Collection<Metacard> metacards) {
+    invalidate(metacards, 0);
+  }
+
+  /**
+   * Drops the cached responses that include or could match any of the written metacards. Until the
+   * write becomes visible to searches, responses that could be affected by it are not cached
+   * either, since they may have been read before the write.
+   *
+   * @param visibleInMillis how long the write may take to become visible to searches
+   */
+  void invalidate(Collection<Metacard> metacards, long visibleInMillis) {
+    if (metacards.isEmpty()) {
+      return;
+    }
+
+    if (visibleInMillis > 0) {
+      pendingWrites.add(
+          new PendingWrite(
+              new ArrayList<>(metacards), System.currentTimeMillis() + visibleInMillis));
+    }
+    generation.incrementAndGet();
+    for (Map.Entry<String, CachedResponse> entry : cache.asMap().entrySet()) {
+      for (Metacard metacard : metacards) {
+        if (entry.getValue().isAffectedBy(metacard, filterAdapter)) {
+          if (cache.asMap().remove(entry.getKey(), entry.getValue())) {
+            INVALIDATIONS.increment();
+          }
+          break;
+        }
+      }
+    }
+  }
+
+  private boolean isAffectedByPendingWrites(CachedResponse response) {
+    long now = System.currentTimeMillis();
+    pendingWrites.removeIf(write -> write.visibleAt <= now);
+
+    int checked = 0;
+    for (PendingWrite write : pendingWrites) {
+      checked += write.metacards.size();
+      if (checked > MAX_PENDING_METACARDS) {
+        return true;
+      }
+
+      for (Metacard metacard : write.metacards) {
+        if (response.isAffectedBy(metacard, filterAdapter)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  long getEstimatedBytes() {
+    return cache.asMap().values().stream().mapToLong(response -> response.weight).sum();
+  }
+
+  @Nullable
+  private String getKey(QueryRequest request) {
+    Query query = request.getQuery();
+    if (query == null) {
+      return null;
+    }
+
+    StringBuilder key = new StringBuilder();
+    try {
+      key.append(filterAdapter.adapt(query, new CanonicalFilterDelegate()));
+    } catch (UnsupportedQueryException | RuntimeException e) {
+      LOGGER.debug("Not caching query that could not be rendered", e);
+      return null;
+    }
+
+    key.append('|')
+        .append(query.getStartIndex())
+        .append('|')
+        .append(query.getPageSize())
+        .append('|')
+        .append(query.requestsTotalResultsCount())
+        .append('|');
+    appendSortBy(query.getSortBy(), key);
+
+    Map<String, Serializable> properties = new TreeMap<>(request.getProperties());
+    for (Map.Entry<String, Serializable> property : properties.entrySet()) {
+      key.append('|').append(property.getKey()).append('=');
+      if (!appendValue(property.getValue(), key)) {
+        LOGGER.debug("Not caching query with property {}", property.getKey());
+        return null;
+      }
+    }
+    return key.toString();
+  }
+
+  /**
+   * Renders a property value so that equal values render the same, e.g. maps and sets in sorted
+   * order and subjects by the names of their principals.
+   *
+   * @return false if the value cannot be rendered canonically
+   */
+  private static boolean appendValue(@Nullable Object value, StringBuilder key) {
+    if (isComparable(value)) {
+      key.append(value);
+    } else if (value instanceof Principal) {
+      key.append(((Principal) value).getName());
+    } else if (value instanceof Subject) {
+      return appendSubject((Subject) value, key);
+    } else if (value instanceof SortBy) {
+      appendSortBy((SortBy) value, key);
+    } else if (value instanceof SortBy[]) {
+      for (SortBy sortBy : (SortBy[]) value) {
+        appendSortBy(sortBy, key);
+      }
+    } else if (value instanceof Map) {
+      Map<String, String> entries = new TreeMap<>();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        StringBuilder entryKey = new StringBuilder();
+        StringBuilder entryValue = new StringBuilder();
+        if (!appendValue(entry.getKey(), entryKey) || !appendValue(entry.getValue(), entryValue)) {
+          return false;
+        }
+        entries.put(entryKey.toString(), entryValue.toString());
+      }
+      key.append(entries);
+    } else if (value instanceof Set) {
+      Set<String> elements = new TreeSet<>();
+      for (Object element : (Set<?>) value) {
+        StringBuilder rendered = new StringBuilder();
+        if (!appendValue(element, rendered)) {
+          return false;
+        }
+        elements.add(rendered.toString());
+      }
+      key.append(elements);
+    } else if (value instanceof Collection) {
+      key.append('[');
+      for (Object element : (Collection<?>) value) {
+        if (!appendValue(element, key)) {
+          return false;
+        }
+        key.append(',');
+      }
+      key.append(']');
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  /** Renders the sorted names of the principals of the subject. */
+  private static boolean appendSubject(Subject subject, StringBuilder key) {
+    PrincipalCollection principals = subject.getPrincipals();
+    Set<String> names = new TreeSet<>();
+    if (principals != null) {
+      for (Object principal : principals) {
+        if (principal instanceof SecurityAssertion) {
+          principal = ((SecurityAssertion) principal).getPrincipal();
+        }
+
+        if (principal instanceof Principal) {
+          names.add(((Principal) principal).getName());
+        } else if (principal instanceof String) {
+          names.add((String) principal);
+        } else {
+          return false;
+        }
+      }
+    }
+    key.append(names);
+    return true;
+  }
+
+  private static boolean isComparable(@Nullable Object value) {
+    return value == null
+        || value instanceof String
+        || value instanceof Number
+        || value instanceof Boolean
+        || value instanceof Enum;
+  }
+
+  private static void appendSortBy(@Nullable SortBy sortBy, StringBuilder key) {
+    if (sortBy == null) {
+      key.append("null");
+    } else {
+      key.append(
+              sortBy.getPropertyName() == null ? null : sortBy.getPropertyName().getPropertyName())
+          .append(':')
+          .append(sortBy.getSortOrder() == null ? null : sortBy.getSortOrder().name())
+          .append(';');
+    }
+  }
+
+  /** Metacards written to Solr that searches may not see yet. */
+  private static class PendingWrite {
+
+    private final List<Metacard> metacards;
+
+    private final long visibleAt;
+
+    private PendingWrite(List<Metacard> metacards, long visibleAt) {
+      this.metacards = metacards;
+      this.visibleAt = visibleAt;
+    }
+  }
+
+  /**
+   * A response whose metacards were copied so that callers cannot change the cached ones. Metacards
+   * backed by the Solr documents of the response are copied without decoding them, and keep loading
+   * the attributes the query did not return only when they are read.
+   */
+  private static class CachedResponse {
+
+    private final Query query;
+
+    private final Set<String> ids = new HashSet<>();
+
+    private final List<Result> results = new ArrayList<>();
+
+    private final long hits;
+
+    private final Map<String, Serializable> properties;
+
+    private final int weight;
+
+    private CachedResponse(Query query, SourceResponse response) {
+      this.query = query;
+      this.hits = response.getHits();
+      this.properties = new HashMap<>(response.getProperties());
+
+      long bytes = OBJECT_OVERHEAD_BYTES;
+      Map<SolrDocumentMetacard.Loader, SolrDocumentMetacard.PageLoader> copyLoaders =
+          new IdentityHashMap<>();
+      for (Result result : response.getResults()) {
+        Metacard metacard = copy(result.getMetacard(), copyLoaders);
+        ids.add(metacard.getId());
+        results.add(copy(result, metacard));
+        bytes += estimateBytes(metacard);
+      }
+      this.weight = (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private SourceResponse toResponse(QueryRequest request) {
+      List<Result> copies = new ArrayList<>(results.size());
+      Map<SolrDocumentMetacard.Loader, SolrDocumentMetacard.PageLoader> copyLoaders =
+          new IdentityHashMap<>();
+      for (Result result : results) {
+        copies.add(copy(result, copy(result.getMetacard(), copyLoaders)));
+      }
+      return new SourceResponseImpl(request, new HashMap<>(properties), copies, hits);
+    }
+
+    private boolean isAffectedBy(Metacard metacard, FilterAdapter filterAdapter) {
+      if (ids.contains(metacard.getId())) {
+        return true;
+      }
+
+      try {
+        return filterAdapter.adapt(query, new MetacardMatchDelegate(metacard));
+      } catch (UnsupportedQueryException | RuntimeException e) {
+        LOGGER.debug("Could not tell whether metacard {} matches a cached query", metacard, e);
+        return true;
+      }
+    }
+
+    private static Result copy(Result result, Metacard metacard) {
+      ResultImpl copy = new ResultImpl(metacard);
+      copy.setRelevanceScore(result.getRelevanceScore());
+      copy.setDistanceInMeters(result.getDistanceInMeters());
+      return copy;
+    }
+
+    private static Metacard copy(
+        Metacard metacard,
+        Map<SolrDocumentMetacard.Loader, SolrDocumentMetacard.PageLoader> copyLoaders) {
+      if (metacard instanceof SolrDocumentMetacard) {
+        return ((SolrDocumentMetacard) metacard).copy(copyLoaders);
+      }
+
+      MetacardImpl copy = new MetacardImpl(metacard.getMetacardType());
+      copy.setSourceId(metacard.getSourceId());
+      for (AttributeDescriptor descriptor : metacard.getMetacardType().getAttributeDescriptors()) {
+        Attribute attribute = metacard.getAttribute(descriptor.getName());
+        if (attribute != null) {
+          copy.setAttribute(new AttributeImpl(attribute));
+        }
+      }
+      return copy;
+    }
+
+    /** Estimates the memory held by the metacard without decoding any of its attributes. */
+    private static long estimateBytes(Metacard metacard) {
+      AtomicLong bytes = new AtomicLong(OBJECT_OVERHEAD_BYTES);
+      if (metacard instanceof SolrDocumentMetacard) {
+        ((SolrDocumentMetacard) metacard)
+            .forEachHeldValue(value -> bytes.addAndGet(estimateBytes(value)));
+        return bytes.get();
+      }
+
+      for (AttributeDescriptor descriptor : metacard.getMetacardType().getAttributeDescriptors()) {
+        Attribute attribute = metacard.getAttribute(descriptor.getName());
+        if (attribute == null) {
+          continue;
+        }
+        bytes.addAndGet(OBJECT_OVERHEAD_BYTES);
+        for (Serializable value : attribute.getValues()) {
+          bytes.addAndGet(estimateBytes(value));
+        }
+      }
+      return bytes.get();
+    }
+
+    private static long estimateBytes(Object value) {
+      if (value instanceof String) {
+        return OBJECT_OVERHEAD_BYTES + 2L * ((String) value).length();
+      } else if (value instanceof byte[]) {
+        return OBJECT_OVERHEAD_BYTES + ((byte[]) value).length;
+      }
+      return OBJECT_OVERHEAD_BYTES;
+    }
+  }
+}
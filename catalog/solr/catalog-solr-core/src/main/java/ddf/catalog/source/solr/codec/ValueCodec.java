@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Writes and reads one type of value stored in an {@link
+ * ddf.catalog.data.AttributeType.AttributeFormat#OBJECT} attribute in a compact binary form.
+ *
+ * @param <T> the exact class of the values handled by this codec
+ */
+public interface ValueCodec<T extends Serializable> {
+
+  /**
+   * @return the byte written before each value to identify this codec. Tags below {@link
+   *     ValueCodecRegistry#FIRST_CUSTOM_TAG} are reserved for the built-in codecs.
+   */
+  byte getTag();
+
+  /** @return the exact class of the values handled by this codec, subclasses are not handled */
+  Class<T> getType();
+
+  /**
+   * Writes a value, using the registry to write any values it contains.
+   *
+   * @throws IOException if the value could not be written
+   */
+  void write(T value, DataOutput out, ValueCodecRegistry registry) throws IOException;
+
+  /**
+   * Reads a value written by {@link #write(Serializable, DataOutput, ValueCodecRegistry)}, using
+   * the registry to read any values it contains.
+   *
+   * @throws IOException if the value could not be read
+   */
+  T read(DataInput in, ValueCodecRegistry registry) throws IOException;
+}
@@ -0,0 +1,373 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Encodes the values of {@link ddf.catalog.data.AttributeType.AttributeFormat#OBJECT} attributes
+ * for the Solr index.
+ *
+ * <p>An encoded value starts with the {@link #FORMAT_VERSION} byte followed by the value, written
+ * as the tag of its {@link ValueCodec} and the bytes written by that codec. Strings, primitive
+ * wrappers, dates, byte arrays and the common list, set and map classes have built-in codecs, and
+ * other classes can be added with {@link #register(ValueCodec)}. Values of any other class are
+ * written with Java serialization.
+ *
+ * <p>Values written with Java serialization alone, as they were before this format was introduced,
+ * are still read, so existing documents are migrated as they are rewritten.
+ */
+public class ValueCodecRegistry {
+
+  /** The version of the format, written as the first byte of every encoded value. */
+  public static final byte FORMAT_VERSION = 1;
+
+  /** The lowest tag that can be used by codecs added with {@link #register(ValueCodec)}. */
+  public static final byte FIRST_CUSTOM_TAG = 64;
+
+  private static final byte NULL_TAG = 0;
+
+  private static final byte JAVA_SERIALIZATION_TAG = FIRST_CUSTOM_TAG - 1;
+
+  /** The first byte of {@link java.io.ObjectStreamConstants#STREAM_MAGIC}. */
+  private static final byte JAVA_STREAM_MAGIC = (byte) 0xAC;
+
+  private final Map<Byte, ValueCodec<?>> codecsByTag = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, ValueCodec<?>> codecsByType = new ConcurrentHashMap<>();
+
+  public ValueCodecRegistry() {
+    add(
+        codec(
+            1,
+            String.class,
+            (value, out, registry) -> writeBytes(value.getBytes(StandardCharsets.UTF_8), out),
+            (in, registry) -> new String(readBytes(in), StandardCharsets.UTF_8)));
+    add(
+        codec(
+            2,
+            Boolean.class,
+            (value, out, registry) -> out.writeBoolean(value),
+            (in, registry) -> in.readBoolean()));
+    add(
+        codec(
+            3,
+            Byte.class,
+            (value, out, registry) -> out.writeByte(value),
+            (in, registry) -> in.readByte()));
+    add(
+        codec(
+            4,
+            Short.class,
+            (value, out, registry) -> out.writeShort(value),
+            (in, registry) -> in.readShort()));
+    add(
+        codec(
+            5,
+            Integer.class,
+            (value, out, registry) -> out.writeInt(value),
+            (in, registry) -> in.readInt()));
+    add(
+        codec(
+            6,
+            Long.class,
+            (value, out, registry) -> out.writeLong(value),
+            (in, registry) -> in.readLong()));
+    add(
+        codec(
+            7,
+            Float.class,
+            (value, out, registry) -> out.writeFloat(value),
+            (in, registry) -> in.readFloat()));
+    add(
+        codec(
+            8,
+            Double.class,
+            (value, out, registry) -> out.writeDouble(value),
+            (in, registry) -> in.readDouble()));
+    add(
+        codec(
+            9,
+            Date.class,
+            (value, out, registry) -> out.writeLong(value.getTime()),
+            (in, registry) -> new Date(in.readLong())));
+    add(
+        codec(
+            10,
+            byte[].class,
+            (value, out, registry) -> writeBytes(value, out),
+            (in, registry) -> readBytes(in)));
+    add(collectionCodec(11, ArrayList.class, ArrayList::new));
+    add(collectionCodec(12, HashSet.class, HashSet::new));
+    add(collectionCodec(13, LinkedHashSet.class, LinkedHashSet::new));
+    add(mapCodec(14, HashMap.class, HashMap::new));
+    add(mapCodec(15, LinkedHashMap.class, LinkedHashMap::new));
+  }
+
+  /**
+   * Adds a codec for a class without a built-in codec.
+   *
+   * @throws IllegalArgumentException if the tag of the codec is reserved or already used, or its
+   *     class already has a codec
+   */
+  public void register(ValueCodec<?> codec) {
+    if (codec.getTag() < FIRST_CUSTOM_TAG) {
+      throw new IllegalArgumentException(
+          "Tag " + codec.getTag() + " is reserved, tags must be at least " + FIRST_CUSTOM_TAG);
+    }
+    add(codec);
+  }
+
+  /**
+   * Encodes a value.
+   *
+   * @throws IOException if the value, or a value it contains, could not be written
+   */
+  public byte[] encode(Serializable value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(FORMAT_VERSION);
+      writeValue(value, out);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a value written by {@link #encode(Serializable)} or with Java serialization.
+   *
+   * @throws IOException if the value could not be read
+   */
+  public Serializable decode(byte[] bytes) throws IOException {
+    if (bytes.length > 0 && bytes[0] == JAVA_STREAM_MAGIC) {
+      return readJavaSerialized(bytes);
+    }
+
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      byte version = in.readByte();
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Unsupported value format version " + version);
+      }
+      return readValue(in);
+    }
+  }
+
+  /**
+   * Writes the tag of the codec for the value followed by the value. Used by codecs to write the
+   * values they contain.
+   *
+   * @throws IOException if the value could not be written
+   */
+  @SuppressWarnings("unchecked")
+  public void writeValue(Serializable value, DataOutput out) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL_TAG);
+      return;
+    }
+
+    ValueCodec<Serializable> codec = (ValueCodec<Serializable>) codecsByType.get(value.getClass());
+    if (codec != null) {
+      out.writeByte(codec.getTag());
+      codec.write(value, out, this);
+    } else {
+      out.writeByte(JAVA_SERIALIZATION_TAG);
+      writeBytes(writeJavaSerialized(value), out);
+    }
+  }
+
+  /**
+   * Reads a value written by {@link #writeValue(Serializable, DataOutput)}. Used by codecs to read
+   * the values they contain.
+   *
+   * @throws IOException if the value could not be read
+   */
+  public Serializable readValue(DataInput in) throws IOException {
+    byte tag = in.readByte();
+    if (tag == NULL_TAG) {
+      return null;
+    } else if (tag == JAVA_SERIALIZATION_TAG) {
+      return readJavaSerialized(readBytes(in));
+    }
+
+    ValueCodec<?> codec = codecsByTag.get(tag);
+    if (codec == null) {
+      throw new IOException("No codec is registered for tag " + tag);
+    }
+    return codec.read(in, this);
+  }
+
+  private void add(ValueCodec<?> codec) {
+    ValueCodec<?> existing = codecsByTag.putIfAbsent(codec.getTag(), codec);
+    if (existing != null) {
+      throw new IllegalArgumentException(
+          "Tag " + codec.getTag() + " is already used by the codec for " + existing.getType());
+    }
+    if (codecsByType.putIfAbsent(codec.getType(), codec) != null) {
+      codecsByTag.remove(codec.getTag());
+      throw new IllegalArgumentException("A codec is already registered for " + codec.getType());
+    }
+  }
+
+  private static void writeBytes(byte[] bytes, DataOutput out) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInput in) throws IOException {
+    byte[] bytes = new byte[readSize(in)];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Reads the length of a byte array or the number of entries of a collection. Every byte and every
+   * entry takes at least one byte of the input, so a size larger than what is left of a stream can
+   * only come from corrupt data and is rejected before anything is allocated for it.
+   */
+  private static int readSize(DataInput in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      throw new IOException("Invalid size " + size);
+    }
+    if (in instanceof InputStream && size > ((InputStream) in).available()) {
+      throw new IOException(
+          "Invalid size " + size + ", only " + ((InputStream) in).available() + " bytes remain");
+    }
+    return size;
+  }
+
+  private static Serializable toSerializable(Object value) throws IOException {
+    if (value != null && !(value instanceof Serializable)) {
+      throw new NotSerializableException(value.getClass().getName());
+    }
+    return (Serializable) value;
+  }
+
+  private static byte[] writeJavaSerialized(Serializable value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Serializable readJavaSerialized(byte[] bytes) throws IOException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return (Serializable) in.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Could not find the class of the serialized value", e);
+    }
+  }
+
+  private static <T extends Serializable> ValueCodec<T> codec(
+      int tag, Class<T> type, Writer<T> writer, Reader<T> reader) {
+    return new ValueCodec<T>() {
+      @Override
+      public byte getTag() {
+        return (byte) tag;
+      }
+
+      @Override
+      public Class<T> getType() {
+        return type;
+      }
+
+      @Override
+      public void write(T value, DataOutput out, ValueCodecRegistry registry) throws IOException {
+        writer.write(value, out, registry);
+      }
+
+      @Override
+      public T read(DataInput in, ValueCodecRegistry registry) throws IOException {
+        return reader.read(in, registry);
+      }
+    };
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T extends Collection & Serializable> ValueCodec<T> collectionCodec(
+      int tag, Class<T> type, IntFunction<T> constructor) {
+    return codec(
+        tag,
+        type,
+        (value, out, registry) -> {
+          out.writeInt(value.size());
+          for (Object element : value) {
+            registry.writeValue(toSerializable(element), out);
+          }
+        },
+        (in, registry) -> {
+          int size = readSize(in);
+          T value = constructor.apply(size);
+          for (int i = 0; i < size; i++) {
+            value.add(registry.readValue(in));
+          }
+          return value;
+        });
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T extends Map & Serializable> ValueCodec<T> mapCodec(
+      int tag, Class<T> type, IntFunction<T> constructor) {
+    return codec(
+        tag,
+        type,
+        (value, out, registry) -> {
+          out.writeInt(value.size());
+          for (Map.Entry<?, ?> entry : (Iterable<Map.Entry<?, ?>>) value.entrySet()) {
+            registry.writeValue(toSerializable(entry.getKey()), out);
+            registry.writeValue(toSerializable(entry.getValue()), out);
+          }
+        },
+        (in, registry) -> {
+          int size = readSize(in);
+          T value = constructor.apply(size);
+          for (int i = 0; i < size; i++) {
+            value.put(registry.readValue(in), registry.readValue(in));
+          }
+          return value;
+        });
+  }
+
+  @FunctionalInterface
+  private interface Writer<T> {
+    void write(T value, DataOutput out, ValueCodecRegistry registry) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface Reader<T> {
+    T read(DataInput in, ValueCodecRegistry registry) throws IOException;
+  }
+}
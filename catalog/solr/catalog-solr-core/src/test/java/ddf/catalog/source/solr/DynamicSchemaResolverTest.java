@@ -20,9 +20,16 @@
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,7 +53,12 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrInputDocument;
 import org.junit.Before;
 import org.junit.Test;
@@ -119,6 +131,96 @@ public void testAddFields() throws Exception {
     }
   }
 
+  @Test
+  public void testAddFieldsStoresMetacardTypeByReference() throws Exception {
+    SolrMetacardTypeStore store = mock(SolrMetacardTypeStore.class);
+    dynamicSchemaResolver.setMetacardTypeStore(store);
+    SolrInputDocument first = new SolrInputDocument();
+    SolrInputDocument second = new SolrInputDocument();
+
+    dynamicSchemaResolver.addFields(new MetacardImpl(), first);
+    dynamicSchemaResolver.addFields(new MetacardImpl(), second);
+
+    String key = (String) first.getFieldValue(SchemaFields.METACARD_TYPE_FIELD_NAME);
+    assertThat(key, startsWith(MetacardImpl.BASIC_METACARD.getName() + "#"));
+    assertThat(second.getFieldValue(SchemaFields.METACARD_TYPE_FIELD_NAME), is(key));
+    assertThat(first.getFieldValue(SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME), nullValue());
+    verify(store).add(eq(key), any(byte[].class));
+  }
+
+  @Test
+  public void testGetMetacardTypeFromStore() throws Exception {
+    SolrMetacardTypeStore store = mock(SolrMetacardTypeStore.class);
+    when(store.get("key")).thenReturn(serializeMetacardType(MetacardImpl.BASIC_METACARD));
+    dynamicSchemaResolver.setMetacardTypeStore(store);
+    SolrDocument doc = new SolrDocument();
+    doc.setField(SchemaFields.METACARD_TYPE_FIELD_NAME, "key");
+
+    assertThat(dynamicSchemaResolver.isMetacardTypeAvailable(doc), is(true));
+    assertThat(
+        dynamicSchemaResolver.getMetacardType(doc).getName(),
+        is(MetacardImpl.BASIC_METACARD.getName()));
+    verify(store, times(1)).get("key");
+  }
+
+  @Test
+  public void testSetMetacardTypeStoreLoadsStoredTypes() throws Exception {
+    SolrMetacardTypeStore store = mock(SolrMetacardTypeStore.class);
+    byte[] metacardType = serializeMetacardType(MetacardImpl.BASIC_METACARD);
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<SolrMetacardTypeStore>>getArgument(0).accept(store);
+              return null;
+            })
+        .when(store)
+        .whenAvailable(any());
+    doAnswer(
+            invocation -> {
+              invocation.<BiConsumer<String, byte[]>>getArgument(1).accept("key", metacardType);
+              return null;
+            })
+        .when(store)
+        .forEach(anyInt(), any());
+    SolrDocument doc = new SolrDocument();
+    doc.setField(SchemaFields.METACARD_TYPE_FIELD_NAME, "key");
+
+    dynamicSchemaResolver.setMetacardTypeStore(store);
+
+    assertThat(dynamicSchemaResolver.isMetacardTypeAvailable(doc), is(true));
+    verify(store, never()).get(any());
+  }
+
+  @Test
+  public void testSetMetacardTypeStoreRetriesLoadingStoredTypes() throws Exception {
+    SolrMetacardTypeStore store = mock(SolrMetacardTypeStore.class);
+    byte[] metacardType = serializeMetacardType(MetacardImpl.BASIC_METACARD);
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<SolrMetacardTypeStore>>getArgument(0).accept(store);
+              return null;
+            })
+        .when(store)
+        .whenAvailable(any());
+    CountDownLatch loaded = new CountDownLatch(1);
+    doThrow(new IOException("failed"))
+        .doAnswer(
+            invocation -> {
+              invocation.<BiConsumer<String, byte[]>>getArgument(1).accept("key", metacardType);
+              loaded.countDown();
+              return null;
+            })
+        .when(store)
+        .forEach(anyInt(), any());
+    SolrDocument doc = new SolrDocument();
+    doc.setField(SchemaFields.METACARD_TYPE_FIELD_NAME, "key");
+
+    dynamicSchemaResolver.setMetacardTypeStore(store);
+
+    assertThat(loaded.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(dynamicSchemaResolver.isMetacardTypeAvailable(doc), is(true));
+    verify(store, times(2)).whenAvailable(any());
+  }
+
   /**
    * Verify that when the metadata size limit is set to 10 (less than the size of what is being
    * added to the SolrInputDocument) that it is not added to the SolrInputDocument
@@ -222,6 +324,10 @@ public void testAdditionalFieldConstructor() {
     assertThat(resolver.fieldsCache, hasItem(anotherExtraField));
   }
 
+  private byte[] serializeMetacardType(MetacardType metacardType) throws IOException {
+    return METACARD_TYPE_MAPPER.writeValueAsBytes(metacardType);
+  }
+
   private MetacardType deserializeMetacardType(byte[] serializedMetacardType) throws IOException {
     return METACARD_TYPE_MAPPER.readValue(serializedMetacardType, MetacardType.class);
   }
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.MetacardType;
+import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.data.impl.types.CoreAttributes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.solr.common.SolrDocument;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolrDocumentMetacardTest {
+
+  private static final MetacardType METACARD_TYPE = new CoreAttributes();
+
+  private DynamicSchemaResolver resolver;
+
+  private SolrDocument doc;
+
+  @Before
+  public void setup() {
+    resolver = mock(DynamicSchemaResolver.class);
+    when(resolver.resolveFieldName(anyString())).thenCallRealMethod();
+    when(resolver.getDocValues(anyString(), any()))
+        .thenAnswer(invocation -> new ArrayList<>((Collection) invocation.getArgument(1)));
+
+    doc = new SolrDocument();
+    doc.setField("id_txt", "123");
+    doc.setField("title_txt", "title");
+    doc.setField("description_txt", "description");
+  }
+
+  @Test
+  public void testOnlyReadAttributesAreDecoded() {
+    Metacard metacard = new SolrDocumentMetacard(doc, METACARD_TYPE, resolver);
+
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getAttribute(Metacard.THUMBNAIL), is(nullValue()));
+
+    verify(resolver, times(1)).getDocValues(eq("title_txt"), any());
+    verify(resolver, never()).getDocValues(eq("description_txt"), any());
+  }
+
+  @Test
+  public void testSetAttributeDoesNotModifyDocument() {
+    Metacard metacard = new SolrDocumentMetacard(doc, METACARD_TYPE, resolver);
+
+    metacard.setAttribute(new AttributeImpl(Metacard.TITLE, "new title"));
+    metacard.setAttribute(new AttributeImpl(Metacard.DESCRIPTION, (String) null));
+
+    assertThat(metacard.getTitle(), is("new title"));
+    assertThat(metacard.getAttribute(Metacard.DESCRIPTION), is(nullValue()));
+    assertThat(metacard.getId(), is("123"));
+    assertThat(doc.getFieldValue("title_txt"), is("title"));
+    assertThat(doc.getFieldValue("description_txt"), is("description"));
+  }
+
+  @Test
+  public void testUnreturnedAttributesAreLoadedOnFirstRead() {
+    SolrDocument completeDoc = new SolrDocument();
+    completeDoc.setField("id_txt", "123");
+    completeDoc.setField("title_txt", "title");
+    completeDoc.setField("description_txt", "description");
+    doc.removeFields("description_txt");
+
+    SolrDocumentMetacard metacard = new SolrDocumentMetacard(doc, METACARD_TYPE, resolver);
+    AtomicInteger loads = new AtomicInteger();
+    metacard.setLoader(
+        Collections.singleton(Metacard.TITLE),
+        () -> {
+          loads.incrementAndGet();
+          metacard.addFields(completeDoc);
+          metacard.setLoaded();
+        });
+
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(loads.get(), is(0));
+
+    assertThat(metacard.getAttribute(Metacard.DESCRIPTION).getValue(), is("description"));
+    assertThat(metacard.getId(), is("123"));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void testDocumentReleasedOnceAllAttributesAreDecoded() {
+    SolrDocumentMetacard metacard = new SolrDocumentMetacard(doc, METACARD_TYPE, resolver);
+
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getId(), is("123"));
+    assertThat(metacard.holdsDocument(), is(true));
+
+    assertThat(metacard.getDescription(), is("description"));
+    assertThat(metacard.holdsDocument(), is(false));
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getAttribute(Metacard.THUMBNAIL), is(nullValue()));
+  }
+
+  @Test
+  public void testDocumentReleasedBeforeUnreturnedAttributesAreLoaded() {
+    SolrDocument completeDoc = new SolrDocument();
+    completeDoc.setField("id_txt", "123");
+    completeDoc.setField("title_txt", "title");
+    completeDoc.setField("description_txt", "description");
+    doc.removeFields("description_txt");
+
+    SolrDocumentMetacard metacard = new SolrDocumentMetacard(doc, METACARD_TYPE, resolver);
+    metacard.setLoader(
+        Collections.singleton(Metacard.TITLE),
+        () -> {
+          metacard.addFields(completeDoc);
+          metacard.setLoaded();
+        });
+
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getId(), is("123"));
+    assertThat(metacard.holdsDocument(), is(false));
+
+    metacard.setAttribute(new AttributeImpl(Metacard.TITLE, "new title"));
+    assertThat(metacard.holdsDocument(), is(false));
+    assertThat(metacard.getTitle(), is("new title"));
+    assertThat(metacard.getDescription(), is("description"));
+  }
+
+  @Test
+  public void testDecodeAllReleasesDocument() {
+    SolrDocument completeDoc = new SolrDocument();
+    completeDoc.setField("id_txt", "123");
+    completeDoc.setField("title_txt", "title");
+    completeDoc.setField("description_txt", "description");
+    doc.removeFields("description_txt");
+
+    SolrDocumentMetacard metacard = new SolrDocumentMetacard(doc, METACARD_TYPE, resolver);
+    AtomicInteger loads = new AtomicInteger();
+    metacard.setLoader(
+        Collections.singleton(Metacard.TITLE),
+        () -> {
+          loads.incrementAndGet();
+          metacard.addFields(completeDoc);
+          metacard.setLoaded();
+        });
+
+    metacard.decodeAll();
+    assertThat(metacard.holdsDocument(), is(false));
+    assertThat(loads.get(), is(0));
+
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getDescription(), is("description"));
+    assertThat(metacard.holdsDocument(), is(false));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void testSerializesAsMetacardImpl() throws Exception {
+    SolrDocumentMetacard metacard = new SolrDocumentMetacard(doc, METACARD_TYPE, resolver);
+    metacard.setSourceId("source");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(metacard);
+    }
+    Object copy;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = in.readObject();
+    }
+
+    assertThat(copy.getClass().equals(MetacardImpl.class), is(true));
+    Metacard metacardCopy = (Metacard) copy;
+    assertThat(metacardCopy.getId(), is("123"));
+    assertThat(metacardCopy.getTitle(), is("title"));
+    assertThat(metacardCopy.getAttribute(Metacard.DESCRIPTION).getValue(), is("description"));
+    assertThat(metacardCopy.getSourceId(), is("source"));
+  }
+}
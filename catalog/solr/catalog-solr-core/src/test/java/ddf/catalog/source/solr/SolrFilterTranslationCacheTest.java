@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.filter.FilterAdapter;
+import ddf.catalog.filter.FilterBuilder;
+import ddf.catalog.filter.proxy.adapter.GeotoolsFilterAdapterImpl;
+import ddf.catalog.filter.proxy.builder.GeotoolsFilterBuilder;
+import java.util.Collections;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.filter.Filter;
+
+public class SolrFilterTranslationCacheTest {
+
+  private final FilterBuilder filterBuilder = new GeotoolsFilterBuilder();
+
+  private final DynamicSchemaResolver resolver = new DynamicSchemaResolver();
+
+  private FilterAdapter filterAdapter;
+
+  private SolrFilterTranslationCache cache;
+
+  @Before
+  public void setup() {
+    filterAdapter = spy(new GeotoolsFilterAdapterImpl());
+    cache = new SolrFilterTranslationCache(filterAdapter, resolver, 16, "test");
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    assertThat(
+        SolrFilterTranslationCache.fromSystemProperties(filterAdapter, resolver, "default"),
+        is(nullValue()));
+  }
+
+  @Test
+  public void testEnabledBySize() {
+    System.setProperty("solr.query.translationCache.size", "16");
+    try {
+      assertThat(
+          SolrFilterTranslationCache.fromSystemProperties(filterAdapter, resolver, "sized"),
+          is(notNullValue()));
+    } finally {
+      System.clearProperty("solr.query.translationCache.size");
+    }
+  }
+
+  @Test
+  public void testRepeatedFilterIsTranslatedOnce() throws Exception {
+    Filter filter = filterBuilder.attribute(Metacard.TITLE).is().equalTo().text("first");
+
+    SolrQuery first = translate(filter, delegate());
+    SolrQuery second = translate(filter, delegate());
+
+    verify(filterAdapter, times(1)).adapt(any(), any(SolrFilterDelegate.class));
+    assertThat(second.getQuery(), is(first.getQuery()));
+  }
+
+  @Test
+  public void testDifferentLiteralsAreTranslatedSeparately() throws Exception {
+    SolrQuery first =
+        translate(filterBuilder.attribute(Metacard.TITLE).is().equalTo().text("first"), delegate());
+    SolrQuery second =
+        translate(
+            filterBuilder.attribute(Metacard.TITLE).is().equalTo().text("second"), delegate());
+
+    verify(filterAdapter, times(2)).adapt(any(), any(SolrFilterDelegate.class));
+    assertThat(first.getQuery().equals(second.getQuery()), is(false));
+  }
+
+  @Test
+  public void testReusedTranslationRestoresIds() throws Exception {
+    Filter filter = filterBuilder.attribute(Metacard.ID).is().equalTo().text("123");
+    translate(filter, delegate());
+
+    SolrFilterDelegate delegate = delegate();
+    translate(filter, delegate);
+
+    assertThat(delegate.isIdQuery(), is(true));
+    assertThat(delegate.getIds(), contains("123"));
+  }
+
+  @Test
+  public void testRelativeFilterIsTranslatedEveryTime() throws Exception {
+    Filter filter = filterBuilder.attribute(Metacard.MODIFIED).is().during().last(60000L);
+
+    translate(filter, delegate());
+    translate(filter, delegate());
+
+    verify(filterAdapter, times(2)).adapt(any(), any(SolrFilterDelegate.class));
+  }
+
+  @Test
+  public void testReusedQueryCannotBeModified() throws Exception {
+    Filter filter = filterBuilder.attribute(Metacard.TITLE).is().equalTo().text("first");
+    SolrQuery first = translate(filter, delegate());
+    String expected = first.getQuery();
+    first.setQuery("changed");
+
+    assertThat(translate(filter, delegate()).getQuery(), is(expected));
+  }
+
+  private SolrQuery translate(Filter filter, SolrFilterDelegate delegate) throws Exception {
+    return cache.translate(filter, delegate, Collections.emptyList(), Collections.emptyMap());
+  }
+
+  private SolrFilterDelegate delegate() {
+    return new SolrFilterDelegate(resolver, Collections.emptyMap());
+  }
+}
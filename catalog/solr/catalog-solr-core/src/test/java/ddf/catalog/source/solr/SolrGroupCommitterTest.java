@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import ddf.catalog.source.solr.SolrGroupCommitter.Visibility;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolrGroupCommitterTest {
+
+  private static final long LONG_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final List<Batch> batches = new CopyOnWriteArrayList<>();
+
+  private ExecutorService executor;
+
+  @Before
+  public void setup() {
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testSingleWriteIsSentAfterDelay() throws Exception {
+    SolrGroupCommitter committer = new SolrGroupCommitter(this::record, 10, 0);
+
+    committer.write(docs("1", "2"), Visibility.DEFAULT);
+
+    assertThat(batches, hasSize(1));
+    assertThat(batches.get(0).ids, is(ids("1", "2")));
+  }
+
+  @Test(timeout = 10000)
+  public void testConcurrentWritesAreMerged() throws Exception {
+    SolrGroupCommitter committer = new SolrGroupCommitter(this::record, 3, LONG_DELAY_MILLIS);
+    List<Future<?>> writes = new ArrayList<>();
+
+    for (String id : ids("1", "2", "3")) {
+      writes.add(
+          executor.submit(
+              () -> {
+                committer.write(docs(id), Visibility.DEFAULT);
+                return null;
+              }));
+    }
+    for (Future<?> write : writes) {
+      write.get();
+    }
+
+    assertThat(batches, hasSize(1));
+    assertThat(batches.get(0).ids, containsInAnyOrder("1", "2", "3"));
+  }
+
+  @Test(timeout = 10000)
+  public void testVisibilitiesAreSentSeparately() throws Exception {
+    SolrGroupCommitter committer = new SolrGroupCommitter(this::record, 2, LONG_DELAY_MILLIS);
+
+    Future<?> nrt =
+        executor.submit(
+            () -> {
+              committer.write(docs("nrt"), Visibility.NEAR_REAL_TIME);
+              return null;
+            });
+    committer.write(docs("default"), Visibility.DEFAULT);
+    nrt.get();
+
+    assertThat(batches, hasSize(2));
+    assertThat(
+        batches.stream().map(batch -> batch.visibility).collect(Collectors.toList()),
+        containsInAnyOrder(Visibility.DEFAULT, Visibility.NEAR_REAL_TIME));
+    for (Batch batch : batches) {
+      assertThat(batch.ids, is(ids(batch.visibility == Visibility.DEFAULT ? "default" : "nrt")));
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testFailureIsReportedToEveryWriterOfTheBatch() throws Exception {
+    SolrGroupCommitter committer =
+        new SolrGroupCommitter(
+            (docs, visibility) -> {
+              throw new IOException("failed");
+            },
+            2,
+            LONG_DELAY_MILLIS);
+
+    Future<?> other =
+        executor.submit(
+            () -> {
+              committer.write(docs("1"), Visibility.DEFAULT);
+              return null;
+            });
+
+    try {
+      committer.write(docs("2"), Visibility.DEFAULT);
+      throw new AssertionError("expected the write to fail");
+    } catch (IOException e) {
+      assertThat(e.getMessage(), is("failed"));
+    }
+    try {
+      other.get();
+      throw new AssertionError("expected the other write to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause().getMessage(), is("failed"));
+    }
+  }
+
+  private void record(List<SolrInputDocument> docs, Visibility visibility) {
+    batches.add(
+        new Batch(
+            docs.stream()
+                .map(doc -> doc.getFieldValue("id_txt").toString())
+                .collect(Collectors.toList()),
+            visibility));
+  }
+
+  private static List<SolrInputDocument> docs(String... ids) {
+    List<SolrInputDocument> docs = new ArrayList<>();
+    for (String id : ids) {
+      SolrInputDocument doc = new SolrInputDocument();
+      doc.addField("id_txt", id);
+      docs.add(doc);
+    }
+    return docs;
+  }
+
+  private static List<String> ids(String... ids) {
+    List<String> list = new ArrayList<>();
+    Collections.addAll(list, ids);
+    return list;
+  }
+
+  private static class Batch {
+
+    private final List<String> ids;
+
+    private final Visibility visibility;
+
+    private Batch(List<String> ids, Visibility visibility) {
+      this.ids = ids;
+      this.visibility = visibility;
+    }
+  }
+}
@@ -13,15 +13,24 @@
  */
 package ddf.catalog.source.solr;
 
+import static ddf.catalog.Constants.QUERY_CURSOR_KEY;
+import static ddf.catalog.Constants.QUERY_CURSOR_START;
 import static ddf.catalog.Constants.QUERY_HIGHLIGHT_KEY;
+import static ddf.catalog.Constants.QUERY_NEXT_CURSOR_KEY;
+import static ddf.catalog.Constants.REQUESTED_ATTRIBUTES_KEY;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +42,7 @@
 import ddf.catalog.data.Result;
 import ddf.catalog.data.impl.AttributeDescriptorImpl;
 import ddf.catalog.data.impl.BasicTypes;
+import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.data.impl.MetacardTypeImpl;
 import ddf.catalog.filter.FilterAdapter;
 import ddf.catalog.filter.FilterBuilder;
@@ -55,6 +65,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -69,10 +80,13 @@
 import org.apache.solr.client.solrj.response.UpdateResponse;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.apache.solr.common.util.NamedList;
 import org.codice.solr.client.solrj.SolrClient;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.opengis.filter.Filter;
@@ -226,6 +240,52 @@ public void testQueryMultipleResults() throws Exception {
     assertThat(results.get(1).getMetacard().getAttribute("title").getValue(), is("normal"));
   }
 
+  @Test
+  public void testStreamedQueryConvertsEachDocument() throws Exception {
+    System.setProperty("solr.query.streamingPageSize", "2");
+    try {
+      clientImpl =
+          new TestSolrMetacardClientImpl(
+              client, catalogFilterAdapter, solrFilterDelegateFactory, dynamicSchemaResolver);
+    } finally {
+      System.clearProperty("solr.query.streamingPageSize");
+    }
+    QueryRequest request = createQuery(builder.attribute("anyText").is().like().text("normal"));
+
+    List<String> names = Arrays.asList("title", "title2");
+    List<String> values = Arrays.asList("normal", "normal2");
+
+    Map<String, String> attributes = createAttributes(names, values);
+    SolrDocumentList docs = createSolrDocumentList(attributes);
+
+    when(solrQuery.getRows()).thenReturn(2);
+    when(client.request(any(org.apache.solr.client.solrj.request.QueryRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              org.apache.solr.client.solrj.request.QueryRequest streamingRequest =
+                  invocation.getArgument(0);
+              docs.forEach(streamingRequest.getStreamingResponseCallback()::streamSolrDocument);
+
+              SolrDocumentList streamed = new SolrDocumentList();
+              streamed.setNumFound(docs.size());
+              NamedList<Object> response = new NamedList<>();
+              response.add("response", streamed);
+              return response;
+            });
+    mockDynamicSchemsolverCalls(createAttributeDescriptor(names), attributes);
+
+    SourceResponse response = clientImpl.query(request);
+
+    verify(client, never()).query(solrQuery, SolrRequest.METHOD.POST);
+    assertThat(response.getHits(), is(2L));
+    assertThat(response.getResults().size(), is(2));
+    assertThat(
+        response.getResults().get(0).getMetacard().getAttribute("title2").getValue(),
+        is("normal2"));
+    assertThat(
+        response.getResults().get(1).getMetacard().getAttribute("title").getValue(), is("normal"));
+  }
+
   @Test
   public void testQueryZeroResults() throws Exception {
     QueryRequest request = createQuery(builder.attribute("anyText").is().like().text("normal"));
@@ -294,6 +354,35 @@ public void testPartialResults() throws Exception {
     assertThat(response.getPropertyValue("partial-results"), is(Boolean.TRUE));
   }
 
+  @Test
+  public void testCursorQuery() throws Exception {
+    QueryRequest request = createQuery(builder.attribute("anyText").is().like().text("normal"));
+    request.getProperties().put(QUERY_CURSOR_KEY, QUERY_CURSOR_START);
+    when(solrFilterDelegateFactory.newInstance(eq(dynamicSchemaResolver), any()))
+        .thenReturn(mock(SolrFilterDelegate.class));
+    when(solrQuery.get(CursorMarkParams.CURSOR_MARK_PARAM)).thenReturn(QUERY_CURSOR_START);
+    when(queryResponse.getNextCursorMark()).thenReturn("AoE/nextCursor");
+    when(queryResponse.getResults()).thenReturn(new SolrDocumentList());
+
+    SourceResponse response = clientImpl.query(request);
+
+    verify(solrQuery).setStart(0);
+    verify(solrQuery).addSort("id_txt", SolrQuery.ORDER.asc);
+    verify(solrQuery).set(CursorMarkParams.CURSOR_MARK_PARAM, QUERY_CURSOR_START);
+    assertThat(response.getPropertyValue(QUERY_NEXT_CURSOR_KEY), is("AoE/nextCursor"));
+  }
+
+  @Test
+  public void testQueryWithoutCursor() throws Exception {
+    QueryRequest request = createQuery(builder.attribute("anyText").is().like().text("normal"));
+    when(queryResponse.getResults()).thenReturn(new SolrDocumentList());
+
+    SourceResponse response = clientImpl.query(request);
+
+    verify(solrQuery, never()).set(eq(CursorMarkParams.CURSOR_MARK_PARAM), anyString());
+    assertThat(response.containsPropertyName(QUERY_NEXT_CURSOR_KEY), is(false));
+  }
+
   @Test
   public void testHighlightOn() throws Exception {
     System.setProperty(ResultHighlighter.HIGHLIGHT_ENABLE_PROPERTY, "true");
@@ -357,6 +446,173 @@ public void testHighlightOn() throws Exception {
     verifyHighlight(descriptionHighlights.get(), new HighlightImpl(44, 50, 0));
   }
 
+  @Test
+  public void testRequestedAttributesLimitReturnedFields() throws Exception {
+    QueryRequest request = createQuery(builder.attribute("anyText").is().like().text("normal"));
+    request.getProperties().put(REQUESTED_ATTRIBUTES_KEY, new ArrayList<>(Arrays.asList("title")));
+    when(solrFilterDelegateFactory.newInstance(eq(dynamicSchemaResolver), any()))
+        .thenReturn(mock(SolrFilterDelegate.class));
+    when(dynamicSchemaResolver.getAnonymousField("title"))
+        .thenReturn(Collections.singletonList("title_txt"));
+    when(dynamicSchemaResolver.getAnonymousField("id"))
+        .thenReturn(Collections.singletonList("id_txt"));
+    when(solrQuery.getFields()).thenReturn("*,score");
+    when(queryResponse.getResults()).thenReturn(new SolrDocumentList());
+
+    clientImpl.query(request);
+
+    ArgumentCaptor<String> fields = ArgumentCaptor.forClass(String.class);
+    verify(solrQuery).setFields(fields.capture());
+    assertThat(
+        fields.getAllValues(),
+        containsInAnyOrder("id_txt", "metacard_type_name_txt", "title_txt", "score"));
+  }
+
+  @Test
+  public void testUnrequestedAttributesLoadedForPageOnFirstRead() throws Exception {
+    QueryRequest request = createQuery(builder.attribute("anyText").is().like().text("normal"));
+    request.getProperties().put(REQUESTED_ATTRIBUTES_KEY, new ArrayList<>(Arrays.asList("title")));
+    when(solrFilterDelegateFactory.newInstance(eq(dynamicSchemaResolver), any()))
+        .thenReturn(mock(SolrFilterDelegate.class));
+    mockDynamicSchemsolverCalls(
+        createAttributeDescriptor(Arrays.asList("id", "title", "description")),
+        Collections.emptyMap());
+    when(dynamicSchemaResolver.getDocValues(any(), any()))
+        .thenAnswer(invocation -> new ArrayList<>((Collection) invocation.getArgument(1)));
+    when(dynamicSchemaResolver.isMetacardTypeAvailable(any())).thenReturn(true);
+
+    SolrDocumentList projectedDocs = new SolrDocumentList();
+    SolrDocumentList completeDocs = new SolrDocumentList();
+    for (String id : Arrays.asList("1", "2")) {
+      Map<String, String> attributes = new HashMap<>();
+      attributes.put("id_txt", id);
+      attributes.put("title_txt", "title" + id);
+      projectedDocs.add(createSolrDocument(attributes));
+      attributes.put("description_txt", "description" + id);
+      completeDocs.add(createSolrDocument(attributes));
+    }
+    when(queryResponse.getResults()).thenReturn(projectedDocs);
+    when(client.getById(anyCollection())).thenReturn(completeDocs);
+
+    List<Result> results = clientImpl.query(request).getResults();
+
+    assertThat(results.size(), is(2));
+    assertThat(results.get(0).getMetacard().getTitle(), is("title1"));
+    verify(client, never()).getById(anyCollection());
+
+    assertThat(
+        results.get(0).getMetacard().getAttribute("description").getValue(), is("description1"));
+    assertThat(
+        results.get(1).getMetacard().getAttribute("description").getValue(), is("description2"));
+    assertThat(results.get(1).getMetacard().getTitle(), is("title2"));
+    verify(client, times(1)).getById(anyCollection());
+  }
+
+  @Test
+  public void testGetIdsMergesChunksInOrder() throws Exception {
+    mockDynamicSchemsolverCalls(
+        createAttributeDescriptor(Collections.singletonList("id")), Collections.emptyMap());
+    when(dynamicSchemaResolver.getDocValues(any(), any()))
+        .thenAnswer(invocation -> new ArrayList<>((Collection) invocation.getArgument(1)));
+    when(client.getById(anyCollection()))
+        .thenAnswer(
+            invocation -> {
+              List<String> chunk = new ArrayList<>(invocation.getArgument(0));
+              if (chunk.contains("0")) {
+                // the first chunk completes last
+                Thread.sleep(100);
+              }
+              SolrDocumentList docs = new SolrDocumentList();
+              for (String id : chunk) {
+                docs.add(createSolrDocument("id_txt", id));
+              }
+              return docs;
+            });
+    Set<String> ids = new LinkedHashSet<>();
+    for (int i = 0; i < SolrMetacardClientImpl.GET_BY_ID_LIMIT * 2 + 1; i++) {
+      ids.add(String.valueOf(i));
+    }
+
+    List<Metacard> metacards = clientImpl.getIds(ids);
+
+    verify(client, times(3)).getById(anyCollection());
+    assertThat(
+        metacards.stream().map(Metacard::getId).collect(Collectors.toList()),
+        is(new ArrayList<>(ids)));
+  }
+
+  @Test
+  public void testGetIdsReturnsDocumentsInOrderOfIds() throws Exception {
+    mockDynamicSchemsolverCalls(
+        createAttributeDescriptor(Collections.singletonList("id")), Collections.emptyMap());
+    when(dynamicSchemaResolver.getDocValues(any(), any()))
+        .thenAnswer(invocation -> new ArrayList<>((Collection) invocation.getArgument(1)));
+    when(client.getById(anyCollection()))
+        .thenAnswer(
+            invocation -> {
+              List<String> chunk = new ArrayList<>(invocation.getArgument(0));
+              Collections.reverse(chunk);
+              SolrDocumentList docs = new SolrDocumentList();
+              for (String id : chunk) {
+                if (!id.equals("missing")) {
+                  docs.add(createSolrDocument("id_txt", id));
+                }
+              }
+              return docs;
+            });
+    Set<String> ids = new LinkedHashSet<>();
+    for (int i = SolrMetacardClientImpl.GET_BY_ID_LIMIT * 2; i >= 0; i--) {
+      ids.add(String.valueOf(i));
+    }
+    ids.add("missing");
+
+    List<Metacard> metacards = clientImpl.getIds(ids);
+
+    List<String> expected = new ArrayList<>(ids);
+    expected.remove("missing");
+    assertThat(metacards.stream().map(Metacard::getId).collect(Collectors.toList()), is(expected));
+  }
+
+  @Test
+  public void testAddBuildsDocumentsInOrder() throws Exception {
+    doAnswer(
+            invocation -> {
+              invocation
+                  .<SolrInputDocument>getArgument(1)
+                  .addField("id_txt", invocation.<Metacard>getArgument(0).getId());
+              return null;
+            })
+        .when(dynamicSchemaResolver)
+        .addFields(any(), any());
+    List<Metacard> metacards = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      metacards.add(createMetacard("id" + i));
+    }
+
+    List<SolrInputDocument> docs = clientImpl.add(metacards, false);
+
+    assertThat(
+        docs.stream().map(doc -> doc.getFieldValue("id_txt")).collect(Collectors.toList()),
+        is(metacards.stream().map(Metacard::getId).collect(Collectors.toList())));
+    verify(client).add(docs);
+  }
+
+  @Test(expected = MetacardCreationException.class)
+  public void testAddFailsWhenADocumentCannotBeBuilt() throws Exception {
+    MetacardImpl failing = new MetacardImpl();
+    failing.setId("failing");
+    doThrow(new MetacardCreationException("failed"))
+        .when(dynamicSchemaResolver)
+        .addFields(eq(failing), any());
+
+    try {
+      clientImpl.add(
+          Arrays.asList(createMetacard("first"), failing, createMetacard("last")), false);
+    } finally {
+      verify(client, never()).add(anyCollection());
+    }
+  }
+
   private void verifyHighlight(List<Highlight> results, Highlight mustContain) {
     boolean found = false;
     for (Highlight highlight : results) {
@@ -370,6 +626,12 @@ private void verifyHighlight(List<Highlight> results, Highlight mustContain) {
     assertThat(found, is(true));
   }
 
+  private Metacard createMetacard(String id) {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId(id);
+    return metacard;
+  }
+
   private void mockDynamicSchemsolverCalls(
       Set<AttributeDescriptor> descriptors, Map<String, String> attributes)
       throws MetacardCreationException {
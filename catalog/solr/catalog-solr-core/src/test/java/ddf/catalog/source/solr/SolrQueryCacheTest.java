@@ -0,0 +1,379 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import ddf.action.ActionRegistry;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.data.impl.ResultImpl;
+import ddf.catalog.data.impl.types.CoreAttributes;
+import ddf.catalog.filter.FilterAdapter;
+import ddf.catalog.filter.FilterBuilder;
+import ddf.catalog.filter.proxy.adapter.GeotoolsFilterAdapterImpl;
+import ddf.catalog.filter.proxy.builder.GeotoolsFilterBuilder;
+import ddf.catalog.impl.FrameworkProperties;
+import ddf.catalog.impl.QueryResponsePostProcessor;
+import ddf.catalog.impl.operations.MetacardFactory;
+import ddf.catalog.impl.operations.OperationsMetacardSupport;
+import ddf.catalog.impl.operations.OperationsSecuritySupport;
+import ddf.catalog.impl.operations.QueryOperations;
+import ddf.catalog.impl.operations.SourceOperations;
+import ddf.catalog.operation.QueryRequest;
+import ddf.catalog.operation.QueryResponse;
+import ddf.catalog.operation.SourceResponse;
+import ddf.catalog.operation.impl.QueryImpl;
+import ddf.catalog.operation.impl.QueryRequestImpl;
+import ddf.catalog.operation.impl.QueryResponseImpl;
+import ddf.catalog.operation.impl.SourceResponseImpl;
+import ddf.catalog.plugin.PolicyPlugin;
+import ddf.catalog.plugin.impl.PolicyResponseImpl;
+import ddf.catalog.source.CatalogProvider;
+import ddf.security.SecurityConstants;
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.apache.shiro.subject.Subject;
+import org.apache.solr.common.SolrDocument;
+import org.codice.ddf.catalog.sourcepoller.SourcePoller;
+import org.codice.ddf.catalog.sourcepoller.SourceStatus;
+import org.codice.ddf.platform.util.uuidgenerator.UuidGenerator;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.filter.Filter;
+
+public class SolrQueryCacheTest {
+
+  private final FilterAdapter filterAdapter = new GeotoolsFilterAdapterImpl();
+
+  private final FilterBuilder filterBuilder = new GeotoolsFilterBuilder();
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private SolrQueryCache cache;
+
+  @Before
+  public void setup() {
+    cache = new SolrQueryCache(filterAdapter, 1024 * 1024, 60);
+  }
+
+  @Test
+  public void testRepeatedQueryIsLoadedOnce() throws Exception {
+    query(request(titleIs("first")));
+    SourceResponse response = query(request(titleIs("first")));
+
+    assertThat(loads.get(), is(1));
+    assertThat(response.getHits(), is(1L));
+    assertThat(response.getResults().get(0).getMetacard().getTitle(), is("first"));
+  }
+
+  @Test
+  public void testReorderedOperandsShareAnEntry() throws Exception {
+    query(request(filterBuilder.allOf(titleIs("first"), idIs("1"))));
+    query(request(filterBuilder.allOf(idIs("1"), titleIs("first"))));
+
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void testSubjectsDoNotShareEntries() throws Exception {
+    query(request(titleIs("first"), new TestSubject("alice")));
+    query(request(titleIs("first"), new TestSubject("bob")));
+    query(request(titleIs("first"), new TestSubject("alice")));
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void testRequestFromQueryOperationsIsCached() throws Exception {
+    QueryOperations queryOperations = queryOperations();
+    Subject subject = mock(Subject.class, withSettings().extraInterfaces(Serializable.class));
+    when(subject.getPrincipals()).thenReturn(new SimplePrincipalCollection("alice", "realm"));
+
+    for (int i = 0; i < 2; i++) {
+      Map<String, Serializable> properties = new HashMap<>();
+      properties.put(SecurityConstants.SECURITY_SUBJECT, (Serializable) subject);
+      QueryRequest request = new QueryRequestImpl(new QueryImpl(titleIs("first")), properties);
+
+      QueryResponse response = queryOperations.query(request, false);
+
+      assertThat(response.getResults().size(), is(1));
+      assertThat(
+          request.getProperties().get(PolicyPlugin.OPERATION_SECURITY),
+          is(Collections.singletonMap("role", Collections.singleton("guest"))));
+    }
+
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void testWriteNotVisibleYetKeepsAffectedResponsesOut() throws Exception {
+    cache.invalidate(Collections.singletonList(metacard("2", "first")), 60000);
+
+    query(request(titleIs("first")));
+    query(request(titleIs("first")));
+    query(request(titleIs("second")));
+    query(request(titleIs("second")));
+
+    assertThat(loads.get(), is(3));
+  }
+
+  @Test
+  public void testWriteVisibleAgainAllowsCaching() throws Exception {
+    cache.invalidate(Collections.singletonList(metacard("2", "first")), 1);
+    Thread.sleep(5);
+
+    query(request(titleIs("first")));
+    query(request(titleIs("first")));
+
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void testUnknownPropertyBypassesCache() throws Exception {
+    Map<String, Serializable> properties = new HashMap<>();
+    properties.put("custom", new StringBuilder("value"));
+
+    query(new QueryRequestImpl(new QueryImpl(titleIs("first")), properties));
+    query(new QueryRequestImpl(new QueryImpl(titleIs("first")), properties));
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void testWriteOfMatchingMetacardInvalidates() throws Exception {
+    query(request(titleIs("first")));
+
+    cache.invalidate(Collections.singletonList(metacard("2", "first")));
+    query(request(titleIs("first")));
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void testWriteOfReturnedMetacardInvalidates() throws Exception {
+    query(request(titleIs("first")));
+
+    cache.invalidate(Collections.singletonList(metacard("1", "renamed")));
+    query(request(titleIs("first")));
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void testWriteOfUnrelatedMetacardKeepsEntry() throws Exception {
+    query(request(titleIs("first")));
+
+    cache.invalidate(Collections.singletonList(metacard("2", "second")));
+    query(request(titleIs("first")));
+
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void testCachedMetacardsCannotBeModified() throws Exception {
+    SourceResponse response = query(request(titleIs("first")));
+    ((MetacardImpl) response.getResults().get(0).getMetacard()).setTitle("changed");
+
+    SourceResponse cached = query(request(titleIs("first")));
+
+    assertThat(cached.getResults().get(0).getMetacard().getTitle(), is("first"));
+  }
+
+  @Test
+  public void testSolrDocumentMetacardsAreCachedWithoutDecoding() throws Exception {
+    DynamicSchemaResolver resolver = mock(DynamicSchemaResolver.class);
+    when(resolver.resolveFieldName(anyString())).thenCallRealMethod();
+    when(resolver.getDocValues(anyString(), any()))
+        .thenAnswer(invocation -> new ArrayList<>((Collection<?>) invocation.getArgument(1)));
+
+    SolrDocument doc = new SolrDocument();
+    doc.setField("id_txt", "1");
+    doc.setField("title_txt", "first");
+    SolrDocument completeDoc = new SolrDocument();
+    completeDoc.putAll(doc);
+    completeDoc.setField("description_txt", "description");
+
+    AtomicInteger pageLoads = new AtomicInteger();
+    TestPageLoader loader = new TestPageLoader(completeDoc, pageLoads);
+    SolrDocumentMetacard metacard = new SolrDocumentMetacard(doc, new CoreAttributes(), resolver);
+    loader.add("1", metacard);
+    metacard.setLoader(new HashSet<>(Arrays.asList(Metacard.ID, Metacard.TITLE)), loader);
+
+    SolrQueryCache.Loader queryLoader =
+        queryRequest -> {
+          loads.incrementAndGet();
+          return new SourceResponseImpl(
+              queryRequest, Collections.singletonList(new ResultImpl(metacard)), 1L);
+        };
+    cache.query(request(titleIs("first")), queryLoader);
+    SourceResponse cached = cache.query(request(titleIs("first")), queryLoader);
+
+    assertThat(loads.get(), is(1));
+    assertThat(pageLoads.get(), is(0));
+    verify(resolver, never()).getDocValues(eq("title_txt"), any());
+
+    Metacard cachedMetacard = cached.getResults().get(0).getMetacard();
+    assertThat(cachedMetacard.getTitle(), is("first"));
+    assertThat(pageLoads.get(), is(0));
+    assertThat(cachedMetacard.getDescription(), is("description"));
+    assertThat(pageLoads.get(), is(1));
+  }
+
+  private SourceResponse query(QueryRequest request) throws Exception {
+    return cache.query(
+        request,
+        queryRequest -> {
+          loads.incrementAndGet();
+          List<Result> results = Collections.singletonList(new ResultImpl(metacard("1", "first")));
+          return new SourceResponseImpl(queryRequest, results, 1L);
+        });
+  }
+
+  /** Wires the framework's query operations to a provider that queries through the cache. */
+  private QueryOperations queryOperations() throws Exception {
+    CatalogProvider provider = mock(CatalogProvider.class);
+    when(provider.getId()).thenReturn("provider");
+    when(provider.query(any())).thenAnswer(invocation -> query(invocation.getArgument(0)));
+
+    PolicyPlugin policyPlugin = mock(PolicyPlugin.class);
+    when(policyPlugin.processPreQuery(any(), any()))
+        .thenReturn(
+            new PolicyResponseImpl(
+                Collections.singletonMap("role", Collections.singleton("guest")), null));
+
+    SourcePoller<SourceStatus> statusPoller = mock(SourcePoller.class);
+    when(statusPoller.getCachedValueForSource(any()))
+        .thenReturn(Optional.of(SourceStatus.AVAILABLE));
+
+    FrameworkProperties properties = new FrameworkProperties();
+    properties.setCatalogProviders(Collections.singletonList(provider));
+    properties.setPolicyPlugins(Collections.singletonList(policyPlugin));
+    properties.setFederationStrategy(
+        (sources, request) -> {
+          SourceResponse response = sources.get(0).query(request);
+          return new QueryResponseImpl(request, response.getResults(), response.getHits());
+        });
+    properties.setQueryResponsePostProcessor(mock(QueryResponsePostProcessor.class));
+    properties.setFilterBuilder(filterBuilder);
+
+    SourceOperations sourceOperations =
+        new SourceOperations(
+            properties, mock(ActionRegistry.class), statusPoller, mock(SourcePoller.class));
+    sourceOperations.bind(provider);
+    return new QueryOperations(
+        properties,
+        sourceOperations,
+        new OperationsSecuritySupport(),
+        new OperationsMetacardSupport(
+            properties,
+            new MetacardFactory(
+                properties.getMimeTypeToTransformerMapper(), mock(UuidGenerator.class))));
+  }
+
+  private Filter titleIs(String title) {
+    return filterBuilder.attribute(Metacard.TITLE).is().equalTo().text(title);
+  }
+
+  private Filter idIs(String id) {
+    return filterBuilder.attribute(Metacard.ID).is().equalTo().text(id);
+  }
+
+  private static QueryRequest request(Filter filter) {
+    return new QueryRequestImpl(new QueryImpl(filter));
+  }
+
+  private static QueryRequest request(Filter filter, Principal subject) {
+    Map<String, Serializable> properties = new HashMap<>();
+    properties.put("ddf.security.subject", (Serializable) subject);
+    return new QueryRequestImpl(new QueryImpl(filter), properties);
+  }
+
+  private static Metacard metacard(String id, String title) {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId(id);
+    metacard.setTitle(title);
+    return metacard;
+  }
+
+  /** Adds the fields of a complete document to the metacards of the page. */
+  private static class TestPageLoader implements SolrDocumentMetacard.PageLoader {
+
+    private final SolrDocument completeDoc;
+
+    private final AtomicInteger loads;
+
+    private final List<SolrDocumentMetacard> metacards = new ArrayList<>();
+
+    private TestPageLoader(SolrDocument completeDoc, AtomicInteger loads) {
+      this.completeDoc = completeDoc;
+      this.loads = loads;
+    }
+
+    @Override
+    public void add(String id, SolrDocumentMetacard metacard) {
+      metacards.add(metacard);
+    }
+
+    @Override
+    public SolrDocumentMetacard.PageLoader newLoader() {
+      return new TestPageLoader(completeDoc, loads);
+    }
+
+    @Override
+    public synchronized void load() {
+      loads.incrementAndGet();
+      for (SolrDocumentMetacard metacard : metacards) {
+        metacard.addFields(completeDoc);
+        metacard.setLoaded();
+      }
+      metacards.clear();
+    }
+  }
+
+  private static class TestSubject implements Principal, Serializable {
+
+    private final String name;
+
+    private TestSubject(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr.codec;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ValueCodecRegistryTest {
+
+  private ValueCodecRegistry registry;
+
+  @Before
+  public void setup() {
+    registry = new ValueCodecRegistry();
+  }
+
+  @Test
+  public void testRoundTripBuiltInTypes() throws IOException {
+    for (Serializable value :
+        Arrays.<Serializable>asList(
+            "value é",
+            true,
+            (byte) 7,
+            (short) 300,
+            42,
+            Long.MAX_VALUE,
+            1.5f,
+            -2.25d,
+            new Date(1234567890L))) {
+      assertThat(registry.decode(registry.encode(value)), is(value));
+    }
+  }
+
+  @Test
+  public void testRoundTripByteArray() throws IOException {
+    byte[] value = {1, 2, 3};
+
+    assertThat(registry.decode(registry.encode(value)), is(value));
+  }
+
+  @Test
+  public void testRoundTripNull() throws IOException {
+    assertThat(registry.decode(registry.encode(null)), is(nullValue()));
+  }
+
+  @Test
+  public void testRoundTripNestedCollections() throws IOException {
+    LinkedHashMap<String, Serializable> value = new LinkedHashMap<>();
+    value.put("list", new ArrayList<>(Arrays.asList("a", 1, null)));
+    value.put("set", new HashSet<>(Arrays.asList(1L, 2L)));
+    value.put("ordered", new LinkedHashSet<>(Arrays.asList("z", "a")));
+    HashMap<String, Serializable> nested = new HashMap<>();
+    nested.put("date", new Date(0L));
+    value.put("map", nested);
+
+    Serializable decoded = registry.decode(registry.encode(value));
+
+    assertThat(decoded, instanceOf(LinkedHashMap.class));
+    assertThat(decoded, is(value));
+    assertThat(
+        new ArrayList<>(((LinkedHashMap<?, ?>) decoded).keySet()),
+        is(Arrays.asList("list", "set", "ordered", "map")));
+  }
+
+  @Test
+  public void testEncodingIsSmallerThanJavaSerialization() throws IOException {
+    HashMap<String, Serializable> value = new HashMap<>();
+    value.put("count", 5);
+    value.put("names", new ArrayList<>(Arrays.asList("one", "two")));
+
+    assertThat(registry.encode(value).length, lessThan(javaSerialize(value).length));
+  }
+
+  @Test
+  public void testVersionIsWritten() throws IOException {
+    assertThat(registry.encode("value")[0], is(ValueCodecRegistry.FORMAT_VERSION));
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnknownVersion() throws IOException {
+    byte[] bytes = registry.encode("value");
+    bytes[0] = ValueCodecRegistry.FORMAT_VERSION + 1;
+
+    registry.decode(bytes);
+  }
+
+  @Test(expected = IOException.class)
+  public void testByteLengthLargerThanInput() throws IOException {
+    byte[] bytes = registry.encode("value");
+    ByteBuffer.wrap(bytes, 2, Integer.BYTES).putInt(Integer.MAX_VALUE);
+
+    registry.decode(bytes);
+  }
+
+  @Test(expected = IOException.class)
+  public void testCollectionSizeLargerThanInput() throws IOException {
+    byte[] bytes = registry.encode(new ArrayList<>(Arrays.asList("a", "b")));
+    ByteBuffer.wrap(bytes, 2, Integer.BYTES).putInt(Integer.MAX_VALUE);
+
+    registry.decode(bytes);
+  }
+
+  @Test
+  public void testDecodeJavaSerializedValue() throws IOException {
+    HashMap<String, Serializable> value = new HashMap<>();
+    value.put("key", "value");
+
+    assertThat(registry.decode(javaSerialize(value)), is(value));
+  }
+
+  @Test
+  public void testTypeWithoutCodecUsesJavaSerialization() throws IOException {
+    UUID value = UUID.randomUUID();
+    ArrayList<Serializable> list = new ArrayList<>(Arrays.asList(value, "other"));
+
+    assertThat(registry.decode(registry.encode(value)), is(value));
+    assertThat(registry.decode(registry.encode(list)), is(list));
+  }
+
+  @Test
+  public void testRegisteredCodec() throws IOException {
+    registry.register(new UuidCodec(ValueCodecRegistry.FIRST_CUSTOM_TAG));
+    UUID value = UUID.randomUUID();
+
+    byte[] bytes = registry.encode(value);
+
+    assertThat(bytes.length, is(18));
+    assertThat(registry.decode(bytes), is(value));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRegisterReservedTag() {
+    registry.register(new UuidCodec((byte) 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRegisterDuplicateTag() {
+    registry.register(new UuidCodec(ValueCodecRegistry.FIRST_CUSTOM_TAG));
+    registry.register(new UuidCodec(ValueCodecRegistry.FIRST_CUSTOM_TAG));
+  }
+
+  private static byte[] javaSerialize(Serializable value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static class UuidCodec implements ValueCodec<UUID> {
+
+    private final byte tag;
+
+    UuidCodec(byte tag) {
+      this.tag = tag;
+    }
+
+    @Override
+    public byte getTag() {
+      return tag;
+    }
+
+    @Override
+    public Class<UUID> getType() {
+      return UUID.class;
+    }
+
+    @Override
+    public void write(UUID value, DataOutput out, ValueCodecRegistry registry) throws IOException {
+      out.writeLong(value.getMostSignificantBits());
+      out.writeLong(value.getLeastSignificantBits());
+    }
+
+    @Override
+    public UUID read(DataInput in, ValueCodecRegistry registry) throws IOException {
+      return new UUID(in.readLong(), in.readLong());
+    }
+  }
+}
@@ -17,10 +17,19 @@
 import ddf.catalog.source.solr.DynamicSchemaResolver;
 import ddf.catalog.source.solr.RemoteSolrCatalogProvider;
 import ddf.catalog.source.solr.SolrFilterDelegateFactory;
+import ddf.catalog.source.solr.SolrMetacardTypeStore;
+import java.io.IOException;
 import org.codice.solr.factory.SolrClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** Catalog Provider that interfaces with Solr */
 public class SolrCatalogProvider extends RemoteSolrCatalogProvider {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SolrCatalogProvider.class);
+
+  private final SolrMetacardTypeStore metacardTypeStore;
+
   public SolrCatalogProvider(
       FilterAdapter filterAdapter,
       SolrClientFactory clientFactory,
@@ -31,5 +40,19 @@ public SolrCatalogProvider(
         clientFactory.newClient(SOLR_CATALOG_CORE_NAME),
         solrFilterDelegateFactory,
         dynamicSchemaResolver);
+    this.metacardTypeStore =
+        new SolrMetacardTypeStore(
+            clientFactory.newClient(SolrMetacardTypeStore.METACARD_TYPES_CORE_NAME));
+    dynamicSchemaResolver.setMetacardTypeStore(metacardTypeStore);
+  }
+
+  @Override
+  public void shutdown() {
+    super.shutdown();
+    try {
+      metacardTypeStore.close();
+    } catch (IOException e) {
+      LOGGER.debug("Failed to close the metacard type store", e);
+    }
   }
 }
@@ -14,6 +14,7 @@
 package org.codice.ddf.spatial.ogc.csw.catalog.endpoint;
 
 import static ddf.catalog.Constants.ADDITIONAL_SORT_BYS;
+import static ddf.catalog.Constants.REQUESTED_ATTRIBUTES_KEY;
 
 import ddf.catalog.data.AttributeRegistry;
 import ddf.catalog.data.types.Core;
@@ -161,11 +162,25 @@ public QueryRequest getQuery(GetRecordsType request) throws CswException {
     if (extSortBys != null && extSortBys.length > 0) {
       properties.put(ADDITIONAL_SORT_BYS, extSortBys);
     }
+    if (query.isSetElementName() && !query.getElementName().isEmpty()) {
+      properties.put(REQUESTED_ATTRIBUTES_KEY, getRequestedAttributes(query.getElementName()));
+    }
 
     QueryRequest queryRequest = getQueryRequest(frameworkQuery, isEnterprise, properties);
     return transformQuery(queryRequest, query.getTypeNames());
   }
 
+  /**
+   * Maps the element names of a query to the catalog attributes they are written from, so that
+   * sources can return only those attributes with the results.
+   */
+  private ArrayList<String> getRequestedAttributes(List<QName> elementNames) {
+    return elementNames.stream()
+        .map(elementName -> cswRecordMap.getProperty(elementName.getLocalPart()))
+        .distinct()
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
   public QueryRequest getQuery(QueryConstraintType constraint, String typeName)
       throws CswException {
     Filter filter = buildFilter(constraint);
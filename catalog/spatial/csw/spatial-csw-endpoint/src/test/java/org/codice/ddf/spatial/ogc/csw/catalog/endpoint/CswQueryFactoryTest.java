@@ -16,6 +16,7 @@
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
@@ -26,6 +27,7 @@
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.impl.AttributeDescriptorImpl;
@@ -416,6 +418,40 @@ public void testPostGetRecordsValidSort()
     assertThat(resultSort.getSortOrder(), is(SortOrder.ASCENDING));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testPostGetRecordsElementNamesAreRequestedAttributes()
+      throws CswException, UnsupportedQueryException, SourceUnavailableException,
+          FederationException {
+    GetRecordsType grr = createDefaultPostRecordsRequest();
+
+    QueryType query = new QueryType();
+    query.getElementName().add(CswConstants.CSW_IDENTIFIER_QNAME);
+    query.getElementName().add(CswConstants.CSW_TITLE_QNAME);
+
+    JAXBElement<QueryType> jaxbQuery =
+        new JAXBElement<>(cswQnameOutPutSchema, QueryType.class, query);
+
+    grr.setAbstractQuery(jaxbQuery);
+
+    QueryRequest queryRequest = queryFactory.getQuery(grr);
+
+    assertThat(
+        (List<String>) queryRequest.getPropertyValue(Constants.REQUESTED_ATTRIBUTES_KEY),
+        containsInAnyOrder(Core.ID, Core.TITLE));
+  }
+
+  @Test
+  public void testPostGetRecordsWithoutElementNamesRequestsAllAttributes()
+      throws CswException, UnsupportedQueryException, SourceUnavailableException,
+          FederationException {
+    GetRecordsType grr = createDefaultPostRecordsRequest();
+
+    QueryRequest queryRequest = queryFactory.getQuery(grr);
+
+    assertThat(queryRequest.getPropertyValue(Constants.REQUESTED_ATTRIBUTES_KEY), is(nullValue()));
+  }
+
   @Test
   public void testPostGetRecordsFunctionCQLQuery()
       throws CswException, UnsupportedQueryException, SourceUnavailableException,
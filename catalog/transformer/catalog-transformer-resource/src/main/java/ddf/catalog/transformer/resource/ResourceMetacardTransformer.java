@@ -22,7 +22,7 @@
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceNotSupportedException;
-import ddf.catalog.resource.impl.ResourceImpl;
+import ddf.catalog.resource.impl.ByteRangeResourceImpl;
 import ddf.catalog.transform.CatalogTransformerException;
 import ddf.catalog.transform.MetacardTransformer;
 import java.io.IOException;
@@ -110,8 +110,8 @@ public BinaryContent transform(Metacard metacard, Map<String, Serializable> argu
         // There is no method to set the MIME type, so in order to set it to our default
         // one, we need to create a new object.
         transformedContent =
-            new ResourceImpl(
-                transformedContent.getInputStream(), mimeType, transformedContent.getName());
+            ByteRangeResourceImpl.wrap(
+                transformedContent, transformedContent.getInputStream(), mimeType);
       } catch (MimeTypeParseException e) {
         throw new CatalogTransformerException(
             "Could not create default mime type upon null mimeType, for default mime type '"
@@ -14,18 +14,22 @@
 package org.codice.ddf.validator.metacard.duplication;
 
 import com.google.common.base.Preconditions;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
 import ddf.catalog.CatalogFramework;
 import ddf.catalog.data.Attribute;
 import ddf.catalog.data.Metacard;
+import ddf.catalog.data.Result;
 import ddf.catalog.federation.FederationException;
 import ddf.catalog.filter.FilterBuilder;
+import ddf.catalog.filter.impl.SortByImpl;
 import ddf.catalog.operation.QueryRequest;
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.operation.impl.QueryImpl;
 import ddf.catalog.operation.impl.QueryRequestImpl;
 import ddf.catalog.source.SourceUnavailableException;
 import ddf.catalog.source.UnsupportedQueryException;
-import ddf.catalog.validation.MetacardValidator;
+import ddf.catalog.validation.BatchMetacardValidator;
 import ddf.catalog.validation.ReportingMetacardValidator;
 import ddf.catalog.validation.ValidationException;
 import ddf.catalog.validation.impl.ValidationExceptionImpl;
@@ -33,25 +37,42 @@
 import ddf.catalog.validation.impl.violation.ValidationViolationImpl;
 import ddf.catalog.validation.report.MetacardValidationReport;
 import ddf.catalog.validation.violation.ValidationViolation;
+import ddf.security.service.SecurityServiceException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.ArrayUtils;
+import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
+import org.codice.ddf.security.Security;
 import org.opengis.filter.Filter;
+import org.opengis.filter.sort.SortOrder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class DuplicationValidator
-    implements MetacardValidator,
+    implements BatchMetacardValidator,
         ReportingMetacardValidator,
         ddf.catalog.util.Describable,
         org.codice.ddf.platform.services.common.Describable {
@@ -63,6 +84,13 @@
 
   private static final String VERSION = "version";
 
+  /** Maximum number of attribute values checked by a single batch query. */
+  private static final int MAX_VALUES_PER_QUERY = 256;
+
+  private static final int QUERY_PAGE_SIZE = 1000;
+
+  private static final double KNOWN_VALUES_FALSE_POSITIVE_RATE = 0.01;
+
   private static Properties describableProperties = new Properties();
 
   static {
@@ -78,13 +106,47 @@
 
   private final FilterBuilder filterBuilder;
 
+  private final Security security;
+
+  private final ExecutorService knownValuesLoader =
+      Executors.newSingleThreadExecutor(
+          StandardThreadFactoryBuilder.newThreadFactory("duplicationValidatorKnownValuesThread"));
+
   private String[] errorOnDuplicateAttributes;
 
   private String[] warnOnDuplicateAttributes;
 
-  public DuplicationValidator(CatalogFramework catalogFramework, FilterBuilder filterBuilder) {
+  private boolean knownValuesFilterEnabled = false;
+
+  private int knownValuesFilterSize = 1_000_000;
+
+  private boolean initialized = false;
+
+  private Future<?> knownValuesLoad;
+
+  /**
+   * Probabilistic set of the attribute values known to be in the catalog, or null until it has been
+   * loaded. A value it does not contain is not in the catalog, so it does not need to be queried.
+   */
+  private volatile BloomFilter<CharSequence> knownValues;
+
+  /** The set being loaded, which also receives the values validated while the load runs. */
+  private volatile BloomFilter<CharSequence> loadingKnownValues;
+
+  public DuplicationValidator(
+      CatalogFramework catalogFramework, FilterBuilder filterBuilder, Security security) {
     this.catalogFramework = catalogFramework;
     this.filterBuilder = filterBuilder;
+    this.security = security;
+  }
+
+  public synchronized void init() {
+    initialized = true;
+    loadKnownValues();
+  }
+
+  public void destroy() {
+    knownValuesLoader.shutdownNow();
   }
 
   /**
@@ -97,6 +159,7 @@ public DuplicationValidator(CatalogFramework catalogFramework, FilterBuilder fil
   public void setErrorOnDuplicateAttributes(String[] attributeStrings) {
     if (attributeStrings != null) {
       this.errorOnDuplicateAttributes = Arrays.copyOf(attributeStrings, attributeStrings.length);
+      loadKnownValues();
     }
   }
 
@@ -110,14 +173,41 @@ public void setErrorOnDuplicateAttributes(String[] attributeStrings) {
   public void setWarnOnDuplicateAttributes(String[] attributeStrings) {
     if (attributeStrings != null) {
       this.warnOnDuplicateAttributes = Arrays.copyOf(attributeStrings, attributeStrings.length);
+      loadKnownValues();
     }
   }
 
+  /**
+   * Enables an in-memory probabilistic set of the checked attribute values in the catalog, loaded
+   * in the background at startup. Values it does not contain skip the catalog query. Only metacards
+   * validated by this validator are added to it after the load, so it should only be enabled when
+   * all ingest goes through this validator.
+   *
+   * @param knownValuesFilterEnabled whether the known values filter is used
+   */
+  public void setKnownValuesFilterEnabled(boolean knownValuesFilterEnabled) {
+    this.knownValuesFilterEnabled = knownValuesFilterEnabled;
+    loadKnownValues();
+  }
+
+  /**
+   * Sets the number of attribute values the known values filter is sized for. Past this size the
+   * rate of values needlessly queried grows.
+   *
+   * @param knownValuesFilterSize expected number of attribute values in the catalog
+   */
+  public void setKnownValuesFilterSize(int knownValuesFilterSize) {
+    this.knownValuesFilterSize = Math.max(1, knownValuesFilterSize);
+    loadKnownValues();
+  }
+
   @Override
   public Optional<MetacardValidationReport> validateMetacard(Metacard metacard) {
     Preconditions.checkArgument(metacard != null, "The metacard cannot be null.");
 
-    return getReport(reportDuplicates(metacard));
+    Optional<MetacardValidationReport> report = getReport(reportDuplicates(metacard));
+    rememberValues(Collections.singletonList(metacard));
+    return report;
   }
 
   @Override
@@ -126,32 +216,92 @@ public void validate(Metacard metacard) throws ValidationException {
     final Optional<MetacardValidationReport> report = validateMetacard(metacard);
 
     if (report.isPresent()) {
-      final List<String> errors =
-          report.get().getMetacardValidationViolations().stream()
-              .filter(
-                  validationViolation ->
-                      validationViolation.getSeverity().equals(ValidationViolation.Severity.ERROR))
-              .map(ValidationViolation::getMessage)
-              .collect(Collectors.toList());
-      final List<String> warnings =
-          report.get().getMetacardValidationViolations().stream()
-              .filter(
-                  validationViolation ->
-                      validationViolation
-                          .getSeverity()
-                          .equals(ValidationViolation.Severity.WARNING))
-              .map(ValidationViolation::getMessage)
-              .collect(Collectors.toList());
-
-      String message =
-          String.format("Duplicate data found in catalog for ID {%s}.", metacard.getId());
-      final ValidationExceptionImpl exception = new ValidationExceptionImpl(message);
-      exception.setErrors(errors);
-      exception.setWarnings(warnings);
-      throw exception;
+      throw createException(metacard, report.get());
     }
   }
 
+  /**
+   * Validates a batch of metacards with a single query for the attribute values of the whole batch.
+   * A metacard sharing a value with an earlier metacard of the batch is also reported as a
+   * duplicate of it, by its ID or, when it has none yet, as another metacard of the request.
+   */
+  @Override
+  public List<Optional<ValidationException>> validate(List<Metacard> metacards) {
+    Preconditions.checkArgument(metacards != null, "The metacards cannot be null.");
+
+    List<Set<Map.Entry<String, String>>> metacardValues =
+        metacards.stream()
+            .map(metacard -> getValues(metacard, getAttributeNames()))
+            .collect(Collectors.toList());
+    Set<Map.Entry<String, String>> queryValues =
+        metacardValues.stream()
+            .flatMap(Set::stream)
+            .filter(this::mightBeKnown)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    Map<Map.Entry<String, String>, Set<String>> catalogMatches = queryDuplicates(queryValues);
+
+    Map<Map.Entry<String, String>, Set<Integer>> batchMatches = new HashMap<>();
+    List<Optional<ValidationException>> results = new ArrayList<>(metacards.size());
+    for (int i = 0; i < metacards.size(); i++) {
+      Metacard metacard = metacards.get(i);
+      Set<ValidationViolation> violations = new HashSet<>();
+      if (ArrayUtils.isNotEmpty(warnOnDuplicateAttributes)) {
+        reportDuplicates(
+                metacard,
+                warnOnDuplicateAttributes,
+                ValidationViolation.Severity.WARNING,
+                catalogMatches,
+                batchMatches,
+                metacards)
+            .ifPresent(violations::add);
+      }
+      if (ArrayUtils.isNotEmpty(errorOnDuplicateAttributes)) {
+        reportDuplicates(
+                metacard,
+                errorOnDuplicateAttributes,
+                ValidationViolation.Severity.ERROR,
+                catalogMatches,
+                batchMatches,
+                metacards)
+            .ifPresent(violations::add);
+      }
+      results.add(getReport(violations).map(report -> createException(metacard, report)));
+
+      int position = i;
+      metacardValues
+          .get(i)
+          .forEach(
+              value -> batchMatches.computeIfAbsent(value, key -> new HashSet<>()).add(position));
+    }
+
+    rememberValues(metacards);
+    return results;
+  }
+
+  private ValidationException createException(Metacard metacard, MetacardValidationReport report) {
+    final List<String> errors =
+        report.getMetacardValidationViolations().stream()
+            .filter(
+                validationViolation ->
+                    validationViolation.getSeverity().equals(ValidationViolation.Severity.ERROR))
+            .map(ValidationViolation::getMessage)
+            .collect(Collectors.toList());
+    final List<String> warnings =
+        report.getMetacardValidationViolations().stream()
+            .filter(
+                validationViolation ->
+                    validationViolation.getSeverity().equals(ValidationViolation.Severity.WARNING))
+            .map(ValidationViolation::getMessage)
+            .collect(Collectors.toList());
+
+    String message =
+        String.format("Duplicate data found in catalog for ID {%s}.", metacard.getId());
+    final ValidationExceptionImpl exception = new ValidationExceptionImpl(message);
+    exception.setErrors(errors);
+    exception.setWarnings(warnings);
+    return exception;
+  }
+
   private Set<ValidationViolation> reportDuplicates(final Metacard metacard) {
 
     Set<ValidationViolation> violations = new HashSet<>();
@@ -188,7 +338,7 @@ private ValidationViolation reportDuplicates(
             .collect(Collectors.toSet());
     final Set<Attribute> uniqueAttributes =
         uniqueAttributeNames.stream().map(metacard::getAttribute).collect(Collectors.toSet());
-    if (!uniqueAttributes.isEmpty()) {
+    if (!uniqueAttributes.isEmpty() && anyMightBeKnown(getValues(metacard, uniqueAttributeNames))) {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(
             "Checking for duplicates for id {} against attributes [{}]",
@@ -244,15 +394,294 @@ private SourceResponse query(Set<Attribute> attributes) {
     return response;
   }
 
+  private Optional<ValidationViolation> reportDuplicates(
+      final Metacard metacard,
+      String[] attributeNames,
+      ValidationViolation.Severity severity,
+      Map<Map.Entry<String, String>, Set<String>> catalogMatches,
+      Map<Map.Entry<String, String>, Set<Integer>> batchMatches,
+      List<Metacard> batch) {
+
+    final Set<String> uniqueAttributeNames =
+        Stream.of(attributeNames)
+            .filter(attribute -> metacard.getAttribute(attribute) != null)
+            .collect(Collectors.toSet());
+    final Set<Map.Entry<String, String>> values = getValues(metacard, uniqueAttributeNames);
+    final List<Metacard> batchDuplicates =
+        values.stream()
+            .flatMap(value -> batchMatches.getOrDefault(value, Collections.emptySet()).stream())
+            .distinct()
+            .map(batch::get)
+            .collect(Collectors.toList());
+    final Set<String> duplicates =
+        Stream.concat(
+                values.stream()
+                    .flatMap(
+                        value ->
+                            catalogMatches.getOrDefault(value, Collections.emptySet()).stream()),
+                batchDuplicates.stream().map(Metacard::getId).filter(Objects::nonNull))
+            .filter(id -> !Objects.equals(id, metacard.getId()))
+            .collect(Collectors.toSet());
+    // metacards are only given IDs when they are created, so earlier metacards of the request
+    // usually have none
+    final boolean duplicatesRequestMetacard =
+        batchDuplicates.stream().anyMatch(duplicate -> duplicate.getId() == null);
+    if (duplicates.isEmpty() && !duplicatesRequestMetacard) {
+      return Optional.empty();
+    }
+
+    ValidationViolation violation =
+        createViolation(uniqueAttributeNames, duplicates, duplicatesRequestMetacard, severity);
+    LOGGER.debug(violation.getMessage());
+    return Optional.of(violation);
+  }
+
+  /**
+   * Finds the catalog metacards having any of the given attribute values, keyed by the value. A
+   * value matched by two metacards is a duplicate of any metacard, so paging stops once every value
+   * has two matches.
+   */
+  private Map<Map.Entry<String, String>, Set<String>> queryDuplicates(
+      Set<Map.Entry<String, String>> values) {
+    Map<Map.Entry<String, String>, Set<String>> matches = new HashMap<>();
+    List<Map.Entry<String, String>> valueList = new ArrayList<>(values);
+    for (int from = 0; from < valueList.size(); from += MAX_VALUES_PER_QUERY) {
+      List<Map.Entry<String, String>> chunk =
+          valueList.subList(from, Math.min(from + MAX_VALUES_PER_QUERY, valueList.size()));
+      queryDuplicates(new HashSet<>(chunk), matches);
+    }
+    return matches;
+  }
+
+  private void queryDuplicates(
+      Set<Map.Entry<String, String>> values, Map<Map.Entry<String, String>, Set<String>> matches) {
+    final Filter filter =
+        filterBuilder.allOf(
+            filterBuilder.anyOf(
+                values.stream()
+                    .map(
+                        value ->
+                            filterBuilder
+                                .attribute(value.getKey())
+                                .equalTo()
+                                .text(value.getValue()))
+                    .toArray(Filter[]::new)));
+    final Set<String> attributeNames =
+        values.stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+
+    LOGGER.debug("Checking {} attribute values for duplicates", values.size());
+
+    int startIndex = 1;
+    List<Result> results;
+    do {
+      QueryImpl query = new QueryImpl(filter);
+      query.setStartIndex(startIndex);
+      query.setPageSize(QUERY_PAGE_SIZE);
+      query.setRequestsTotalResultsCount(false);
+
+      try {
+        results = getResults(catalogFramework.query(new QueryRequestImpl(query)));
+      } catch (FederationException | SourceUnavailableException | UnsupportedQueryException e) {
+        LOGGER.debug("Query failed ", e);
+        return;
+      }
+
+      for (Result result : results) {
+        Metacard match = result.getMetacard();
+        getValues(match, attributeNames).stream()
+            .filter(values::contains)
+            .forEach(
+                value -> matches.computeIfAbsent(value, key -> new HashSet<>()).add(match.getId()));
+      }
+      startIndex += results.size();
+    } while (results.size() >= QUERY_PAGE_SIZE
+        && !values.stream()
+            .allMatch(value -> matches.getOrDefault(value, Collections.emptySet()).size() > 1));
+  }
+
+  private List<Result> getResults(SourceResponse response) {
+    return response != null && response.getResults() != null
+        ? response.getResults()
+        : Collections.emptyList();
+  }
+
+  private Set<String> getAttributeNames() {
+    Set<String> attributeNames = new HashSet<>();
+    if (warnOnDuplicateAttributes != null) {
+      attributeNames.addAll(Arrays.asList(warnOnDuplicateAttributes));
+    }
+    if (errorOnDuplicateAttributes != null) {
+      attributeNames.addAll(Arrays.asList(errorOnDuplicateAttributes));
+    }
+    return attributeNames;
+  }
+
+  private Set<Map.Entry<String, String>> getValues(
+      Metacard metacard, Collection<String> attributeNames) {
+    Set<Map.Entry<String, String>> values = new LinkedHashSet<>();
+    for (String attributeName : attributeNames) {
+      Attribute attribute = metacard.getAttribute(attributeName);
+      if (attribute != null && attribute.getValues() != null) {
+        attribute.getValues().stream()
+            .filter(Objects::nonNull)
+            .map(
+                value ->
+                    new AbstractMap.SimpleImmutableEntry<>(attributeName, value.toString().trim()))
+            .forEach(values::add);
+      }
+    }
+    return values;
+  }
+
+  private boolean mightBeKnown(Map.Entry<String, String> value) {
+    BloomFilter<CharSequence> known = knownValues;
+    return known == null || known.mightContain(toKnownValue(value));
+  }
+
+  private boolean anyMightBeKnown(Collection<Map.Entry<String, String>> values) {
+    return values.stream().anyMatch(this::mightBeKnown);
+  }
+
+  /**
+   * Adds the values of validated metacards to the known values, whether or not their ingest
+   * succeeds, since an extra value only costs a query.
+   */
+  private void rememberValues(List<Metacard> metacards) {
+    BloomFilter<CharSequence> known = knownValues;
+    BloomFilter<CharSequence> loading = loadingKnownValues;
+    if (known == null && loading == null) {
+      return;
+    }
+
+    Set<String> attributeNames = getAttributeNames();
+    for (Metacard metacard : metacards) {
+      for (Map.Entry<String, String> value : getValues(metacard, attributeNames)) {
+        if (known != null) {
+          known.put(toKnownValue(value));
+        }
+        if (loading != null) {
+          loading.put(toKnownValue(value));
+        }
+      }
+    }
+  }
+
+  private String toKnownValue(Map.Entry<String, String> value) {
+    return value.getKey() + '\0' + value.getValue();
+  }
+
+  /**
+   * Starts loading the known values in the background, replacing any load in progress. Until the
+   * load completes every value is queried.
+   */
+  synchronized Future<?> loadKnownValues() {
+    if (knownValuesLoad != null) {
+      knownValuesLoad.cancel(true);
+    }
+    knownValues = null;
+    loadingKnownValues = null;
+    knownValuesLoad = null;
+
+    Set<String> attributeNames = getAttributeNames();
+    if (!initialized || !knownValuesFilterEnabled || attributeNames.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    BloomFilter<CharSequence> loading =
+        BloomFilter.create(
+            Funnels.stringFunnel(StandardCharsets.UTF_8),
+            knownValuesFilterSize,
+            KNOWN_VALUES_FALSE_POSITIVE_RATE);
+    loadingKnownValues = loading;
+    knownValuesLoad =
+        knownValuesLoader.submit(
+            () ->
+                security.runAsAdmin(
+                    () -> {
+                      try {
+                        security.runWithSubjectOrElevate(
+                            () -> loadKnownValues(loading, attributeNames));
+                      } catch (SecurityServiceException | InvocationTargetException e) {
+                        LOGGER.info(
+                            "Could not load the known duplication attribute values. Every value will be checked against the catalog.",
+                            e);
+                      }
+                      return null;
+                    }));
+    return knownValuesLoad;
+  }
+
+  private Void loadKnownValues(BloomFilter<CharSequence> loading, Set<String> attributeNames)
+      throws FederationException, SourceUnavailableException, UnsupportedQueryException {
+    LOGGER.debug("Loading known values of attributes [{}]", collectionToString(attributeNames));
+
+    final Filter filter =
+        filterBuilder.anyOf(
+            attributeNames.stream()
+                .map(attributeName -> filterBuilder.attribute(attributeName).is().like().text("*"))
+                .toArray(Filter[]::new));
+
+    int startIndex = 1;
+    List<Result> results;
+    do {
+      if (Thread.currentThread().isInterrupted()) {
+        return null;
+      }
+
+      QueryImpl query = new QueryImpl(filter);
+      query.setStartIndex(startIndex);
+      query.setPageSize(QUERY_PAGE_SIZE);
+      query.setSortBy(new SortByImpl(Metacard.ID, SortOrder.ASCENDING));
+      query.setRequestsTotalResultsCount(false);
+
+      results = getResults(catalogFramework.query(new QueryRequestImpl(query)));
+      for (Result result : results) {
+        getValues(result.getMetacard(), attributeNames).stream()
+            .map(this::toKnownValue)
+            .forEach(loading::put);
+      }
+      startIndex += results.size();
+    } while (results.size() >= QUERY_PAGE_SIZE);
+
+    synchronized (this) {
+      if (loadingKnownValues == loading) {
+        knownValues = loading;
+        loadingKnownValues = null;
+        LOGGER.debug("Loaded known values from {} metacards", startIndex - 1);
+      }
+    }
+    return null;
+  }
+
   private ValidationViolation createViolation(
       final Set<String> attributes, Set<String> duplicates, ValidationViolation.Severity severity) {
+    return createViolation(attributes, duplicates, false, severity);
+  }
 
-    return new ValidationViolationImpl(
-        attributes,
-        String.format(
-            "Duplicate data found in catalog: {%s}, based on attributes: {%s}.",
-            collectionToString(duplicates), collectionToString(attributes)),
-        severity);
+  private ValidationViolation createViolation(
+      final Set<String> attributes,
+      Set<String> duplicates,
+      boolean duplicatesRequestMetacard,
+      ValidationViolation.Severity severity) {
+
+    String message;
+    if (duplicates.isEmpty()) {
+      message =
+          String.format(
+              "Duplicate data found: duplicates another metacard in this request, based on attributes: {%s}.",
+              collectionToString(attributes));
+    } else if (duplicatesRequestMetacard) {
+      message =
+          String.format(
+              "Duplicate data found in catalog: {%s}, and duplicates another metacard in this request, based on attributes: {%s}.",
+              collectionToString(duplicates), collectionToString(attributes));
+    } else {
+      message =
+          String.format(
+              "Duplicate data found in catalog: {%s}, based on attributes: {%s}.",
+              collectionToString(duplicates), collectionToString(attributes));
+    }
+    return new ValidationViolationImpl(attributes, message, severity);
   }
 
   private String collectionToString(final Collection collection) {
@@ -23,7 +23,10 @@
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -44,14 +47,19 @@
 import ddf.catalog.validation.ValidationException;
 import ddf.catalog.validation.report.MetacardValidationReport;
 import ddf.catalog.validation.violation.ValidationViolation;
+import java.security.PrivilegedAction;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.codice.ddf.security.Security;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -69,6 +77,10 @@ public class DuplicationValidatorTest {
 
   @Mock private CatalogFramework mockFramework;
 
+  @Mock private Security mockSecurity;
+
+  private QueryResponse response;
+
   private DuplicationValidator validator;
 
   private MetacardImpl matchingMetacard;
@@ -87,7 +99,7 @@ public class DuplicationValidatorTest {
   public void setup()
       throws UnsupportedQueryException, SourceUnavailableException, FederationException {
 
-    QueryResponse response = mock(QueryResponse.class);
+    response = mock(QueryResponse.class);
 
     when(mockFramework.query(any(QueryRequest.class))).thenReturn(response);
 
@@ -103,7 +115,12 @@ public void setup()
     List<Result> results = Arrays.asList(new ResultImpl(matchingMetacard));
 
     when(response.getResults()).thenReturn(results);
-    validator = new DuplicationValidator(mockFramework, mockFilterBuilder);
+    validator = new DuplicationValidator(mockFramework, mockFilterBuilder, mockSecurity);
+  }
+
+  @After
+  public void tearDown() {
+    validator.destroy();
   }
 
   @Test(expected = IllegalArgumentException.class)
@@ -241,4 +258,82 @@ public void testValidateMetacardWithMultiValuedAttribute()
               assertThat(violation.getMessage(), containsString(Metacard.TAGS));
             });
   }
+
+  @Test
+  public void testValidateBatchWithSingleQuery()
+      throws FederationException, UnsupportedQueryException, SourceUnavailableException {
+    MetacardImpl uniqueMetacard = new MetacardImpl();
+    uniqueMetacard.setId("unique metacard ID");
+    uniqueMetacard.setAttribute(new AttributeImpl(Metacard.CHECKSUM, "unique-checksum"));
+    validator.setWarnOnDuplicateAttributes(new String[] {Metacard.CHECKSUM});
+
+    List<Optional<ValidationException>> results =
+        validator.validate(Arrays.asList(testMetacard, uniqueMetacard));
+
+    verify(mockFramework).query(any(QueryRequest.class));
+    assertThat(results, hasSize(2));
+    assertThat(results.get(0).isPresent(), is(true));
+    assertThat(results.get(0).get().getWarnings(), hasSize(1));
+    assertThat(results.get(0).get().getWarnings().get(0), containsString(ID));
+    assertThat(results.get(1).isPresent(), is(false));
+  }
+
+  @Test
+  public void testValidateBatchReportsDuplicatesWithinBatch() {
+    when(response.getResults()).thenReturn(Collections.emptyList());
+    MetacardImpl batchDuplicate = new MetacardImpl();
+    batchDuplicate.setId("batch duplicate ID");
+    batchDuplicate.setAttribute(new AttributeImpl(Metacard.CHECKSUM, "checksum-value"));
+    validator.setErrorOnDuplicateAttributes(new String[] {Metacard.CHECKSUM});
+
+    List<Optional<ValidationException>> results =
+        validator.validate(Arrays.asList(testMetacard, batchDuplicate));
+
+    assertThat(results.get(0).isPresent(), is(false));
+    assertThat(results.get(1).isPresent(), is(true));
+    assertThat(results.get(1).get().getErrors(), hasSize(1));
+    assertThat(results.get(1).get().getErrors().get(0), containsString("test metacard ID"));
+  }
+
+  @Test
+  public void testValidateBatchReportsDuplicatesWithinBatchWithoutIds() {
+    when(response.getResults()).thenReturn(Collections.emptyList());
+    MetacardImpl first = new MetacardImpl();
+    first.setAttribute(new AttributeImpl(Metacard.CHECKSUM, "checksum-value"));
+    MetacardImpl second = new MetacardImpl();
+    second.setAttribute(new AttributeImpl(Metacard.CHECKSUM, "checksum-value"));
+    validator.setErrorOnDuplicateAttributes(new String[] {Metacard.CHECKSUM});
+
+    List<Optional<ValidationException>> results = validator.validate(Arrays.asList(first, second));
+
+    assertThat(results.get(0).isPresent(), is(false));
+    assertThat(results.get(1).isPresent(), is(true));
+    assertThat(results.get(1).get().getErrors(), hasSize(1));
+    assertThat(
+        results.get(1).get().getErrors().get(0),
+        containsString("duplicates another metacard in this request"));
+  }
+
+  @Test
+  public void testKnownValuesFilterSkipsQueryForUnknownValues() throws Exception {
+    when(mockSecurity.runAsAdmin(any()))
+        .thenAnswer(invocation -> ((PrivilegedAction) invocation.getArgument(0)).run());
+    when(mockSecurity.runWithSubjectOrElevate(any()))
+        .thenAnswer(invocation -> ((Callable) invocation.getArgument(0)).call());
+    validator.setWarnOnDuplicateAttributes(new String[] {Metacard.CHECKSUM});
+    validator.setKnownValuesFilterEnabled(true);
+    validator.init();
+    validator.loadKnownValues().get();
+    clearInvocations(mockFramework);
+
+    MetacardImpl uniqueMetacard = new MetacardImpl();
+    uniqueMetacard.setId("unique metacard ID");
+    uniqueMetacard.setAttribute(new AttributeImpl(Metacard.CHECKSUM, "unique-checksum"));
+
+    assertThat(validator.validateMetacard(uniqueMetacard).isPresent(), is(false));
+    verify(mockFramework, never()).query(any(QueryRequest.class));
+
+    assertThat(validator.validateMetacard(testMetacard).isPresent(), is(true));
+    verify(mockFramework, times(1)).query(any(QueryRequest.class));
+  }
 }
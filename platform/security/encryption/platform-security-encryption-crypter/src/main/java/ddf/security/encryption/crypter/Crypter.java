@@ -33,6 +33,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
@@ -285,6 +286,27 @@ public InputStream decrypt(InputStream encryptedInputStream) throws CrypterExcep
     }
   }
 
+  /**
+   * Decrypts an encrypted channel using Tink. The returned channel can be positioned anywhere in
+   * the plain data and only decrypts the ciphertext segments covering the bytes that are read.
+   *
+   * @param encryptedChannel The channel to decrypt, positioned at the start of the ciphertext.
+   */
+  public SeekableByteChannel decrypt(SeekableByteChannel encryptedChannel) throws CrypterException {
+    if (associatedData == null) {
+      throw new CrypterException(NULL_DATA_MSG);
+    }
+    if (encryptedChannel == null) {
+      throw new CrypterException("Encrypted channel cannot be null.");
+    }
+
+    try {
+      return streamingAead.newSeekableDecryptingChannel(encryptedChannel, associatedData);
+    } catch (GeneralSecurityException | IOException e) {
+      throw new CrypterException(DECRYPTION_PROBLEM_MSG, e);
+    }
+  }
+
   private int getAvailableBytesLessThanChunkSize(InputStream inputStream) throws IOException {
     int available = inputStream.available();
     return available > CHUNK_SIZE ? CHUNK_SIZE : available;
@@ -22,10 +22,15 @@
 import ddf.security.SecurityConstants;
 import ddf.security.encryption.crypter.Crypter.CrypterException;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -51,6 +56,33 @@ public void cleanUp() throws Exception {
     System.clearProperty(SecurityConstants.ASSOCIATED_DATA_PATH);
   }
 
+  @Test
+  public void testSeekableDecryptChannel() throws Exception {
+    // span several 4KB ciphertext segments
+    final byte[] plainBytes = new byte[4096 * 3 + 100];
+    new SecureRandom().nextBytes(plainBytes);
+    final Crypter crypter = new Crypter();
+
+    final byte[] encryptedBytes =
+        ByteStreams.toByteArray(crypter.encrypt(new ByteArrayInputStream(plainBytes)));
+    final File encryptedFile = temporaryFolder.newFile();
+    Files.write(encryptedFile.toPath(), encryptedBytes);
+
+    try (SeekableByteChannel decryptedChannel =
+        crypter.decrypt(Files.newByteChannel(encryptedFile.toPath()))) {
+      assertEquals(plainBytes.length, decryptedChannel.size());
+
+      final int offset = 4096 * 2 + 10;
+      final ByteBuffer buffer = ByteBuffer.allocate(500);
+      decryptedChannel.position(offset);
+      while (buffer.hasRemaining() && decryptedChannel.read(buffer) > 0) {
+        // keep reading until the buffer is full
+      }
+
+      assertArrayEquals(Arrays.copyOfRange(plainBytes, offset, offset + 500), buffer.array());
+    }
+  }
+
   @Test(expected = CrypterException.class)
   public void testBadSetup() throws Exception {
     try (OutputStream badKeysetOutputStream =